@@ -0,0 +1,66 @@
+package liquibase.benchmark;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded in-memory HSQLDB databases and working directories for the benchmarks.
+ */
+public class BenchmarkDatabase {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Opens a new, empty in-memory database.
+     */
+    public static Database open() throws SQLException, DatabaseException {
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:benchmark" + counter.incrementAndGet(), "SA", "");
+        return DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+    }
+
+    /**
+     * Shuts the in-memory database down so its memory is released. This also closes the connection.
+     */
+    public static void close(Database database) throws SQLException, DatabaseException {
+        if (database == null) {
+            return;
+        }
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        try {
+            statement.execute("SHUTDOWN");
+        } finally {
+            statement.close();
+        }
+    }
+
+    public static File createDirectory() throws IOException {
+        File directory = File.createTempFile("liquibase-benchmark", "");
+        if (!directory.delete() || !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory.getAbsolutePath());
+        }
+        return directory;
+    }
+
+    public static void deleteDirectory(File directory) {
+        if (directory == null) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
@@ -0,0 +1,41 @@
+package liquibase.benchmark;
+
+import liquibase.util.LiquibaseUtil;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks and writes the results as JSON to benchmark-results/liquibase-[version].json, so runs of different versions can be compared.
+ * Accepts the standard JMH command line options, which override these defaults. For example, to only run the smallest changelogs:
+ * <pre>java -jar target/liquibase-benchmarks.jar -p changeSetCount=1000</pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            File resultFile = new File("benchmark-results", "liquibase-" + LiquibaseUtil.getBuildVersion() + ".json");
+            resultFile.getParentFile().mkdirs();
+            options.result(resultFile.getPath());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package liquibase.benchmark;
+
+import liquibase.Contexts;
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.changelog.filter.DbmsChangeSetFilter;
+import liquibase.changelog.filter.NotRanChangeSetFilter;
+import liquibase.changelog.visitor.ListVisitor;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changelog parsing, change set checksums and change set filtering, without a database connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dliquibase.defaultlogger.level=severe")
+public class ChangeLogBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int changeSetCount;
+
+    private File directory;
+    private String changeLogFile;
+    private ResourceAccessor resourceAccessor;
+    private Database database;
+    private DatabaseChangeLog changeLog;
+    private List<RanChangeSet> ranChangeSets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.createDirectory();
+        changeLogFile = SyntheticChangeLog.write(directory, changeSetCount);
+        resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+        database = new HsqlDatabase();
+        changeLog = parse();
+
+        //all but the last tenth of the change sets already ran
+        ranChangeSets = new ArrayList<RanChangeSet>();
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        for (ChangeSet changeSet : changeSets.subList(0, changeSets.size() - changeSets.size() / 10)) {
+            ranChangeSets.add(new RanChangeSet(changeSet));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public DatabaseChangeLog parse() throws Exception {
+        return ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, new ChangeLogParameters(database), resourceAccessor);
+    }
+
+    @Benchmark
+    public void checkSums(Blackhole blackhole) {
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            changeSet.clearCheckSum();
+            blackhole.consume(changeSet.generateCheckSum());
+        }
+    }
+
+    /**
+     * Finds the change sets an update would run, as {@link liquibase.Liquibase#listUnrunChangeSets(Contexts)} does.
+     */
+    @Benchmark
+    public List<ChangeSet> filter() throws Exception {
+        ListVisitor visitor = new ListVisitor();
+        new ChangeLogIterator(changeLog,
+                new NotRanChangeSetFilter(ranChangeSets),
+                new ContextChangeSetFilter(new Contexts(SyntheticChangeLog.CONTEXTS)),
+                new DbmsChangeSetFilter(database)).run(visitor, database);
+        return visitor.getSeenChangeSets();
+    }
+}
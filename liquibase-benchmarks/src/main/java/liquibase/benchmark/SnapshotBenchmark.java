@@ -0,0 +1,75 @@
+package liquibase.benchmark;
+
+import liquibase.CatalogAndSchema;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshots of an embedded database built from the synthetic changelog, and a diff against a database with only half of the change sets applied.
+ * Every ten change sets create one table, so these run with smaller changelogs than the other benchmarks by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dliquibase.defaultlogger.level=severe")
+public class SnapshotBenchmark {
+
+    @Param({"1000", "10000"})
+    public int changeSetCount;
+
+    private File directory;
+    private Database referenceDatabase;
+    private Database comparisonDatabase;
+    private DatabaseSnapshot referenceSnapshot;
+    private DatabaseSnapshot comparisonSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.createDirectory();
+        String changeLogFile = SyntheticChangeLog.write(directory, changeSetCount);
+
+        referenceDatabase = BenchmarkDatabase.open();
+        new Liquibase(changeLogFile, new FileSystemResourceAccessor(directory.getAbsolutePath()), referenceDatabase).update(new Contexts(SyntheticChangeLog.CONTEXTS));
+
+        comparisonDatabase = BenchmarkDatabase.open();
+        new Liquibase(changeLogFile, new FileSystemResourceAccessor(directory.getAbsolutePath()), comparisonDatabase).update(changeSetCount / 2, new Contexts(SyntheticChangeLog.CONTEXTS));
+
+        referenceSnapshot = snapshot(referenceDatabase);
+        comparisonSnapshot = snapshot(comparisonDatabase);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.close(referenceDatabase);
+        BenchmarkDatabase.close(comparisonDatabase);
+        BenchmarkDatabase.deleteDirectory(directory);
+    }
+
+    private DatabaseSnapshot snapshot(Database database) throws Exception {
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), database, new SnapshotControl(database));
+    }
+
+    @Benchmark
+    public DatabaseSnapshot snapshot() throws Exception {
+        return snapshot(referenceDatabase);
+    }
+
+    @Benchmark
+    public DiffResult diff() throws Exception {
+        return DiffGeneratorFactory.getInstance().compare(referenceSnapshot, comparisonSnapshot, new CompareControl());
+    }
+}
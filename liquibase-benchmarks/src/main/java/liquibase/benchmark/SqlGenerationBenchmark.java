@@ -0,0 +1,63 @@
+package liquibase.benchmark;
+
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating statements and SQL for every change of a changelog, without a database connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dliquibase.defaultlogger.level=severe")
+public class SqlGenerationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int changeSetCount;
+
+    private File directory;
+    private Database database;
+    private DatabaseChangeLog changeLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.createDirectory();
+        String changeLogFile = SyntheticChangeLog.write(directory, changeSetCount);
+        ResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+        database = new HsqlDatabase();
+        changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, new ChangeLogParameters(database), resourceAccessor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void generateSql(Blackhole blackhole) {
+        SqlGeneratorFactory sqlGeneratorFactory = SqlGeneratorFactory.getInstance();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            for (Change change : changeSet.getChanges()) {
+                for (SqlStatement statement : change.generateStatements(database)) {
+                    blackhole.consume(sqlGeneratorFactory.generateSql(statement, database));
+                }
+            }
+        }
+    }
+}
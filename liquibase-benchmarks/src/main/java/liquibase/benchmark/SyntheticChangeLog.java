@@ -0,0 +1,68 @@
+package liquibase.benchmark;
+
+import java.io.*;
+
+/**
+ * Writes XML changelogs with a given number of change sets for the benchmarks.
+ * <p>
+ * Every group of ten change sets creates a table, adds three columns to it, indexes it and inserts five rows.
+ * The last change set of each group only runs in the {@value #OTHER_CONTEXT} context, so context filtering has something to skip.
+ */
+public class SyntheticChangeLog {
+
+    public static final String CONTEXTS = "bench";
+    public static final String OTHER_CONTEXT = "other";
+
+    private static final String AUTHOR = "benchmark";
+
+    /**
+     * Writes a changelog with the given number of change sets to changelog-[count].xml in the directory and returns the file name.
+     */
+    public static String write(File directory, int changeSetCount) throws IOException {
+        String fileName = "changelog-" + changeSetCount + ".xml";
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(directory, fileName)), "UTF-8"));
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<databaseChangeLog xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+            writer.write("                   xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n");
+            writer.write("                   xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd\">\n");
+            for (int i = 0; i < changeSetCount; i++) {
+                writeChangeSet(writer, i);
+            }
+            writer.write("</databaseChangeLog>\n");
+        } finally {
+            writer.close();
+        }
+        return fileName;
+    }
+
+    private static void writeChangeSet(Writer writer, int id) throws IOException {
+        int group = id / 10;
+        int step = id % 10;
+        String table = "table_" + group;
+
+        String context = step == 9 ? OTHER_CONTEXT : CONTEXTS;
+        writer.write("    <changeSet id=\"" + id + "\" author=\"" + AUTHOR + "\" context=\"" + context + "\">\n");
+        if (step == 0) {
+            writer.write("        <createTable tableName=\"" + table + "\">\n");
+            writer.write("            <column name=\"id\" type=\"int\"><constraints primaryKey=\"true\" nullable=\"false\"/></column>\n");
+            writer.write("            <column name=\"name\" type=\"varchar(255)\"/>\n");
+            writer.write("            <column name=\"created\" type=\"datetime\"/>\n");
+            writer.write("        </createTable>\n");
+        } else if (step <= 3) {
+            writer.write("        <addColumn tableName=\"" + table + "\">\n");
+            writer.write("            <column name=\"col_" + step + "\" type=\"varchar(50)\" defaultValue=\"value " + step + "\"/>\n");
+            writer.write("        </addColumn>\n");
+        } else if (step == 4) {
+            writer.write("        <createIndex tableName=\"" + table + "\" indexName=\"idx_" + table + "_name\">\n");
+            writer.write("            <column name=\"name\"/>\n");
+            writer.write("        </createIndex>\n");
+        } else {
+            writer.write("        <insert tableName=\"" + table + "\">\n");
+            writer.write("            <column name=\"id\" valueNumeric=\"" + step + "\"/>\n");
+            writer.write("            <column name=\"name\" value=\"row " + id + "\"/>\n");
+            writer.write("        </insert>\n");
+        }
+        writer.write("    </changeSet>\n");
+    }
+}
@@ -0,0 +1,85 @@
+package liquibase.benchmark;
+
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.database.Database;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update against an embedded database where every change set already ran, and updateSQL against an empty one.
+ * Each invocation reads the changelog and the DATABASECHANGELOG table like a real run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dliquibase.defaultlogger.level=severe")
+public class UpdateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int changeSetCount;
+
+    private File directory;
+    private String changeLogFile;
+    private Database updatedDatabase;
+    private Database emptyDatabase;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.createDirectory();
+        changeLogFile = SyntheticChangeLog.write(directory, changeSetCount);
+
+        updatedDatabase = BenchmarkDatabase.open();
+        createLiquibase(updatedDatabase).update(new Contexts(SyntheticChangeLog.CONTEXTS));
+
+        emptyDatabase = BenchmarkDatabase.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.close(updatedDatabase);
+        BenchmarkDatabase.close(emptyDatabase);
+        BenchmarkDatabase.deleteDirectory(directory);
+    }
+
+    /**
+     * Forgets the cached lock and DATABASECHANGELOG state so each run starts like a new process.
+     */
+    private Liquibase createLiquibase(Database database) throws Exception {
+        LockServiceFactory.getInstance().resetAll();
+        ChangeLogHistoryServiceFactory.getInstance().resetAll();
+        return new Liquibase(changeLogFile, new FileSystemResourceAccessor(directory.getAbsolutePath()), database);
+    }
+
+    @Benchmark
+    public void noOpUpdate() throws Exception {
+        createLiquibase(updatedDatabase).update(new Contexts(SyntheticChangeLog.CONTEXTS));
+    }
+
+    @Benchmark
+    public void updateSql() throws Exception {
+        createLiquibase(emptyDatabase).update(new Contexts(SyntheticChangeLog.CONTEXTS), new NullWriter());
+    }
+
+    private static class NullWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -534,7 +534,9 @@ public class Liquibase {
                     new ContextChangeSetFilter(contexts),
                     new DbmsChangeSetFilter(database));
 
-            logIterator.run(new ChangeLogSyncVisitor(database), database);
+            ChangeLogSyncVisitor syncVisitor = new ChangeLogSyncVisitor(database, ChangeLogSyncVisitor.DEFAULT_BATCH_SIZE);
+            logIterator.run(syncVisitor, database);
+            syncVisitor.flush();
         } finally {
             lockService.releaseLock();
         }
@@ -586,7 +588,9 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database),
                     new CountChangeSetFilter(1));
 
-            logIterator.run(new ChangeLogSyncVisitor(database), database);
+            ChangeLogSyncVisitor syncVisitor = new ChangeLogSyncVisitor(database, ChangeLogSyncVisitor.DEFAULT_BATCH_SIZE);
+            logIterator.run(syncVisitor, database);
+            syncVisitor.flush();
         } finally {
             lockService.releaseLock();
         }
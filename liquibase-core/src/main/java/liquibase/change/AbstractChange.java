@@ -11,10 +11,9 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.core.string.StringChangeLogSerializer;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
+import liquibase.util.BeanProperties;
 import liquibase.util.StringUtils;
 
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 
 /**
@@ -56,20 +55,13 @@ public abstract class AbstractChange implements Change {
             }
 
             Set<ChangeParameterMetaData> params = new HashSet<ChangeParameterMetaData>();
-            for (PropertyDescriptor property : Introspector.getBeanInfo(this.getClass()).getPropertyDescriptors()) {
+            for (BeanProperties.Property property : BeanProperties.forClass(this.getClass()).getProperties()) {
                 Method readMethod = property.getReadMethod();
                 Method writeMethod = property.getWriteMethod();
-                if (readMethod == null) {
-                    try {
-                        readMethod = this.getClass().getMethod("is"+ StringUtils.upperCaseFirst(property.getName()));
-                    } catch (Exception ignore) {
-                        //it was worth a try
-                    }
-                }
                 if (readMethod != null && writeMethod != null) {
                     DatabaseChangeProperty annotation = readMethod.getAnnotation(DatabaseChangeProperty.class);
                     if (annotation == null || annotation.isChangeProperty()) {
-                        params.add(createChangeParameterMetadata(property.getDisplayName()));
+                        params.add(createChangeParameterMetadata(property.getName()));
                     }
                 }
 
@@ -99,20 +91,14 @@ public abstract class AbstractChange implements Change {
             String displayName = parameterName.replaceAll("([A-Z])", " $1");
             displayName = displayName.substring(0, 1).toUpperCase() + displayName.substring(1);
 
-            PropertyDescriptor property = null;
-            for (PropertyDescriptor prop : Introspector.getBeanInfo(this.getClass()).getPropertyDescriptors()) {
-                if (prop.getDisplayName().equals(parameterName)) {
-                    property = prop;
-                    break;
-                }
-            }
+            BeanProperties.Property property = BeanProperties.forClass(this.getClass()).getProperty(parameterName);
             if (property == null) {
                 throw new UnexpectedLiquibaseException("Could not find property " + parameterName);
             }
 
             Method readMethod = property.getReadMethod();
             if (readMethod == null) {
-                readMethod = getClass().getMethod("is"+StringUtils.upperCaseFirst(property.getName()));
+                throw new UnexpectedLiquibaseException("Could not find readMethod for " + parameterName);
             }
             Type type = readMethod.getGenericReturnType();
 
@@ -2,10 +2,12 @@ package liquibase.change;
 
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
 import liquibase.exception.*;
 import liquibase.logging.LogFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.SqlStatementTokenizer;
 import liquibase.util.StringUtils;
 
 import java.io.*;
@@ -192,6 +194,7 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
      * If split statements is set to true then the SQL is split and each command is made into a separate SqlStatement.
      * <p></p>
      * If stripping comments is true then any comments are removed before the splitting is executed.
+     * The SQL is read from {@link #openSqlReader()} and split one statement at a time by {@link SqlStatementTokenizer}.
      * The set SQL is passed through the {@link java.sql.Connection#nativeSQL} method if a connection is available.
      */
     @Override
@@ -199,32 +202,62 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
 
         List<SqlStatement> returnStatements = new ArrayList<SqlStatement>();
 
-        String sql = StringUtils.trimToNull(getSql());
-        if (sql == null) {
-            return new SqlStatement[0];
-        }
+        Reader reader = null;
+        try {
+            reader = openSqlReader();
+            if (reader == null) {
+                return new SqlStatement[0];
+            }
 
-        String processedSQL = normalizeLineEndings(sql);
-        for (String statement : StringUtils.processMutliLineSQL(processedSQL, isStripComments(), isSplitStatements(), getEndDelimiter())) {
-            if (database instanceof MSSQLDatabase) {
-                 statement = statement.replaceAll("\n", "\r\n");
-             }
+            SqlStatementTokenizer tokenizer = new SqlStatementTokenizer(reader, isStripComments(), isSplitStatements(), getEndDelimiter(), database instanceof MySQLDatabase, database instanceof MySQLDatabase);
+            String statement;
+            while ((statement = tokenizer.nextStatement()) != null) {
+                if (statement.length() == 0) {
+                    continue;
+                }
+                if (database instanceof MSSQLDatabase) {
+                     statement = statement.replaceAll("\n", "\r\n");
+                 }
 
-            String escapedStatement = statement;
-            try {
-                if (database.getConnection() != null) {
-                    escapedStatement = database.getConnection().nativeSQL(statement);
+                String escapedStatement = statement;
+                try {
+                    if (database.getConnection() != null) {
+                        escapedStatement = database.getConnection().nativeSQL(statement);
+                    }
+                } catch (DatabaseException e) {
+                    escapedStatement = statement;
                 }
-            } catch (DatabaseException e) {
-				escapedStatement = statement;
-			}
 
-            returnStatements.add(new RawSqlStatement(escapedStatement, getEndDelimiter()));
+                returnStatements.add(new RawSqlStatement(escapedStatement, getEndDelimiter()));
+            }
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    LogFactory.getLogger().debug("Error closing reader", e);
+                }
+            }
         }
 
         return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
     }
 
+    /**
+     * Returns a Reader over the SQL to split into statements, with line endings normalized, or null if there is no SQL.
+     * The default implementation reads {@link #getSql()}. Subclasses can override it to stream SQL from an external source,
+     * so {@link #generateStatements(Database)} never holds more than one statement in memory.
+     */
+    protected Reader openSqlReader() throws IOException {
+        String sql = StringUtils.trimToNull(getSql());
+        if (sql == null) {
+            return null;
+        }
+        return new StringReader(normalizeLineEndings(sql));
+    }
+
     @Override
     public boolean generateStatementsVolatile(Database database) {
         return false;
@@ -5,6 +5,7 @@ import liquibase.servicelocator.ServiceLocator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory class for constructing the correct liquibase.change.Change implementation based on a command name.
@@ -18,7 +19,7 @@ public class ChangeFactory {
     private static ChangeFactory instance;
 
     private Map<String, SortedSet<Class<? extends Change>>> registry = new ConcurrentHashMap<String, SortedSet<Class<? extends Change>>>();
-    private Map<Class<? extends Change>, ChangeMetaData> metaDataByClass = new ConcurrentHashMap<Class<? extends Change>, ChangeMetaData>();
+    private ConcurrentMap<Class<? extends Change>, ChangeMetaData> metaDataByClass = new ConcurrentHashMap<Class<? extends Change>, ChangeMetaData>();
 
     private ChangeFactory() {
     }
@@ -56,34 +57,44 @@ public class ChangeFactory {
      * Register a new Change class.
      * Normally called automatically by ChangeFactory on all Change implementations found by the ServiceLocator, but it can be called manually if needed.
      */
-    public void register(Class<? extends Change> changeClass) {
+    public synchronized void register(Class<? extends Change> changeClass) {
         try {
             Change instance = changeClass.newInstance();
             ChangeMetaData metaData = getChangeMetaData(instance);
             String name = metaData.getName();
-            if (registry.get(name) == null) {
-                registry.put(name, new TreeSet<Class<? extends Change>>(new Comparator<Class<? extends Change>>() {
-                    @Override
-                    public int compare(Class<? extends Change> o1, Class<? extends Change> o2) {
-                        try {
-                            return -1 * new Integer(getChangeMetaData(o1.newInstance()).getPriority()).compareTo(getChangeMetaData(o2.newInstance()).getPriority());
-                        } catch (Exception e) {
-                            throw new UnexpectedLiquibaseException(e);
-                        }
+
+            //replace rather than modify the set so concurrent create() calls never see it change
+            SortedSet<Class<? extends Change>> classes = new TreeSet<Class<? extends Change>>(new Comparator<Class<? extends Change>>() {
+                @Override
+                public int compare(Class<? extends Change> o1, Class<? extends Change> o2) {
+                    try {
+                        return -1 * new Integer(getChangeMetaData(o1.newInstance()).getPriority()).compareTo(getChangeMetaData(o2.newInstance()).getPriority());
+                    } catch (Exception e) {
+                        throw new UnexpectedLiquibaseException(e);
                     }
-                }));
+                }
+            });
+            SortedSet<Class<? extends Change>> existing = registry.get(name);
+            if (existing != null) {
+                classes.addAll(existing);
             }
-            registry.get(name).add(changeClass);
+            classes.add(changeClass);
+            registry.put(name, Collections.unmodifiableSortedSet(classes));
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
     }
 
     public ChangeMetaData getChangeMetaData(Change change) {
-        if (!metaDataByClass.containsKey(change.getClass())) {
-            metaDataByClass.put(change.getClass(), change.createChangeMetaData());
+        ChangeMetaData metaData = metaDataByClass.get(change.getClass());
+        if (metaData == null) {
+            metaData = change.createChangeMetaData();
+            ChangeMetaData existing = metaDataByClass.putIfAbsent(change.getClass(), metaData);
+            if (existing != null) {
+                metaData = existing;
+            }
         }
-        return metaDataByClass.get(change.getClass());
+        return metaData;
     }
 
     /**
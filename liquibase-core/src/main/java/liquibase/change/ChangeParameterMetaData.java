@@ -10,10 +10,9 @@ import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SequenceNextValueFunction;
 import liquibase.statement.SqlStatement;
+import liquibase.util.BeanProperties;
 import liquibase.util.StringUtils;
 
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -226,16 +225,11 @@ public class ChangeParameterMetaData {
      */
     public Object getCurrentValue(Change change) {
         try {
-            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(change.getClass()).getPropertyDescriptors()) {
-                if (descriptor.getDisplayName().equals(this.parameterName)) {
-                    Method readMethod = descriptor.getReadMethod();
-                    if (readMethod == null) {
-                        readMethod = change.getClass().getMethod("is" + StringUtils.upperCaseFirst(descriptor.getName()));
-                    }
-                    return readMethod.invoke(change);
-                }
+            BeanProperties.Property property = BeanProperties.forClass(change.getClass()).getProperty(this.parameterName);
+            if (property == null || property.getReadMethod() == null) {
+                throw new RuntimeException("Could not find readMethod for " + this.parameterName);
             }
-            throw new RuntimeException("Could not find readMethod for " + this.parameterName);
+            return property.getValue(change);
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
@@ -260,22 +254,21 @@ public class ChangeParameterMetaData {
         }
 
         try {
-            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(change.getClass()).getPropertyDescriptors()) {
-                if (descriptor.getDisplayName().equals(this.parameterName)) {
-                    Method writeMethod = descriptor.getWriteMethod();
-                    if (writeMethod == null) {
-                        throw new UnexpectedLiquibaseException("Could not find writeMethod for " + this.parameterName);
-                    }
-                    Class<?> expectedWriteType = writeMethod.getParameterTypes()[0];
-                    if (value != null && !expectedWriteType.isAssignableFrom(value.getClass())) {
-                        if (expectedWriteType.equals(String.class)) {
-                            value = value.toString();
-                        } else {
-                            throw new UnexpectedLiquibaseException("Could not convert " + value.getClass().getName() + " to " + expectedWriteType.getName());
-                        }
+            BeanProperties.Property property = BeanProperties.forClass(change.getClass()).getProperty(this.parameterName);
+            if (property != null) {
+                Method writeMethod = property.getWriteMethod();
+                if (writeMethod == null) {
+                    throw new UnexpectedLiquibaseException("Could not find writeMethod for " + this.parameterName);
+                }
+                Class<?> expectedWriteType = writeMethod.getParameterTypes()[0];
+                if (value != null && !expectedWriteType.isAssignableFrom(value.getClass())) {
+                    if (expectedWriteType.equals(String.class)) {
+                        value = value.toString();
+                    } else {
+                        throw new UnexpectedLiquibaseException("Could not convert " + value.getClass().getName() + " to " + expectedWriteType.getName());
                     }
-                    writeMethod.invoke(change, value);
                 }
+                property.setValue(change, value);
             }
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException("Error setting " + this.parameterName + " to " + value, e);
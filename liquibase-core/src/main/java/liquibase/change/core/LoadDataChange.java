@@ -3,19 +3,25 @@ package liquibase.change.core;
 import liquibase.change.*;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
+import liquibase.resource.ResourceChecksumCache;
 import liquibase.resource.UtfBomAwareReader;
+import liquibase.statement.LoadDataExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Column;
 import liquibase.util.StringUtils;
 import liquibase.util.csv.CSVReader;
 
 import java.io.*;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +45,8 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
     private String encoding = null;
     private String separator = liquibase.util.csv.opencsv.CSVReader.DEFAULT_SEPARATOR + "";
 	private String quotchar = liquibase.util.csv.opencsv.CSVReader.DEFAULT_QUOTE_CHARACTER + "";
+    private Integer batchSize;
+    private Integer commitInterval;
 
 
     private List<LoadDataColumnConfig> columns = new ArrayList<LoadDataColumnConfig>();
@@ -112,6 +120,24 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 		this.quotchar = quotchar;
 	}
 
+    @DatabaseChangeProperty(description = "Number of rows to send to the database in each JDBC batch. If set, the file is read row by row while it is loaded rather than being converted to one INSERT statement per row up front", since = "3.2")
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @DatabaseChangeProperty(description = "Commit after every given number of rows. Only used together with batchSize. Rows committed before a failure are not rolled back", since = "3.2")
+    public Integer getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(Integer commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
 	@Override
     public void addColumn(LoadDataColumnConfig column) {
       	columns.add(column);
@@ -130,6 +156,95 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        if (shouldStreamRows(database)) {
+            return new SqlStatement[] {
+                    new LoadDataExecutablePreparedStatement(database, this)
+            };
+        }
+
+        SqlStatement[] rowStatements = generateRowStatements(database);
+        if (shouldGroupRows(database)) {
+            return groupRowStatements(rowStatements);
+        }
+        return rowStatements;
+    }
+
+    /**
+     * Returns true if rows should be combined into {@link InsertSetStatement}s so the generated SQL can use multi-row inserts.
+     * Only done when the SQL is written out rather than executed, such as with updateSQL, and when there is no modifySql to apply to each row.
+     */
+    protected boolean shouldGroupRows(Database database) {
+        if (ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            return false;
+        }
+        if (getChangeSet() != null && getChangeSet().getSqlVisitors() != null && getChangeSet().getSqlVisitors().size() > 0) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Combines consecutive plain InsertStatements for the same columns into InsertSetStatements. Other statements are returned unchanged.
+     */
+    protected SqlStatement[] groupRowStatements(SqlStatement[] rowStatements) {
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        InsertSetStatement insertSet = null;
+        for (SqlStatement statement : rowStatements) {
+            if (statement instanceof InsertStatement && insertSet != null && insertSet.canAdd((InsertStatement) statement)) {
+                insertSet.addInsertStatement((InsertStatement) statement);
+                continue;
+            }
+            addInsertSet(statements, insertSet);
+            insertSet = null;
+
+            InsertSetStatement newSet = new InsertSetStatement(getCatalogName(), getSchemaName(), getTableName(), getBatchSize());
+            if (statement instanceof InsertStatement && newSet.canAdd((InsertStatement) statement)) {
+                insertSet = newSet.addInsertStatement((InsertStatement) statement);
+            } else {
+                statements.add(statement);
+            }
+        }
+        addInsertSet(statements, insertSet);
+
+        return statements.toArray(new SqlStatement[statements.size()]);
+    }
+
+    private void addInsertSet(List<SqlStatement> statements, InsertSetStatement insertSet) {
+        if (insertSet == null) {
+            return;
+        }
+        if (insertSet.getStatements().size() == 1) {
+            statements.add(insertSet.getStatements().get(0));
+        } else {
+            statements.add(insertSet);
+        }
+    }
+
+    /**
+     * Returns true if rows should be read and executed in batches by a {@link LoadDataExecutablePreparedStatement} instead of being converted to
+     * individual statements up front. Requires batchSize to be set and an executor that actually updates a JDBC database.
+     * SQL generating executors such as updateSQL and changeSets with modifySql always get one statement per row.
+     */
+    protected boolean shouldStreamRows(Database database) {
+        if (getBatchSize() == null || getBatchSize() < 1) {
+            return false;
+        }
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return false;
+        }
+        if (!ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            return false;
+        }
+        if (getChangeSet() != null && getChangeSet().getSqlVisitors() != null && getChangeSet().getSqlVisitors().size() > 0) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the whole file and returns one statement per data row.
+     */
+    public SqlStatement[] generateRowStatements(Database database) {
         CSVReader reader = null;
         try {
             reader = getCSVReader();
@@ -146,60 +261,10 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
 
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
-                    continue; //nothing on this line
-                }
-                InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-                for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    if( i >= line.length ) {
-                      throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
-                    }
-
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
-                                valueConfig.setValueComputed(function);
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-                    if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
-                        columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
+                InsertStatement insertStatement = createRowStatement(headers, line, lineNumber, database);
+                if (insertStatement != null) {
+                    statements.add(insertStatement);
                 }
-                statements.add(insertStatement);
             }
 
             return statements.toArray(new SqlStatement[statements.size()]);
@@ -224,11 +289,129 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 		}
     }
 
+    /**
+     * Converts a single line of the data file into the statement that loads it. Returns null if the line is empty.
+     */
+    public InsertStatement createRowStatement(String[] headers, String[] line, int lineNumber, Database database) {
+        if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
+            return null; //nothing on this line
+        }
+        InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+        for (int i=0; i<headers.length; i++) {
+            String columnName = null;
+            if( i >= line.length ) {
+              throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
+            }
+
+            Object value = line[i];
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            if (columnConfig != null) {
+                columnName = columnConfig.getName();
+
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                if (value.toString().equalsIgnoreCase("NULL")) {
+                    value = "NULL";
+                } else if (columnConfig.getType() != null) {
+                    ColumnConfig valueConfig = new ColumnConfig();
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        valueConfig.setValueNumeric(value.toString());
+                    } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
+                        valueConfig.setValueDate(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        valueConfig.setValue(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
+                        valueConfig.setValueComputed(function);
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
+                    }
+                    value = valueConfig.getValueObject();
+                }
+            }
+
+            if (columnName == null) {
+                columnName = headers[i];
+            }
+
+            if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
+                columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+            }
+
+
+            insertStatement.addColumnValue(columnName, value);
+        }
+        return insertStatement;
+    }
+
+    /**
+     * Returns true if every column in the file has a loadData type that maps to a JDBC parameter type, so values can be bound to a PreparedStatement
+     * without changing how the database interprets them. Untyped and COMPUTED columns are inlined into the SQL instead.
+     */
+    public boolean canBindValues(String[] headers) {
+        for (int i=0; i<headers.length; i++) {
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            if (columnConfig == null || columnConfig.getType() == null) {
+                return false;
+            }
+            String type = columnConfig.getType().toLowerCase();
+            if (!(type.equals("skip") || type.equals("boolean") || type.equals("numeric") || type.equals("string") || type.contains("date") || type.contains("time"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the java.sql.Types of the values {@link #createRowStatement} creates for the given headers, in order, so NULLs can be bound with the
+     * declared column type. Columns without a loadData type that maps to a JDBC type are returned as VARCHAR.
+     */
+    public int[] getParameterTypes(String[] headers) {
+        List<Integer> types = new ArrayList<Integer>();
+        for (int i=0; i<headers.length; i++) {
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            String type = columnConfig == null || columnConfig.getType() == null ? "string" : columnConfig.getType().toLowerCase();
+            if (type.equals("skip")) {
+                continue;
+            }
+            if (type.equals("boolean")) {
+                types.add(Types.BOOLEAN);
+            } else if (type.equals("numeric")) {
+                types.add(Types.NUMERIC);
+            } else if (type.contains("timestamp") || type.contains("datetime")) {
+                types.add(Types.TIMESTAMP);
+            } else if (type.contains("date")) {
+                types.add(Types.DATE);
+            } else if (type.contains("time")) {
+                types.add(Types.TIME);
+            } else {
+                types.add(Types.VARCHAR);
+            }
+        }
+        int[] result = new int[types.size()];
+        for (int i=0; i<result.length; i++) {
+            result[i] = types.get(i);
+        }
+        return result;
+    }
+
     @Override
     public boolean generateStatementsVolatile(Database database) {
         return false;
     }
 
+    /**
+     * Opens a new reader over the data file. Callers are responsible for closing it.
+     */
+    public CSVReader openCSVReader() throws IOException {
+        return getCSVReader();
+    }
+
     protected CSVReader getCSVReader() throws IOException {
         ResourceAccessor opener = getResourceAccessor();
         if (opener == null) {
@@ -282,8 +465,25 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         return "Data loaded from "+getFile()+" into "+getTableName();
     }
 
+    /**
+     * Returns the checksum of the data file. The file is only read if {@link ResourceChecksumCache} has no checksum for its current fingerprint.
+     * Like the comments, batchSize and commitInterval only tune how the rows are sent and are not part of the checksum.
+     */
     @Override
     public CheckSum generateCheckSum() {
+        try {
+            return ResourceChecksumCache.getInstance().getCheckSum(getResourceAccessor(), getFile(), "loadData", new ResourceChecksumCache.CheckSumGenerator() {
+                @Override
+                public CheckSum generate() throws IOException {
+                    return computeCheckSum();
+                }
+            });
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    protected CheckSum computeCheckSum() {
         InputStream stream = null;
         try {
             stream = getResourceAccessor().getResourceAsStream(getFile());
@@ -46,7 +46,7 @@ public class LoadUpdateDataChange extends LoadDataChange {
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
-        SqlStatement[] forward = this.generateStatements(database);
+        SqlStatement[] forward = this.generateRowStatements(database);
 
         for(SqlStatement thisForward: forward){
             InsertOrUpdateStatement thisInsert = (InsertOrUpdateStatement)thisForward;
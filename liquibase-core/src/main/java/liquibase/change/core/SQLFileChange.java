@@ -1,7 +1,9 @@
 package liquibase.change.core;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 
 import liquibase.change.*;
 import liquibase.changelog.ChangeLogParameters;
@@ -9,6 +11,7 @@ import liquibase.database.Database;
 import liquibase.exception.SetupException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceChecksumCache;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
@@ -99,6 +102,47 @@ public class SQLFileChange extends AbstractSQLChange {
         }
     }
 
+    /**
+     * Returns the checksum of the SQL file. The file is only read if {@link ResourceChecksumCache} has no checksum for its current fingerprint.
+     */
+    @Override
+    public CheckSum generateCheckSum() {
+        if (path == null || super.getSql() != null || (isRelativeToChangelogFile() != null && isRelativeToChangelogFile() && getChangeSet() == null)) {
+            return super.generateCheckSum();
+        }
+
+        String variant = "sqlFile|" + getEndDelimiter() + "|" + isSplitStatements() + "|" + isStripComments();
+        try {
+            return ResourceChecksumCache.getInstance().getCheckSum(getResourceAccessor(), StreamUtil.resolvePath(path, isRelativeToChangelogFile(), getChangeSet()), variant, new ResourceChecksumCache.CheckSumGenerator() {
+                @Override
+                public CheckSum generate() throws IOException {
+                    return SQLFileChange.super.generateCheckSum();
+                }
+            });
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Streams the SQL file instead of reading it into one String, expanding changelog parameters line by line.
+     */
+    @Override
+    protected Reader openSqlReader() throws IOException {
+        if (super.getSql() != null) {
+            return super.openSqlReader();
+        }
+        InputStream sqlStream = openSqlStream();
+        if (sqlStream == null) {
+            return null;
+        }
+        ChangeLogParameters parameters = null;
+        if (getChangeSet() != null) {
+            parameters = getChangeSet().getChangeLogParameters();
+        }
+        return new ExpandingLineReader(StreamUtil.openReader(sqlStream, encoding), parameters);
+    }
+
     @Override
     public ValidationErrors validate(Database database) {
         ValidationErrors validationErrors = new ValidationErrors();
@@ -152,4 +196,60 @@ public class SQLFileChange extends AbstractSQLChange {
     public String getSerializedObjectNamespace() {
         return STANDARD_CHANGELOG_NAMESPACE;
     }
+
+    /**
+     * Reads lines with changelog parameters expanded and "\n" line endings.
+     */
+    private static class ExpandingLineReader extends Reader {
+        private final BufferedReader reader;
+        private final ChangeLogParameters parameters;
+        private String line;
+        private int position;
+
+        private ExpandingLineReader(Reader reader, ChangeLogParameters parameters) {
+            this.reader = new BufferedReader(reader);
+            this.parameters = parameters;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (line == null || position >= line.length()) {
+                String nextLine = reader.readLine();
+                if (nextLine == null) {
+                    return -1;
+                }
+                if (parameters != null) {
+                    nextLine = parameters.expandExpressions(readUntilExpressionsClosed(nextLine));
+                }
+                line = nextLine + "\n";
+                position = 0;
+            }
+            int read = Math.min(length, line.length() - position);
+            line.getChars(position, position + read, buffer, offset);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Appends the following lines while the text has a "${" without a closing "}", so expressions spanning lines are expanded as a whole.
+         */
+        private String readUntilExpressionsClosed(String text) throws IOException {
+            while (text.lastIndexOf("${") > text.lastIndexOf('}')) {
+                String nextLine = reader.readLine();
+                if (nextLine == null) {
+                    return text;
+                }
+                text = text + "\n" + nextLine;
+            }
+            return text;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
 }
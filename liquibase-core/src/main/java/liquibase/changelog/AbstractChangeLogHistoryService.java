@@ -20,6 +20,8 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     private Database database;
 
+    private RanChangeSetIndex ranChangeSetIndex;
+
     public Database getDatabase() {
         return database;
     }
@@ -31,7 +33,7 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     @Override
     public void reset() {
-
+        ranChangeSetIndex = null;
     }
 
     public ChangeSet.RunStatus getRunStatus(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
@@ -78,12 +80,19 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     @Override
     public RanChangeSet getRanChangeSet(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
-        for (RanChangeSet ranChange : getRanChangeSets()) {
-            if (ranChange.isSameAs(changeSet)) {
-                return ranChange;
-            }
+        return getRanChangeSetIndex().find(changeSet);
+    }
+
+    /**
+     * Returns an index over {@link #getRanChangeSets()}. The index is rebuilt whenever getRanChangeSets() returns a different list instance
+     * or the list has changed size since the index was built.
+     */
+    protected RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        List<RanChangeSet> ranChangeSets = getRanChangeSets();
+        if (ranChangeSetIndex == null || !ranChangeSetIndex.isIndexOf(ranChangeSets)) {
+            ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
         }
-        return null;
+        return ranChangeSetIndex;
     }
 
     @Override
@@ -96,6 +105,17 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
         }
     }
 
+    /**
+     * Marks all the given changeSets with the given execType, in order. Implementations may write them in fewer round trips and a single
+     * transaction, so callers should prefer this over repeated {@link #setExecType(ChangeSet, ChangeSet.ExecType)} calls for bulk updates.
+     * The default implementation simply calls setExecType for each changeSet.
+     */
+    public void setExecType(List<ChangeSet> changeSets, ChangeSet.ExecType execType) throws DatabaseException {
+        for (ChangeSet changeSet : changeSets) {
+            setExecType(changeSet, execType);
+        }
+    }
+
     protected abstract void replaceChecksum(ChangeSet changeSet) throws DatabaseException;
 
 
@@ -4,8 +4,14 @@ import liquibase.changelog.filter.*;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.LockException;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.lockservice.StandardLockService;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.precondition.PreconditionEvaluationContext;
+import liquibase.resource.ResourceChecksumCache;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,6 +48,7 @@ public class ChangeLogIterator {
     public void run(ChangeSetVisitor visitor, Database database) throws LiquibaseException {
       Logger log = LogFactory.getLogger();
       log.setChangeLog(databaseChangeLog);
+        boolean startedPreconditionContext = PreconditionEvaluationContext.begin(database);
         try {
             List<ChangeSet> changeSetList = databaseChangeLog.getChangeSets();
             if (visitor.getDirection().equals(ChangeSetVisitor.Direction.REVERSE)) {
@@ -60,6 +67,7 @@ public class ChangeLogIterator {
                 }
 
                 if (shouldVisit) {
+                    checkLease(database);
                     log.setChangeSet(changeSet);
                     visitor.visit(changeSet, databaseChangeLog, database);
                     log.setChangeSet(null);
@@ -67,6 +75,23 @@ public class ChangeLogIterator {
             }
         } finally {
             log.setChangeLog(null);
+            if (startedPreconditionContext) {
+                PreconditionEvaluationContext.end(database);
+            }
+            ResourceChecksumCache.getInstance().flush();
+        }
+    }
+
+    /**
+     * Stops the run if the lease on the changelog lock was taken over by another process while changeSets were being run.
+     */
+    private void checkLease(Database database) throws LockException {
+        if (database == null) {
+            return;
+        }
+        LockService lockService = LockServiceFactory.getInstance().getLockService(database);
+        if (lockService instanceof StandardLockService) {
+            ((StandardLockService) lockService).checkLease();
         }
     }
 
@@ -3,16 +3,18 @@ package liquibase.changelog;
 import static liquibase.Liquibase.ENABLE_CHANGELOG_PROP_ESCAPING;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 import liquibase.Contexts;
 import liquibase.database.Database;
 import liquibase.database.DatabaseList;
 import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
 import liquibase.util.StringUtils;
 
 public class ChangeLogParameters {
@@ -29,6 +31,13 @@ public class ChangeLogParameters {
     private Database currentDatabase;
     private Contexts currentContexts;
 
+    /**
+     * First valid parameter for each lower-cased key, built lazily for the current contexts and database.
+     * Cleared whenever a parameter is added or the contexts change.
+     * Volatile and immutable once built so threads parsing included changelogs in parallel can share it.
+     */
+    private volatile ParameterIndex parameterIndex;
+
     public ChangeLogParameters() {
         this(null);
     }
@@ -84,6 +93,7 @@ public class ChangeLogParameters {
 
     public void setContexts(Contexts contexts) {
         this.currentContexts = contexts;
+        this.parameterIndex = null;
     }
 
     public Contexts getContexts() {
@@ -92,6 +102,7 @@ public class ChangeLogParameters {
 
     public void set(String paramter, Object value) {
         changeLogParameters.add(new ChangeLogParameter(paramter, value));
+        this.parameterIndex = null;
     }
 
     public void set(String key, String value, String contexts, String databases) {
@@ -99,6 +110,7 @@ public class ChangeLogParameters {
     }
     public void set(String key, String value, Contexts contexts, String databases) {
         changeLogParameters.add(new ChangeLogParameter(key, value, contexts, databases));
+        this.parameterIndex = null;
     }
 
     /**
@@ -114,12 +126,31 @@ public class ChangeLogParameters {
     }
 
     private ChangeLogParameter findParameter(String key) {
+        if (key == null) {
+            return null;
+        }
+        return getParameterIndex().get(key.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns the index of valid parameters, rebuilding it if parameters were added or the contexts were modified since it was built.
+     * Parameters are checked in the order they were set, so the first valid definition of a key wins as it always has.
+     */
+    private Map<String, ChangeLogParameter> getParameterIndex() {
+        ParameterIndex index = this.parameterIndex;
+        if (index != null && (currentContexts == null ? index.contexts == null : currentContexts.equals(index.contexts))) {
+            return index.parameters;
+        }
+
+        Map<String, ChangeLogParameter> parameters = new HashMap<String, ChangeLogParameter>(changeLogParameters.size() * 2);
         for (ChangeLogParameter param : changeLogParameters) {
-            if (param.getKey().equalsIgnoreCase(key) && param.isValid()) {
-                return param;
+            String key = param.getKey().toLowerCase(Locale.ENGLISH);
+            if (!parameters.containsKey(key) && param.isValid()) {
+                parameters.put(key, param);
             }
         }
-        return null;
+        this.parameterIndex = new ParameterIndex(parameters, currentContexts == null ? null : new Contexts(currentContexts));
+        return parameters;
     }
 
     public boolean hasValue(String key) {
@@ -130,6 +161,16 @@ public class ChangeLogParameters {
         return expressionExpander.expandExpressions(string);
     }
 
+    private static class ParameterIndex {
+        private final Map<String, ChangeLogParameter> parameters;
+        private final Contexts contexts;
+
+        private ParameterIndex(Map<String, ChangeLogParameter> parameters, Contexts contexts) {
+            this.parameters = parameters;
+            this.contexts = contexts;
+        }
+    }
+
     private class ChangeLogParameter {
         private String key;
         private Object value;
@@ -198,10 +239,15 @@ public class ChangeLogParameters {
         }
     }
 
+    /**
+     * Replaces ${name} expressions with the matching parameter value in a single left-to-right pass.
+     * Parameter values that contain ${...} are expanded the same way before they are inserted, so nested parameters work.
+     * Text without any "${" is returned as-is. Expressions with no matching parameter, or whose value refers back to itself, are left untouched,
+     * and if escaping is enabled ${:name} is replaced with the literal ${name}.
+     */
     protected static class ExpressionExpander {
     	private boolean enableEscaping;
         private ChangeLogParameters changeLogParameters;
-        private static final Pattern EXPRESSION_PATTERN = Pattern.compile("(\\$\\{[^\\}]+\\})");
 
         public ExpressionExpander(ChangeLogParameters changeLogParameters) {
             this(changeLogParameters, false);
@@ -213,30 +259,83 @@ public class ChangeLogParameters {
         }
 
         public String expandExpressions(String text) {
+            return expandExpressions(text, null);
+        }
+
+        /**
+         * @param expanding lower-cased keys of the parameters whose values are being expanded, used to stop on cycles
+         */
+        private String expandExpressions(String text, Set<String> expanding) {
             if (text == null) {
                 return null;
             }
-            Matcher matcher = EXPRESSION_PATTERN.matcher(text);
-            String originalText = text;
-            while (matcher.find()) {
-                String expressionString = originalText.substring(matcher.start(), matcher.end());
-                String valueTolookup = expressionString.replaceFirst("\\$\\{", "").replaceFirst("\\}$", "");
-
-                Object value = enableEscaping && valueTolookup.startsWith(":") 
-                		? null 
-                		: changeLogParameters.getValue(valueTolookup);
-
-                if (value != null) {
-                    text = text.replace(expressionString, value.toString());
+            int start = text.indexOf("${");
+            if (start < 0) {
+                return text;
+            }
+
+            StringBuilder result = null;
+            int copiedTo = 0;
+            while (start >= 0) {
+                int end = text.indexOf('}', start + 2);
+                if (end < 0) {
+                    break;
+                }
+                if (end == start + 2) { //empty ${}, try again from the next character
+                    start = text.indexOf("${", start + 1);
+                    continue;
+                }
+
+                String replacement = null;
+                if (enableEscaping && text.charAt(start + 2) == ':') {
+                    if (end > start + 3) {
+                        replacement = "${" + text.substring(start + 3, end) + "}";
+                    }
+                } else {
+                    String key = text.substring(start + 2, end);
+                    Object value = changeLogParameters.getValue(key);
+                    if (value != null) {
+                        replacement = expandValue(key, value.toString(), expanding);
+                    }
+                }
+
+                if (replacement != null) {
+                    if (result == null) {
+                        result = new StringBuilder(text.length() + 16);
+                    }
+                    result.append(text, copiedTo, start).append(replacement);
+                    copiedTo = end + 1;
                 }
+                start = text.indexOf("${", end + 1);
             }
-            
-            // replace all escaped expressions with its literal
-            if (enableEscaping) {
-            	text = text.replaceAll("\\$\\{:(.+?)}", "\\$\\{$1}");
+
+            if (result == null) {
+                return text;
+            }
+            result.append(text, copiedTo, text.length());
+            return result.toString();
+        }
+
+        /**
+         * Expands the expressions in a parameter value. Returns null if the parameter is already being expanded.
+         */
+        private String expandValue(String key, String value, Set<String> expanding) {
+            if (value.indexOf("${") < 0) {
+                return value;
+            }
+            if (expanding == null) {
+                expanding = new HashSet<String>();
+            }
+            String lowerKey = key.toLowerCase(Locale.ENGLISH);
+            if (!expanding.add(lowerKey)) {
+                LogFactory.getLogger().warning("Changelog parameter '" + key + "' refers to itself, not expanding it");
+                return null;
+            }
+            try {
+                return expandExpressions(value, expanding);
+            } finally {
+                expanding.remove(lowerKey);
             }
-            
-            return text;
         }
     }
 }
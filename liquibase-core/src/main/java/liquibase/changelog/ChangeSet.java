@@ -17,15 +17,19 @@ import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.precondition.Conditional;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.precondition.core.ErrorPrecondition;
 import liquibase.precondition.core.FailedPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
+import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
@@ -166,6 +170,17 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
 
     private DatabaseChangeLog changeLog;
 
+    /**
+     * True once {@link #freezeCheckSum()} has been called and the checksum may be reused.
+     */
+    private volatile boolean checkSumFrozen = false;
+
+    /**
+     * Checksum computed by the last call to {@link #generateCheckSum()} after the changes were frozen.
+     * Reused while the field values of the changes and sqlVisitors and the changelog parameters are unchanged, or until {@link #clearCheckSum()} is called.
+     */
+    private volatile CachedCheckSum cachedCheckSum;
+
     public boolean shouldAlwaysRun() {
         return alwaysRun;
     }
@@ -212,7 +227,127 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
         return filePath;
     }
 
+    /**
+     * Returns the checksum of this changeSet.
+     * Until {@link #freezeCheckSum()} is called the checksum is recomputed on every call, so it always reflects the current changes.
+     */
     public CheckSum generateCheckSum() {
+        if (!checkSumFrozen) {
+            return computeCheckSum();
+        }
+
+        List<Object> state = getCheckSumState();
+        CachedCheckSum cached = this.cachedCheckSum;
+        if (cached != null && state.equals(cached.state)) {
+            return cached.checkSum;
+        }
+
+        CheckSum checkSum = computeCheckSum();
+        this.cachedCheckSum = new CachedCheckSum(checkSum, state);
+        return checkSum;
+    }
+
+    /**
+     * Marks the changes of this changeSet as complete, so {@link #generateCheckSum()} computes the checksum once and reuses it
+     * until a field of a change or sqlVisitor is modified. Called once the changelog has been validated.
+     */
+    public void freezeCheckSum() {
+        this.checkSumFrozen = true;
+    }
+
+    /**
+     * Forces the next call to {@link #generateCheckSum()} to recompute the checksum.
+     */
+    public void clearCheckSum() {
+        this.cachedCheckSum = null;
+    }
+
+    /**
+     * Returns a copy of the field values of the changes and sqlVisitors, and the changelog parameters, the checksum is computed from.
+     * Reading the fields is much cheaper than serializing the changes, and catches modifications made through any setter.
+     */
+    private List<Object> getCheckSumState() {
+        List<Object> state = new ArrayList<Object>(changes.size() + sqlVisitors.size() + 1);
+        for (Change change : changes) {
+            state.add(getState(change));
+        }
+        for (SqlVisitor visitor : sqlVisitors) {
+            state.add(getState(visitor));
+        }
+        state.add(changeLogParameters);
+        return state;
+    }
+
+    /**
+     * Collections and nested serializable objects such as ColumnConfig are copied recursively. Other values are compared with equals().
+     */
+    private static Object getState(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Collection) {
+            List<Object> state = new ArrayList<Object>(((Collection) value).size());
+            for (Object item : (Collection) value) {
+                state.add(getState(item));
+            }
+            return state;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> state = new HashMap<Object, Object>();
+            for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                state.put(entry.getKey(), getState(entry.getValue()));
+            }
+            return state;
+        }
+        if (value instanceof Object[]) {
+            return getState(Arrays.asList((Object[]) value));
+        }
+        if (!(value instanceof LiquibaseSerializable) || value instanceof ChangeSet) {
+            return value;
+        }
+
+        List<Object> state = new ArrayList<Object>();
+        state.add(value.getClass());
+        for (Class type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!isStateField(field)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    state.add(getState(field.get(value)));
+                } catch (IllegalAccessException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static boolean isStateField(Field field) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+            return false;
+        }
+        Class<?> type = field.getType();
+        return !(ChangeSet.class.isAssignableFrom(type) || DatabaseChangeLog.class.isAssignableFrom(type) || ResourceAccessor.class.isAssignableFrom(type)
+                || ChangeLogParameters.class.isAssignableFrom(type) || Logger.class.isAssignableFrom(type));
+    }
+
+    /**
+     * A computed checksum together with the state it was computed from, published as one object.
+     */
+    private static class CachedCheckSum {
+        private final CheckSum checkSum;
+        private final List<Object> state;
+
+        private CachedCheckSum(CheckSum checkSum, List<Object> state) {
+            this.checkSum = checkSum;
+            this.state = state;
+        }
+    }
+
+    protected CheckSum computeCheckSum() {
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -350,6 +485,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
                             listener.willRun(change, this, changeLog, database);
                         }
                         database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        PreconditionEvaluationContext.changeExecuted(change, database);
                         log.info(change.getConfirmationMessage());
                         if (listener != null) {
                             listener.ran(change, this, changeLog, database);
@@ -429,6 +565,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
                             throw new RollbackFailedException("Error executing custom SQL [" + statement + "]", e);
                         }
                     }
+                    PreconditionEvaluationContext.changeExecuted(rollback, database);
                 }
 
             } else {
@@ -436,6 +573,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
                 for (int i = changes.size() - 1; i >= 0; i--) {
                     Change change = changes.get(i);
                     database.executeRollbackStatements(change, sqlVisitors);
+                    PreconditionEvaluationContext.changeExecuted(change, database);
                 }
             }
 
@@ -474,6 +612,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
     public void addChange(Change change) {
         changes.add(change);
         change.setChangeSet(this);
+        clearCheckSum();
     }
 
     public String getId() {
@@ -651,6 +790,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        clearCheckSum();
     }
 
     public List<SqlVisitor> getSqlVisitors() {
@@ -666,6 +806,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
      */
     public void setChangeLogParameters(ChangeLogParameters changeLogParameters) {
         this.changeLogParameters = changeLogParameters;
+        clearCheckSum();
     }
 
     public ObjectQuotingStrategy getObjectQuotingStrategy() {
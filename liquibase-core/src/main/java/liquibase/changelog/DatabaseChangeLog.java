@@ -157,6 +157,10 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         if (!validatingVisitor.validationPassed()) {
             throw new ValidationFailedException(validatingVisitor);
         }
+
+        for (ChangeSet changeSet : getChangeSets()) {
+            changeSet.freezeCheckSum();
+        }
     }
 
     public ChangeSet getChangeSet(RanChangeSet ranChangeSet) {
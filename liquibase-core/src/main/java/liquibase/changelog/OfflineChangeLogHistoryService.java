@@ -6,7 +6,9 @@ import liquibase.database.OfflineConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
 import liquibase.servicelocator.LiquibaseService;
 import liquibase.statement.core.MarkChangeSetRanStatement;
 import liquibase.statement.core.RemoveChangeSetRanStatusStatement;
@@ -21,12 +23,27 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Keeps the change log history in a CSV file with the same columns as the DATABASECHANGELOG table.
+ * <p>
+ * The file is used as an append-only journal. New changeSets are appended, and changes to existing changeSets append a full new row for the changeSet,
+ * which replaces the earlier one. A changeSet is removed by appending a row with the {@link #REMOVED_EXEC_TYPE} exec type. The rows are read once into an
+ * in-memory index that keeps the position of the first row of each changeSet, so the history reads exactly as if the file had been rewritten in place.
+ * The file is compacted back to one row per changeSet when {@link #reset()} is called, which {@link liquibase.lockservice.OfflineLockService} does when the lock
+ * is released at the end of a run, or when replaced rows outnumber the current ones and {@link #COMPACTION_THRESHOLD}. Outside of a run the file is therefore in the plain one-row-per-changeSet layout.
+ */
 @LiquibaseService(skip = true)
 public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
+    public static final String REMOVED_EXEC_TYPE = "REMOVED";
+    public static final int COMPACTION_THRESHOLD = 1000;
+
     private final File changeLogFile;
     private boolean executeAgainstDatabase = true;
     private int COLUMN_ID = 0;
@@ -42,6 +59,10 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
     private int COLUMN_LIQUIBASE = 10;
     private Integer lastChangeSetSequenceValue;
 
+    private LinkedHashMap<String, String[]> rows;
+    private int replacedRows;
+    private long indexedFileLength = -1;
+
     public OfflineChangeLogHistoryService(Database database, File changeLogFile, boolean executeAgainstDatabase) {
         setDatabase(database);
         this.executeAgainstDatabase = executeAgainstDatabase;
@@ -79,7 +100,15 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
 
     @Override
     public void reset() {
-
+        super.reset();
+        if (rows != null && replacedRows > 0 && changeLogFile.exists()) {
+            try {
+                compact();
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().warning("Could not compact changelog history file " + changeLogFile.getAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        rows = null;
     }
 
     @Override
@@ -138,17 +167,9 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
 
     @Override
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
-        FileReader reader = null;
         try {
-            reader = new FileReader(this.changeLogFile);
-            CSVReader csvReader = new CSVReader(reader);
-            String[] line = csvReader.readNext();
-            if (!line[COLUMN_ID].equals("ID")) {
-                throw new DatabaseException("Missing header in file "+this.changeLogFile.getAbsolutePath());
-            }
-
             List<RanChangeSet> returnList = new ArrayList<RanChangeSet>();
-            while ((line = csvReader.readNext()) != null) {
+            for (String[] line : getRows().values()) {
                 returnList.add(new RanChangeSet(
                         line[COLUMN_FILENAME],
                         line[COLUMN_ID],
@@ -162,6 +183,49 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
             }
 
             return returnList;
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Returns the current row of each changeSet by key, reading the file if it has not been read yet or was changed by someone else.
+     */
+    private Map<String, String[]> getRows() throws DatabaseException {
+        if (rows != null && changeLogFile.length() == indexedFileLength) {
+            return rows;
+        }
+
+        FileReader reader = null;
+        try {
+            reader = new FileReader(this.changeLogFile);
+            CSVReader csvReader = new CSVReader(reader);
+            String[] line = csvReader.readNext();
+            if (line == null || !line[COLUMN_ID].equals("ID")) {
+                throw new DatabaseException("Missing header in file "+this.changeLogFile.getAbsolutePath());
+            }
+
+            LinkedHashMap<String, String[]> readRows = new LinkedHashMap<String, String[]>();
+            int readReplacedRows = 0;
+            while ((line = csvReader.readNext()) != null) {
+                String key = getKey(line[COLUMN_ID], line[COLUMN_AUTHOR], line[COLUMN_FILENAME]);
+                if (REMOVED_EXEC_TYPE.equals(line[COLUMN_EXECTYPE])) {
+                    readReplacedRows++;
+                    if (readRows.remove(key) != null) {
+                        readReplacedRows++;
+                    }
+                } else if (readRows.put(key, line) != null) {
+                    readReplacedRows++;
+                }
+            }
+            rows = readRows;
+            replacedRows = readReplacedRows;
+            indexedFileLength = changeLogFile.length();
+            return rows;
+        } catch (DatabaseException e) {
+            throw e;
         } catch (Exception e) {
             throw new DatabaseException(e);
         } finally {
@@ -173,46 +237,74 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
         }
     }
 
-    protected void replaceChangeSet(ChangeSet changeSet, ReplaceChangeSetLogic replaceLogic) throws DatabaseException {
+    protected void replaceChangeSet(final ChangeSet changeSet, final ReplaceChangeSetLogic replaceLogic) throws DatabaseException {
+        if (changeSet == null) {
+            replaceChangeSets(replaceLogic);
+            return;
+        }
+        String key = getKey(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+        String[] line = getRows().get(key);
+        if (line == null) {
+            return;
+        }
+        String[] newLine = replaceLogic.execute(line.clone());
+        if (newLine == null) {
+            newLine = line.clone();
+            newLine[COLUMN_EXECTYPE] = REMOVED_EXEC_TYPE;
+            rows.remove(key);
+            replacedRows += 2;
+        } else {
+            rows.put(key, newLine);
+            replacedRows++;
+        }
+        appendRows(Collections.singletonList(newLine));
+    }
+
+    /**
+     * Passes every changeSet row through replaceLogic and rewrites the file. Rows it returns null for are removed.
+     */
+    private void replaceChangeSets(ReplaceChangeSetLogic replaceLogic) throws DatabaseException {
+        LinkedHashMap<String, String[]> newRows = new LinkedHashMap<String, String[]>();
+        for (Map.Entry<String, String[]> entry : getRows().entrySet()) {
+            String[] line = replaceLogic.execute(entry.getValue().clone());
+            if (line != null) {
+                newRows.put(entry.getKey(), line);
+            }
+        }
+        rows = newRows;
+        compact();
+    }
+
+    /**
+     * Rewrites the file with one row per changeSet.
+     */
+    protected void compact() throws DatabaseException {
         File oldFile = this.changeLogFile;
         File newFile = new File(oldFile.getParentFile(), oldFile.getName()+".new");
 
-        FileReader reader = null;
+        Map<String, String[]> currentRows = getRows();
         FileWriter writer = null;
 
         try {
-            reader = new FileReader(oldFile);
-            writer = new FileWriter(newFile);
-            CSVReader csvReader = new CSVReader(reader);
+            writeHeader(newFile);
+            writer = new FileWriter(newFile, true);
             CSVWriter csvWriter = new CSVWriter(writer);
-            String[] line;
-            while ((line = csvReader.readNext()) != null) {
-                if (changeSet == null || (line[COLUMN_ID].equals(changeSet.getId()) && line[COLUMN_AUTHOR].equals(changeSet.getAuthor()) && line[COLUMN_FILENAME].equals(changeSet.getFilePath()))) {
-                    line = replaceLogic.execute(line);
-                }
-                if (line != null) {
-                    csvWriter.writeNext(line);
-                }
+            for (String[] line : currentRows.values()) {
+                csvWriter.writeNext(line);
             }
 
             csvWriter.flush();
             csvWriter.close();
             writer = null;
 
-            csvReader.close();
-            reader = null;
-
-
             oldFile.delete();
             newFile.renameTo(oldFile);
+
+            replacedRows = 0;
+            indexedFileLength = oldFile.length();
         } catch (Exception e) {
             throw new DatabaseException(e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ignore) { }
-            }
             if (writer != null) {
                 try {
                     writer.flush();
@@ -222,55 +314,24 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
         }
     }
 
-    protected void appendChangeSet(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
-        File oldFile = this.changeLogFile;
-        File newFile = new File(oldFile.getParentFile(), oldFile.getName()+".new");
-
-        FileReader reader = null;
+    /**
+     * Appends the rows to the end of the file, then compacts it if enough rows have been replaced.
+     */
+    private void appendRows(List<String[]> newRows) throws DatabaseException {
         FileWriter writer = null;
-
         try {
-            reader = new FileReader(oldFile);
-            writer = new FileWriter(newFile);
-            CSVReader csvReader = new CSVReader(reader);
+            writer = new FileWriter(this.changeLogFile, true);
             CSVWriter csvWriter = new CSVWriter(writer);
-            String[] line;
-            while ((line = csvReader.readNext()) != null) {
+            for (String[] line : newRows) {
                 csvWriter.writeNext(line);
             }
-
-            String[] newLine = new String[11];
-            newLine[COLUMN_ID] = changeSet.getId();
-            newLine[COLUMN_AUTHOR] = changeSet.getAuthor();
-            newLine[COLUMN_FILENAME] =  changeSet.getFilePath();
-            newLine[COLUMN_DATEEXECUTED] = new ISODateFormat().format(new java.sql.Timestamp(new Date().getTime()));
-            newLine[COLUMN_ORDEREXECUTED] = String.valueOf(getNextSequenceValue());
-            newLine[COLUMN_EXECTYPE] = execType.value;
-            newLine[COLUMN_MD5SUM] = changeSet.generateCheckSum().toString();
-            newLine[COLUMN_DESCRIPTION] = changeSet.getDescription();
-            newLine[COLUMN_COMMENTS] = changeSet.getComments();
-            newLine[COLUMN_TAG] = "";
-            newLine[COLUMN_LIQUIBASE] = LiquibaseUtil.getBuildVersion().replaceAll("SNAPSHOT", "SNP");
-
-            csvWriter.writeNext(newLine);
-
             csvWriter.flush();
             csvWriter.close();
             writer = null;
-
-            csvReader.close();
-            reader = null;
-
-            oldFile.delete();
-            newFile.renameTo(oldFile);
+            indexedFileLength = changeLogFile.length();
         } catch (Exception e) {
             throw new DatabaseException(e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ignore) { }
-            }
             if (writer != null) {
                 try {
                     writer.flush();
@@ -278,6 +339,46 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
                 } catch (IOException ignore) {}
             }
         }
+
+        if (replacedRows > COMPACTION_THRESHOLD && replacedRows > rows.size()) {
+            compact();
+        }
+    }
+
+    protected void appendChangeSet(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        appendChangeSets(Collections.singletonList(changeSet), execType);
+    }
+
+    /**
+     * Appends a row for each changeSet.
+     */
+    protected void appendChangeSets(List<ChangeSet> changeSets, ChangeSet.ExecType execType) throws DatabaseException {
+        Map<String, String[]> currentRows = getRows();
+        List<String[]> newRows = new ArrayList<String[]>();
+        try {
+            for (ChangeSet changeSet : changeSets) {
+                String[] newLine = new String[11];
+                newLine[COLUMN_ID] = changeSet.getId();
+                newLine[COLUMN_AUTHOR] = changeSet.getAuthor();
+                newLine[COLUMN_FILENAME] =  changeSet.getFilePath();
+                newLine[COLUMN_DATEEXECUTED] = new ISODateFormat().format(new java.sql.Timestamp(new Date().getTime()));
+                newLine[COLUMN_ORDEREXECUTED] = String.valueOf(getNextSequenceValue());
+                newLine[COLUMN_EXECTYPE] = execType.value;
+                newLine[COLUMN_MD5SUM] = changeSet.generateCheckSum().toString();
+                newLine[COLUMN_DESCRIPTION] = changeSet.getDescription();
+                newLine[COLUMN_COMMENTS] = changeSet.getComments();
+                newLine[COLUMN_TAG] = "";
+                newLine[COLUMN_LIQUIBASE] = LiquibaseUtil.getBuildVersion().replaceAll("SNAPSHOT", "SNP");
+
+                if (currentRows.put(getKey(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath()), newLine) != null) {
+                    replacedRows++;
+                }
+                newRows.add(newLine);
+            }
+        } catch (LiquibaseException e) {
+            throw new DatabaseException(e);
+        }
+        appendRows(newRows);
     }
 
     @Override
@@ -304,6 +405,50 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
         }
     }
 
+    /**
+     * Marks the changeSets with a single rewrite of the history file instead of one per changeSet.
+     */
+    @Override
+    public void setExecType(List<ChangeSet> changeSets, final ChangeSet.ExecType execType) throws DatabaseException {
+        if (changeSets.isEmpty()) {
+            return;
+        }
+        if (executeAgainstDatabase) {
+            Executor executor = ExecutorService.getInstance().getExecutor(getDatabase());
+            for (ChangeSet changeSet : changeSets) {
+                executor.execute(new MarkChangeSetRanStatement(changeSet, execType));
+            }
+            getDatabase().commit();
+        }
+
+        if (execType.equals(ChangeSet.ExecType.FAILED) || execType.equals(ChangeSet.ExecType.SKIPPED)) {
+            return; //do nothing
+        } else if (execType.ranBefore) {
+            Map<String, String[]> currentRows = getRows();
+            List<String[]> newRows = new ArrayList<String[]>();
+            for (ChangeSet changeSet : changeSets) {
+                String key = getKey(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+                String[] line = currentRows.get(key);
+                if (line != null) {
+                    line = line.clone();
+                    line[COLUMN_DATEEXECUTED] = new ISODateFormat().format(new java.sql.Timestamp(new Date().getTime()));
+                    line[COLUMN_MD5SUM] = changeSet.generateCheckSum().toString();
+                    line[COLUMN_EXECTYPE] = execType.value;
+                    currentRows.put(key, line);
+                    replacedRows++;
+                    newRows.add(line);
+                }
+            }
+            appendRows(newRows);
+        } else {
+            appendChangeSets(changeSets, execType);
+        }
+    }
+
+    private String getKey(String id, String author, String filePath) {
+        return id + "::" + author + "::" + filePath;
+    }
+
     @Override
     public void removeFromHistory(ChangeSet changeSet) throws DatabaseException {
         if (executeAgainstDatabase) {
@@ -324,27 +469,14 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
         if (lastChangeSetSequenceValue == null) {
             lastChangeSetSequenceValue = 0;
 
-            FileReader reader = null;
             try {
-                reader = new FileReader(this.changeLogFile);
-                CSVReader csvReader = new CSVReader(reader);
-                String[] line = csvReader.readNext(); //skip header line
-
-                List<RanChangeSet> returnList = new ArrayList<RanChangeSet>();
-                while ((line = csvReader.readNext()) != null) {
+                for (String[] line : getRows().values()) {
                     try {
                         lastChangeSetSequenceValue = Integer.valueOf(line[COLUMN_ORDEREXECUTED]);
                     } catch (NumberFormatException ignore) { }
                 }
             } catch (Exception ignore) {
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (IOException ignore) { }
-                }
             }
-
         }
 
         return ++lastChangeSetSequenceValue;
@@ -378,6 +510,7 @@ public class OfflineChangeLogHistoryService extends AbstractChangeLogHistoryServ
 
     @Override
     public void destroy() throws DatabaseException {
+        rows = null;
         if (changeLogFile.exists() && !changeLogFile.delete()) {
             throw new DatabaseException("Could not delete changelog history file "+changeLogFile.getAbsolutePath());
         }
@@ -0,0 +1,158 @@
+package liquibase.changelog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hash-indexed view over a list of {@link RanChangeSet}s so lookups by changeSet identity do not need to scan the whole history.
+ * <p>
+ * Entries are bucketed by a loose key built from the lower-cased id, author and path with backslashes converted and any "classpath:" prefix removed.
+ * The bucket is a superset of what any of the matching rules used by the history service and the changeSet filters consider "the same changeSet",
+ * so callers look up the candidates and then apply their own exact comparison to them.
+ * Candidates are returned in the order they appear in the original list so "first match" semantics are preserved.
+ * <p>
+ * An index built over a {@link RanChangeSetList} is kept in sync by the list as the history service modifies it.
+ * An index built over any other list must be rebuilt when {@link #isIndexOf(List)} returns false.
+ */
+public class RanChangeSetIndex {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final List<RanChangeSet> ranChangeSets;
+    private final Map<String, List<RanChangeSet>> index;
+    private int size = 0;
+    private int version = -1;
+
+    public RanChangeSetIndex(List<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = ranChangeSets;
+        this.index = new HashMap<String, List<RanChangeSet>>(ranChangeSets.size() * 2);
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            add(ranChangeSet);
+        }
+        if (ranChangeSets instanceof RanChangeSetList) {
+            ((RanChangeSetList) ranChangeSets).addIndex(this);
+        }
+    }
+
+    /**
+     * Returns the list this index was built from.
+     */
+    public List<RanChangeSet> getRanChangeSets() {
+        return ranChangeSets;
+    }
+
+    /**
+     * Returns true if this index was built from the given list instance and still reflects it.
+     * For a {@link RanChangeSetList} the index must be at the list's current version, for other lists it must have the same size.
+     */
+    public boolean isIndexOf(List<RanChangeSet> ranChangeSets) {
+        if (this.ranChangeSets != ranChangeSets) {
+            return false;
+        }
+        if (ranChangeSets instanceof RanChangeSetList) {
+            return version == ((RanChangeSetList) ranChangeSets).getVersion();
+        }
+        return size() == ranChangeSets.size();
+    }
+
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns all RanChangeSets that may match the given changeSet. Callers must still apply their own comparison rules.
+     */
+    public List<RanChangeSet> getCandidates(ChangeSet changeSet) {
+        return getCandidates(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+    }
+
+    public List<RanChangeSet> getCandidates(String changeLog, String id, String author) {
+        List<RanChangeSet> candidates = index.get(createKey(changeLog, id, author));
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the RanChangeSet matching the given changeSet using {@link RanChangeSet#isSameAs(ChangeSet)}, or null if it has not been ran.
+     */
+    public RanChangeSet find(ChangeSet changeSet) {
+        for (RanChangeSet ranChangeSet : getCandidates(changeSet)) {
+            if (ranChangeSet.isSameAs(changeSet)) {
+                return ranChangeSet;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given RanChangeSet to the index. Does not modify the underlying list.
+     */
+    public void add(RanChangeSet ranChangeSet) {
+        String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        List<RanChangeSet> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<RanChangeSet>(1);
+            index.put(key, bucket);
+        }
+        bucket.add(ranChangeSet);
+        size++;
+    }
+
+    /**
+     * Removes the given RanChangeSet from the index. Does not modify the underlying list.
+     */
+    public void remove(RanChangeSet ranChangeSet) {
+        String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        List<RanChangeSet> bucket = index.get(key);
+        if (bucket != null) {
+            if (bucket.remove(ranChangeSet)) {
+                size--;
+            }
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    protected String createKey(String changeLog, String id, String author) {
+        StringBuilder key = new StringBuilder();
+        key.append(id == null ? "" : id.toLowerCase(Locale.ENGLISH));
+        key.append(':');
+        key.append(author == null ? "" : author.toLowerCase(Locale.ENGLISH));
+        key.append(':');
+        key.append(getPathKey(changeLog));
+        return key.toString();
+    }
+
+    /**
+     * Returns the path part of the bucket key. Subclasses that compare paths with their own rules can override this
+     * so the buckets stay a superset of their matches. Defaults to {@link #normalizePath(String)}.
+     */
+    protected String getPathKey(String changeLog) {
+        return normalizePath(changeLog);
+    }
+
+    /**
+     * Returns the given path lower-cased, with backslashes converted to forward slashes and with any "classpath:" prefix removed.
+     */
+    public static String normalizePath(String changeLog) {
+        if (changeLog == null) {
+            return "";
+        }
+        String path = changeLog.replace('\\', '/').toLowerCase(Locale.ENGLISH);
+        if (path.startsWith(CLASSPATH_PREFIX)) {
+            path = path.substring(CLASSPATH_PREFIX.length());
+        }
+        return path;
+    }
+}
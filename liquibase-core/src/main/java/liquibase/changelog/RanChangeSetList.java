@@ -0,0 +1,106 @@
+package liquibase.changelog;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Read-only view of the cached history kept by a {@link ChangeLogHistoryService}. Only the history service modifies it.
+ * <p>
+ * Every modification increments {@link #getVersion()} and is applied to all {@link RanChangeSetIndex}es built over this list,
+ * so indexes stay current without being rebuilt.
+ */
+public class RanChangeSetList extends AbstractList<RanChangeSet> implements RandomAccess {
+
+    private final List<RanChangeSet> ranChangeSets;
+    private final Set<RanChangeSetIndex> indexes = Collections.newSetFromMap(new WeakHashMap<RanChangeSetIndex, Boolean>());
+    private int version = 0;
+
+    public RanChangeSetList(Collection<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = new ArrayList<RanChangeSet>(ranChangeSets);
+    }
+
+    @Override
+    public RanChangeSet get(int index) {
+        return ranChangeSets.get(index);
+    }
+
+    @Override
+    public int size() {
+        return ranChangeSets.size();
+    }
+
+    /**
+     * Returns the number of modifications made to this list.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Appends the RanChangeSet, adding it to all indexes.
+     */
+    void append(RanChangeSet ranChangeSet) {
+        ranChangeSets.add(ranChangeSet);
+        version++;
+        for (RanChangeSetIndex index : getIndexes()) {
+            index.add(ranChangeSet);
+            index.setVersion(version);
+        }
+    }
+
+    /**
+     * Removes the RanChangeSet, removing it from all indexes. Returns false if it is not in the list.
+     */
+    boolean delete(RanChangeSet ranChangeSet) {
+        if (!ranChangeSets.remove(ranChangeSet)) {
+            return false;
+        }
+        version++;
+        for (RanChangeSetIndex index : getIndexes()) {
+            index.remove(ranChangeSet);
+            index.setVersion(version);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces a RanChangeSet. If moveToEnd is true, or the old one is not in the list, the new one is appended.
+     */
+    void replace(RanChangeSet oldRanChangeSet, RanChangeSet newRanChangeSet, boolean moveToEnd) {
+        int position = ranChangeSets.indexOf(oldRanChangeSet);
+        if (position < 0 || moveToEnd) {
+            if (position >= 0) {
+                ranChangeSets.remove(position);
+            }
+            ranChangeSets.add(newRanChangeSet);
+        } else {
+            ranChangeSets.set(position, newRanChangeSet);
+        }
+        version++;
+        for (RanChangeSetIndex index : getIndexes()) {
+            if (position >= 0) {
+                index.remove(oldRanChangeSet);
+            }
+            index.add(newRanChangeSet);
+            index.setVersion(version);
+        }
+    }
+
+    /**
+     * Keeps the index in sync with this list from now on. Called by the RanChangeSetIndex constructor.
+     */
+    void addIndex(RanChangeSetIndex index) {
+        indexes.add(index);
+        index.setVersion(version);
+    }
+
+    private List<RanChangeSetIndex> getIndexes() {
+        return new ArrayList<RanChangeSetIndex>(indexes);
+    }
+}
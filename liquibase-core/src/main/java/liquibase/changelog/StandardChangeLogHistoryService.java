@@ -12,10 +12,13 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.lockservice.LockServiceFactory;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
@@ -32,10 +35,20 @@ import java.util.Map;
 
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
-//    private List<RanChangeSet> ranChangeSetList;
+    /**
+     * Cached contents of the DATABASECHANGELOG table. Only used while this process holds the changelog lock,
+     * see {@link #canCacheRanChangeSets()}, and kept up to date by the methods that modify the table.
+     * Callers get the list itself, which they cannot modify.
+     */
+    private RanChangeSetList ranChangeSetList;
 
     private Integer lastChangeSetSequenceValue;
 
+    /**
+     * Number of history rows sent to the database per JDBC batch by {@link #setExecType(java.util.List, ChangeSet.ExecType)}.
+     */
+    public static final int HISTORY_BATCH_SIZE = 500;
+
     @Override
     public int getPriority() {
         return PRIORITY_DEFAULT;
@@ -46,6 +59,12 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         return true;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.ranChangeSetList = null;
+    }
+
     public String getDatabaseChangeLogTableName() {
         return getDatabase().getDatabaseChangeLogTableName();
     }
@@ -174,21 +193,25 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             }
         }
 
+        if (statementsToExecute.size() > 0) {
+            this.ranChangeSetList = null;
+        }
+
     }
 
     public void upgradeChecksums(final DatabaseChangeLog databaseChangeLog, final Contexts contexts) throws DatabaseException {
         super.upgradeChecksums(databaseChangeLog, contexts);
         getDatabase().commit();
-//        ranChangeSetList = null;
     }
 
     /**
      * Returns the ChangeSets that have been run against the current getDatabase().
+     * While the history is cached the returned list cannot be modified and reflects later changes made through this service.
      */
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
-//        if (this.ranChangeSetList != null) {
-//            return this.ranChangeSetList;
-//        }
+        if (getCachedRanChangeSets() != null) {
+            return this.ranChangeSetList;
+        }
 
         Database database = getDatabase();
         String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
@@ -226,19 +249,47 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                 }
             }
         }
+        if (canCacheRanChangeSets()) {
+            this.ranChangeSetList = new RanChangeSetList(ranChangeSetList);
+            return this.ranChangeSetList;
+        }
         return ranChangeSetList;
     }
 
+    /**
+     * Returns true if the history may be cached, which is while this process holds the changelog lock so no other process can modify the table.
+     */
+    protected boolean canCacheRanChangeSets() {
+        return LockServiceFactory.getInstance().getLockService(getDatabase()).hasChangeLogLock();
+    }
+
+    /**
+     * Returns the cached history if there is one and caching is still allowed, otherwise null.
+     */
+    protected List<RanChangeSet> getCachedRanChangeSets() {
+        if (!canCacheRanChangeSets()) {
+            this.ranChangeSetList = null;
+        }
+        return this.ranChangeSetList;
+    }
+
     @Override
     protected void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
         ExecutorService.getInstance().getExecutor(getDatabase()).execute(new UpdateChangeSetChecksumStatement(changeSet));
 
         getDatabase().commit();
+
+        if (getCachedRanChangeSets() != null) {
+            RanChangeSet oldRanChangeSet = getRanChangeSetIndex().find(changeSet);
+            if (oldRanChangeSet != null) {
+                this.ranChangeSetList.replace(oldRanChangeSet, new RanChangeSet(oldRanChangeSet.getChangeLog(), oldRanChangeSet.getId(), oldRanChangeSet.getAuthor(), changeSet.generateCheckSum(), oldRanChangeSet.getDateExecuted(), oldRanChangeSet.getTag(), oldRanChangeSet.getExecType(), oldRanChangeSet.getDescription(), oldRanChangeSet.getComments()), false);
+            }
+        }
     }
 
     @Override
     public RanChangeSet getRanChangeSet(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
-        if (!hasDatabaseChangeLogTable()) {
+        if (getCachedRanChangeSets() == null && !hasDatabaseChangeLogTable()) {
             return null;
         }
 
@@ -251,8 +302,58 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
         ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
         getDatabase().commit();
-        getRanChangeSets().add(new RanChangeSet(changeSet, execType));
 
+        if (getCachedRanChangeSets() == null || execType.equals(ChangeSet.ExecType.FAILED) || execType.equals(ChangeSet.ExecType.SKIPPED)) {
+            return; //nothing cached or nothing written
+        }
+
+        updateCachedRanChangeSet(changeSet, execType);
+    }
+
+    /**
+     * Marks the changeSets in one transaction. Against a JDBC connection the rows are sent as JDBC batches of {@link #HISTORY_BATCH_SIZE},
+     * other executors (such as the one writing updateSQL output) get the statements one at a time as usual.
+     */
+    @Override
+    public void setExecType(List<ChangeSet> changeSets, ChangeSet.ExecType execType) throws DatabaseException {
+        if (changeSets.isEmpty() || execType.equals(ChangeSet.ExecType.FAILED) || execType.equals(ChangeSet.ExecType.SKIPPED)) {
+            return; //MarkChangeSetRanStatement generates nothing for these
+        }
+        Database database = getDatabase();
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+
+        List<MarkChangeSetRanStatement> statements = new ArrayList<MarkChangeSetRanStatement>(changeSets.size());
+        for (ChangeSet changeSet : changeSets) {
+            statements.add(new MarkChangeSetRanStatement(changeSet, execType));
+        }
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).executeBatch(statements, new ArrayList<SqlVisitor>(), HISTORY_BATCH_SIZE);
+        } else {
+            for (MarkChangeSetRanStatement statement : statements) {
+                executor.execute(statement);
+            }
+        }
+        database.commit();
+
+        if (getCachedRanChangeSets() != null) {
+            for (ChangeSet changeSet : changeSets) {
+                updateCachedRanChangeSet(changeSet, execType);
+            }
+        }
+    }
+
+    private void updateCachedRanChangeSet(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        RanChangeSet newRanChangeSet = new RanChangeSet(changeSet, execType);
+        RanChangeSet oldRanChangeSet = null;
+        if (execType.ranBefore) {
+            oldRanChangeSet = getRanChangeSetIndex().find(changeSet);
+        }
+        if (oldRanChangeSet == null) {
+            this.ranChangeSetList.append(newRanChangeSet);
+        } else {
+            newRanChangeSet.setTag(oldRanChangeSet.getTag());
+            this.ranChangeSetList.replace(oldRanChangeSet, newRanChangeSet, true);
+        }
     }
 
     @Override
@@ -261,7 +362,12 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         ExecutorService.getInstance().getExecutor(database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
 
-        getRanChangeSets().remove(new RanChangeSet(changeSet));
+        if (getCachedRanChangeSets() != null) {
+            RanChangeSet oldRanChangeSet = getRanChangeSetIndex().find(changeSet);
+            if (oldRanChangeSet != null) {
+                this.ranChangeSetList.delete(oldRanChangeSet);
+            }
+        }
     }
 
     @Override
@@ -295,7 +401,9 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             executor.execute(new TagDatabaseStatement(tagString));
             getDatabase().commit();
 
-            getRanChangeSets().get(getRanChangeSets().size() - 1).setTag(tagString);
+            if (getCachedRanChangeSets() != null && this.ranChangeSetList.size() > 0) {
+                this.ranChangeSetList.get(this.ranChangeSetList.size() - 1).setTag(tagString);
+            }
         } catch (Exception e) {
             throw new DatabaseException(e);
         }
@@ -314,6 +422,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         updateStatement.addNewColumnValue("MD5SUM", null);
         ExecutorService.getInstance().getExecutor(database).execute(updateStatement);
         database.commit();
+        this.ranChangeSetList = null;
     }
 
     @Override
@@ -323,6 +432,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             if (SnapshotGeneratorFactory.getInstance().has(new Table().setName(database.getDatabaseChangeLogTableName()).setSchema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()), database)) {
                 ExecutorService.getInstance().getExecutor(database).execute(new DropTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName(), false));
             }
+            reset();
         } catch (InvalidExampleException e) {
             throw new UnexpectedLiquibaseException(e);
         }
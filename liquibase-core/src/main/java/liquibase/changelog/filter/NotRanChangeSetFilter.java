@@ -2,21 +2,27 @@ package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 
 import java.util.List;
 
 public class NotRanChangeSetFilter implements ChangeSetFilter {
 
     public List<RanChangeSet> ranChangeSets;
+    private RanChangeSetIndex ranChangeSetIndex;
 
     public NotRanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
         this.ranChangeSets = ranChangeSets;
+        this.ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
     }
 
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public boolean accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        if (!ranChangeSetIndex.isIndexOf(ranChangeSets)) {
+            ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
+        }
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getCandidates(changeSet)) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && ranChangeSet.getChangeLog().equalsIgnoreCase(changeSet.getFilePath())) {
@@ -2,18 +2,24 @@ package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 
 import java.util.List;
 
 public abstract class RanChangeSetFilter implements ChangeSetFilter {
     public List<RanChangeSet> ranChangeSets;
+    private RanChangeSetIndex ranChangeSetIndex;
 
     public RanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
         this.ranChangeSets = ranChangeSets;
+        this.ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
     }
 
     public RanChangeSet getRanChangeSet(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        if (!ranChangeSetIndex.isIndexOf(ranChangeSets)) {
+            ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
+        }
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getCandidates(changeSet)) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && ranChangeSet.getChangeLog().equalsIgnoreCase(changeSet.getFilePath())) {
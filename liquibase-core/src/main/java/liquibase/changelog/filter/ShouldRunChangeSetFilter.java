@@ -1,20 +1,26 @@
 package liquibase.changelog.filter;
 
 import java.util.List;
+import java.util.Locale;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
     private final List<RanChangeSet> ranChangeSets;
+    private RanChangeSetIndex ranChangeSetIndex;
     private final boolean ignoreClasspathPrefix;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
         this.ranChangeSets = database.getRanChangeSetList();
+        this.ranChangeSetIndex = createRanChangeSetIndex();
     }
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
@@ -24,7 +30,10 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public boolean accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        if (!ranChangeSetIndex.isIndexOf(ranChangeSets)) {
+            ranChangeSetIndex = createRanChangeSetIndex();
+        }
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getCandidates(changeSet)) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
                 if (changeSet.shouldAlwaysRun()) {
                     return true;
@@ -61,6 +70,21 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     }
 
 
+    /**
+     * Creates an index bucketed by {@link #normalizePath(String)} so subclasses overriding it still find their matches.
+     */
+    private RanChangeSetIndex createRanChangeSetIndex() {
+        return new RanChangeSetIndex(ranChangeSets) {
+            @Override
+            protected String getPathKey(String changeLog) {
+                if (changeLog == null) {
+                    return "";
+                }
+                return ShouldRunChangeSetFilter.this.normalizePath(changeLog).toLowerCase(Locale.ENGLISH);
+            }
+        };
+    }
+
     private String getPath(RanChangeSet ranChangeSet) {
         return normalizePath(ranChangeSet.getChangeLog());
     }
@@ -71,7 +95,9 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     protected String normalizePath(String filePath) {
         if (ignoreClasspathPrefix) {
-            return filePath.replaceFirst("^classpath:", "");
+            if (filePath.startsWith(CLASSPATH_PREFIX)) {
+                return filePath.substring(CLASSPATH_PREFIX.length());
+            }
         }
         return filePath;
     }
@@ -1,18 +1,43 @@
 package liquibase.changelog.visitor;
 
+import liquibase.changelog.AbstractChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marks each visited changeSet as executed without running it.
+ * <p>
+ * When created with a batch size greater than one and the history service supports it, changeSets are buffered and written that many at a time through
+ * {@link AbstractChangeLogHistoryService#setExecType(List, ChangeSet.ExecType)}, so callers must call {@link #flush()} once iteration is done.
+ * Otherwise each changeSet is written as it is visited.
+ */
 public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private Database database;
+    private int batchSize = 1;
+    private List<ChangeSet> pending = new ArrayList<ChangeSet>();
 
     public ChangeLogSyncVisitor(Database database) {
         this.database = database;
     }
 
+    /**
+     * Creates a visitor that buffers up to batchSize changeSets. {@link #flush()} must be called after iterating.
+     */
+    public ChangeLogSyncVisitor(Database database, int batchSize) {
+        this.database = database;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
     @Override
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
@@ -20,6 +45,27 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
     @Override
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
-        this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+        ChangeLogHistoryService historyService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database);
+        if (batchSize == 1 || !(historyService instanceof AbstractChangeLogHistoryService)) {
+            this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+            return;
+        }
+
+        pending.add(changeSet);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes any buffered changeSets to the history.
+     */
+    public void flush() throws LiquibaseException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ChangeSet> changeSets = pending;
+        pending = new ArrayList<ChangeSet>();
+        ((AbstractChangeLogHistoryService) ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database)).setExecType(changeSets, ChangeSet.ExecType.EXECUTED);
     }
 }
@@ -0,0 +1,157 @@
+package liquibase.datatype;
+
+import liquibase.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a data type description such as "varchar(255)", "int(11) unsigned", "int identity" or "int{autoIncrement:true}".
+ * Descriptions are immutable, so {@link DataTypeFactory} parses each distinct description once and reuses the result.
+ */
+class DataTypeDescription {
+
+    private final String typeName;
+    private final String lookupName;
+    private final String additionalInformation;
+    private final boolean identity;
+    private final List<String> parameters;
+    private final List<String> properties;
+
+    private DataTypeDescription(String typeName, String additionalInformation, boolean identity, List<String> parameters, List<String> properties) {
+        this.typeName = typeName;
+        this.lookupName = typeName.toLowerCase();
+        this.additionalInformation = additionalInformation;
+        this.identity = identity;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * The type name without parameters, properties or additional information.
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * The lower case type name, as used in the {@link DataTypeFactory} registry.
+     */
+    public String getLookupName() {
+        return lookupName;
+    }
+
+    /**
+     * Anything after the type name and parameters, such as "unsigned" or "COLLATE Latin1_General_BIN". Null if there is nothing.
+     */
+    public String getAdditionalInformation() {
+        return additionalInformation;
+    }
+
+    /**
+     * True if the description ended with " identity".
+     */
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    /**
+     * The trimmed, comma separated values between the first parentheses.
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * The trimmed, comma separated "property:value" entries between the first braces.
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    public static DataTypeDescription parse(String definition) {
+        String typeName = definition;
+
+        int firstParameterStart = definition.indexOf('(', 1);
+        if (firstParameterStart >= 0 && definition.lastIndexOf(')') > firstParameterStart) {
+            int parametersStart = startOfWhitespaceBefore(definition, definition.indexOf('('));
+            typeName = definition.substring(0, parametersStart) + definition.substring(definition.lastIndexOf(')') + 1);
+        }
+        if (typeName.indexOf('{', 1) >= 0) {
+            typeName = typeName.substring(0, startOfWhitespaceBefore(typeName, typeName.indexOf('{')));
+        }
+
+        boolean identity = false;
+        if (typeName.endsWith(" identity")) {
+            typeName = typeName.substring(0, typeName.length() - " identity".length());
+            identity = true;
+        }
+
+        String additionalInformation = null;
+        if (typeName.toLowerCase().startsWith("bit varying")) {
+            //not going to do anything. Special case for postgres in our tests, need to better support handling these types of differences
+        } else {
+            int whitespaceStart = 0;
+            while (whitespaceStart < typeName.length() && !isWhitespace(typeName.charAt(whitespaceStart))) {
+                whitespaceStart++;
+            }
+            if (whitespaceStart < typeName.length()) {
+                int whitespaceEnd = whitespaceStart;
+                while (whitespaceEnd < typeName.length() && isWhitespace(typeName.charAt(whitespaceEnd))) {
+                    whitespaceEnd++;
+                }
+                additionalInformation = typeName.substring(whitespaceEnd);
+                typeName = typeName.substring(0, whitespaceStart);
+            }
+        }
+
+        List<String> parameters = new ArrayList<String>();
+        if (firstParameterStart >= 0) {
+            addListValues(definition, '(', ')', parameters);
+        }
+
+        List<String> properties = new ArrayList<String>();
+        if (definition.indexOf('{') >= 0) {
+            addListValues(definition, '{', '}', properties);
+        }
+
+        return new DataTypeDescription(typeName, additionalInformation, identity, parameters, properties);
+    }
+
+    /**
+     * Adds the trimmed, non-empty comma separated values between the first open character and the next close character, or the end of the definition.
+     */
+    private static void addListValues(String definition, char open, char close, List<String> values) {
+        int start = definition.indexOf(open) + 1;
+        int end = definition.indexOf(close, start);
+        if (end < 0) {
+            end = definition.length();
+        }
+        while (start <= end) {
+            int comma = definition.indexOf(',', start);
+            if (comma < 0 || comma > end) {
+                comma = end;
+            }
+            String value = StringUtils.trimToNull(definition.substring(start, comma));
+            if (value != null) {
+                values.add(value);
+            }
+            start = comma + 1;
+        }
+    }
+
+    private static int startOfWhitespaceBefore(String string, int index) {
+        while (index > 0 && isWhitespace(string.charAt(index - 1))) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Same characters as the \s regular expression class.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -8,17 +8,28 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.core.DataType;
 import liquibase.util.ObjectUtil;
-import liquibase.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DataTypeFactory {
 
+    public static final int DESCRIPTION_CACHE_SIZE = 1000;
+
     private static DataTypeFactory instance;
 
     private Map<String, SortedSet<Class<? extends LiquibaseDataType>>> registry = new ConcurrentHashMap<String, SortedSet<Class<? extends LiquibaseDataType>>>();
 
+    /**
+     * Recently parsed descriptions, least recently used first. The same few type descriptions are looked up for every column of a schema.
+     */
+    private final Map<String, DataTypeDescription> descriptions = new LinkedHashMap<String, DataTypeDescription>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DataTypeDescription> eldest) {
+            return size() > DESCRIPTION_CACHE_SIZE;
+        }
+    };
+
     protected DataTypeFactory() {
         Class<? extends LiquibaseDataType>[] classes;
         try {
@@ -84,31 +95,10 @@ public class DataTypeFactory {
     }
 
     public LiquibaseDataType fromDescription(String dataTypeDefinition) {
-        String dataTypeName = dataTypeDefinition;
-        if (dataTypeName.matches(".+\\(.*\\).*")) {
-            dataTypeName = dataTypeDefinition.replaceFirst("\\s*\\(.*\\)", "");
-        }
-        if (dataTypeName.matches(".+\\{.*")) {
-            dataTypeName = dataTypeName.replaceFirst("\\s*\\{.*", "");
-        }
-        boolean primaryKey = false;
-        if (dataTypeName.endsWith(" identity")) {
-            dataTypeName = dataTypeName.replaceFirst(" identity$", "");
-            primaryKey = true;
-        }
-
-        String additionalInfo = null;
-        if (dataTypeName.toLowerCase().startsWith("bit varying")) {
-            //not going to do anything. Special case for postgres in our tests, need to better support handling these types of differences
-        } else {
-            String[] splitTypeName = dataTypeName.split("\\s+", 2);
-            dataTypeName = splitTypeName[0];
-            if (splitTypeName.length > 1) {
-                additionalInfo = splitTypeName[1];
-            }
-        }
+        DataTypeDescription description = getDescription(dataTypeDefinition);
+        String dataTypeName = description.getTypeName();
 
-        SortedSet<Class<? extends LiquibaseDataType>> classes = registry.get(dataTypeName.toLowerCase());
+        SortedSet<Class<? extends LiquibaseDataType>> classes = registry.get(description.getLookupName());
 
         LiquibaseDataType liquibaseDataType = null;
         if (classes == null) {
@@ -129,17 +119,10 @@ public class DataTypeFactory {
             liquibaseDataType = new UnknownType(dataTypeName);
 
         }
-        liquibaseDataType.setAdditionalInformation(additionalInfo);
-
-        if (dataTypeDefinition.matches(".+\\s*\\(.*")) {
-            String paramStrings = dataTypeDefinition.replaceFirst(".*?\\(", "").replaceFirst("\\).*", "");
-            String[] params = paramStrings.split(",");
-            for (String param : params) {
-                param = StringUtils.trimToNull(param);
-                if (param != null) {
-                    liquibaseDataType.addParameter(param);
-                }
-            }
+        liquibaseDataType.setAdditionalInformation(description.getAdditionalInformation());
+
+        for (String param : description.getParameters()) {
+            liquibaseDataType.addParameter(param);
         }
 
         /*
@@ -154,22 +137,16 @@ public class DataTypeFactory {
             liquibaseDataType.setAdditionalInformation(lookingForAdditionalInfo.split(" ", 2)[1]);
         }*/
 
-        if (dataTypeDefinition.matches(".*\\{.*")) {
-            String paramStrings = dataTypeDefinition.replaceFirst(".*?\\{", "").replaceFirst("\\}.*", "");
-            String[] params = paramStrings.split(",");
-            for (String param : params) {
-                param = StringUtils.trimToNull(param);
-                if (param != null) {
-                    String[] paramAndValue = param.split(":", 2);
-                    try {
-                        ObjectUtil.setProperty(liquibaseDataType, paramAndValue[0], paramAndValue[1]);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Unknown property "+paramAndValue[0]+" for "+liquibaseDataType.getClass().getName()+" "+liquibaseDataType.toString());
-                    }
-                }
+        for (String param : description.getProperties()) {
+            String[] paramAndValue = param.split(":", 2);
+            try {
+                ObjectUtil.setProperty(liquibaseDataType, paramAndValue[0], paramAndValue[1]);
+            } catch (Exception e) {
+                throw new RuntimeException("Unknown property "+paramAndValue[0]+" for "+liquibaseDataType.getClass().getName()+" "+liquibaseDataType.toString());
             }
         }
 
+        boolean primaryKey = description.isIdentity();
         if (primaryKey && liquibaseDataType instanceof IntType) {
             ((IntType) liquibaseDataType).setAutoIncrement(true);
         }
@@ -183,6 +160,20 @@ public class DataTypeFactory {
 
     }
 
+    /**
+     * Returns the parsed description, parsing and caching it if it was not parsed recently.
+     */
+    DataTypeDescription getDescription(String dataTypeDefinition) {
+        synchronized (descriptions) {
+            DataTypeDescription description = descriptions.get(dataTypeDefinition);
+            if (description == null) {
+                description = DataTypeDescription.parse(dataTypeDefinition);
+                descriptions.put(dataTypeDefinition, description);
+            }
+            return description;
+        }
+    }
+
 
     public LiquibaseDataType fromObject(Object object, Database database) {
         return fromDescription(object.getClass().getName());
@@ -9,15 +9,22 @@ import liquibase.structure.DatabaseObject;
 import liquibase.util.StringUtils;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Singleton registry of DatabaseObjectComparators. Safe to use from several threads:
+ * comparator lookups are cached as read-only lists, and registering or unregistering a comparator replaces the caches with new, empty ones.
+ */
 public class DatabaseObjectComparatorFactory {
 
-    private static DatabaseObjectComparatorFactory instance;
+    private static volatile DatabaseObjectComparatorFactory instance;
 
-    private List<DatabaseObjectComparator> comparators = new ArrayList<DatabaseObjectComparator>();
+    private List<DatabaseObjectComparator> comparators = new CopyOnWriteArrayList<DatabaseObjectComparator>();
 
-    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<String, List<DatabaseObjectComparator>>();
-    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<String, DatabaseObjectComparatorChain>();
+    private volatile ConcurrentMap<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new ConcurrentHashMap<String, List<DatabaseObjectComparator>>();
+    private volatile ConcurrentMap<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new ConcurrentHashMap<String, DatabaseObjectComparatorChain>();
 
     private DatabaseObjectComparatorFactory() {
         Class[] classes;
@@ -39,7 +46,11 @@ public class DatabaseObjectComparatorFactory {
      */
     public static DatabaseObjectComparatorFactory getInstance() {
         if (instance == null) {
-            instance = new DatabaseObjectComparatorFactory();
+            synchronized (DatabaseObjectComparatorFactory.class) {
+                if (instance == null) {
+                    instance = new DatabaseObjectComparatorFactory();
+                }
+            }
         }
         return instance;
     }
@@ -51,10 +62,21 @@ public class DatabaseObjectComparatorFactory {
 
     public void register(DatabaseObjectComparator generator) {
         comparators.add(generator);
+        clearCaches();
     }
 
     public void unregister(DatabaseObjectComparator generator) {
         comparators.remove(generator);
+        clearCaches();
+    }
+
+    /**
+     * Replaces the caches rather than clearing them, so a lookup that was computed from the old comparators can only be stored in the discarded caches.
+     * Called after the comparators were modified. Lookups read the caches before the comparators.
+     */
+    private void clearCaches() {
+        validComparatorsByClassAndDatabase = new ConcurrentHashMap<String, List<DatabaseObjectComparator>>();
+        comparatorChainsByClassAndDatabase = new ConcurrentHashMap<String, DatabaseObjectComparatorChain>();
     }
 
     public void unregister(Class generatorClass) {
@@ -70,8 +92,10 @@ public class DatabaseObjectComparatorFactory {
 
     protected List<DatabaseObjectComparator> getComparators(Class<? extends DatabaseObject> comparatorClass, Database database) {
         String key = comparatorClass.getName()+":"+database.getShortName();
-        if (validComparatorsByClassAndDatabase.containsKey(key)) {
-            return validComparatorsByClassAndDatabase.get(key);
+        ConcurrentMap<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = this.validComparatorsByClassAndDatabase;
+        List<DatabaseObjectComparator> cached = validComparatorsByClassAndDatabase.get(key);
+        if (cached != null) {
+            return cached;
         }
 
         List<DatabaseObjectComparator> validComparators = new ArrayList<DatabaseObjectComparator>();
@@ -84,7 +108,8 @@ public class DatabaseObjectComparatorFactory {
 
         Collections.sort(validComparators, new DatabaseObjectComparatorComparator(comparatorClass, database));
 
-        validComparatorsByClassAndDatabase.put(key, validComparators);
+        validComparators = Collections.unmodifiableList(validComparators);
+        validComparatorsByClassAndDatabase.putIfAbsent(key, validComparators);
 
         return validComparators;
     }
@@ -157,8 +182,10 @@ public class DatabaseObjectComparatorFactory {
     private DatabaseObjectComparatorChain createComparatorChain(Class<? extends DatabaseObject> databaseObjectType, Database database) {
         String key = databaseObjectType.getName()+":"+database.getShortName();
 
-        if (comparatorChainsByClassAndDatabase.containsKey(key)) {
-            return comparatorChainsByClassAndDatabase.get(key).copy();
+        ConcurrentMap<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = this.comparatorChainsByClassAndDatabase;
+        DatabaseObjectComparatorChain cached = comparatorChainsByClassAndDatabase.get(key);
+        if (cached != null) {
+            return cached.copy();
         }
 
         List<DatabaseObjectComparator> comparators = DatabaseObjectComparatorFactory.getInstance().getComparators(databaseObjectType, database);
@@ -167,9 +194,9 @@ public class DatabaseObjectComparatorFactory {
         }
 
         DatabaseObjectComparatorChain chain = new DatabaseObjectComparatorChain(comparators);
-        comparatorChainsByClassAndDatabase.put(key, chain);
+        comparatorChainsByClassAndDatabase.putIfAbsent(key, chain);
         //noinspection unchecked
-        return chain;
+        return chain.copy(); //chains keep their position, so the cached one is only used as a template
     }
 
 }
@@ -13,10 +13,13 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.ChangeLogSerializerFactory;
+import liquibase.serializer.ChangeLogWriter;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.serializer.core.xml.XMLChangeLogSerializer;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.DatabaseObjectComparator;
 import liquibase.structure.core.*;
+import liquibase.util.FileUtil;
 import liquibase.util.StringUtils;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -63,12 +66,40 @@ public class DiffToChangeLog {
     }
 
     public void print(String changeLogFile, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
-        File file = new File(changeLogFile);
+        final File file = new File(changeLogFile);
         if (!file.exists()) {
             LogFactory.getLogger().info(file + " does not exist, creating");
             FileOutputStream stream = new FileOutputStream(file);
             print(new PrintStream(stream), changeLogSerializer);
             stream.close();
+        } else if (changeLogSerializer instanceof StreamingChangeLogSerializer) {
+            LogFactory.getLogger().info(file + " exists, appending");
+            final StreamingChangeLogSerializer serializer = (StreamingChangeLogSerializer) changeLogSerializer;
+            final ChangeLogWriter[] writer = new ChangeLogWriter[1];
+            boolean generated = false;
+            try {
+                generateChangeSets(new ChangeSetHandler() {
+                    @Override
+                    public void handle(ChangeSet changeSet) throws IOException {
+                        if (writer[0] == null) {
+                            writer[0] = serializer.createAppendWriter(file);
+                        }
+                        writer[0].writeChangeSet(changeSet);
+                    }
+                });
+                generated = true;
+            } finally {
+                if (writer[0] != null) {
+                    if (generated) {
+                        writer[0].finish();
+                    } else {
+                        finishAfterFailure(writer[0], file);
+                    }
+                }
+            }
+            if (writer[0] == null) {
+                LogFactory.getLogger().info("No changes found, nothing to do");
+            }
         } else {
             LogFactory.getLogger().info(file + " exists, appending");
             ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -84,21 +115,10 @@ public class DiffToChangeLog {
             }
 
             String lineSeparator = System.getProperty("line.separator");
-            BufferedReader fileReader = new BufferedReader(new FileReader(file));
-            String line;
-            long offset = 0;
-            while ((line = fileReader.readLine()) != null) {
-                int index = line.indexOf("</databaseChangeLog>");
-                if (index >= 0) {
-                    offset += index;
-                } else {
-                    offset += line.getBytes().length;
-                    offset += lineSeparator.getBytes().length;
-                }
+            long offset = FileUtil.lastIndexOf(file, "</databaseChangeLog>");
+            if (offset < 0) {
+                offset = file.length();
             }
-            fileReader.close();
-
-            // System.out.println("resulting XML: " + xml.trim());
 
             RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
             randomAccessFile.seek(offset);
@@ -107,32 +127,63 @@ public class DiffToChangeLog {
             randomAccessFile.writeBytes(lineSeparator);
             randomAccessFile.writeBytes("</databaseChangeLog>" + lineSeparator);
             randomAccessFile.close();
+        }
+    }
 
-            // BufferedWriter fileWriter = new BufferedWriter(new
-            // FileWriter(file));
-            // fileWriter.append(xml);
-            // fileWriter.close();
+    /**
+     * Closes the changelog after generating changeSets failed. A failure here is only logged, so it does not replace the original exception.
+     */
+    private void finishAfterFailure(ChangeLogWriter writer, File file) {
+        try {
+            writer.finish();
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Cannot finish " + file + " after an error: " + e.getMessage(), e);
         }
     }
 
     /**
      * Prints changeLog that would bring the target database to be the same as
-     * the reference database
+     * the reference database.
+     * Serializers that implement {@link StreamingChangeLogSerializer} are passed each changeSet as soon as it is generated, so the changelog is never held in memory.
      */
     public void print(PrintStream out, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
+        if (changeLogSerializer instanceof StreamingChangeLogSerializer) {
+            final ChangeLogWriter writer = ((StreamingChangeLogSerializer) changeLogSerializer).createWriter(out);
+            generateChangeSets(new ChangeSetHandler() {
+                @Override
+                public void handle(ChangeSet changeSet) throws IOException {
+                    writer.writeChangeSet(changeSet);
+                }
+            });
+            writer.finish();
+        } else {
+            List<ChangeSet> changeSets = generateChangeSets();
 
-        List<ChangeSet> changeSets = generateChangeSets();
-
-        changeLogSerializer.write(changeSets, out);
+            changeLogSerializer.write(changeSets, out);
+        }
 
         out.flush();
     }
 
     public List<ChangeSet> generateChangeSets() {
+        final List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        try {
+            generateChangeSets(new ChangeSetHandler() {
+                @Override
+                public void handle(ChangeSet changeSet) {
+                    changeSets.add(changeSet);
+                }
+            });
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return changeSets;
+    }
+
+    private void generateChangeSets(ChangeSetHandler handler) throws IOException {
         final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
         DatabaseObjectComparator comparator = new DatabaseObjectComparator();
 
-        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
         List<Class<? extends DatabaseObject>> types = getOrderedOutputTypes(MissingObjectChangeGenerator.class);
         for (Class<? extends DatabaseObject> type : types) {
             ObjectQuotingStrategy quotingStrategy = ObjectQuotingStrategy.QUOTE_ALL_OBJECTS;
@@ -142,7 +193,7 @@ public class DiffToChangeLog {
                 }
                 Change[] changes = changeGeneratorFactory.fixMissing(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
                 if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(object)) {
-                    addToChangeSets(changes, changeSets, quotingStrategy);
+                    addToChangeSets(changes, handler, quotingStrategy);
                 }
             }
         }
@@ -153,7 +204,7 @@ public class DiffToChangeLog {
             for (DatabaseObject object : diffResult.getUnexpectedObjects(type, comparator)) {
                 Change[] changes = changeGeneratorFactory.fixUnexpected(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
                 if (!diffResult.getComparisonSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getComparisonSnapshot().getDatabase().isSystemObject(object)) {
-                    addToChangeSets(changes, changeSets, quotingStrategy);
+                    addToChangeSets(changes, handler, quotingStrategy);
                 }
             }
         }
@@ -164,11 +215,10 @@ public class DiffToChangeLog {
             for (Map.Entry<? extends DatabaseObject, ObjectDifferences> entry : diffResult.getChangedObjects(type, comparator).entrySet()) {
                 Change[] changes = changeGeneratorFactory.fixChanged(entry.getKey(), entry.getValue(), diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
                 if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(entry.getKey()) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(entry.getKey())) {
-                    addToChangeSets(changes, changeSets, quotingStrategy);
+                    addToChangeSets(changes, handler, quotingStrategy);
                 }
             }
         }
-        return changeSets;
     }
 
     protected List<Class<? extends DatabaseObject>> getOrderedOutputTypes(Class<? extends ChangeGenerator> generatorType) {
@@ -192,10 +242,10 @@ public class DiffToChangeLog {
         return types;
     }
 
-    private void addToChangeSets(Change[] changes, List<ChangeSet> changeSets, ObjectQuotingStrategy quotingStrategy) {
+    private void addToChangeSets(Change[] changes, ChangeSetHandler handler, ObjectQuotingStrategy quotingStrategy) throws IOException {
         if (changes != null) {
             for (Change change : changes) {
-                changeSets.add(generateChangeSet(change, quotingStrategy));
+                handler.handle(generateChangeSet(change, quotingStrategy));
             }
         }
     }
@@ -232,6 +282,10 @@ public class DiffToChangeLog {
         return idRoot + "-" + changeNumber++;
     }
 
+    private interface ChangeSetHandler {
+        void handle(ChangeSet changeSet) throws IOException;
+    }
+
     private static class DependencyGraph {
 
         private Map<Class<? extends DatabaseObject>, Node> allNodes = new HashMap<Class<? extends DatabaseObject>, Node>();
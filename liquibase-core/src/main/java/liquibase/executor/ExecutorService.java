@@ -2,16 +2,17 @@ package liquibase.executor;
 
 import liquibase.database.Database;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.servicelocator.ServiceLocator;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ExecutorService {
 
     private static ExecutorService instance = new ExecutorService();
 
-    private Map<Database, Executor> executors = new ConcurrentHashMap<Database, Executor>();
+    private ConcurrentMap<Database, Executor> executors = new ConcurrentHashMap<Database, Executor>();
 
 
     private ExecutorService() {
@@ -22,27 +23,42 @@ public class ExecutorService {
     }
 
     public Executor getExecutor(Database database) {
-        if (!executors.containsKey(database)) {
+        Executor executor = executors.get(database);
+        if (executor == null) {
             try {
-                Executor executor = (Executor) ServiceLocator.getInstance().newInstance(Executor.class);
+                executor = (Executor) ServiceLocator.getInstance().newInstance(Executor.class);
                 executor.setDatabase(database);
-                executors.put(database, executor);
             } catch (Exception e) {
                 throw new UnexpectedLiquibaseException(e);
             }
+            Executor existing = executors.putIfAbsent(database, executor);
+            if (existing != null) {
+                executor = existing;
+            }
         }
-        return executors.get(database);
+        return executor;
     }
 
     public void setExecutor(Database database, Executor executor) {
         executors.put(database, executor);
     }
 
+    /**
+     * Removes the executor for the database, closing any statements it still holds open.
+     */
     public void clearExecutor(Database database) {
-        executors.remove(database);
+        close(executors.remove(database));
     }
 
     public void reset() {
-        executors.clear();
+        for (Database database : executors.keySet()) {
+            clearExecutor(database);
+        }
+    }
+
+    private void close(Executor executor) {
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).clearPreparedStatementCache();
+        }
     }
 }
@@ -1,9 +1,12 @@
 package liquibase.executor.jvm;
 
 import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -16,15 +19,54 @@ import liquibase.executor.AbstractExecutor;
 import liquibase.executor.Executor;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.sql.ParameterizedSql;
+import liquibase.sql.Sql;
 import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.ExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 
 public class JdbcExecutor extends AbstractExecutor implements Executor {
+
+    /**
+     * Maximum number of PreparedStatements kept open per executor when {@link #isUsePreparedStatements()} is true.
+     */
+    public static final int PREPARED_STATEMENT_CACHE_SIZE = 50;
+
     private Logger log = LogFactory.getLogger();
 
+    private boolean usePreparedStatements = Boolean.getBoolean("liquibase.usePreparedStatements");
+    private final PreparedStatementCache preparedStatementCache = new PreparedStatementCache(PREPARED_STATEMENT_CACHE_SIZE);
+
+    /**
+     * If true, {@link ParameterizedSql} without any SqlVisitors to apply is executed as a PreparedStatement with bind parameters.
+     * The statements are cached by their parameterized SQL, so repeated statements with the same shape (history rows, lock updates, inserted data)
+     * are only parsed once by the database. Defaults to the "liquibase.usePreparedStatements" system property.
+     */
+    public boolean isUsePreparedStatements() {
+        return usePreparedStatements;
+    }
+
+    public void setUsePreparedStatements(boolean usePreparedStatements) {
+        this.usePreparedStatements = usePreparedStatements;
+        if (!usePreparedStatements) {
+            clearPreparedStatementCache();
+        }
+    }
+
+    /**
+     * Closes all cached PreparedStatements.
+     */
+    public void clearPreparedStatementCache() {
+        preparedStatementCache.clear();
+    }
+
+    int getCachedPreparedStatementCount() {
+        return preparedStatementCache.size();
+    }
+
     public boolean updatesDatabase() {
         return true;
     }
@@ -74,9 +116,25 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
             ((ExecutablePreparedStatement)sql).execute(new PreparedStatementFactory((JdbcConnection)this.database.getConnection()));
             return;
         }
+        if (canUsePreparedStatements(sqlVisitors)) {
+            execute(new ExecuteStatementCallback(sql, SqlGeneratorFactory.getInstance().generateSql(sql, this.database)), sqlVisitors);
+            return;
+        }
         execute(new ExecuteStatementCallback(sql, sqlVisitors), sqlVisitors);
     }
 
+    /**
+     * Executes the statements in order, sending them to the database as JDBC batches of up to batchSize statements instead of one round trip each.
+     * Does not commit. {@link ExecutablePreparedStatement}s are executed on their own after the statements before them have been sent.
+     * If the driver does not support batch updates the statements are executed one at a time.
+     */
+    public void executeBatch(List<? extends SqlStatement> statements, List<SqlVisitor> sqlVisitors, int batchSize) throws DatabaseException {
+        if (statements.isEmpty()) {
+            return;
+        }
+        execute(new BatchStatementCallback(statements, sqlVisitors, batchSize), sqlVisitors);
+    }
+
     public Object query(SqlStatement sql, ResultSetExtractor rse) throws DatabaseException {
         return query(sql, rse, new ArrayList<SqlVisitor>());
     }
@@ -153,9 +211,17 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
     public int update(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof liquibase.statement.CallableSqlStatement)
             throw new DatabaseException("Direct update using CallableSqlStatement not currently implemented");
+        final Sql[] generatedSql = canUsePreparedStatements(sqlVisitors) ? SqlGeneratorFactory.getInstance().generateSql(sql, this.database) : null;
         class UpdateStatementCallback implements StatementCallback {
             public Object doInStatement(Statement stmt) throws SQLException, DatabaseException {
-                String[] sqlToExecute = JdbcExecutor.this.applyVisitors(sql, sqlVisitors);
+                if (generatedSql != null) {
+                    if (generatedSql.length != 1)
+                        throw new DatabaseException("Cannot call update on Statement that returns back multiple Sql objects");
+                    if (generatedSql[0] instanceof ParameterizedSql) {
+                        return Integer.valueOf(JdbcExecutor.this.executePrepared((ParameterizedSql) generatedSql[0]));
+                    }
+                }
+                String[] sqlToExecute = generatedSql == null ? JdbcExecutor.this.applyVisitors(sql, sqlVisitors) : toSql(generatedSql);
                 if (sqlToExecute.length != 1)
                     throw new DatabaseException("Cannot call update on Statement that returns back multiple Sql objects");
                 JdbcExecutor.this.log.debug("Executing UPDATE database command: " + sqlToExecute[0]);
@@ -177,6 +243,61 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
         return new SingleColumnRowMapper(requiredType);
     }
 
+    private boolean canUsePreparedStatements(List<SqlVisitor> sqlVisitors) {
+        return this.usePreparedStatements && (sqlVisitors == null || sqlVisitors.isEmpty());
+    }
+
+    private String[] toSql(Sql[] sql) {
+        String[] returnSql = new String[sql.length];
+        for (int i = 0; i < sql.length; i++) {
+            returnSql[i] = sql[i] == null ? null : sql[i].toSql();
+        }
+        return returnSql;
+    }
+
+    private String fixStatement(String statement) {
+        if (this.database instanceof liquibase.database.core.OracleDatabase)
+            statement = statement.replaceFirst("/\\s*/\\s*$", "");
+        return statement;
+    }
+
+    /**
+     * Returns the cached PreparedStatement for the sql with its parameters bound.
+     */
+    private PreparedStatement prepareStatement(ParameterizedSql sql) throws SQLException {
+        Connection connection = ((JdbcConnection) this.database.getConnection()).getUnderlyingConnection();
+        String statementSql = fixStatement(sql.getParameterizedSql());
+        PreparedStatement stmt = this.preparedStatementCache.get(connection, statementSql);
+        try {
+            List<Object> parameters = sql.getParameters();
+            Object[] args = new Object[parameters.size()];
+            for (int i = 0; i < args.length; i++) {
+                Object value = parameters.get(i);
+                if (value instanceof String && this.database instanceof liquibase.database.core.PostgresDatabase) {
+                    value = new SqlParameterValue(Types.OTHER, value); //let postgres infer the type like it does for an inlined 'literal'
+                }
+                args[i] = value;
+            }
+            new ArgPreparedStatementSetter(args).setValues(stmt);
+        } catch (SQLException e) {
+            this.preparedStatementCache.remove(statementSql);
+            throw e;
+        }
+        return stmt;
+    }
+
+    private int executePrepared(ParameterizedSql sql) throws SQLException {
+        log.debug("Executing PREPARED database command: " + sql.toSql());
+        prepare();
+        PreparedStatement stmt = prepareStatement(sql);
+        try {
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            this.preparedStatementCache.remove(fixStatement(sql.getParameterizedSql()));
+            throw e;
+        }
+    }
+
     public void comment(String message) throws DatabaseException {
         LogFactory.getLogger().debug(message);
     }
@@ -207,30 +328,178 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
 
         private final List<SqlVisitor> sqlVisitors;
 
+        private final Sql[] generatedSql;
+
         private ExecuteStatementCallback(SqlStatement sql, List<SqlVisitor> sqlVisitors) {
             this.sql = sql;
             this.sqlVisitors = sqlVisitors;
+            this.generatedSql = null;
+        }
+
+        /**
+         * Executes already generated Sql, using PreparedStatements for {@link ParameterizedSql}.
+         */
+        private ExecuteStatementCallback(SqlStatement sql, Sql[] generatedSql) {
+            this.sql = sql;
+            this.sqlVisitors = new ArrayList<SqlVisitor>();
+            this.generatedSql = generatedSql;
         }
 
         public Object doInStatement(Statement stmt) throws SQLException, DatabaseException {
+            if (this.generatedSql != null) {
+                for (Sql generated : this.generatedSql) {
+                    if (generated instanceof ParameterizedSql) {
+                        JdbcExecutor.this.executePrepared((ParameterizedSql) generated);
+                    } else if (generated != null) {
+                        execute(stmt, generated.toSql());
+                    }
+                }
+                return null;
+            }
             for (String statement : JdbcExecutor.this.applyVisitors(this.sql, this.sqlVisitors)) {
-                if (JdbcExecutor.this.database instanceof liquibase.database.core.OracleDatabase)
-                    statement = statement.replaceFirst("/\\s*/\\s*$", "");
+                execute(stmt, statement);
+            }
+            return null;
+        }
+
+        private void execute(Statement stmt, String statement) throws SQLException {
+            statement = JdbcExecutor.this.fixStatement(statement);
+            JdbcExecutor.this.log.debug("Executing EXECUTE database command: " + statement);
+            if (statement.contains("?"))
+                stmt.setEscapeProcessing(false);
+            JdbcExecutor.this.prepare();
+            stmt.execute(statement);
+        }
+
+        public SqlStatement getStatement() {
+            return this.sql;
+        }
+    }
+
+    private class BatchStatementCallback implements StatementCallback {
+        private final List<? extends SqlStatement> statements;
+
+        private final List<SqlVisitor> sqlVisitors;
+
+        private final int batchSize;
+
+        private SqlStatement currentStatement;
+
+        private int pending;
+
+        private PreparedStatement preparedBatch;
+
+        private String preparedBatchSql;
+
+        private int preparedPending;
+
+        private BatchStatementCallback(List<? extends SqlStatement> statements, List<SqlVisitor> sqlVisitors, int batchSize) {
+            this.statements = statements;
+            this.sqlVisitors = sqlVisitors;
+            this.batchSize = Math.max(1, batchSize);
+            this.currentStatement = statements.get(0);
+        }
+
+        public Object doInStatement(Statement stmt) throws SQLException, DatabaseException {
+            boolean supportsBatch = stmt.getConnection().getMetaData().supportsBatchUpdates();
+            boolean usePreparedStatements = JdbcExecutor.this.canUsePreparedStatements(this.sqlVisitors);
+            JdbcExecutor.this.prepare();
+            for (SqlStatement sql : this.statements) {
+                this.currentStatement = sql;
+                if (sql instanceof ExecutablePreparedStatement) {
+                    flush(stmt);
+                    ((ExecutablePreparedStatement) sql).execute(new PreparedStatementFactory((JdbcConnection) JdbcExecutor.this.database.getConnection()));
+                    continue;
+                }
+                if (usePreparedStatements) {
+                    for (Sql generated : SqlGeneratorFactory.getInstance().generateSql(sql, JdbcExecutor.this.database)) {
+                        if (generated instanceof ParameterizedSql && supportsBatch) {
+                            addPrepared(stmt, (ParameterizedSql) generated);
+                        } else if (generated instanceof ParameterizedSql) {
+                            JdbcExecutor.this.executePrepared((ParameterizedSql) generated);
+                        } else if (generated != null) {
+                            add(stmt, generated.toSql(), supportsBatch);
+                        }
+                    }
+                } else {
+                    for (String statement : JdbcExecutor.this.applyVisitors(sql, this.sqlVisitors)) {
+                        if (statement != null) {
+                            add(stmt, statement, supportsBatch);
+                        }
+                    }
+                }
+            }
+            flush(stmt);
+            return null;
+        }
+
+        private void add(Statement stmt, String statement, boolean supportsBatch) throws SQLException {
+            flushPrepared();
+            statement = JdbcExecutor.this.fixStatement(statement);
+            if (statement.contains("?"))
+                stmt.setEscapeProcessing(false);
+            if (supportsBatch) {
+                JdbcExecutor.this.log.debug("Adding BATCH database command: " + statement);
+                stmt.addBatch(statement);
+                if (++this.pending >= this.batchSize) {
+                    flushStatement(stmt);
+                }
+            } else {
                 JdbcExecutor.this.log.debug("Executing EXECUTE database command: " + statement);
-                if (statement.contains("?"))
-                    stmt.setEscapeProcessing(false);
+                stmt.execute(statement);
+            }
+        }
+
+        /**
+         * Consecutive statements with the same parameterized SQL are batched on the same PreparedStatement.
+         */
+        private void addPrepared(Statement stmt, ParameterizedSql sql) throws SQLException {
+            flushStatement(stmt);
+            String statementSql = JdbcExecutor.this.fixStatement(sql.getParameterizedSql());
+            if (this.preparedBatch != null && !statementSql.equals(this.preparedBatchSql)) {
+                flushPrepared();
+            }
+            JdbcExecutor.this.log.debug("Adding PREPARED BATCH database command: " + sql.toSql());
+            this.preparedBatch = JdbcExecutor.this.prepareStatement(sql);
+            this.preparedBatchSql = statementSql;
+            this.preparedBatch.addBatch();
+            if (++this.preparedPending >= this.batchSize) {
+                flushPrepared();
+            }
+        }
+
+        private void flush(Statement stmt) throws SQLException {
+            flushStatement(stmt);
+            flushPrepared();
+        }
+
+        private void flushStatement(Statement stmt) throws SQLException {
+            if (this.pending > 0) {
+                JdbcExecutor.this.log.debug("Executing BATCH of " + this.pending + " database commands");
+                this.pending = 0;
+                stmt.executeBatch();
+                stmt.clearBatch();
+            }
+        }
+
+        private void flushPrepared() throws SQLException {
+            if (this.preparedPending > 0) {
+                JdbcExecutor.this.log.debug("Executing PREPARED BATCH of " + this.preparedPending + " database commands");
+                this.preparedPending = 0;
                 try {
-                    JdbcExecutor.this.prepare();
-                    stmt.execute(statement);
+                    this.preparedBatch.executeBatch();
+                    this.preparedBatch.clearBatch();
                 } catch (SQLException e) {
+                    JdbcExecutor.this.preparedStatementCache.remove(this.preparedBatchSql);
                     throw e;
                 }
             }
-            return null;
+            this.preparedBatch = null;
+            this.preparedBatchSql = null;
         }
 
         public SqlStatement getStatement() {
-            return this.sql;
+            return this.currentStatement;
         }
     }
 
@@ -0,0 +1,87 @@
+package liquibase.executor.jvm;
+
+import liquibase.util.JdbcUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least recently used cache of PreparedStatements by SQL for a single connection.
+ * Statements evicted from the cache are closed. If the cache is asked for a statement on a different connection than before, all cached statements are closed first.
+ */
+class PreparedStatementCache {
+
+    private final int maxSize;
+    private Connection connection;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    PreparedStatementCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.maxSize) {
+                    JdbcUtils.closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached statement for the sql, preparing and caching it if there is none or the cached one has been closed.
+     */
+    synchronized PreparedStatement get(Connection connection, String sql) throws SQLException {
+        if (this.connection != connection) {
+            clear();
+            this.connection = connection;
+        }
+
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && isClosed(statement)) {
+            statements.remove(sql);
+            statement = null;
+        }
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Closes and removes the statement for the sql, for example after it failed and may no longer be usable.
+     */
+    synchronized void remove(String sql) {
+        JdbcUtils.closeStatement(statements.remove(sql));
+    }
+
+    synchronized void clear() {
+        List<PreparedStatement> toClose = new ArrayList<PreparedStatement>(statements.values());
+        statements.clear();
+        for (PreparedStatement statement : toClose) {
+            JdbcUtils.closeStatement(statement);
+        }
+        connection = null;
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private boolean isClosed(PreparedStatement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        } catch (AbstractMethodError e) {
+            return false; //pre-JDBC 4 driver, assume it is still open
+        }
+    }
+}
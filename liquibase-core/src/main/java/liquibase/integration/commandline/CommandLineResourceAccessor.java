@@ -1,6 +1,7 @@
 package liquibase.integration.commandline;
 
-import liquibase.resource.ResourceAccessor;
+import liquibase.resource.FingerprintingResourceAccessor;
+import liquibase.resource.ResourceChecksumCache;
 import liquibase.util.StringUtils;
 
 import java.io.IOException;
@@ -16,7 +17,7 @@ import java.util.List;
  *
  * @see liquibase.resource.ResourceAccessor
  */
-public class CommandLineResourceAccessor implements ResourceAccessor {
+public class CommandLineResourceAccessor implements FingerprintingResourceAccessor {
     private ClassLoader loader;
 
     public CommandLineResourceAccessor(ClassLoader loader) {
@@ -25,6 +26,19 @@ public class CommandLineResourceAccessor implements ResourceAccessor {
 
     @Override
     public InputStream getResourceAsStream(String file) throws IOException {
+        URL resource = getResource(file);
+        if (resource == null) {
+            return null;
+        }
+        return resource.openStream();
+    }
+
+    @Override
+    public String getResourceFingerprint(String file) throws IOException {
+        return ResourceChecksumCache.getFingerprint(getResource(file));
+    }
+
+    private URL getResource(String file) {
         URL resource = loader.getResource(file);
         if (resource == null) {
             // One more try. People are often confused about leading
@@ -32,11 +46,8 @@ public class CommandLineResourceAccessor implements ResourceAccessor {
             if (file.startsWith("/")) {
                 resource = loader.getResource(file.substring(1));
             }
-            if (resource == null) {
-                return null;
-            }
         }
-        return resource.openStream();
+        return resource;
     }
 
     @Override
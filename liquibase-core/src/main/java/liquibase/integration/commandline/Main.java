@@ -38,6 +38,7 @@ import liquibase.exception.DatabaseException;
 import liquibase.exception.ValidationFailedException;
 import liquibase.lockservice.LockService;
 import liquibase.lockservice.LockServiceFactory;
+import liquibase.lockservice.StandardLockService;
 import liquibase.logging.LogFactory;
 import liquibase.logging.LogLevel;
 import liquibase.logging.Logger;
@@ -733,6 +734,13 @@ public class Main {
         CommandLineResourceAccessor clOpener = new CommandLineResourceAccessor(this.classLoader);
         Database database = CommandLineUtils.createDatabaseObject(this.classLoader, this.url, this.username, this.password, this.driver, this.defaultCatalogName, this.defaultSchemaName,
                 Boolean.parseBoolean(this.outputDefaultCatalog), Boolean.parseBoolean(this.outputDefaultSchema), this.databaseClass, this.driverPropertiesFile, null, null);
+        Database heartbeatDatabase = null;
+        LockService databaseLockService = LockServiceFactory.getInstance().getLockService(database);
+        if (databaseLockService instanceof StandardLockService && ((StandardLockService) databaseLockService).getChangeLogLockLeaseTime() > 0) {
+            heartbeatDatabase = CommandLineUtils.createDatabaseObject(this.classLoader, this.url, this.username, this.password, this.driver, this.defaultCatalogName, this.defaultSchemaName,
+                    Boolean.parseBoolean(this.outputDefaultCatalog), Boolean.parseBoolean(this.outputDefaultSchema), this.databaseClass, this.driverPropertiesFile, null, null);
+            ((StandardLockService) databaseLockService).setHeartbeatDatabase(heartbeatDatabase);
+        }
         try {
             CompositeResourceAccessor fileOpener = new CompositeResourceAccessor(new ResourceAccessor[] { (ResourceAccessor)fsOpener, clOpener });
             boolean includeCatalog = Boolean.parseBoolean(getCommandParam("includeCatalog", "false"));
@@ -877,6 +885,14 @@ public class Main {
             } catch (DatabaseException e) {
                 LogFactory.getLogger().warning("problem closing connection", (Throwable)e);
             }
+            if (heartbeatDatabase != null) {
+                ((StandardLockService) databaseLockService).setHeartbeatDatabase(null);
+                try {
+                    heartbeatDatabase.close();
+                } catch (DatabaseException e) {
+                    LogFactory.getLogger().warning("problem closing connection", (Throwable)e);
+                }
+            }
         }
     }
 
@@ -5,8 +5,18 @@ package liquibase.integration.spring;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -41,6 +51,11 @@ import org.springframework.core.io.ResourceLoader;
  *	&lt;property name="changeLog" value="classpath:db/migration/db-changelog.xml" /&gt;	
  * &lt;/bean&gt;
  * </pre>
+ * <br/>
+ * By default data sources are migrated one after another and the first failure stops the migration.
+ * Set {@link #setParallelism(int)} to migrate several data sources at the same time and {@link #setFailFast(boolean)} to false
+ * to migrate every data source and report all failures at the end. The time and result for each data source are logged when
+ * all migrations are complete and are available from {@link #getTenantResults()}.
  * 
  * @see SpringLiquibase
  * 
@@ -68,12 +83,20 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
     private boolean shouldRun = true;
 
     private File rollbackFile;
+
+	/** Number of data sources migrated at the same time. 1 migrates them one after another. */
+	private int parallelism = 1;
+
+	/** If true, no new data sources are migrated after one fails. Otherwise all are migrated and failures are reported together. */
+	private boolean failFast = true;
+
+	private List<TenantResult> tenantResults = Collections.emptyList();
 	
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		resolveDataSources();
-		runOnAllDataSources();
+		runOnAllDataSources(dataSources);
 	}
 
 	private void resolveDataSources() throws NamingException {
@@ -103,27 +126,130 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		}
 	}
 
-	private void runOnAllDataSources() throws LiquibaseException {
-		for(DataSource dataSource : dataSources) {
-			log.info("Initializing Liquibase for data source " + dataSource);
-			SpringLiquibase liquibase = new SpringLiquibase();
-			liquibase.setChangeLog(changeLog);
-			liquibase.setChangeLogParameters(parameters);
-			liquibase.setContexts(contexts);
-			liquibase.setDefaultSchema(defaultSchema);
-			liquibase.setDropFirst(dropFirst);
-			liquibase.setShouldRun(shouldRun);
-			liquibase.setRollbackFile(rollbackFile);
-			
-			liquibase.setResourceLoader(resourceLoader);
-			
-			liquibase.setDataSource(dataSource);
+	/**
+	 * Runs Liquibase on every data source, honouring {@link #parallelism} and {@link #failFast}.
+	 * The failure is rethrown as it was raised if only one data source failed or failFast is set.
+	 */
+	void runOnAllDataSources(List<DataSource> dataSources) throws LiquibaseException {
+		long startTime = System.currentTimeMillis();
+		final List<TenantResult> results = Collections.synchronizedList(new ArrayList<TenantResult>());
+		final AtomicBoolean failed = new AtomicBoolean(false);
+
+		if (parallelism <= 1 || dataSources.size() <= 1) {
+			for (DataSource dataSource : dataSources) {
+				results.add(runOnDataSource(dataSource, failed));
+			}
+		} else {
+			int threads = Math.min(parallelism, dataSources.size());
+			log.info("Running Liquibase on " + dataSources.size() + " data sources using " + threads + " threads");
+			ExecutorService threadPool = Executors.newFixedThreadPool(threads, new TenantThreadFactory());
+			try {
+				CompletionService<TenantResult> completionService = new ExecutorCompletionService<TenantResult>(threadPool);
+				for (final DataSource dataSource : dataSources) {
+					completionService.submit(new Callable<TenantResult>() {
+						@Override
+						public TenantResult call() {
+							return runOnDataSource(dataSource, failed);
+						}
+					});
+				}
+				for (int i = 0; i < dataSources.size(); i++) {
+					results.add(completionService.take().get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new LiquibaseException("Interrupted while running Liquibase on data sources", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new LiquibaseException(e.getCause());
+			} finally {
+				threadPool.shutdown();
+			}
+		}
+
+		tenantResults = Collections.unmodifiableList(new ArrayList<TenantResult>(results));
+		reportResults(System.currentTimeMillis() - startTime);
+	}
 
-			liquibase.afterPropertiesSet();
-			log.info("Liquibase ran for data source " + dataSource);
+	/**
+	 * Runs Liquibase on a single data source and records how long it took. Never throws, failures are recorded in the result.
+	 * If another data source already failed and {@link #failFast} is set, the data source is skipped.
+	 */
+	private TenantResult runOnDataSource(DataSource dataSource, AtomicBoolean failed) {
+		if (failFast && failed.get()) {
+			return new TenantResult(dataSource, 0, null, true);
+		}
+		long startTime = System.currentTimeMillis();
+		try {
+			runLiquibase(dataSource);
+			return new TenantResult(dataSource, System.currentTimeMillis() - startTime, null, false);
+		} catch (Exception e) {
+			failed.set(true);
+			return new TenantResult(dataSource, System.currentTimeMillis() - startTime, e, false);
 		}
 	}
 
+	private void reportResults(long totalTime) throws LiquibaseException {
+		List<TenantResult> failures = new ArrayList<TenantResult>();
+		int skipped = 0;
+		for (TenantResult result : tenantResults) {
+			if (result.isSkipped()) {
+				skipped++;
+				log.info("Liquibase skipped data source " + result.getDataSource() + " after an earlier failure");
+			} else if (result.isSuccessful()) {
+				log.info("Liquibase ran for data source " + result.getDataSource() + " in " + result.getDuration() + "ms");
+			} else {
+				failures.add(result);
+				log.severe("Liquibase failed for data source " + result.getDataSource() + " after " + result.getDuration() + "ms", result.getException());
+			}
+		}
+		log.info("Liquibase ran for " + tenantResults.size() + " data sources in " + totalTime + "ms: "
+				+ (tenantResults.size() - failures.size() - skipped) + " succeeded, " + failures.size() + " failed, " + skipped + " skipped");
+
+		if (failures.isEmpty()) {
+			return;
+		}
+		Exception firstException = failures.get(0).getException();
+		if (failFast || failures.size() == 1) {
+			if (firstException instanceof LiquibaseException) {
+				throw (LiquibaseException) firstException;
+			}
+			if (firstException instanceof RuntimeException) {
+				throw (RuntimeException) firstException;
+			}
+			throw new LiquibaseException(firstException);
+		}
+
+		StringBuilder message = new StringBuilder("Liquibase failed for " + failures.size() + " of " + tenantResults.size() + " data sources:");
+		for (TenantResult failure : failures) {
+			message.append("\n  ").append(failure.getDataSource()).append(": ").append(failure.getException().getMessage());
+		}
+		throw new LiquibaseException(message.toString(), firstException);
+	}
+
+	/**
+	 * Runs Liquibase on a single data source. Called from the worker threads when {@link #parallelism} is greater than 1.
+	 */
+	protected void runLiquibase(DataSource dataSource) throws LiquibaseException {
+		log.info("Initializing Liquibase for data source " + dataSource);
+		SpringLiquibase liquibase = new SpringLiquibase();
+		liquibase.setChangeLog(changeLog);
+		liquibase.setChangeLogParameters(parameters);
+		liquibase.setContexts(contexts);
+		liquibase.setDefaultSchema(defaultSchema);
+		liquibase.setDropFirst(dropFirst);
+		liquibase.setShouldRun(shouldRun);
+		liquibase.setRollbackFile(rollbackFile);
+		
+		liquibase.setResourceLoader(resourceLoader);
+		
+		liquibase.setDataSource(dataSource);
+
+		liquibase.afterPropertiesSet();
+	}
+
 	
 	public String getJndiBase() {
 		return jndiBase;
@@ -189,10 +315,97 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		this.rollbackFile = rollbackFile;
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets how many data sources are migrated at the same time. Defaults to 1.
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	/**
+	 * If true, the default, no further data sources are migrated once one fails and that failure is thrown.
+	 * If false, all data sources are migrated and a single exception listing every failure is thrown at the end.
+	 */
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	/**
+	 * Returns the result of the last run for each data source, in the order the migrations completed.
+	 */
+	public List<TenantResult> getTenantResults() {
+		return tenantResults;
+	}
+
 	@Override
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
 	}
 
+	/**
+	 * The outcome of running Liquibase on one data source.
+	 */
+	public static class TenantResult {
+		private final DataSource dataSource;
+		private final long duration;
+		private final Exception exception;
+		private final boolean skipped;
+
+		public TenantResult(DataSource dataSource, long duration, Exception exception, boolean skipped) {
+			this.dataSource = dataSource;
+			this.duration = duration;
+			this.exception = exception;
+			this.skipped = skipped;
+		}
+
+		public DataSource getDataSource() {
+			return dataSource;
+		}
+
+		/**
+		 * Time taken in milliseconds.
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		/**
+		 * The failure, or null if the migration succeeded or was skipped.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+
+		/**
+		 * True if the data source was not migrated because another one failed first.
+		 */
+		public boolean isSkipped() {
+			return skipped;
+		}
+
+		public boolean isSuccessful() {
+			return !skipped && exception == null;
+		}
+	}
+
+	private static class TenantThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "liquibase-tenant-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
 	
 }
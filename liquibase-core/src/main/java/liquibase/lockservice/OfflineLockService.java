@@ -1,5 +1,6 @@
 package liquibase.lockservice;
 
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.database.Database;
 import liquibase.database.OfflineConnection;
 import liquibase.exception.DatabaseException;
@@ -56,9 +57,15 @@ public class OfflineLockService implements LockService {
         return true;
     }
 
+    /**
+     * Also resets the change log history service, so an offline history file written as a journal during the run is compacted.
+     */
     @Override
     public void releaseLock() throws LockException {
         this.hasChangeLogLock = false;
+        if (database != null) {
+            ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).reset();
+        }
     }
 
     @Override
@@ -68,7 +75,7 @@ public class OfflineLockService implements LockService {
 
     @Override
     public void forceReleaseLock() throws LockException, DatabaseException {
-        this.hasChangeLogLock = false;
+        releaseLock();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package liquibase.lockservice;
 
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.database.Database;
 import liquibase.database.core.DerbyDatabase;
 import liquibase.exception.DatabaseException;
@@ -11,6 +12,7 @@ import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sqlgenerator.core.LockDatabaseChangeLogGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Table;
@@ -20,7 +22,25 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock service using the DATABASECHANGELOGLOCK table.
+ * <p>
+ * Waiting for the lock backs off exponentially with jitter, starting at one second and capped at the recheck time, so many processes waiting
+ * for the same lock do not poll it in step.
+ * <p>
+ * If a lease time is set (see {@link #LOCK_LEASE_TIME_SYSTEM_PROPERTY}) the lock is treated as a lease: a waiter that sees the same LOCKEDBY and LOCKGRANTED
+ * values for longer than the lease time assumes the holder is gone and takes the lock over. The time is measured on the waiter's clock, so clock differences between
+ * the processes do not matter. The holder renews its lease by updating LOCKGRANTED from a background thread, which needs its own connection set with
+ * {@link #setHeartbeatDatabase(Database)}, because renewing must be committed independently of the changes being applied. Without one the lease is not renewed and
+ * the lease time must be longer than any update takes. Every process sharing the lock table must use the same lease time.
+ */
 public class StandardLockService implements LockService {
 
     private Database database;
@@ -30,7 +50,31 @@ public class StandardLockService implements LockService {
     private long changeLogLockWaitTime = 1000 * 60 * 5;  //default to 5 mins
     private long changeLogLocRecheckTime = 1000 * 10;  //default to every 10 seconds
 
+    private long changeLogLockLeaseTime = 0; //no lease by default, locks are held until released
+
     public static final String LOCK_WAIT_TIME_SYSTEM_PROPERTY = "liquibase.changeLogLockWaitTimeInMinutes";
+    public static final String LOCK_LEASE_TIME_SYSTEM_PROPERTY = "liquibase.changeLogLockLeaseTimeInSeconds";
+
+    private static final long INITIAL_BACKOFF = 1000;
+
+    private final Random random = new Random();
+
+    private Database heartbeatDatabase;
+    private ScheduledExecutorService heartbeat;
+    private volatile boolean leaseLost = false;
+    private final String leaseOwner = LockDatabaseChangeLogGenerator.getLockedBy() + " " + UUID.randomUUID().toString();
+
+    private String observedLockedBy;
+    private long observedLockGranted;
+    private Date observedLockGrantedValue;
+    private long observedSince;
+
+    private long lockWaitCount;
+    private long totalLockWaitTime;
+    private long maxLockWaitTime;
+    private long lastLockWaitTime;
+    private long lockAttemptCount;
+    private long expiredLeaseTakeoverCount;
 
     private boolean hasDatabaseChangeLogLockTable = false;
     private boolean isDatabaseChangeLogLockTableInitialized = false;
@@ -42,6 +86,12 @@ public class StandardLockService implements LockService {
         } catch (NumberFormatException e) {
             // was non or not valid configuration, we will keep the standard value
         }
+        try {
+            changeLogLockLeaseTime = 1000 * Long.parseLong(System.getProperty(LOCK_LEASE_TIME_SYSTEM_PROPERTY));
+            LogFactory.getLogger().info("lockLeaseTime change to: " + changeLogLockLeaseTime);
+        } catch (NumberFormatException e) {
+            // was non or not valid configuration, we will keep the standard value
+        }
     }
 
     public StandardLockService() {
@@ -72,6 +122,90 @@ public class StandardLockService implements LockService {
         this.changeLogLocRecheckTime = changeLogLocRecheckTime;
     }
 
+    /**
+     * Sets how long, in milliseconds, a lock that is not renewed stays valid. 0 or less means locks never expire.
+     */
+    public void setChangeLogLockLeaseTime(long changeLogLockLeaseTime) {
+        this.changeLogLockLeaseTime = changeLogLockLeaseTime;
+    }
+
+    public long getChangeLogLockLeaseTime() {
+        return changeLogLockLeaseTime;
+    }
+
+    /**
+     * Sets a second database, connected to the same database as the one being locked, used to renew the lease while the lock is held.
+     * The caller is responsible for closing it.
+     */
+    public void setHeartbeatDatabase(Database heartbeatDatabase) {
+        this.heartbeatDatabase = heartbeatDatabase;
+    }
+
+    public Database getHeartbeatDatabase() {
+        return heartbeatDatabase;
+    }
+
+    /**
+     * Returns the LOCKEDBY value this service writes. With a lease time set it ends with a token unique to this service,
+     * so a takeover or renewal can tell it apart from other processes on the same host.
+     */
+    public String getLockedBy() {
+        if (changeLogLockLeaseTime > 0) {
+            return leaseOwner;
+        }
+        return LockDatabaseChangeLogGenerator.getLockedBy();
+    }
+
+    /**
+     * Returns true if the heartbeat found that another process took the lock over while this service held it.
+     */
+    public boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    /**
+     * Throws a LockException if the lease of the held lock has been taken over by another process.
+     * Called before each changeSet is run, so a process that lost its lease stops instead of running alongside the new owner.
+     */
+    public void checkLease() throws LockException {
+        if (leaseLost) {
+            throw new LockException("Change log lock lease was taken over by another process, stopping");
+        }
+    }
+
+    /**
+     * Returns how many times {@link #waitForLock()} acquired the lock or gave up.
+     */
+    public long getLockWaitCount() {
+        return lockWaitCount;
+    }
+
+    /**
+     * Returns the total milliseconds spent in {@link #waitForLock()}.
+     */
+    public long getTotalLockWaitTime() {
+        return totalLockWaitTime;
+    }
+
+    public long getMaxLockWaitTime() {
+        return maxLockWaitTime;
+    }
+
+    public long getLastLockWaitTime() {
+        return lastLockWaitTime;
+    }
+
+    /**
+     * Returns how many times {@link #waitForLock()} tried to acquire the lock.
+     */
+    public long getLockAttemptCount() {
+        return lockAttemptCount;
+    }
+
+    public long getExpiredLeaseTakeoverCount() {
+        return expiredLeaseTakeoverCount;
+    }
+
     @Override
     public void init() throws DatabaseException {
 
@@ -143,17 +277,42 @@ public class StandardLockService implements LockService {
     public void waitForLock() throws LockException {
 
         boolean locked = false;
-        long timeToGiveUp = new Date().getTime() + changeLogLockWaitTime;
-        while (!locked && new Date().getTime() < timeToGiveUp) {
-            locked = acquireLock();
-            if (!locked) {
+        long started = new Date().getTime();
+        long timeToGiveUp = started + changeLogLockWaitTime;
+        long backoff = Math.min(INITIAL_BACKOFF, changeLogLocRecheckTime);
+        int attempts = 0;
+        try {
+            while (true) {
+                attempts++;
+                locked = acquireLock(attempts == 1);
+                if (!locked) {
+                    locked = takeOverExpiredLease();
+                }
+                long now = new Date().getTime();
+                if (locked || now >= timeToGiveUp) {
+                    break;
+                }
+
                 LogFactory.getLogger().info("Waiting for changelog lock....");
+                long sleep = backoff / 2 + (long) (random.nextDouble() * (backoff / 2 + 1));
+                backoff = Math.min(backoff * 2, changeLogLocRecheckTime);
                 try {
-                    Thread.sleep(changeLogLocRecheckTime);
+                    Thread.sleep(Math.max(0, Math.min(sleep, timeToGiveUp - now)));
                 } catch (InterruptedException e) {
-                    ;
+                    Thread.currentThread().interrupt();
+                    throw new LockException("Interrupted while waiting for change log lock");
                 }
             }
+        } finally {
+            long waited = new Date().getTime() - started;
+            lockWaitCount++;
+            lockAttemptCount += attempts;
+            totalLockWaitTime += waited;
+            lastLockWaitTime = waited;
+            maxLockWaitTime = Math.max(maxLockWaitTime, waited);
+            if (attempts > 1) {
+                LogFactory.getLogger().info("Waited " + waited + "ms for change log lock, " + attempts + " attempts");
+            }
         }
 
         if (!locked) {
@@ -171,6 +330,13 @@ public class StandardLockService implements LockService {
 
     @Override
     public boolean acquireLock() throws LockException {
+        return acquireLock(true);
+    }
+
+    /**
+     * Tries to acquire the lock. The lock table is only checked and created if initialize is true, waitForLock only does it on the first attempt.
+     */
+    protected boolean acquireLock(boolean initialize) throws LockException {
         if (hasChangeLogLock) {
             return true;
         }
@@ -179,7 +345,9 @@ public class StandardLockService implements LockService {
 
         try {
             database.rollback();
-            this.init();
+            if (initialize) {
+                this.init();
+            }
 
             Boolean locked = (Boolean) ExecutorService.getInstance().getExecutor(database).queryForObject(new SelectFromDatabaseChangeLogLockStatement("LOCKED"), Boolean.class);
 
@@ -188,7 +356,7 @@ public class StandardLockService implements LockService {
             } else {
 
                 executor.comment("Lock Database");
-                int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement());
+                int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement(getLockedBy()));
                 if (rowsUpdated > 1) {
                     throw new LockException("Did not update change log lock correctly");
                 }
@@ -197,14 +365,63 @@ public class StandardLockService implements LockService {
                     // another node was faster
                     return false;
                 }
-                database.commit();
-                LogFactory.getLogger().info("Successfully acquired change log lock");
+                lockAcquired();
+                return true;
+            }
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            try {
+                database.rollback();
+            } catch (DatabaseException e) {
+                ;
+            }
+        }
 
-                hasChangeLogLock = true;
+    }
 
-                database.setCanCacheLiquibaseTableInfo(true);
-                return true;
+    /**
+     * Takes the lock over if a lease time is set and the current holder has not renewed it for longer than that.
+     */
+    protected boolean takeOverExpiredLease() throws LockException {
+        if (changeLogLockLeaseTime <= 0 || hasChangeLogLock) {
+            return hasChangeLogLock;
+        }
+
+        try {
+            DatabaseChangeLogLock[] locks = readLocks();
+            long now = new Date().getTime();
+            if (locks.length == 0) {
+                observedLockedBy = null;
+                return false;
+            }
+
+            DatabaseChangeLogLock lock = locks[0];
+            long lockGranted = lock.getLockGranted() == null ? 0 : lock.getLockGranted().getTime();
+            if (observedLockedBy == null || !observedLockedBy.equals(lock.getLockedBy()) || observedLockGranted != lockGranted) {
+                observedLockedBy = lock.getLockedBy();
+                observedLockGranted = lockGranted;
+                observedLockGrantedValue = lock.getLockGranted();
+                observedSince = now;
+                return false;
             }
+            if (now - observedSince < changeLogLockLeaseTime) {
+                return false;
+            }
+
+            LogFactory.getLogger().warning("Change log lock held by " + lock.getLockedBy() + " has not been renewed for " + (now - observedSince) + "ms, taking it over");
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.comment("Take over expired Database Lock");
+            int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement(getLockedBy(), observedLockedBy, observedLockGrantedValue));
+            observedLockedBy = null;
+            if (rowsUpdated != 1) {
+                return false; //another node was faster or the holder came back
+            }
+            expiredLeaseTakeoverCount++;
+            lockAcquired();
+            return true;
+        } catch (LockException e) {
+            throw e;
         } catch (Exception e) {
             throw new LockException(e);
         } finally {
@@ -214,14 +431,79 @@ public class StandardLockService implements LockService {
                 ;
             }
         }
+    }
+
+    private void lockAcquired() throws DatabaseException {
+        database.commit();
+        LogFactory.getLogger().info("Successfully acquired change log lock");
 
+        hasChangeLogLock = true;
+        observedLockedBy = null;
+
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).reset();
+        database.setCanCacheLiquibaseTableInfo(true);
+        startHeartbeat();
+    }
+
+    private synchronized void startHeartbeat() {
+        leaseLost = false;
+        if (changeLogLockLeaseTime <= 0 || heartbeatDatabase == null || heartbeat != null) {
+            return;
+        }
+        long interval = Math.max(changeLogLockLeaseTime / 3, 1);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-lock-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        heartbeat.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                renewLease();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+    }
+
+    /**
+     * Renews the lease through the heartbeat database. Runs on the heartbeat thread.
+     */
+    protected void renewLease() {
+        try {
+            int rowsUpdated = ExecutorService.getInstance().getExecutor(heartbeatDatabase).update(new RenewDatabaseChangeLogLockStatement(getLockedBy()));
+            heartbeatDatabase.commit();
+            if (rowsUpdated == 0) {
+                leaseLost = true;
+                LogFactory.getLogger().severe("Change log lock lease was lost, it has been taken over by another process");
+                stopHeartbeat();
+            }
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Could not renew change log lock lease: " + e.getMessage(), e);
+            try {
+                heartbeatDatabase.rollback();
+            } catch (DatabaseException e1) {
+                ;
+            }
+        }
     }
 
     @Override
     public void releaseLock() throws LockException {
         Executor executor = ExecutorService.getInstance().getExecutor(database);
+        stopHeartbeat();
         try {
-            if (this.hasDatabaseChangeLogLockTable()) {
+            if (leaseLost) {
+                LogFactory.getLogger().warning("Not releasing change log lock, its lease has been taken over by another process");
+            } else if (this.hasDatabaseChangeLogLockTable()) {
                 executor.comment("Release Database Lock");
                 database.rollback();
                 int updatedRows = executor.update(new UnlockDatabaseChangeLogStatement());
@@ -235,8 +517,10 @@ public class StandardLockService implements LockService {
         } finally {
             try {
                 hasChangeLogLock = false;
+                leaseLost = false;
 
                 database.setCanCacheLiquibaseTableInfo(false);
+                ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).reset();
 
                 LogFactory.getLogger().info("Successfully released change log lock");
                 database.rollback();
@@ -252,7 +536,14 @@ public class StandardLockService implements LockService {
             if (!this.hasDatabaseChangeLogLockTable()) {
                 return new DatabaseChangeLogLock[0];
             }
+            return readLocks();
+        } catch (Exception e) {
+            throw new LockException(e);
+        }
+    }
 
+    private DatabaseChangeLogLock[] readLocks() throws LockException {
+        try {
             List<DatabaseChangeLogLock> allLocks = new ArrayList<DatabaseChangeLogLock>();
             SqlStatement sqlStatement = new SelectFromDatabaseChangeLogLockStatement("ID", "LOCKED", "LOCKGRANTED", "LOCKEDBY");
             List<Map<String, ?>> rows = ExecutorService.getInstance().getExecutor(database).queryForList(sqlStatement);
@@ -288,7 +579,10 @@ public class StandardLockService implements LockService {
 
     @Override
     public void reset() {
+        stopHeartbeat();
         hasChangeLogLock = false;
+        leaseLost = false;
+        observedLockedBy = null;
     }
 
     @Override
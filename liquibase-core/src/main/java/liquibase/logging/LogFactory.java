@@ -7,16 +7,16 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class LogFactory {
-    private static Map<String, Logger> loggers = new HashMap<String, Logger>();
-    private static String defaultLoggingLevel = null;
+    private static final Map<String, Logger> loggers = new HashMap<String, Logger>();
+    private static volatile String defaultLoggingLevel = null;
 
     private static LogFactory instance;
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new LogFactory();
     }
 
-    public static LogFactory getInstance() {
+    public static synchronized LogFactory getInstance() {
         if (instance == null) {
             instance = new LogFactory();
         }
@@ -26,7 +26,7 @@ public class LogFactory {
     /**
      * Set the instance used by this singleton. Used primarily for testing.
      */
-    public static void setInstance(LogFactory instance) {
+    public static synchronized void setInstance(LogFactory instance) {
         LogFactory.instance = instance;
     }
 
@@ -38,21 +38,22 @@ public class LogFactory {
     }
 
     public Logger getLog(String name) {
-        if (!loggers.containsKey(name)) {
-            Logger value;
-            try {
-                value = (Logger) ServiceLocator.getInstance().newInstance(Logger.class);
-            } catch (Exception e) {
-                throw new ServiceNotFoundException(e);
+        synchronized (loggers) {
+            Logger logger = loggers.get(name);
+            if (logger == null) {
+                try {
+                    logger = (Logger) ServiceLocator.getInstance().newInstance(Logger.class);
+                } catch (Exception e) {
+                    throw new ServiceNotFoundException(e);
+                }
+                logger.setName(name);
+                if (defaultLoggingLevel != null) {
+                    logger.setLogLevel(defaultLoggingLevel);
+                }
+                loggers.put(name, logger);
             }
-            value.setName(name);
-            if (defaultLoggingLevel != null) {
-                value.setLogLevel(defaultLoggingLevel);
-            }
-            loggers.put(name, value);
+            return logger;
         }
-
-        return loggers.get(name);
     }
 
     /**
@@ -32,8 +32,14 @@ public interface Logger extends PrioritizedService {
 
     void debug(String message, Throwable e);
 
+    /**
+     * Sets the changelog being run by the current thread, or null once it is done. Changelogs may be run on several threads at the same time.
+     */
     void setChangeLog(DatabaseChangeLog databaseChangeLog);
 
+    /**
+     * Sets the changeSet being run by the current thread, or null once it is done.
+     */
     void setChangeSet(ChangeSet changeSet);
 
 }
@@ -17,8 +17,12 @@ public class DefaultLogger extends AbstractLogger {
 
     private String name = "liquibase";
     private PrintStream err = System.err;
-    private String changeLogName = null;
-    private String changeSetName = null;
+
+    /**
+     * The changelog and changeSet being run are kept per thread, because one logger is shared by changelogs updated in parallel.
+     */
+    private final ThreadLocal<String> changeLogName = new ThreadLocal<String>();
+    private final ThreadLocal<String> changeSetName = new ThreadLocal<String>();
 
     public DefaultLogger() {
         String passedLevel = System.getProperty("liquibase.defaultlogger.level");
@@ -69,6 +73,9 @@ public class DefaultLogger extends AbstractLogger {
             return;
         }
 
+        String changeLogName = this.changeLogName.get();
+        String changeSetName = this.changeSetName.get();
+
         List<String> description = new ArrayList<String>();
         description.add(name);
         if (changeLogName != null) {
@@ -138,14 +145,18 @@ public class DefaultLogger extends AbstractLogger {
     @Override
     public void setChangeLog(DatabaseChangeLog databaseChangeLog) {
       if (databaseChangeLog == null) {
-        changeLogName = null;
+        changeLogName.remove();
       } else {
-        changeLogName  = databaseChangeLog.getFilePath();
+        changeLogName.set(databaseChangeLog.getFilePath());
       }
     }
 
     @Override
     public void setChangeSet(ChangeSet changeSet) {
-      changeSetName = (changeSet == null ? null : changeSet.toString(false));
+      if (changeSet == null) {
+        changeSetName.remove();
+      } else {
+        changeSetName.set(changeSet.toString(false));
+      }
     }
 }
@@ -0,0 +1,217 @@
+package liquibase.parser;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in on-disk cache of parsed changelog files, enabled by setting the {@value #CACHE_DIRECTORY_PROPERTY} system property to a directory.
+ * <p>
+ * Entries are keyed by the MD5 of the raw file content plus the format of the cached data, so an edited file simply misses the cache
+ * and is re-parsed while unchanged includes of the same changelog are still served from disk.
+ * The cached data is the parser input after syntax parsing and validation but before changelog parameters are expanded,
+ * which means the same entry is valid for any set of {@link liquibase.changelog.ChangeLogParameters}.
+ * Entries written by a different Liquibase version or cache format are ignored.
+ */
+public class ChangeLogCache {
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "liquibase.changeLogCache.directory";
+
+    private static final int MAGIC = 0x4C424343;
+    private static final int CACHE_FORMAT_VERSION = 1;
+    private static final int MAX_LENGTH = 256 * 1024 * 1024;
+
+    private static ChangeLogCache instance;
+
+    private final File directory;
+    private final String liquibaseVersion;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public static synchronized ChangeLogCache getInstance() {
+        if (instance == null) {
+            String directory = StringUtils.trimToNull(System.getProperty(CACHE_DIRECTORY_PROPERTY));
+            instance = new ChangeLogCache(directory == null ? null : new File(directory));
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Set the instance used by this singleton. Used primarily for testing.
+     */
+    public static synchronized void setInstance(ChangeLogCache instance) {
+        ChangeLogCache.instance = instance;
+    }
+
+    /**
+     * Creates a cache storing entries in the given directory. Passing null creates a disabled cache.
+     */
+    public ChangeLogCache(File directory) {
+        this.directory = directory;
+        this.liquibaseVersion = LiquibaseUtil.getBuildVersion();
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Reads the full content of the given resource, or returns null if it does not exist.
+     */
+    public static byte[] readContent(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws IOException {
+        InputStream stream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
+        if (stream == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            StreamUtil.copy(stream, content);
+            return content.toByteArray();
+        } finally {
+            StreamUtil.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Returns the data cached for the given file content and format, or null if there is no usable entry.
+     */
+    public byte[] get(String format, byte[] content) {
+        if (!isEnabled()) {
+            return null;
+        }
+        File file = getCacheFile(format, content);
+        if (!file.exists()) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC
+                    || in.readInt() != CACHE_FORMAT_VERSION
+                    || !format.equals(readString(in))
+                    || !liquibaseVersion.equals(readString(in))) {
+                misses.incrementAndGet();
+                return null;
+            }
+            int length = in.readInt();
+            if (length < 0 || length > MAX_LENGTH) {
+                throw new IOException("Invalid data length " + length);
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+            hits.incrementAndGet();
+            return data;
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Ignoring unreadable changelog cache entry " + file.getAbsolutePath() + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            StreamUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Stores the data for the given file content and format. Failures are logged and otherwise ignored since the cache is only an optimization.
+     * Entries are written to a temporary file and renamed so concurrent readers never see partial data.
+     */
+    public void put(String format, byte[] content, byte[] data) {
+        if (!isEnabled()) {
+            return;
+        }
+        File file = getCacheFile(format, content);
+        File tempFile = null;
+        DataOutputStream out = null;
+        try {
+            if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+                throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+            }
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(MAGIC);
+            out.writeInt(CACHE_FORMAT_VERSION);
+            writeString(out, format);
+            writeString(out, liquibaseVersion);
+            out.writeInt(data.length);
+            out.write(data);
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                if (!tempFile.renameTo(file)) {
+                    throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+                }
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Cannot write changelog cache entry " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            StreamUtil.closeQuietly(out);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    protected File getCacheFile(String format, byte[] content) {
+        return new File(directory, format + "-" + MD5Util.computeMD5(new ByteArrayInputStream(content)) + ".bin");
+    }
+
+    /**
+     * Writes a possibly null string without the 64k limit of {@link DataOutputStream#writeUTF(String)}.
+     */
+    public static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    public static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_LENGTH) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+}
@@ -16,11 +16,11 @@ public class ChangeLogParserFactory {
     private Comparator<ChangeLogParser> changelogParserComparator;
 
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new ChangeLogParserFactory();
     }
 
-    public static ChangeLogParserFactory getInstance() {
+    public static synchronized ChangeLogParserFactory getInstance() {
         if (instance == null) {
              instance = new ChangeLogParserFactory();
         }
@@ -30,7 +30,7 @@ public class ChangeLogParserFactory {
     /**
      * Set the instance used by this singleton. Used primarily for testing.
      */
-    public static void setInstance(ChangeLogParserFactory instance) {
+    public static synchronized void setInstance(ChangeLogParserFactory instance) {
         ChangeLogParserFactory.instance = instance;
     }
 
@@ -0,0 +1,188 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnknownChangelogFormatException;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the changelog files included by a changelog, in the order they are declared.
+ * <p>
+ * By default each file is parsed in turn on the calling thread. If the "liquibase.parser.threads" system property is set to more than 1,
+ * files that cannot affect the parsing of other files are parsed concurrently on a pool of that many worker threads instead.
+ * Those are files that do not include other files and do not define changelog parameters, which is checked conservatively by looking for
+ * "include" and "property" anywhere in their content. Any other file is a barrier: it is parsed on the calling thread once all the files declared
+ * before it have been parsed, and the files declared after it are only started once it is done.
+ * Parameters are therefore defined in exactly the same order as with sequential parsing and every file sees the same parameters.
+ */
+public class IncludedChangeLogParser {
+
+    public static final String THREADS_PROPERTY = "liquibase.parser.threads";
+
+    private static IncludedChangeLogParser instance;
+
+    private final int threads;
+    private ExecutorService executor;
+
+    public static synchronized IncludedChangeLogParser getInstance() {
+        if (instance == null) {
+            int threads = 1;
+            String threadsProperty = System.getProperty(THREADS_PROPERTY);
+            if (threadsProperty != null) {
+                try {
+                    threads = Integer.parseInt(threadsProperty.trim());
+                } catch (NumberFormatException e) {
+                    LogFactory.getLogger().warning("Ignoring invalid " + THREADS_PROPERTY + " value " + threadsProperty);
+                }
+            }
+            instance = new IncludedChangeLogParser(threads);
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        setInstance(null);
+    }
+
+    public static synchronized void setInstance(IncludedChangeLogParser instance) {
+        if (IncludedChangeLogParser.instance != null && IncludedChangeLogParser.instance != instance) {
+            IncludedChangeLogParser.instance.shutdown();
+        }
+        IncludedChangeLogParser.instance = instance;
+    }
+
+    public IncludedChangeLogParser(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isParallel() {
+        return threads > 1;
+    }
+
+    /**
+     * Parses the given files and returns their changelogs in the same order. Files no parser supports are returned as null.
+     */
+    public List<DatabaseChangeLog> parse(List<String> fileNames, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        List<DatabaseChangeLog> changeLogs = new ArrayList<DatabaseChangeLog>(fileNames.size());
+        if (!isParallel() || fileNames.size() < 2) {
+            for (String fileName : fileNames) {
+                changeLogs.add(parseFile(fileName, changeLogParameters, resourceAccessor));
+            }
+            return changeLogs;
+        }
+
+        List<Future<DatabaseChangeLog>> running = new ArrayList<Future<DatabaseChangeLog>>();
+        try {
+            for (final String fileName : fileNames) {
+                if (canParseConcurrently(fileName, resourceAccessor)) {
+                    running.add(submit(fileName, changeLogParameters, resourceAccessor));
+                } else {
+                    collect(running, changeLogs);
+                    changeLogs.add(parseFile(fileName, changeLogParameters, resourceAccessor));
+                }
+            }
+            collect(running, changeLogs);
+        } finally {
+            for (Future<DatabaseChangeLog> future : running) {
+                future.cancel(true);
+            }
+        }
+        return changeLogs;
+    }
+
+    protected DatabaseChangeLog parseFile(String fileName, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        try {
+            return ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters, resourceAccessor);
+        } catch (UnknownChangelogFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the file neither includes other files nor defines parameters, so parsing it cannot change how any other file is parsed.
+     */
+    protected boolean canParseConcurrently(String fileName, ResourceAccessor resourceAccessor) {
+        byte[] content;
+        try {
+            content = ChangeLogCache.readContent(fileName, resourceAccessor);
+        } catch (IOException e) {
+            return false;
+        }
+        if (content == null) {
+            return false;
+        }
+        String text = new String(content).toLowerCase(Locale.ENGLISH);
+        return !text.contains("include") && !text.contains("property");
+    }
+
+    private Future<DatabaseChangeLog> submit(final String fileName, final ChangeLogParameters changeLogParameters, final ResourceAccessor resourceAccessor) {
+        return getExecutor().submit(new Callable<DatabaseChangeLog>() {
+            @Override
+            public DatabaseChangeLog call() throws Exception {
+                return parseFile(fileName, changeLogParameters, resourceAccessor);
+            }
+        });
+    }
+
+    /**
+     * Waits for the running parses in order, adding their results to changeLogs. Stops at the first failure, so the error reported is the one sequential parsing would have hit.
+     */
+    private void collect(List<Future<DatabaseChangeLog>> running, List<DatabaseChangeLog> changeLogs) throws LiquibaseException {
+        while (!running.isEmpty()) {
+            Future<DatabaseChangeLog> future = running.get(0);
+            try {
+                changeLogs.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChangeLogParseException("Interrupted while parsing included changelogs", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof LiquibaseException) {
+                    throw (LiquibaseException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new ChangeLogParseException(cause);
+            }
+            running.remove(0);
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "liquibase-parser-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package liquibase.parser.core.xml;
+
+import liquibase.parser.ChangeLogCache;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passes the element and text events of a changelog through to an {@link XMLChangeLogSAXHandler} while recording them in a compact binary form.
+ * The recording is stored in the {@link ChangeLogCache} and replayed into a new handler by {@link #replay(byte[], ContentHandler)},
+ * which skips XML parsing and schema validation entirely.
+ * Events are recorded after validation, so attribute defaults from the XSD are included.
+ */
+class SAXEventRecorder extends DefaultHandler {
+
+    private static final byte START_ELEMENT = 1;
+    private static final byte END_ELEMENT = 2;
+    private static final byte CHARACTERS = 3;
+
+    private final DefaultHandler delegate;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    SAXEventRecorder(DefaultHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        try {
+            out.writeByte(START_ELEMENT);
+            ChangeLogCache.writeString(out, uri);
+            ChangeLogCache.writeString(out, localName);
+            ChangeLogCache.writeString(out, qName);
+            out.writeInt(attributes.getLength());
+            for (int i = 0; i < attributes.getLength(); i++) {
+                ChangeLogCache.writeString(out, attributes.getURI(i));
+                ChangeLogCache.writeString(out, attributes.getLocalName(i));
+                ChangeLogCache.writeString(out, attributes.getQName(i));
+                ChangeLogCache.writeString(out, attributes.getType(i));
+                ChangeLogCache.writeString(out, attributes.getValue(i));
+            }
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        delegate.startElement(uri, localName, qName, attributes);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        try {
+            out.writeByte(END_ELEMENT);
+            ChangeLogCache.writeString(out, uri);
+            ChangeLogCache.writeString(out, localName);
+            ChangeLogCache.writeString(out, qName);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        delegate.endElement(uri, localName, qName);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        try {
+            out.writeByte(CHARACTERS);
+            ChangeLogCache.writeString(out, new String(ch, start, length));
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        delegate.characters(ch, start, length);
+    }
+
+    public byte[] toByteArray() {
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Sends the events of a recording to the given handler.
+     * The whole recording is decoded before any event is sent, so a corrupt recording throws an IOException without touching the handler.
+     */
+    public static void replay(byte[] recording, ContentHandler handler) throws IOException, SAXException {
+        List<Object[]> events = new ArrayList<Object[]>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(recording));
+        while (in.available() > 0) {
+            byte type = in.readByte();
+            if (type == START_ELEMENT) {
+                String uri = ChangeLogCache.readString(in);
+                String localName = ChangeLogCache.readString(in);
+                String qName = ChangeLogCache.readString(in);
+                int attributeCount = in.readInt();
+                AttributesImpl attributes = new AttributesImpl();
+                for (int i = 0; i < attributeCount; i++) {
+                    attributes.addAttribute(ChangeLogCache.readString(in), ChangeLogCache.readString(in), ChangeLogCache.readString(in), ChangeLogCache.readString(in), ChangeLogCache.readString(in));
+                }
+                events.add(new Object[]{START_ELEMENT, uri, localName, qName, attributes});
+            } else if (type == END_ELEMENT) {
+                events.add(new Object[]{END_ELEMENT, ChangeLogCache.readString(in), ChangeLogCache.readString(in), ChangeLogCache.readString(in)});
+            } else if (type == CHARACTERS) {
+                String text = ChangeLogCache.readString(in);
+                if (text == null) {
+                    throw new IOException("Missing text for characters event");
+                }
+                events.add(new Object[]{CHARACTERS, text.toCharArray()});
+            } else {
+                throw new IOException("Unknown event type " + type);
+            }
+        }
+
+        for (Object[] event : events) {
+            byte type = (Byte) event[0];
+            if (type == START_ELEMENT) {
+                handler.startElement((String) event[1], (String) event[2], (String) event[3], (Attributes) event[4]);
+            } else if (type == END_ELEMENT) {
+                handler.endElement((String) event[1], (String) event[2], (String) event[3]);
+            } else {
+                char[] text = (char[]) event[1];
+                handler.characters(text, 0, text.length);
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -57,6 +58,7 @@ import liquibase.exception.UnknownChangelogFormatException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.IncludedChangeLogParser;
 import liquibase.precondition.CustomPreconditionWrapper;
 import liquibase.precondition.Precondition;
 import liquibase.precondition.PreconditionFactory;
@@ -105,6 +107,13 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 	private Contexts modifySqlContexts;
 	private boolean modifySqlAppliedOnRollback = false;
 
+	private final IncludedChangeLogParser includedChangeLogParser;
+	/**
+	 * Resolved paths of include elements not parsed yet. Only used if {@link IncludedChangeLogParser#isParallel()}, when consecutive includes
+	 * are collected and parsed together as soon as any other element is reached.
+	 */
+	private final List<String> pendingIncludes = new ArrayList<String>();
+
     protected XMLChangeLogSAXHandler(String physicalChangeLogLocation,
 			ResourceAccessor resourceAccessor,
 			ChangeLogParameters changeLogParameters) {
@@ -121,6 +130,7 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
         preconditionFactory = PreconditionFactory.getInstance();
         sqlVisitorFactory = SqlVisitorFactory.getInstance();
         changeLogParserFactory = ChangeLogParserFactory.getInstance();
+        includedChangeLogParser = IncludedChangeLogParser.getInstance();
     }
 
 	public DatabaseChangeLog getDatabaseChangeLog() {
@@ -131,6 +141,10 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 	public void startElement(String uri, String localName, String qName, Attributes baseAttributes) throws SAXException {
 		Attributes atts = new ExpandingAttributes(baseAttributes);
 		try {
+			if (!"include".equals(qName)) {
+				handlePendingIncludes();
+			}
+
 			if ("comment".equals(qName)) {
 				text = new StringBuffer();
 			} else if ("validCheckSum".equals(qName)) {
@@ -158,10 +172,18 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				}
 				databaseChangeLog.setObjectQuotingStrategy(quotingStrategy);
 			} else if ("include".equals(qName)) {
+				String rawFileName = baseAttributes.getValue("file");
+				if (rawFileName != null && rawFileName.contains("${")) {
+					handlePendingIncludes(); //earlier includes may define the parameter
+				}
 				String fileName = atts.getValue("file");
 				fileName = fileName.replace('\\', '/');
 				boolean isRelativeToChangelogFile = Boolean.parseBoolean(atts.getValue("relativeToChangelogFile"));
-				handleIncludedChangeLog(fileName, isRelativeToChangelogFile, databaseChangeLog.getPhysicalFilePath());
+				if (includedChangeLogParser.isParallel()) {
+					deferIncludedChangeLog(fileName, isRelativeToChangelogFile, databaseChangeLog.getPhysicalFilePath());
+				} else {
+					handleIncludedChangeLog(fileName, isRelativeToChangelogFile, databaseChangeLog.getPhysicalFilePath());
+				}
 			} else if ("includeAll".equals(qName)) {
 				String pathName = atts.getValue("path");
 				pathName = pathName.replace('\\', '/');
@@ -282,9 +304,16 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 					includedChangeLogs = resourceFilter.filter(includedChangeLogs);
 				}
 
-				for (String path : includedChangeLogs) {
-					if (handleIncludedChangeLog(path, false, databaseChangeLog.getPhysicalFilePath())) {
-						foundResource = true;
+				if (includedChangeLogParser.isParallel()) {
+					for (String path : includedChangeLogs) {
+						deferIncludedChangeLog(path, false, databaseChangeLog.getPhysicalFilePath());
+					}
+					foundResource = handlePendingIncludes() > 0;
+				} else {
+					for (String path : includedChangeLogs) {
+						if (handleIncludedChangeLog(path, false, databaseChangeLog.getPhysicalFilePath())) {
+							foundResource = true;
+						}
 					}
 				}
 
@@ -547,6 +576,21 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 			return false;
 		}
 
+		fileName = resolveIncludedFileName(fileName, isRelativePath, relativeBaseFileName);
+      DatabaseChangeLog changeLog;
+      try {
+         changeLog= changeLogParserFactory.getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters,
+                resourceAccessor);
+      } catch (UnknownChangelogFormatException e) {
+        log.warning("included file "+relativeBaseFileName + "/" + fileName + " is not a recognized file type");
+                    return false;
+      }
+		mergeIncludedChangeLog(changeLog);
+
+		return true;
+	}
+
+	private String resolveIncludedFileName(String fileName, boolean isRelativePath, String relativeBaseFileName) {
 		if (isRelativePath) {
 			// workaround for FilenameUtils.normalize() returning null for relative paths like ../conf/liquibase.xml
 			String tempFile = FilenameUtils.concat(FilenameUtils.getFullPath(relativeBaseFileName), fileName);
@@ -556,15 +600,11 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
 			}
 		}
-      DatabaseChangeLog changeLog;
-      try {
-         changeLog= changeLogParserFactory.getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters,
-                resourceAccessor);
-      } catch (UnknownChangelogFormatException e) {
-        log.warning("included file "+relativeBaseFileName + "/" + fileName + " is not a recognized file type");
-                    return false;
-      }
-      PreconditionContainer preconditions = changeLog.getPreconditions();
+		return fileName;
+	}
+
+	private void mergeIncludedChangeLog(DatabaseChangeLog changeLog) {
+		PreconditionContainer preconditions = changeLog.getPreconditions();
 		if (preconditions != null) {
 			if (null == databaseChangeLog.getPreconditions()) {
 				databaseChangeLog.setPreconditions(new PreconditionContainer());
@@ -574,8 +614,41 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 		for (ChangeSet changeSet : changeLog.getChangeSets()) {
 			handleChangeSet(changeSet);
 		}
+	}
 
-		return true;
+	/**
+	 * Queues the file to be parsed by {@link #handlePendingIncludes()}, like {@link #handleIncludedChangeLog(String, boolean, String)} would parse it.
+	 */
+	private void deferIncludedChangeLog(String fileName, boolean isRelativePath, String relativeBaseFileName) {
+		if (fileName.equalsIgnoreCase(".svn") || fileName.equalsIgnoreCase("cvs")) {
+			return;
+		}
+		pendingIncludes.add(resolveIncludedFileName(fileName, isRelativePath, relativeBaseFileName));
+	}
+
+	/**
+	 * Parses the pending includes through the {@link IncludedChangeLogParser} and merges them in the order they were declared.
+	 * Returns the number of files that were included.
+	 */
+	private int handlePendingIncludes() throws LiquibaseException {
+		if (pendingIncludes.isEmpty()) {
+			return 0;
+		}
+		List<String> fileNames = new ArrayList<String>(pendingIncludes);
+		pendingIncludes.clear();
+
+		List<DatabaseChangeLog> changeLogs = includedChangeLogParser.parse(fileNames, changeLogParameters, resourceAccessor);
+		int included = 0;
+		for (int i = 0; i < fileNames.size(); i++) {
+			DatabaseChangeLog changeLog = changeLogs.get(i);
+			if (changeLog == null) {
+				log.warning("included file "+databaseChangeLog.getPhysicalFilePath() + "/" + fileNames.get(i) + " is not a recognized file type");
+			} else {
+				mergeIncludedChangeLog(changeLog);
+				included++;
+			}
+		}
+		return included;
 	}
 
 	private void setProperty(Object object, String attributeName, String attributeValue) throws IllegalAccessException,
@@ -599,6 +672,10 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 		}
 
 		try {
+			if ("databaseChangeLog".equals(qName)) {
+				handlePendingIncludes();
+			}
+
 			if (changeSubObjects.size() > 0) {
 				changeSubObjects.pop();
 			} else if (rootPrecondition != null) {
@@ -1,5 +1,6 @@
 package liquibase.parser.core.xml;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -10,6 +11,7 @@ import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
+import liquibase.parser.ChangeLogCache;
 import liquibase.parser.ChangeLogParser;
 import liquibase.resource.UtfBomStripperInputStream;
 import liquibase.resource.ResourceAccessor;
@@ -25,6 +27,8 @@ import org.xml.sax.XMLReader;
 
 public class XMLChangeLogSAXParser implements ChangeLogParser {
 
+    private static final String CACHE_FORMAT = "xml-sax";
+
     private SAXParserFactory saxParserFactory;
 
     public XMLChangeLogSAXParser() {
@@ -45,7 +49,7 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
     }
 
     public static String getSchemaVersion() {
-        return "3.1";
+        return "3.2";
     }
 
     @Override
@@ -58,7 +62,29 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
 
         InputStream inputStream = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
+            ChangeLogCache cache = ChangeLogCache.getInstance();
+            byte[] content = null;
+            if (cache.isEnabled()) {
+                content = ChangeLogCache.readContent(physicalChangeLogLocation, resourceAccessor);
+                if (content == null) {
+                    throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+                }
+                byte[] recording = cache.get(CACHE_FORMAT, content);
+                if (recording != null) {
+                    XMLChangeLogSAXHandler cachedHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
+                    try {
+                        SAXEventRecorder.replay(recording, cachedHandler);
+                        return cachedHandler.getDatabaseChangeLog();
+                    } catch (IOException e) {
+                        LogFactory.getLogger().debug("Cannot use cached copy of " + physicalChangeLogLocation + ", parsing it again: " + e.getMessage());
+                    }
+                }
+            }
+
+            SAXParser parser;
+            synchronized (saxParserFactory) { //included files may be parsed concurrently, see IncludedChangeLogParser
+                parser = saxParserFactory.newSAXParser();
+            }
             try {
                 parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
             } catch (SAXNotRecognizedException e) {
@@ -91,15 +117,28 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
                 }
             });
         	
-            inputStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
+            if (content != null) {
+                inputStream = new ByteArrayInputStream(content);
+            } else {
+                inputStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
+            }
             if (inputStream == null) {
                 throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
             }
 
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
-            xmlReader.setContentHandler(contentHandler);
+            SAXEventRecorder recorder = null;
+            if (content != null) {
+                recorder = new SAXEventRecorder(contentHandler);
+                xmlReader.setContentHandler(recorder);
+            } else {
+                xmlReader.setContentHandler(contentHandler);
+            }
             xmlReader.parse(new InputSource(new UtfBomStripperInputStream(inputStream)));
 
+            if (recorder != null) {
+                cache.put(CACHE_FORMAT, content, recorder.toByteArray());
+            }
             return contentHandler.getDatabaseChangeLog();
         } catch (ChangeLogParseException e) {
             throw e;
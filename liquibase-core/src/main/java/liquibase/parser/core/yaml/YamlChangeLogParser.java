@@ -12,6 +12,7 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.parser.ChangeLogCache;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
 import liquibase.precondition.CustomPreconditionWrapper;
@@ -29,7 +30,9 @@ import liquibase.util.ObjectUtil;
 import liquibase.util.file.FilenameUtils;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.*;
@@ -57,17 +60,7 @@ public class YamlChangeLogParser implements ChangeLogParser {
         Yaml yaml = new Yaml();
 
         try {
-            InputStream changeLogStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
-            if (changeLogStream == null) {
-                throw new ChangeLogParseException("Change log file "+physicalChangeLogLocation+" does not exist");
-            }
-
-            Map changeLogAsMap = null;
-            try {
-                changeLogAsMap = yaml.loadAs(changeLogStream, Map.class);
-            } catch (Exception e) {
-                throw new ChangeLogParseException("Syntax error in "+getSupportedFileExtension()+": " + e.getMessage(), e);
-            }
+            Map changeLogAsMap = loadChangeLogMap(yaml, physicalChangeLogLocation, resourceAccessor);
 
             DatabaseChangeLog changeLog = new DatabaseChangeLog(physicalChangeLogLocation);
             changeLog.setChangeLogParameters(changeLogParameters);
@@ -310,6 +303,54 @@ public class YamlChangeLogParser implements ChangeLogParser {
         }
     }
 
+    /**
+     * Loads the file into a map, using the {@link ChangeLogCache} if it is enabled.
+     */
+    protected Map loadChangeLogMap(Yaml yaml, String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException, IOException {
+        ChangeLogCache cache = ChangeLogCache.getInstance();
+        InputStream changeLogStream;
+        byte[] content = null;
+        if (cache.isEnabled()) {
+            content = ChangeLogCache.readContent(physicalChangeLogLocation, resourceAccessor);
+            if (content == null) {
+                throw new ChangeLogParseException("Change log file "+physicalChangeLogLocation+" does not exist");
+            }
+            byte[] cached = cache.get(getSupportedFileExtension(), content);
+            if (cached != null) {
+                try {
+                    Object changeLogAsMap = YamlNodeCodec.decode(cached);
+                    if (changeLogAsMap instanceof Map) {
+                        return (Map) changeLogAsMap;
+                    }
+                } catch (IOException e) {
+                    log.debug("Cannot use cached copy of " + physicalChangeLogLocation + ", parsing it again: " + e.getMessage());
+                }
+            }
+            changeLogStream = new ByteArrayInputStream(content);
+        } else {
+            changeLogStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
+            if (changeLogStream == null) {
+                throw new ChangeLogParseException("Change log file "+physicalChangeLogLocation+" does not exist");
+            }
+        }
+
+        Map changeLogAsMap;
+        try {
+            changeLogAsMap = yaml.loadAs(changeLogStream, Map.class);
+        } catch (Exception e) {
+            throw new ChangeLogParseException("Syntax error in "+getSupportedFileExtension()+": " + e.getMessage(), e);
+        }
+
+        if (content != null && changeLogAsMap != null) {
+            try {
+                cache.put(getSupportedFileExtension(), content, YamlNodeCodec.encode(changeLogAsMap));
+            } catch (IOException e) {
+                log.debug("Not caching " + physicalChangeLogLocation + ": " + e.getMessage());
+            }
+        }
+        return changeLogAsMap;
+    }
+
     public Change parseChange(Map<String, Object> changeMap, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ChangeSet changeSet) throws ChangeLogParseException {
         String changeName = changeMap.keySet().iterator().next();
         Change change = ChangeFactory.getInstance().create(changeName);
@@ -0,0 +1,158 @@
+package liquibase.parser.core.yaml;
+
+import liquibase.parser.ChangeLogCache;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Compact binary form of the map/list tree SnakeYAML loads a changelog into, used to store it in the {@link ChangeLogCache}.
+ * Only the value types SnakeYAML produces for plain documents are supported. Anything else makes {@link #encode(Object)} throw an IOException
+ * and the file is simply not cached.
+ */
+class YamlNodeCodec {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BIG_INTEGER = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BIG_DECIMAL = 6;
+    private static final byte BOOLEAN = 7;
+    private static final byte DATE = 8;
+    private static final byte BYTES = 9;
+    private static final byte LIST = 10;
+    private static final byte MAP = 11;
+
+    public static byte[] encode(Object node) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        write(out, node);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static Object decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        Object node;
+        try {
+            node = read(in);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + e.getMessage());
+        }
+        if (in.available() > 0) {
+            throw new IOException("Unexpected data after document");
+        }
+        return node;
+    }
+
+    private static void write(DataOutputStream out, Object node) throws IOException {
+        if (node == null) {
+            out.writeByte(NULL);
+        } else if (node instanceof String) {
+            out.writeByte(STRING);
+            ChangeLogCache.writeString(out, (String) node);
+        } else if (node instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) node);
+        } else if (node instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) node);
+        } else if (node instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            ChangeLogCache.writeString(out, node.toString());
+        } else if (node instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) node);
+        } else if (node instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            ChangeLogCache.writeString(out, node.toString());
+        } else if (node instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) node);
+        } else if (node.getClass().equals(Date.class)) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) node).getTime());
+        } else if (node instanceof byte[]) {
+            out.writeByte(BYTES);
+            out.writeInt(((byte[]) node).length);
+            out.write((byte[]) node);
+        } else if (node instanceof List) {
+            List list = (List) node;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                write(out, item);
+            }
+        } else if (node instanceof Map) {
+            Map<?, ?> map = (Map) node;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else {
+            throw new IOException("Cannot cache value of type " + node.getClass().getName());
+        }
+    }
+
+    private static Object read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return ChangeLogCache.readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case BIG_INTEGER:
+                return new BigInteger(ChangeLogCache.readString(in));
+            case DOUBLE:
+                return in.readDouble();
+            case BIG_DECIMAL:
+                return new BigDecimal(ChangeLogCache.readString(in));
+            case BOOLEAN:
+                return in.readBoolean();
+            case DATE:
+                return new Date(in.readLong());
+            case BYTES: {
+                byte[] bytes = new byte[readSize(in)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case LIST: {
+                int size = readSize(in);
+                List<Object> list = new ArrayList<Object>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = readSize(in);
+                Map<Object, Object> map = new LinkedHashMap<Object, Object>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    Object key = read(in);
+                    map.put(key, read(in));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown node type " + type);
+        }
+    }
+
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > in.available()) {
+            throw new IOException("Invalid size " + size);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,297 @@
+package liquibase.precondition;
+
+import liquibase.CatalogAndSchema;
+import liquibase.change.AbstractSQLChange;
+import liquibase.change.Change;
+import liquibase.change.ChangeFactory;
+import liquibase.change.ChangeParameterMetaData;
+import liquibase.change.core.*;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.View;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares database snapshots between the preconditions checked during one run over a changelog.
+ * <p>
+ * The first time an object of a given type in a given schema is checked, all objects of that type in the schema are snapshotted at once, and later checks
+ * for that type and schema are answered from the snapshot. Objects named by changes executed during the run are checked directly against the database
+ * from then on, as are all objects after a change whose affected objects are not known, such as raw SQL. Changes that only modify data do not invalidate anything.
+ * <p>
+ * Contexts are started and ended by {@link liquibase.changelog.ChangeLogIterator}. Set the "liquibase.cachePreconditionSnapshots" system property to false to disable them.
+ */
+public class PreconditionEvaluationContext {
+
+    public static final String ENABLED_PROPERTY = "liquibase.cachePreconditionSnapshots";
+
+    private static final Map<Database, PreconditionEvaluationContext> contexts = new ConcurrentHashMap<Database, PreconditionEvaluationContext>();
+
+    private final Database database;
+    private final Map<String, DatabaseSnapshot> snapshots = new HashMap<String, DatabaseSnapshot>();
+    private final Set<String> invalidatedNames = new HashSet<String>();
+    private boolean allInvalidated = false;
+    private boolean constraintsDropped = false;
+    private int snapshotCount = 0;
+
+    protected PreconditionEvaluationContext(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Starts a context for the database if there is none yet. Returns true if a context was started, in which case the caller must {@link #end(Database)} it.
+     */
+    public static boolean begin(Database database) {
+        if (database == null || contexts.containsKey(database) || !Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return false;
+        }
+        if (database.getConnection() == null || database.getConnection() instanceof OfflineConnection) {
+            return false;
+        }
+        contexts.put(database, new PreconditionEvaluationContext(database));
+        return true;
+    }
+
+    public static void end(Database database) {
+        if (database != null) {
+            contexts.remove(database);
+        }
+    }
+
+    /**
+     * Returns the context currently started for the database, or null if there is none.
+     */
+    public static PreconditionEvaluationContext getCurrent(Database database) {
+        if (database == null) {
+            return null;
+        }
+        return contexts.get(database);
+    }
+
+    /**
+     * Returns true if the database contains an object matching the example, using the current context if one is started.
+     * Same as {@link SnapshotGeneratorFactory#has(DatabaseObject, Database)} otherwise.
+     */
+    public static boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        PreconditionEvaluationContext context = getCurrent(database);
+        if (context == null) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+        return context.contains(example);
+    }
+
+    /**
+     * Invalidates the objects affected by a change that was just executed or rolled back, if a context is started for the database.
+     * The affected objects are worked out from the names the change is configured with, so no SQL is generated for it again.
+     */
+    public static void changeExecuted(Change change, Database database) {
+        PreconditionEvaluationContext context = getCurrent(database);
+        if (context == null || isDataChange(change)) {
+            return;
+        }
+        Set<String> names = getAffectedNames(change);
+        if (names == null || names.isEmpty()) {
+            context.invalidateAll();
+        } else {
+            context.invalidateNames(names, mayDropConstraints(change));
+        }
+    }
+
+    /**
+     * Returns true for changes that only modify data or do not touch the database structure.
+     */
+    protected static boolean isDataChange(Change change) {
+        return change instanceof InsertDataChange
+                || change instanceof AbstractModifyDataChange
+                || change instanceof LoadDataChange
+                || change instanceof TagDatabaseChange
+                || change instanceof EmptyChange
+                || change instanceof StopChange;
+    }
+
+    /**
+     * Returns true for changes that can drop foreign keys on other tables than the ones they name.
+     */
+    protected static boolean mayDropConstraints(Change change) {
+        return change instanceof DropTableChange
+                || change instanceof DropColumnChange
+                || change instanceof DropPrimaryKeyChange
+                || change instanceof DropUniqueConstraintChange;
+    }
+
+    /**
+     * Returns the lower-cased object names in the "...Name" properties of the change, or null if they cannot be known.
+     * Column names are left out: columns are always checked with their table, whose name the change also has.
+     */
+    protected static Set<String> getAffectedNames(Change change) {
+        if (change instanceof AbstractSQLChange || change instanceof CustomChangeWrapper || change instanceof ExecuteShellCommandChange) {
+            return null;
+        }
+        Set<String> names = new HashSet<String>();
+        try {
+            for (ChangeParameterMetaData parameter : ChangeFactory.getInstance().getChangeMetaData(change).getParameters().values()) {
+                String parameterName = parameter.getParameterName();
+                Object value = parameter.getCurrentValue(change);
+                if (value instanceof String && isObjectNameParameter(parameterName)) {
+                    names.add(((String) value).toLowerCase(Locale.ENGLISH));
+                }
+            }
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot determine objects affected by " + change.getClass().getSimpleName() + ": " + e.getMessage());
+            return null;
+        }
+        return names;
+    }
+
+    private static boolean isObjectNameParameter(String parameterName) {
+        return parameterName.endsWith("Name")
+                && !parameterName.toLowerCase(Locale.ENGLISH).contains("column")
+                && !parameterName.equals("className")
+                && !parameterName.equals("catalogName") && !parameterName.endsWith("CatalogName")
+                && !parameterName.equals("schemaName") && !parameterName.endsWith("SchemaName");
+    }
+
+    public synchronized boolean contains(DatabaseObject example) throws DatabaseException, InvalidExampleException {
+        if (!isCacheable(example) || isInvalidated(example)) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+
+        DatabaseSnapshot snapshot;
+        try {
+            snapshot = getSnapshot(example);
+        } catch (DatabaseException e) {
+            LogFactory.getLogger().debug("Cannot snapshot " + example.getClass().getSimpleName() + " objects for preconditions, checking directly: " + e.getMessage());
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+        for (DatabaseObject obj : snapshot.get(example.getClass())) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, obj, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the given objects, and objects they belong to, directly against the database from now on.
+     */
+    public synchronized void invalidate(Collection<? extends DatabaseObject> objects) {
+        for (DatabaseObject object : objects) {
+            addNames(object, invalidatedNames, 0);
+        }
+    }
+
+    /**
+     * Checks objects with any of the given lower-cased names, and objects they belong to, directly against the database from now on.
+     * If constraintsDropped is true, foreign keys are always checked directly from now on because they may have been dropped along with a table or key.
+     */
+    public synchronized void invalidateNames(Collection<String> names, boolean constraintsDropped) {
+        invalidatedNames.addAll(names);
+        if (constraintsDropped) {
+            this.constraintsDropped = true;
+        }
+    }
+
+    /**
+     * Discards all snapshots taken so far and checks every object directly against the database for the rest of the run,
+     * the same as without a context, instead of taking the snapshots again.
+     */
+    public synchronized void invalidateAll() {
+        snapshots.clear();
+        allInvalidated = true;
+    }
+
+    /**
+     * Returns how many snapshots this context has taken.
+     */
+    public synchronized int getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Examples whose comparison against a whole-schema snapshot could differ from a direct lookup are always checked directly.
+     */
+    protected boolean isCacheable(DatabaseObject example) {
+        if (example instanceof Column) {
+            return ((Column) example).getRelation() != null;
+        }
+        if (example instanceof PrimaryKey) {
+            return ((PrimaryKey) example).getTable() != null;
+        }
+        return true;
+    }
+
+    private DatabaseSnapshot getSnapshot(DatabaseObject example) throws DatabaseException, InvalidExampleException {
+        CatalogAndSchema catalogAndSchema;
+        if (example.getSchema() == null) {
+            catalogAndSchema = database.getDefaultSchema();
+        } else {
+            catalogAndSchema = example.getSchema().toCatalogAndSchema();
+        }
+        catalogAndSchema = database.correctSchema(catalogAndSchema);
+
+        String key = catalogAndSchema.getCatalogName() + "." + catalogAndSchema.getSchemaName() + ":" + example.getClass().getName();
+        DatabaseSnapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            List<Class<? extends DatabaseObject>> types = new ArrayList<Class<? extends DatabaseObject>>(SnapshotGeneratorFactory.getInstance().getContainerTypes(example.getClass(), database));
+            types.add(example.getClass());
+
+            snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(catalogAndSchema, database, new SnapshotControl(database, types.toArray(new Class[types.size()])));
+            snapshots.put(key, snapshot);
+            snapshotCount++;
+        }
+        return snapshot;
+    }
+
+    private boolean isInvalidated(DatabaseObject example) {
+        if (allInvalidated) {
+            return true;
+        }
+        if (invalidatedNames.isEmpty()) {
+            return false;
+        }
+        if (constraintsDropped && example instanceof ForeignKey) {
+            return true;
+        }
+        Set<String> names = new HashSet<String>();
+        addNames(example, names, 0);
+        for (String name : names) {
+            if (invalidatedNames.contains(name)) {
+                return true;
+            }
+        }
+        //an object without the name of what it belongs to may have been dropped along with it
+        return names.size() <= 1 && !(example instanceof Table || example instanceof View || example instanceof Sequence);
+    }
+
+    private void addNames(DatabaseObject object, Set<String> names, int depth) {
+        if (object == null || object instanceof Schema || object instanceof Catalog || depth > 3) {
+            return;
+        }
+        if (object.getName() != null) {
+            names.add(object.getName().toLowerCase(Locale.ENGLISH));
+        }
+        DatabaseObject[] containingObjects = object.getContainingObjects();
+        if (containingObjects != null) {
+            for (DatabaseObject containingObject : containingObjects) {
+                addNames(containingObject, names, depth + 1);
+            }
+        }
+    }
+}
@@ -3,7 +3,7 @@ package liquibase.precondition.core;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
@@ -68,7 +68,7 @@ public class ColumnExistsPrecondition implements Precondition {
         example.setName(database.correctObjectName(getColumnName(), Column.class));
 
         try {
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionEvaluationContext.has(example, database)) {
                 throw new PreconditionFailedException("Column '" + database.escapeColumnName(catalogName, schemaName, getTableName(), getColumnName()) + "' does not exist", changeLog, this);
             }
         } catch (LiquibaseException e) {
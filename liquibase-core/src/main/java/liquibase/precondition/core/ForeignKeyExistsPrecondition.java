@@ -3,7 +3,7 @@ package liquibase.precondition.core;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.structure.core.ForeignKey;
 import liquibase.exception.*;
 import liquibase.precondition.Precondition;
@@ -70,7 +70,7 @@ public class ForeignKeyExistsPrecondition implements Precondition {
             }
             example.getForeignKeyTable().setSchema(new Schema(getCatalogName(), getSchemaName()));
 
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionEvaluationContext.has(example, database)) {
                     throw new PreconditionFailedException("Foreign Key "+database.escapeIndexName(catalogName, schemaName, foreignKeyName)+" does not exist", changeLog, this);
             }
         } catch (PreconditionFailedException e) {
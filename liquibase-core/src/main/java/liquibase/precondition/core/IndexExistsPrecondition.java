@@ -4,8 +4,7 @@ import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
 import liquibase.logging.LogFactory;
-import liquibase.snapshot.SnapshotGeneratorFactory;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Index;
 import liquibase.structure.core.Schema;
@@ -92,7 +91,7 @@ public class IndexExistsPrecondition implements Precondition {
                     example.getColumns().add(database.correctObjectName(column, Column.class));
                 }
             }
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionEvaluationContext.has(example, database)) {
                 String name = "";
 
                 if (getIndexName() != null) {
@@ -3,7 +3,7 @@ package liquibase.precondition.core;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.structure.core.PrimaryKey;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
@@ -71,7 +71,7 @@ public class PrimaryKeyExistsPrecondition implements Precondition {
             example.setTable(table);
             example.setName(getPrimaryKeyName());
 
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionEvaluationContext.has(example, database)) {
                 if (tableName != null) {
                     throw new PreconditionFailedException("Primary Key does not exist on " + database.escapeObjectName(getTableName(), Table.class), changeLog, this);
                 } else {
@@ -3,8 +3,7 @@ package liquibase.precondition.core;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
-import liquibase.snapshot.SnapshotGeneratorFactory;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionEvaluationContext;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Sequence;
 import liquibase.exception.*;
@@ -55,7 +54,7 @@ public class SequenceExistsPrecondition implements Precondition {
         DatabaseSnapshot snapshot;
         Schema schema = new Schema(getCatalogName(), getSchemaName());
         try {
-            if (!SnapshotGeneratorFactory.getInstance().has(new Sequence().setName(getSequenceName()).setSchema(schema), database)) {
+            if (!PreconditionEvaluationContext.has(new Sequence().setName(getSequenceName()).setSchema(schema), database)) {
                 throw new PreconditionFailedException("Sequence "+database.escapeSequenceName(getCatalogName(), getSchemaName(), getSequenceName())+" does not exist", changeLog, this);
             }
         } catch (LiquibaseException e) {
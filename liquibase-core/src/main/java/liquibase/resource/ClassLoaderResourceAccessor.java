@@ -14,7 +14,7 @@ import java.util.*;
  *
  * @see ResourceAccessor
  */
-public class ClassLoaderResourceAccessor implements ResourceAccessor {
+public class ClassLoaderResourceAccessor implements FingerprintingResourceAccessor {
     private ClassLoader classLoader;
 
     public ClassLoaderResourceAccessor() {
@@ -30,6 +30,11 @@ public class ClassLoaderResourceAccessor implements ResourceAccessor {
         return classLoader.getResourceAsStream(file);
     }
 
+    @Override
+    public String getResourceFingerprint(String file) throws IOException {
+        return ResourceChecksumCache.getFingerprint(classLoader.getResource(file));
+    }
+
     @Override
     public Enumeration<URL> getResources(String packageName) throws IOException {
         try {
@@ -13,7 +13,7 @@ import java.util.*;
  *
  * @author <a href="mailto:csuml@yahoo.co.uk>Paul Keeble</a>
  */
-public class CompositeResourceAccessor implements ResourceAccessor {
+public class CompositeResourceAccessor implements FingerprintingResourceAccessor {
     List<ResourceAccessor> openers;
 
     /**
@@ -51,6 +51,27 @@ public class CompositeResourceAccessor implements ResourceAccessor {
         return null;
     }
 
+    /**
+     * Returns the fingerprint from the first FileOpener that has the file, or null if that FileOpener cannot fingerprint it.
+     */
+    @Override
+    public String getResourceFingerprint(String file) throws IOException {
+        for (ResourceAccessor o : openers) {
+            if (o instanceof FingerprintingResourceAccessor) {
+                String fingerprint = ((FingerprintingResourceAccessor) o).getResourceFingerprint(file);
+                if (fingerprint != null) {
+                    return fingerprint;
+                }
+            }
+            InputStream is = o.getResourceAsStream(file);
+            if (is != null) {
+                is.close();
+                return null;
+            }
+        }
+        return null;
+    }
+
     /**
      * Searches all of the FileOpeners for a directory named packageName. If no
      * results are found within any of the directories then an empty
@@ -15,7 +15,7 @@ import java.util.*;
  *
  * @author <a href="mailto:csuml@yahoo.co.uk>Paul Keeble</a>
  */
-public class FileSystemResourceAccessor implements ResourceAccessor {
+public class FileSystemResourceAccessor implements FingerprintingResourceAccessor {
     String baseDirectory;
 
     /**
@@ -43,16 +43,31 @@ public class FileSystemResourceAccessor implements ResourceAccessor {
      */
     @Override
     public InputStream getResourceAsStream(String file) throws IOException {
+        File resolvedFile = resolveFile(file);
+        if (resolvedFile == null) {
+            return null;
+        }
+        return new BufferedInputStream(new FileInputStream(resolvedFile));
+    }
+
+    @Override
+    public String getResourceFingerprint(String file) throws IOException {
+        return ResourceChecksumCache.getFingerprint(resolveFile(file));
+    }
+
+    /**
+     * Returns the file the given path refers to, resolving relative paths against the baseDirectory, or null if it does not exist.
+     */
+    protected File resolveFile(String file) {
         File absoluteFile = new File(file);
         File relativeFile = (baseDirectory == null) ? new File(file) : new File(baseDirectory, file);
 
         if (absoluteFile.exists() && absoluteFile.isFile() && absoluteFile.isAbsolute()) {
-            return new BufferedInputStream(new FileInputStream(absoluteFile));
+            return absoluteFile;
         } else if (relativeFile.exists() && relativeFile.isFile()) {
-            return new BufferedInputStream(new FileInputStream(relativeFile));
+            return relativeFile;
         } else {
             return null;
-
         }
     }
 
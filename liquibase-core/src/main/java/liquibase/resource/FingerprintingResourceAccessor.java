@@ -0,0 +1,16 @@
+package liquibase.resource;
+
+import java.io.IOException;
+
+/**
+ * Optional extension of {@link ResourceAccessor} for accessors that can tell whether a resource changed from its metadata alone.
+ * Used by {@link ResourceChecksumCache} so checksums of large files are only computed when the file actually changed.
+ */
+public interface FingerprintingResourceAccessor extends ResourceAccessor {
+
+    /**
+     * Returns a string which changes whenever the content of the given resource changes, such as its location, size and modification time
+     * or its jar entry CRC. Returns null if the resource does not exist or cannot be fingerprinted without reading it.
+     */
+    public String getResourceFingerprint(String file) throws IOException;
+}
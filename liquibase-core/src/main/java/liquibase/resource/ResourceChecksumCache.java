@@ -0,0 +1,259 @@
+package liquibase.resource;
+
+import liquibase.change.CheckSum;
+import liquibase.logging.LogFactory;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+/**
+ * Caches checksums of resources such as sqlFile and loadData files by the fingerprint returned from a {@link FingerprintingResourceAccessor},
+ * so a file is only read again when its size, modification time or jar entry CRC changed.
+ * <p>
+ * Checksums are always kept in memory. If the {@value #CACHE_FILE_PROPERTY} system property is set they are also stored in that properties file
+ * when {@link #flush()} is called at the end of a run, so later runs can reuse them. Only the checksum of the current fingerprint of a resource is kept.
+ * Resources from accessors that cannot fingerprint them are checksummed every time as before.
+ * <p>
+ * Files modified within the last {@value #RECENTLY_MODIFIED_MILLIS} ms are not fingerprinted, because a same-size edit within the file system's
+ * modification time granularity would not change the fingerprint.
+ */
+public class ResourceChecksumCache {
+
+    public static final String CACHE_FILE_PROPERTY = "liquibase.checksumCache.file";
+    public static final long RECENTLY_MODIFIED_MILLIS = 3000;
+
+    private static ResourceChecksumCache instance;
+
+    private final File file;
+    private final Map<String, String> checkSums = new ConcurrentHashMap<String, String>();
+    private final Map<String, String> keysByResource = new HashMap<String, String>();
+    private boolean loaded;
+    private volatile boolean dirty;
+
+    /**
+     * Computes the checksum of a resource if it is not cached.
+     */
+    public interface CheckSumGenerator {
+        CheckSum generate() throws IOException;
+    }
+
+    public static synchronized ResourceChecksumCache getInstance() {
+        if (instance == null) {
+            String file = StringUtils.trimToNull(System.getProperty(CACHE_FILE_PROPERTY));
+            instance = new ResourceChecksumCache(file == null ? null : new File(file));
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Set the instance used by this singleton. Used primarily for testing.
+     */
+    public static synchronized void setInstance(ResourceChecksumCache instance) {
+        ResourceChecksumCache.instance = instance;
+    }
+
+    /**
+     * Creates a cache persisted to the given file. Passing null keeps checksums in memory only.
+     */
+    public ResourceChecksumCache(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the checksum of the given resource, calling the generator only if there is no checksum cached for the current fingerprint of the resource.
+     *
+     * @param variant identifies how the checksum is computed from the content, for example which normalization was applied
+     */
+    public CheckSum getCheckSum(ResourceAccessor resourceAccessor, String path, String variant, CheckSumGenerator generator) throws IOException {
+        String fingerprint = null;
+        if (resourceAccessor instanceof FingerprintingResourceAccessor) {
+            fingerprint = ((FingerprintingResourceAccessor) resourceAccessor).getResourceFingerprint(path);
+        }
+        if (fingerprint == null) {
+            return generator.generate();
+        }
+
+        String key = variant + "|" + fingerprint;
+        load();
+        String cached = checkSums.get(key);
+        if (cached != null) {
+            CheckSum checkSum = CheckSum.parse(cached);
+            if (checkSum.getVersion() == CheckSum.getCurrentVersion()) {
+                return checkSum;
+            }
+        }
+
+        CheckSum checkSum = generator.generate();
+        if (checkSum != null) {
+            put(key, checkSum.toString());
+        }
+        return checkSum;
+    }
+
+    /**
+     * Writes the cache file if checksums were added since it was loaded or last written.
+     */
+    public synchronized void flush() {
+        if (dirty) {
+            save();
+        }
+    }
+
+    public int size() {
+        load();
+        return checkSums.size();
+    }
+
+    /**
+     * Returns a fingerprint for a local file or jar entry URL, or null for other kinds of URLs.
+     */
+    public static String getFingerprint(URL url) throws IOException {
+        if (url == null) {
+            return null;
+        }
+        if (url.getProtocol().equals("file")) {
+            try {
+                return getFingerprint(new File(url.toURI()));
+            } catch (URISyntaxException e) {
+                return null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        if (url.getProtocol().equals("jar")) {
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+                if (entry == null || entry.getCrc() == -1) {
+                    return null;
+                }
+                return url.toExternalForm() + "|" + entry.getSize() + "|" + Long.toHexString(entry.getCrc());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a fingerprint for a local file, or null if it does not exist or was modified too recently for its modification time to be trusted.
+     */
+    public static String getFingerprint(File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        if (file.lastModified() > System.currentTimeMillis() - RECENTLY_MODIFIED_MILLIS) {
+            return null;
+        }
+        return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    /**
+     * Caches the checksum, removing the checksum of the superseded fingerprint of the same resource and variant.
+     */
+    protected synchronized void put(String key, String checkSum) {
+        String superseded = keysByResource.put(getResourceKey(key), key);
+        if (superseded != null && !superseded.equals(key)) {
+            checkSums.remove(superseded);
+        }
+        checkSums.put(key, checkSum);
+        dirty = true;
+    }
+
+    /**
+     * Strips the size and modification time or CRC from the end of a key, leaving the variant and the path or URL of the resource.
+     */
+    protected String getResourceKey(String key) {
+        int crcOrTime = key.lastIndexOf('|');
+        if (crcOrTime <= 0) {
+            return key;
+        }
+        int size = key.lastIndexOf('|', crcOrTime - 1);
+        if (size < 0) {
+            return key;
+        }
+        return key.substring(0, size);
+    }
+
+    protected synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (file == null || !file.exists()) {
+            return;
+        }
+
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            Properties properties = new Properties();
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                put(key, properties.getProperty(key));
+            }
+            dirty = keysByResource.size() < properties.size();
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Cannot read checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            StreamUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes all cached checksums to a temporary file which then replaces the cache file, so concurrent readers never see partial content.
+     */
+    protected synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        File tempFile = null;
+        OutputStream out = null;
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+                throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+            }
+            Properties properties = new Properties();
+            properties.putAll(checkSums);
+
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            out = new BufferedOutputStream(new FileOutputStream(tempFile));
+            properties.store(out, "Liquibase resource checksums");
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                if (!tempFile.renameTo(file)) {
+                    throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+                }
+            }
+            tempFile = null;
+            dirty = false;
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Cannot write checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            StreamUtil.closeQuietly(out);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package liquibase.serializer;
+
+import liquibase.changelog.ChangeSet;
+
+import java.io.IOException;
+
+/**
+ * Writes a changelog one changeSet at a time, created by a {@link StreamingChangeLogSerializer}.
+ */
+public interface ChangeLogWriter {
+
+    void writeChangeSet(ChangeSet changeSet) throws IOException;
+
+    /**
+     * Writes the end of the changelog and flushes it. Streams passed in by the caller are not closed, files opened by the writer are.
+     */
+    void finish() throws IOException;
+}
@@ -5,11 +5,15 @@ import liquibase.exception.UnexpectedLiquibaseException;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ReflectionSerializer {
 
     private static ReflectionSerializer instance = new ReflectionSerializer();
 
+    private final ConcurrentMap<Class<?>, Map<String, Field>> fieldCache = new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+
     public static ReflectionSerializer getInstance() {
         return instance;
     }
@@ -19,48 +23,51 @@ public class ReflectionSerializer {
     }
 
     public Set<String> getFields(Object object) {
-        Set<String> returnSet = new HashSet<String>();
-        Set<Field> allFields = new HashSet<Field>();
-
-        Class classToExtractFieldsFrom = object.getClass();
-        while (!classToExtractFieldsFrom.equals(Object.class)) {
-            allFields.addAll(Arrays.asList(classToExtractFieldsFrom.getDeclaredFields()));
-            classToExtractFieldsFrom = classToExtractFieldsFrom.getSuperclass();
-        }
-
-        for (Field field : allFields) {
-            if (field.getName().equals("serialVersionUID")) {
-                continue;
-            }
-            if (field.isSynthetic() || field.getName().equals("$VRc")) { //from emma
-                continue;
-            }
-
-            returnSet.add(field.getName());
-        }
-
-        return returnSet;
+        return new HashSet<String>(getFieldMap(object.getClass()).keySet());
     }
 
     public Object getValue(Object object, String field) {
         try {
-            Field foundField = null;
-            Class<? extends Object> classToCheck = object.getClass();
-            while (foundField == null && !classToCheck.equals(Object.class)) {
-                try {
-                    foundField = classToCheck.getDeclaredField(field);
-                } catch (NoSuchFieldException e) {
-                    classToCheck = classToCheck.getSuperclass();
-                }
-            }
+            Field foundField = getFieldMap(object.getClass()).get(field);
             if (foundField == null) {
                 throw new UnexpectedLiquibaseException("No field "+field+" on "+object.getClass());
             }
-            foundField.setAccessible(true);
 
             return foundField.get(object);
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
     }
+
+    /**
+     * Returns the serializable fields of the given class and its superclasses, looked up once per class.
+     * Fields declared in a subclass hide same-named fields of superclasses.
+     */
+    private Map<String, Field> getFieldMap(Class<?> type) {
+        Map<String, Field> fields = fieldCache.get(type);
+        if (fields == null) {
+            fields = new HashMap<String, Field>();
+            Class<?> classToExtractFieldsFrom = type;
+            while (!classToExtractFieldsFrom.equals(Object.class)) {
+                for (Field field : classToExtractFieldsFrom.getDeclaredFields()) {
+                    if (field.getName().equals("serialVersionUID")) {
+                        continue;
+                    }
+                    if (field.isSynthetic() || field.getName().equals("$VRc")) { //from emma
+                        continue;
+                    }
+                    if (!fields.containsKey(field.getName())) {
+                        field.setAccessible(true);
+                        fields.put(field.getName(), field);
+                    }
+                }
+                classToExtractFieldsFrom = classToExtractFieldsFrom.getSuperclass();
+            }
+            Map<String, Field> existing = fieldCache.putIfAbsent(type, fields);
+            if (existing != null) {
+                fields = existing;
+            }
+        }
+        return fields;
+    }
 }
@@ -0,0 +1,21 @@
+package liquibase.serializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link ChangeLogSerializer} that can write changeSets as they are generated, so only one changeSet needs to be kept in memory at a time.
+ */
+public interface StreamingChangeLogSerializer extends ChangeLogSerializer {
+
+    /**
+     * Returns a writer for a new changelog written to the stream.
+     */
+    ChangeLogWriter createWriter(OutputStream out) throws IOException;
+
+    /**
+     * Returns a writer that adds changeSets to the end of an existing changelog file.
+     */
+    ChangeLogWriter createAppendWriter(File changeLogFile) throws IOException;
+}
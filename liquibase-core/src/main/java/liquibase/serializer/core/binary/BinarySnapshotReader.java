@@ -0,0 +1,450 @@
+package liquibase.serializer.core.binary;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Reads snapshots written by {@link BinarySnapshotSerializer}.
+ * <p>
+ * The header and section index are read when the reader is created. Objects are read one type at a time with {@link #load(String)}.
+ * Objects referenced by the loaded objects are read along with them, so every returned object is complete. The exception are objects only referenced from maps,
+ * such as the objects of each type kept by a {@link liquibase.structure.core.Schema}: they are created with just their name and filled in when their own type is loaded.
+ * The same object instance is returned for the same snapshot id across all calls.
+ */
+public class BinarySnapshotReader {
+
+    private final File file;
+    private String databaseShortName;
+    private String databaseProductName;
+    private String databaseProductVersion;
+    private final List<String> includedTypes = new ArrayList<String>();
+    private final Map<String, Section> sections = new LinkedHashMap<String, Section>();
+
+    private final Set<String> loadedTypes = new HashSet<String>();
+    private final Map<UUID, DatabaseObject> objectsById = new HashMap<UUID, DatabaseObject>();
+
+    public BinarySnapshotReader(File file) throws IOException {
+        this.file = file;
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            if (randomAccessFile.length() < 16 || randomAccessFile.readInt() != BinarySnapshotSerializer.MAGIC) {
+                throw new IOException(file.getAbsolutePath() + " is not a binary snapshot");
+            }
+            int version = randomAccessFile.readInt();
+            if (version != BinarySnapshotSerializer.FORMAT_VERSION) {
+                throw new IOException("Unsupported binary snapshot version " + version + " in " + file.getAbsolutePath());
+            }
+
+            SectionReader header = new SectionReader(openStream(randomAccessFile, 8));
+            this.databaseShortName = (String) header.readValue();
+            this.databaseProductName = (String) header.readValue();
+            this.databaseProductVersion = (String) header.readValue();
+            int typeCount = header.in.readInt();
+            for (int i = 0; i < typeCount; i++) {
+                includedTypes.add(header.readString());
+            }
+
+            randomAccessFile.seek(randomAccessFile.length() - 8);
+            long indexOffset = randomAccessFile.readLong();
+            SectionReader index = new SectionReader(openStream(randomAccessFile, indexOffset));
+            int sectionCount = index.in.readInt();
+            for (int i = 0; i < sectionCount; i++) {
+                String type = index.readString();
+                sections.put(type, new Section(index.in.readLong(), index.in.readInt()));
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getDatabaseShortName() {
+        return databaseShortName;
+    }
+
+    public String getDatabaseProductName() {
+        return databaseProductName;
+    }
+
+    public String getDatabaseProductVersion() {
+        return databaseProductVersion;
+    }
+
+    /**
+     * Returns the types the snapshot was taken for. Types that are not available in this classpath are skipped.
+     */
+    public Set<Class<? extends DatabaseObject>> getIncludedTypes() {
+        Set<Class<? extends DatabaseObject>> types = new HashSet<Class<? extends DatabaseObject>>();
+        for (String type : includedTypes) {
+            try {
+                types.add((Class<? extends DatabaseObject>) Class.forName(type));
+            } catch (ClassNotFoundException e) {
+                LogFactory.getLogger().warning("Skipping unknown snapshot type " + type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Returns the names of the types the snapshot contains objects for.
+     */
+    public Set<String> getObjectTypes() {
+        return Collections.unmodifiableSet(sections.keySet());
+    }
+
+    /**
+     * Returns the number of objects of the given type in the snapshot.
+     */
+    public int getObjectCount(String type) {
+        Section section = sections.get(type);
+        return section == null ? 0 : section.count;
+    }
+
+    public synchronized boolean isLoaded(String type) {
+        return loadedTypes.contains(type);
+    }
+
+    /**
+     * Reads the objects of the given type, plus the objects of any other type they reference that were not loaded before.
+     * Returns an empty list if the type was already loaded.
+     */
+    public synchronized List<DatabaseObject> load(String type) throws IOException {
+        if (loadedTypes.contains(type) || !sections.containsKey(type)) {
+            loadedTypes.add(type);
+            return Collections.emptyList();
+        }
+
+        List<DatabaseObject> loaded = new ArrayList<DatabaseObject>();
+        List<DatabaseObject> inlineObjects = new ArrayList<DatabaseObject>();
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            loadSection(type, randomAccessFile, loaded, inlineObjects);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        //sets and maps hash their contents, so they are only built once every object they contain is complete
+        for (DatabaseObject object : inlineObjects) {
+            materializeAttributes(object);
+        }
+        for (DatabaseObject object : loaded) {
+            materializeAttributes(object);
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads every type in the snapshot that was not loaded before.
+     */
+    public synchronized List<DatabaseObject> loadAll() throws IOException {
+        List<DatabaseObject> loaded = new ArrayList<DatabaseObject>();
+        for (String type : sections.keySet()) {
+            loaded.addAll(load(type));
+        }
+        return loaded;
+    }
+
+    private void loadSection(String type, RandomAccessFile randomAccessFile, List<DatabaseObject> loaded, List<DatabaseObject> inlineObjects) throws IOException {
+        loadedTypes.add(type);
+        Section section = sections.get(type);
+
+        SectionReader reader = new SectionReader(openStream(randomAccessFile, section.offset));
+        int count = reader.in.readInt();
+        for (int i = 0; i < count; i++) {
+            DatabaseObject object = getObject(type, reader.readId(), null);
+            int attributeCount = reader.in.readInt();
+            for (int j = 0; j < attributeCount; j++) {
+                String attribute = reader.readString();
+                setAttribute(object, attribute, reader.readValue());
+            }
+            loaded.add(object);
+        }
+        inlineObjects.addAll(reader.inlineObjects);
+
+        for (String referencedType : reader.referencedTypes) {
+            if (!loadedTypes.contains(referencedType) && sections.containsKey(referencedType)) {
+                loadSection(referencedType, randomAccessFile, loaded, inlineObjects);
+            }
+        }
+    }
+
+    private DatabaseObject getObject(String type, UUID id, String name) {
+        DatabaseObject object = objectsById.get(id);
+        if (object == null) {
+            object = (DatabaseObject) newInstance(type);
+            object.setSnapshotId(id);
+            if (name != null) {
+                object.setName(name);
+            }
+            objectsById.put(id, object);
+        }
+        return object;
+    }
+
+    /**
+     * Some objects keep their name in a field as well as in their attributes, so it is set through {@link DatabaseObject#setName(String)}.
+     */
+    private void setAttribute(DatabaseObject object, String attribute, Object value) {
+        if (attribute.equals("name") && (value == null || value instanceof String)) {
+            object.setName((String) value);
+        } else {
+            object.setAttribute(attribute, value);
+        }
+    }
+
+    private InputStream openStream(RandomAccessFile randomAccessFile, long offset) throws IOException {
+        randomAccessFile.seek(offset);
+        return new BufferedInputStream(Channels.newInputStream(randomAccessFile.getChannel()));
+    }
+
+    private void materializeAttributes(DatabaseObject object) {
+        for (String attribute : new ArrayList<String>(object.getAttributes())) {
+            Object value = object.getAttribute(attribute, Object.class);
+            Object materialized = materialize(value);
+            if (materialized != value) {
+                object.setAttribute(attribute, materialized);
+            }
+        }
+    }
+
+    private Object materialize(Object value) {
+        if (value instanceof PendingCollection) {
+            PendingCollection pending = (PendingCollection) value;
+            Collection collection;
+            try {
+                collection = (Collection) Class.forName(pending.className).newInstance();
+            } catch (Exception e) {
+                collection = pending.set ? new LinkedHashSet() : new ArrayList();
+            }
+            for (Object element : pending.elements) {
+                collection.add(materialize(element));
+            }
+            return collection;
+        } else if (value instanceof PendingMap) {
+            PendingMap pending = (PendingMap) value;
+            Map map;
+            try {
+                map = (Map) Class.forName(pending.className).newInstance();
+            } catch (Exception e) {
+                map = new HashMap();
+            }
+            for (int i = 0; i < pending.keys.size(); i++) {
+                map.put(materialize(pending.keys.get(i)), materialize(pending.values.get(i)));
+            }
+            return map;
+        }
+        return value;
+    }
+
+    private Object newInstance(String className) {
+        try {
+            return Class.forName(className).newInstance();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException("Cannot create " + className + " from snapshot " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static class Section {
+        private final long offset;
+        private final int count;
+
+        private Section(long offset, int count) {
+            this.offset = offset;
+            this.count = count;
+        }
+    }
+
+    private static class PendingCollection {
+        private final String className;
+        private final boolean set;
+        private final List<Object> elements;
+
+        private PendingCollection(String className, boolean set) {
+            this.className = className;
+            this.set = set;
+            this.elements = new ArrayList<Object>();
+        }
+    }
+
+    private static class PendingMap {
+        private final String className;
+        private final List<Object> keys;
+        private final List<Object> values;
+
+        private PendingMap(String className) {
+            this.className = className;
+            this.keys = new ArrayList<Object>();
+            this.values = new ArrayList<Object>();
+        }
+    }
+
+    private class SectionReader {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<String>();
+        private final Set<String> referencedTypes = new LinkedHashSet<String>();
+        private final List<DatabaseObject> inlineObjects = new ArrayList<DatabaseObject>();
+        private int mapDepth = 0;
+
+        private SectionReader(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return strings.get(-length - 1);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            String value = new String(bytes, "UTF-8");
+            strings.add(value);
+            return value;
+        }
+
+        private UUID readId() throws IOException {
+            return new UUID(in.readLong(), in.readLong());
+        }
+
+        private Object readValue() throws IOException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case BinarySnapshotSerializer.NULL:
+                    return null;
+                case BinarySnapshotSerializer.STRING:
+                    return readString();
+                case BinarySnapshotSerializer.BOOLEAN:
+                    return in.readBoolean();
+                case BinarySnapshotSerializer.INTEGER:
+                    return in.readInt();
+                case BinarySnapshotSerializer.LONG:
+                    return in.readLong();
+                case BinarySnapshotSerializer.BIG_INTEGER:
+                    return new BigInteger(readString());
+                case BinarySnapshotSerializer.BIG_DECIMAL:
+                    return new BigDecimal(readString());
+                case BinarySnapshotSerializer.DOUBLE:
+                    return in.readDouble();
+                case BinarySnapshotSerializer.FLOAT:
+                    return in.readFloat();
+                case BinarySnapshotSerializer.DATE:
+                    return readDate();
+                case BinarySnapshotSerializer.ENUM:
+                    return readEnum();
+                case BinarySnapshotSerializer.OBJECT_REFERENCE:
+                    String type = readString();
+                    UUID id = readId();
+                    String name = (String) readValue();
+                    if (mapDepth == 0) {
+                        referencedTypes.add(type);
+                    }
+                    return getObject(type, id, name);
+                case BinarySnapshotSerializer.OBJECT:
+                    DatabaseObject object = (DatabaseObject) newInstance(readString());
+                    int attributeCount = in.readInt();
+                    for (int i = 0; i < attributeCount; i++) {
+                        String attribute = readString();
+                        setAttribute(object, attribute, readValue());
+                    }
+                    inlineObjects.add(object);
+                    return object;
+                case BinarySnapshotSerializer.LIST:
+                case BinarySnapshotSerializer.SET:
+                    PendingCollection collection = new PendingCollection(readString(), tag == BinarySnapshotSerializer.SET);
+                    int size = in.readInt();
+                    for (int i = 0; i < size; i++) {
+                        collection.elements.add(readValue());
+                    }
+                    return collection;
+                case BinarySnapshotSerializer.MAP:
+                    PendingMap map = new PendingMap(readString());
+                    int mapSize = in.readInt();
+                    mapDepth++;
+                    for (int i = 0; i < mapSize; i++) {
+                        map.keys.add(readValue());
+                        map.values.add(readValue());
+                    }
+                    mapDepth--;
+                    return map;
+                case BinarySnapshotSerializer.DATA_TYPE:
+                    DataType dataType = new DataType((String) readValue());
+                    dataType.setDataTypeId((Integer) readValue());
+                    dataType.setColumnSize((Integer) readValue());
+                    dataType.setColumnSizeUnit((DataType.ColumnSizeUnit) readValue());
+                    dataType.setDecimalDigits((Integer) readValue());
+                    dataType.setRadix((Integer) readValue());
+                    dataType.setCharacterOctetLength((Integer) readValue());
+                    return dataType;
+                case BinarySnapshotSerializer.DATABASE_FUNCTION:
+                    String functionClass = readString();
+                    String functionValue = (String) readValue();
+                    try {
+                        return Class.forName(functionClass).getConstructor(String.class).newInstance(functionValue);
+                    } catch (Exception e) {
+                        return new DatabaseFunction(functionValue);
+                    }
+                case BinarySnapshotSerializer.AUTO_INCREMENT_INFORMATION:
+                    BigInteger startWith = (BigInteger) readValue();
+                    BigInteger incrementBy = (BigInteger) readValue();
+                    return new Column.AutoIncrementInformation(startWith == null ? BigInteger.ONE : startWith, incrementBy == null ? BigInteger.ONE : incrementBy);
+                case BinarySnapshotSerializer.CLASS:
+                    String className = readString();
+                    try {
+                        return Class.forName(className);
+                    } catch (ClassNotFoundException e) {
+                        throw new UnexpectedLiquibaseException("Cannot find class " + className + " from snapshot " + file.getAbsolutePath(), e);
+                    }
+                case BinarySnapshotSerializer.OTHER:
+                    String otherClass = readString();
+                    String otherValue = readString();
+                    try {
+                        return Class.forName(otherClass).getConstructor(String.class).newInstance(otherValue);
+                    } catch (Exception e) {
+                        return otherValue;
+                    }
+                default:
+                    throw new IOException("Unknown value type " + tag + " in snapshot " + file.getAbsolutePath());
+            }
+        }
+
+        private Object readDate() throws IOException {
+            String className = readString();
+            long time = in.readLong();
+            int nanos = in.readInt();
+            Date date;
+            try {
+                date = (Date) Class.forName(className).getConstructor(long.class).newInstance(time);
+            } catch (Exception e) {
+                date = new Date(time);
+            }
+            if (date instanceof Timestamp) {
+                ((Timestamp) date).setNanos(nanos);
+            }
+            return date;
+        }
+
+        private Object readEnum() throws IOException {
+            String className = readString();
+            String name = readString();
+            try {
+                return Enum.valueOf((Class<Enum>) Class.forName(className), name);
+            } catch (ClassNotFoundException e) {
+                throw new UnexpectedLiquibaseException("Cannot find enum " + className + " from snapshot " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+}
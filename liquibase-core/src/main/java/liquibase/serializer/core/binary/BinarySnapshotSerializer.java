@@ -0,0 +1,314 @@
+package liquibase.serializer.core.binary;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.SnapshotSerializer;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.DatabaseObjectCollection;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Writes a {@link DatabaseSnapshot} in a compact binary format that can be loaded back with {@link liquibase.snapshot.FileDatabaseSnapshot}.
+ * <p>
+ * The file starts with a header describing the database and the snapshotted types, followed by one section per object type and an index of
+ * section offsets at the end of the file, so a reader can load the objects of one type without reading the rest of the file.
+ * References between snapshotted objects are stored as snapshot id and name. Strings are stored once per section and referenced by position after that.
+ */
+public class BinarySnapshotSerializer implements SnapshotSerializer {
+
+    static final int MAGIC = 0x4C42534E;
+    static final int FORMAT_VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte BOOLEAN = 2;
+    static final byte INTEGER = 3;
+    static final byte LONG = 4;
+    static final byte BIG_INTEGER = 5;
+    static final byte BIG_DECIMAL = 6;
+    static final byte DOUBLE = 7;
+    static final byte FLOAT = 8;
+    static final byte DATE = 9;
+    static final byte ENUM = 10;
+    static final byte OBJECT_REFERENCE = 11;
+    static final byte OBJECT = 12;
+    static final byte LIST = 13;
+    static final byte SET = 14;
+    static final byte MAP = 15;
+    static final byte DATA_TYPE = 16;
+    static final byte DATABASE_FUNCTION = 17;
+    static final byte AUTO_INCREMENT_INFORMATION = 18;
+    static final byte CLASS = 19;
+    static final byte OTHER = 20;
+
+    @Override
+    public String[] getValidFileExtensions() {
+        return new String[]{"snapshot"};
+    }
+
+    @Override
+    public String serialize(LiquibaseSerializable object, boolean pretty) {
+        throw new UnexpectedLiquibaseException("Binary snapshots can only be written to a stream");
+    }
+
+    @Override
+    public void write(DatabaseSnapshot snapshot, OutputStream out) throws IOException {
+        CountingOutputStream countingStream = new CountingOutputStream(new BufferedOutputStream(out));
+        DataOutputStream dataOut = new DataOutputStream(countingStream);
+
+        DatabaseObjectCollection collection = (DatabaseObjectCollection) snapshot.getSerializableFieldValue("objects");
+        SortedMap<String, List<DatabaseObject>> objectsByType = new TreeMap<String, List<DatabaseObject>>();
+        Map<DatabaseObject, UUID> ids = new IdentityHashMap<DatabaseObject, UUID>();
+        for (String type : collection.getSerializableFields()) {
+            Collection<DatabaseObject> objects = (Collection<DatabaseObject>) collection.getSerializableFieldValue(type);
+            if (objects == null) {
+                continue;
+            }
+            List<DatabaseObject> typeObjects = new ArrayList<DatabaseObject>();
+            for (DatabaseObject object : objects) {
+                if (!ids.containsKey(object)) {
+                    ids.put(object, object.getSnapshotId() == null ? UUID.randomUUID() : object.getSnapshotId());
+                    typeObjects.add(object);
+                }
+            }
+            objectsByType.put(type, typeObjects);
+        }
+
+        SectionWriter writer = new SectionWriter(dataOut, ids);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(FORMAT_VERSION);
+        writeHeader(snapshot, writer);
+
+        Map<String, Long> offsets = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, List<DatabaseObject>> entry : objectsByType.entrySet()) {
+            dataOut.flush();
+            offsets.put(entry.getKey(), countingStream.getCount());
+            writer.startSection();
+            dataOut.writeInt(entry.getValue().size());
+            for (DatabaseObject object : entry.getValue()) {
+                UUID id = ids.get(object);
+                dataOut.writeLong(id.getMostSignificantBits());
+                dataOut.writeLong(id.getLeastSignificantBits());
+                writer.writeAttributes(object);
+            }
+        }
+
+        dataOut.flush();
+        long indexOffset = countingStream.getCount();
+        writer.startSection();
+        dataOut.writeInt(offsets.size());
+        for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+            writer.writeString(entry.getKey());
+            dataOut.writeLong(entry.getValue());
+            dataOut.writeInt(objectsByType.get(entry.getKey()).size());
+        }
+        dataOut.writeLong(indexOffset);
+        dataOut.flush();
+    }
+
+    private void writeHeader(DatabaseSnapshot snapshot, SectionWriter writer) throws IOException {
+        writer.startSection();
+        Database database = snapshot.getDatabase();
+        String productName = null;
+        String productVersion = null;
+        if (database != null) {
+            try {
+                productName = database.getDatabaseProductName();
+                productVersion = database.getDatabaseProductVersion();
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().debug("Cannot read database product for snapshot: " + e.getMessage());
+            }
+        }
+        writer.writeValue(database == null ? null : database.getShortName());
+        writer.writeValue(productName);
+        writer.writeValue(productVersion);
+
+        Set<Class<? extends DatabaseObject>> types = snapshot.getSnapshotControl().getTypesToInclude();
+        writer.out.writeInt(types.size());
+        for (Class<? extends DatabaseObject> type : types) {
+            writer.writeString(type.getName());
+        }
+    }
+
+    private static class SectionWriter {
+        private final DataOutputStream out;
+        private final Map<DatabaseObject, UUID> ids;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Set<DatabaseObject> writingInline = Collections.newSetFromMap(new IdentityHashMap<DatabaseObject, Boolean>());
+
+        private SectionWriter(DataOutputStream out, Map<DatabaseObject, UUID> ids) {
+            this.out = out;
+            this.ids = ids;
+        }
+
+        private void startSection() {
+            strings.clear();
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer position = strings.get(value);
+            if (position != null) {
+                out.writeInt(-position - 1);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeAttributes(DatabaseObject object) throws IOException {
+            Set<String> attributes = new TreeSet<String>(object.getAttributes());
+            out.writeInt(attributes.size());
+            for (String attribute : attributes) {
+                writeString(attribute);
+                writeValue(object.getAttribute(attribute, Object.class));
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof BigInteger) {
+                out.writeByte(BIG_INTEGER);
+                writeString(value.toString());
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(BIG_DECIMAL);
+                writeString(value.toString());
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Date) {
+                out.writeByte(DATE);
+                writeString(value.getClass().getName());
+                out.writeLong(((Date) value).getTime());
+                out.writeInt(value instanceof Timestamp ? ((Timestamp) value).getNanos() : 0);
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeString(((Enum) value).getDeclaringClass().getName());
+                writeString(((Enum) value).name());
+            } else if (value instanceof DatabaseObject) {
+                writeDatabaseObject((DatabaseObject) value);
+            } else if (value instanceof List) {
+                out.writeByte(LIST);
+                writeCollection((Collection) value);
+            } else if (value instanceof Set) {
+                out.writeByte(SET);
+                writeCollection((Collection) value);
+            } else if (value instanceof Map) {
+                out.writeByte(MAP);
+                writeString(value.getClass().getName());
+                out.writeInt(((Map) value).size());
+                for (Map.Entry entry : (Set<Map.Entry>) ((Map) value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof DataType) {
+                DataType dataType = (DataType) value;
+                out.writeByte(DATA_TYPE);
+                writeValue(dataType.getTypeName());
+                writeValue(dataType.getDataTypeId());
+                writeValue(dataType.getColumnSize());
+                writeValue(dataType.getColumnSizeUnit());
+                writeValue(dataType.getDecimalDigits());
+                writeValue(dataType.getRadix());
+                writeValue(dataType.getCharacterOctetLength());
+            } else if (value instanceof DatabaseFunction) {
+                out.writeByte(DATABASE_FUNCTION);
+                writeString(value.getClass().getName());
+                writeValue(((DatabaseFunction) value).getValue());
+            } else if (value instanceof Column.AutoIncrementInformation) {
+                out.writeByte(AUTO_INCREMENT_INFORMATION);
+                writeValue(((Column.AutoIncrementInformation) value).getStartWith());
+                writeValue(((Column.AutoIncrementInformation) value).getIncrementBy());
+            } else if (value instanceof Class) {
+                out.writeByte(CLASS);
+                writeString(((Class) value).getName());
+            } else {
+                out.writeByte(OTHER);
+                writeString(value.getClass().getName());
+                writeString(value.toString());
+            }
+        }
+
+        private void writeDatabaseObject(DatabaseObject value) throws IOException {
+            UUID id = ids.get(value);
+            if (id != null) {
+                out.writeByte(OBJECT_REFERENCE);
+                writeString(value.getClass().getName());
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                writeValue(value.getName());
+            } else if (!writingInline.add(value)) {
+                out.writeByte(NULL);
+            } else {
+                try {
+                    out.writeByte(OBJECT);
+                    writeString(value.getClass().getName());
+                    writeAttributes(value);
+                } finally {
+                    writingInline.remove(value);
+                }
+            }
+        }
+
+        private void writeCollection(Collection value) throws IOException {
+            writeString(value.getClass().getName());
+            out.writeInt(value.size());
+            for (Object element : value) {
+                writeValue(element);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count = 0;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
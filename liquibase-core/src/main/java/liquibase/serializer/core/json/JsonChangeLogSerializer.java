@@ -1,5 +1,7 @@
 package liquibase.serializer.core.json;
 
+import liquibase.changelog.ChangeSet;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
 import org.yaml.snakeyaml.DumperOptions;
@@ -8,6 +10,9 @@ import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
 
+import java.io.*;
+import java.nio.channels.Channels;
+
 public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
 
     @Override
@@ -30,6 +35,110 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
     }
 
 
+    /**
+     * Returns a writer that inserts changeSets before the bracket closing the databaseChangeLog array. Everything from that bracket on is kept.
+     * If the file does not exist or is empty, a new changelog is written.
+     */
+    @Override
+    public ChangeLogWriter createAppendWriter(File changeLogFile) throws IOException {
+        if (!changeLogFile.exists() || changeLogFile.length() == 0) {
+            FileOutputStream out = new FileOutputStream(changeLogFile);
+            Writer writer = new OutputStreamWriter(new BufferedOutputStream(out), "UTF-8");
+            writeChangeLogStart(writer);
+            return new YamlChangeLogWriter(writer, out, true);
+        }
+        long offset = findChangeLogArrayEnd(changeLogFile);
+        if (offset < 0) {
+            throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ": no databaseChangeLog array found");
+        }
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(changeLogFile, "rw");
+        byte[] end = new byte[(int) (randomAccessFile.length() - offset)];
+        randomAccessFile.seek(offset);
+        randomAccessFile.readFully(end);
+
+        boolean emptyArray = false;
+        while (offset > 0) {
+            randomAccessFile.seek(offset - 1);
+            int previous = randomAccessFile.read();
+            if (!Character.isWhitespace(previous)) {
+                emptyArray = previous == '[';
+                break;
+            }
+            offset--;
+        }
+        randomAccessFile.setLength(offset);
+        randomAccessFile.seek(offset);
+        Writer writer = new OutputStreamWriter(new BufferedOutputStream(Channels.newOutputStream(randomAccessFile.getChannel())), "UTF-8");
+        return new YamlChangeLogWriter(writer, randomAccessFile, emptyArray, "\n" + new String(end, "UTF-8"));
+    }
+
+    /**
+     * Returns the byte offset of the bracket closing the databaseChangeLog array of the top-level object, or -1 if there is none.
+     * Strings are skipped, so brackets inside values and content after the array are ignored.
+     * JSON structure characters are ASCII and never part of a multi-byte UTF-8 sequence, so the file is scanned as bytes.
+     */
+    protected long findChangeLogArrayEnd(File changeLogFile) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(changeLogFile));
+        try {
+            long offset = -1;
+            int depth = 0;
+            int arrayDepth = -1;
+            boolean afterChangeLogKey = false;
+            int c;
+            while ((c = in.read()) != -1) {
+                offset++;
+                if (c == '"') {
+                    StringBuilder string = depth == 1 ? new StringBuilder() : null;
+                    while ((c = in.read()) != -1) {
+                        offset++;
+                        if (c == '\\') {
+                            in.read();
+                            offset++;
+                        } else if (c == '"') {
+                            break;
+                        } else if (string != null) {
+                            string.append((char) c);
+                        }
+                    }
+                    afterChangeLogKey = string != null && string.toString().equals("databaseChangeLog");
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                    if (c == '[' && afterChangeLogKey && arrayDepth < 0) {
+                        arrayDepth = depth;
+                    }
+                    afterChangeLogKey = false;
+                } else if (c == '}' || c == ']') {
+                    if (depth == arrayDepth) {
+                        return offset;
+                    }
+                    depth--;
+                } else if (c != ':' && !Character.isWhitespace(c)) {
+                    afterChangeLogKey = false;
+                }
+            }
+            return -1;
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    protected void writeChangeLogStart(Writer writer) throws IOException {
+        writer.write("{ \"databaseChangeLog\": [");
+    }
+
+    @Override
+    protected void writeChangeSet(Writer writer, ChangeSet changeSet, boolean first) throws IOException {
+        writer.write(first ? "\n" : ",\n");
+        writer.write(serialize(changeSet, true).trim());
+    }
+
+    @Override
+    protected void writeChangeLogEnd(Writer writer) throws IOException {
+        writer.write("\n]}\n");
+    }
+
     @Override
     public String[] getValidFileExtensions() {
         return new String[]{
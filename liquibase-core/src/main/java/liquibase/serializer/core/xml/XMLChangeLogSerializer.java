@@ -7,22 +7,28 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.parser.NamespaceDetails;
 import liquibase.parser.NamespaceDetailsFactory;
 import liquibase.parser.core.xml.LiquibaseEntityResolver;
-import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
+import liquibase.util.FileUtil;
 import liquibase.util.ISODateFormat;
-import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 import liquibase.util.XMLUtil;
-import liquibase.util.xml.DefaultXmlWriter;
 import org.w3c.dom.*;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.*;
+import java.nio.channels.Channels;
 import java.util.*;
 
-public class XMLChangeLogSerializer implements ChangeLogSerializer {
+public class XMLChangeLogSerializer implements StreamingChangeLogSerializer {
+
+    private static final int INDENT_LENGTH = 4;
 
     private Document currentChangeLogFileDOM;
 
@@ -65,6 +71,74 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
 
     @Override
     public void write(List<ChangeSet> changeSets, OutputStream out) throws IOException {
+        ChangeLogWriter writer = createWriter(out);
+        for (ChangeSet changeSet : changeSets) {
+            writer.writeChangeSet(changeSet);
+        }
+        writer.finish();
+    }
+
+    @Override
+    public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
+        ChangeLogWriter writer = createAppendWriter(changeLogFile);
+        writer.writeChangeSet(changeSet);
+        writer.finish();
+    }
+
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        Document doc = createDocument();
+        Element changeLogElement = createChangeLogElement(doc);
+        setCurrentChangeLogFileDOM(doc);
+
+        XMLChangeLogWriter writer = new XMLChangeLogWriter(new OutputStreamWriter(out, "UTF-8"), null);
+        writer.writeStart(changeLogElement);
+        return writer;
+    }
+
+    /**
+     * Returns a writer that inserts changeSets before the closing databaseChangeLog tag of the file.
+     * The file is not read into memory, only searched backwards for the closing tag. If there is none, the file is replaced with a new changelog.
+     */
+    @Override
+    public ChangeLogWriter createAppendWriter(File changeLogFile) throws IOException {
+        long offset = FileUtil.lastIndexOf(changeLogFile, "</databaseChangeLog>");
+        if (offset < 0) {
+            final FileOutputStream out = new FileOutputStream(changeLogFile);
+            final ChangeLogWriter writer = createWriter(out);
+            return new ChangeLogWriter() {
+                @Override
+                public void writeChangeSet(ChangeSet changeSet) throws IOException {
+                    writer.writeChangeSet(changeSet);
+                }
+
+                @Override
+                public void finish() throws IOException {
+                    try {
+                        writer.finish();
+                    } finally {
+                        out.close();
+                    }
+                }
+            };
+        }
+
+        setCurrentChangeLogFileDOM(createDocument());
+        RandomAccessFile randomAccessFile = new RandomAccessFile(changeLogFile, "rw");
+        while (offset > 0) {
+            randomAccessFile.seek(offset - 1);
+            if (!Character.isWhitespace(randomAccessFile.read())) {
+                break;
+            }
+            offset--;
+        }
+        randomAccessFile.setLength(offset);
+        randomAccessFile.seek(offset);
+        Writer out = new OutputStreamWriter(new BufferedOutputStream(Channels.newOutputStream(randomAccessFile.getChannel())), "UTF-8");
+        return new XMLChangeLogWriter(out, randomAccessFile);
+    }
+
+    private Document createDocument() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         DocumentBuilder documentBuilder;
@@ -75,7 +149,10 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         }
         documentBuilder.setEntityResolver(new LiquibaseEntityResolver(this));
 
-        Document doc = documentBuilder.newDocument();
+        return documentBuilder.newDocument();
+    }
+
+    private Element createChangeLogElement(Document doc) {
         Element changeLogElement = doc.createElementNS(LiquibaseSerializable.STANDARD_CHANGELOG_NAMESPACE, "databaseChangeLog");
 
         changeLogElement.setAttribute("xmlns", LiquibaseSerializable.STANDARD_CHANGELOG_NAMESPACE);
@@ -106,36 +183,119 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         }
 
         changeLogElement.setAttribute("xsi:schemaLocation", schemaLocationAttribute.trim());
+        return changeLogElement;
+    }
 
-        doc.appendChild(changeLogElement);
-        setCurrentChangeLogFileDOM(doc);
+    /**
+     * Writes each changeSet with StAX as soon as its DOM node is created, so only one changeSet is held as a DOM at a time.
+     */
+    private class XMLChangeLogWriter implements ChangeLogWriter {
+        private final Writer out;
+        private final Closeable file;
+        private final XMLStreamWriter xmlWriter;
+
+        private XMLChangeLogWriter(Writer out, Closeable file) throws IOException {
+            this.out = out;
+            this.file = file;
+            try {
+                this.xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage());
+            }
+        }
 
-        for (ChangeSet changeSet : changeSets) {
-            doc.getDocumentElement().appendChild(createNode(changeSet));
+        private void writeStart(Element changeLogElement) throws IOException {
+            try {
+                xmlWriter.writeStartDocument("UTF-8", "1.0");
+                xmlWriter.writeCharacters("\n");
+                xmlWriter.writeStartElement(changeLogElement.getNodeName());
+                NamedNodeMap attributes = changeLogElement.getAttributes();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    Node attribute = attributes.item(i);
+                    String name = attribute.getNodeName();
+                    if (name.equals("xmlns")) {
+                        xmlWriter.writeDefaultNamespace(attribute.getNodeValue());
+                    } else if (name.startsWith("xmlns:")) {
+                        xmlWriter.writeNamespace(name.substring("xmlns:".length()), attribute.getNodeValue());
+                    } else {
+                        xmlWriter.writeAttribute(name, attribute.getNodeValue());
+                    }
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage());
+            }
         }
 
-        new DefaultXmlWriter().write(doc, out);
-    }
+        @Override
+        public void writeChangeSet(ChangeSet changeSet) throws IOException {
+            try {
+                writeNode(createNode(changeSet), 1);
+                xmlWriter.flush();
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage());
+            }
+        }
 
-    @Override
-    public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
-        FileInputStream in = new FileInputStream(changeLogFile);
-        String existingChangeLog = StreamUtil.getStreamContents(in);
-        in.close();
+        @Override
+        public void finish() throws IOException {
+            try {
+                if (file == null) {
+                    xmlWriter.writeCharacters("\n");
+                    xmlWriter.writeEndDocument();
+                    xmlWriter.writeCharacters("\n");
+                    xmlWriter.flush();
+                } else {
+                    xmlWriter.flush();
+                    out.write("\n</databaseChangeLog>\n");
+                }
+                out.flush();
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage());
+            } finally {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
 
-        FileOutputStream out = new FileOutputStream(changeLogFile);
+        private void writeNode(Node node, int depth) throws XMLStreamException {
+            xmlWriter.writeCharacters("\n" + StringUtils.repeat(" ", INDENT_LENGTH * depth));
 
-        try {
-            if (!existingChangeLog.contains("</databaseChangeLog>")) {
-                write(Arrays.asList(changeSet), out);
+            boolean hasChildElements = false;
+            NodeList children = node.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                if (children.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                    hasChildElements = true;
+                }
+            }
+
+            if (children.getLength() == 0) {
+                xmlWriter.writeEmptyElement(node.getNodeName());
             } else {
-                existingChangeLog = existingChangeLog.replaceFirst("</databaseChangeLog>", serialize(changeSet, true) + "\n</databaseChangeLog>");
+                xmlWriter.writeStartElement(node.getNodeName());
+            }
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                xmlWriter.writeAttribute(attributes.item(i).getNodeName(), attributes.item(i).getNodeValue());
+            }
+            if (children.getLength() == 0) {
+                return;
+            }
 
-                StreamUtil.copy(new ByteArrayInputStream(existingChangeLog.getBytes()), out);
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    writeNode(child, depth + 1);
+                } else if (child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                    xmlWriter.writeCData(child.getNodeValue());
+                } else if (child.getNodeType() == Node.TEXT_NODE && (!hasChildElements || StringUtils.trimToNull(child.getNodeValue()) != null)) {
+                    xmlWriter.writeCharacters(child.getNodeValue());
+                }
+            }
+            if (hasChildElements) {
+                xmlWriter.writeCharacters("\n" + StringUtils.repeat(" ", INDENT_LENGTH * depth));
             }
-            out.flush();
-        } finally {
-            out.close();
+            xmlWriter.writeEndElement();
         }
     }
 
@@ -3,8 +3,9 @@ package liquibase.serializer.core.yaml;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.UnexpectedLiquibaseException;
-import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.ChangeLogWriter;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SequenceCurrentValueFunction;
 import liquibase.statement.SequenceNextValueFunction;
@@ -21,14 +22,12 @@ import org.yaml.snakeyaml.representer.Represent;
 import org.yaml.snakeyaml.representer.Representer;
 
 import java.beans.IntrospectionException;
-import java.io.File;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.*;
 import java.lang.reflect.Type;
 import java.sql.Timestamp;
 import java.util.*;
 
-public class YamlChangeLogSerializer implements ChangeLogSerializer {
+public class YamlChangeLogSerializer implements StreamingChangeLogSerializer {
 
     protected Yaml yaml;
 
@@ -98,12 +97,199 @@ public class YamlChangeLogSerializer implements ChangeLogSerializer {
 
     @Override
     public void write(List<ChangeSet> changeSets, OutputStream out) throws IOException {
-        //To change body of implemented methods use File | Settings | File Templates.
+        ChangeLogWriter writer = createWriter(out);
+        for (ChangeSet changeSet : changeSets) {
+            writer.writeChangeSet(changeSet);
+        }
+        writer.finish();
     }
 
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
-        //To change body of implemented methods use File | Settings | File Templates.
+        ChangeLogWriter writer = createAppendWriter(changeLogFile);
+        writer.writeChangeSet(changeSet);
+        writer.finish();
+    }
+
+    @Override
+    public ChangeLogWriter createWriter(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, "UTF-8");
+        writeChangeLogStart(writer);
+        return new YamlChangeLogWriter(writer, null, true);
+    }
+
+    /**
+     * Returns a writer that adds changeSets to the end of the databaseChangeLog list in the file.
+     * The file is scanned one line at a time for the indentation of the list items, which the appended changeSets match.
+     * Empty or missing files are started as new changelogs.
+     *
+     * @throws IOException if the file does not end with a block style databaseChangeLog list that changeSets can be added to
+     */
+    @Override
+    public ChangeLogWriter createAppendWriter(File changeLogFile) throws IOException {
+        boolean newFile = !changeLogFile.exists() || changeLogFile.length() == 0;
+        String indent = "";
+        boolean endsWithNewline = true;
+        if (!newFile) {
+            indent = findListIndent(changeLogFile);
+            endsWithNewline = endsWithNewline(changeLogFile);
+        }
+
+        FileOutputStream out = new FileOutputStream(changeLogFile, true);
+        Writer writer = new OutputStreamWriter(new BufferedOutputStream(out), "UTF-8");
+        if (newFile) {
+            writeChangeLogStart(writer);
+        } else if (!endsWithNewline) {
+            writer.write("\n");
+        }
+        if (indent.length() > 0) {
+            writer = new IndentingWriter(writer, indent);
+        }
+        return new YamlChangeLogWriter(writer, out, newFile);
+    }
+
+    /**
+     * Returns the indentation of the items in the databaseChangeLog list, which must be the last entry in the file.
+     */
+    private String findListIndent(File changeLogFile) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(changeLogFile), "UTF-8"));
+        try {
+            String indent = null;
+            boolean inList = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.length() == 0 || trimmed.startsWith("#") || trimmed.equals("---")) {
+                    continue;
+                }
+                if (!inList) {
+                    inList = line.matches("databaseChangeLog:\\s*(#.*)?");
+                    continue;
+                }
+
+                String lineIndent = line.substring(0, line.indexOf(trimmed));
+                if (indent == null && (trimmed.equals("-") || trimmed.startsWith("- "))) {
+                    indent = lineIndent;
+                } else if (indent == null || lineIndent.length() < indent.length()
+                        || (lineIndent.length() == indent.length() && !(trimmed.equals("-") || trimmed.startsWith("- ")))) {
+                    throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ": databaseChangeLog is not the last entry in the file");
+                }
+            }
+            if (!inList) {
+                throw new IOException("Cannot append to " + changeLogFile.getAbsolutePath() + ": no block style databaseChangeLog list found");
+            }
+            return indent == null ? "" : indent;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private boolean endsWithNewline(File changeLogFile) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(changeLogFile, "r");
+        try {
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            return randomAccessFile.read() == '\n';
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    protected void writeChangeLogStart(Writer writer) throws IOException {
+        writer.write("databaseChangeLog:\n");
+    }
+
+    protected void writeChangeSet(Writer writer, ChangeSet changeSet, boolean first) throws IOException {
+        yaml.dump(Collections.singletonList(toMap(changeSet)), writer);
+    }
+
+    protected void writeChangeLogEnd(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes changeSets through {@link #writeChangeSet(java.io.Writer, liquibase.changelog.ChangeSet, boolean)} as they are passed in, without keeping them.
+     */
+    protected class YamlChangeLogWriter implements ChangeLogWriter {
+        private final Writer writer;
+        private final Closeable file;
+        private final String end;
+        private boolean first;
+
+        /**
+         * @param file closed by {@link #finish()}, null if the caller owns the stream
+         * @param first true if no changeSets have been written to the changelog yet
+         */
+        public YamlChangeLogWriter(Writer writer, Closeable file, boolean first) {
+            this(writer, file, first, null);
+        }
+
+        /**
+         * @param end written by {@link #finish()} instead of the standard end of the changelog, null to write the standard end
+         */
+        public YamlChangeLogWriter(Writer writer, Closeable file, boolean first, String end) {
+            this.writer = writer;
+            this.file = file;
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        public void writeChangeSet(ChangeSet changeSet) throws IOException {
+            YamlChangeLogSerializer.this.writeChangeSet(writer, changeSet, first);
+            first = false;
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            try {
+                if (end == null) {
+                    writeChangeLogEnd(writer);
+                } else {
+                    writer.write(end);
+                }
+                writer.flush();
+            } finally {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Prefixes every line written through it with a fixed indentation.
+     */
+    private static class IndentingWriter extends FilterWriter {
+        private final String indent;
+        private boolean atLineStart = true;
+
+        private IndentingWriter(Writer out, String indent) {
+            super(out);
+            this.indent = indent;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (atLineStart && c != '\n') {
+                out.write(indent);
+            }
+            out.write(c);
+            atLineStart = c == '\n';
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                write(chars[i]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                write(string.charAt(i));
+            }
+        }
     }
 
     public static class LiquibaseRepresenter extends Representer {
@@ -0,0 +1,122 @@
+package liquibase.servicelocator;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Precomputed list of the service classes in a jar, generated at build time by {@link ServiceIndexGenerator} and stored as {@value #INDEX_FILE}.
+ * <p>
+ * Each line describes one concrete, public class with a no-argument constructor found in the Liquibase-Package packages of the jar:
+ * <pre>className|priority|superType,superType,...</pre>
+ * The priority is only set for {@link PrioritizedService} implementations, so {@link ServiceLocator} can pick the best one without instantiating them all.
+ * The super types include all superclasses and interfaces so any requested type can be matched without loading classes that do not implement it.
+ */
+public class ServiceIndex {
+
+    public static final String INDEX_FILE = "META-INF/liquibase/services";
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public void addEntry(Entry entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * Returns the entries for classes that are or extend the given type.
+     */
+    public List<Entry> findImplementations(String typeName) {
+        List<Entry> returnList = new ArrayList<Entry>();
+        for (Entry entry : entries) {
+            if (entry.getClassName().equals(typeName) || entry.getSuperTypes().contains(typeName)) {
+                returnList.add(entry);
+            }
+        }
+        return returnList;
+    }
+
+    public static ServiceIndex read(InputStream stream) throws IOException {
+        ServiceIndex index = new ServiceIndex();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IOException("Invalid " + INDEX_FILE + " line: " + line);
+            }
+            Integer priority = null;
+            if (parts[1].length() > 0) {
+                try {
+                    priority = Integer.valueOf(parts[1]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid priority in " + INDEX_FILE + " line: " + line);
+                }
+            }
+            Set<String> superTypes = new HashSet<String>();
+            for (String superType : parts[2].split(",")) {
+                if (superType.length() > 0) {
+                    superTypes.add(superType);
+                }
+            }
+            index.addEntry(new Entry(parts[0], priority, superTypes));
+        }
+        return index;
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, "UTF-8"));
+        writer.write("# Generated by " + ServiceIndexGenerator.class.getName() + ". Do not edit.\n");
+        for (Entry entry : entries) {
+            writer.write(entry.getClassName());
+            writer.write("|");
+            if (entry.getPriority() != null) {
+                writer.write(entry.getPriority().toString());
+            }
+            writer.write("|");
+            boolean first = true;
+            for (String superType : new TreeSet<String>(entry.getSuperTypes())) {
+                if (!first) {
+                    writer.write(",");
+                }
+                writer.write(superType);
+                first = false;
+            }
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
+    public static class Entry {
+        private final String className;
+        private final Integer priority;
+        private final Set<String> superTypes;
+
+        public Entry(String className, Integer priority, Set<String> superTypes) {
+            this.className = className;
+            this.priority = priority;
+            this.superTypes = superTypes;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Returns the priority of the service, or null if it is not a {@link PrioritizedService}.
+         */
+        public Integer getPriority() {
+            return priority;
+        }
+
+        public Set<String> getSuperTypes() {
+            return superTypes;
+        }
+    }
+}
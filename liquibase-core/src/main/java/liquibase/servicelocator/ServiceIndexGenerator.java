@@ -0,0 +1,156 @@
+package liquibase.servicelocator;
+
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+import java.util.jar.Manifest;
+
+/**
+ * Generates the {@link ServiceIndex} for a directory of compiled classes so {@link ServiceLocator} does not need to scan the jar at runtime.
+ * Run it after compilation, before the classes are packaged:
+ * <pre>java liquibase.servicelocator.ServiceIndexGenerator target/classes [package,package...]</pre>
+ * If no packages are given, the Liquibase-Package attribute of META-INF/MANIFEST.MF in the classes directory is used.
+ * Extensions can use the same step so their jars are indexed too.
+ */
+public class ServiceIndexGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: " + ServiceIndexGenerator.class.getName() + " classesDirectory [package,package...]");
+            System.exit(1);
+        }
+        File classesDirectory = new File(args[0]);
+
+        List<String> packages;
+        if (args.length > 1) {
+            packages = StringUtils.splitAndTrim(args[1], ",");
+        } else {
+            packages = readManifestPackages(classesDirectory);
+        }
+        if (packages == null || packages.size() == 0) {
+            System.out.println("No Liquibase-Package declared for " + classesDirectory + ", not generating " + ServiceIndex.INDEX_FILE);
+            return;
+        }
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{classesDirectory.toURI().toURL()}, Thread.currentThread().getContextClassLoader());
+        ServiceIndex index = new ServiceIndexGenerator().generate(classesDirectory, classLoader, packages);
+
+        File indexFile = new File(classesDirectory, ServiceIndex.INDEX_FILE);
+        indexFile.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(indexFile);
+        try {
+            index.write(out);
+        } finally {
+            out.close();
+        }
+        System.out.println("Wrote " + index.getEntries().size() + " services to " + indexFile);
+    }
+
+    /**
+     * Returns the Liquibase-Package entries from the manifest in the given directory, or null if there is none.
+     */
+    protected static List<String> readManifestPackages(File classesDirectory) throws IOException {
+        File manifestFile = new File(classesDirectory, "META-INF/MANIFEST.MF");
+        if (!manifestFile.exists()) {
+            return null;
+        }
+        InputStream in = new FileInputStream(manifestFile);
+        try {
+            String packages = StringUtils.trimToNull(new Manifest(in).getMainAttributes().getValue("Liquibase-Package"));
+            if (packages == null) {
+                return null;
+            }
+            return StringUtils.splitAndTrim(packages, ",");
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Builds the index for the classes in the given packages of the directory, applying the same rules {@link ServiceLocator} applies to scanned classes.
+     */
+    public ServiceIndex generate(File classesDirectory, ClassLoader classLoader, List<String> packages) {
+        SortedSet<String> classNames = new TreeSet<String>();
+        for (String packageName : packages) {
+            File packageDirectory = new File(classesDirectory, packageName.replace('.', '/'));
+            findClassNames(packageDirectory, packageName, classNames);
+        }
+
+        ServiceIndex index = new ServiceIndex();
+        for (String className : classNames) {
+            ServiceIndex.Entry entry = createEntry(className, classLoader);
+            if (entry != null) {
+                index.addEntry(entry);
+            }
+        }
+        return index;
+    }
+
+    private void findClassNames(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                findClassNames(file, packageName + "." + name, classNames);
+            } else if (name.endsWith(".class")) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+
+    protected ServiceIndex.Entry createEntry(String className, ClassLoader classLoader) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, classLoader);
+        } catch (Throwable e) {
+            return null;
+        }
+
+        if (clazz.getAnnotation(LiquibaseService.class) != null && clazz.getAnnotation(LiquibaseService.class).skip()) {
+            return null;
+        }
+        if (Modifier.isAbstract(clazz.getModifiers()) || Modifier.isInterface(clazz.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+            return null;
+        }
+        try {
+            clazz.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (NoClassDefFoundError e) {
+            return null;
+        }
+
+        Integer priority = null;
+        if (PrioritizedService.class.isAssignableFrom(clazz)) {
+            try {
+                priority = ((PrioritizedService) clazz.newInstance()).getPriority();
+            } catch (Throwable e) {
+                //leave it to the ServiceLocator to instantiate it at runtime
+            }
+        }
+
+        Set<String> superTypes = new HashSet<String>();
+        addSuperTypes(clazz, superTypes);
+        return new ServiceIndex.Entry(className, priority, superTypes);
+    }
+
+    private void addSuperTypes(Class<?> clazz, Set<String> superTypes) {
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            if (superTypes.add(anInterface.getName())) {
+                addSuperTypes(anInterface, superTypes);
+            }
+        }
+        Class<?> superclass = clazz.getSuperclass();
+        if (superclass != null && !superclass.equals(Object.class)) {
+            superTypes.add(superclass.getName());
+            addSuperTypes(superclass, superTypes);
+        }
+    }
+}
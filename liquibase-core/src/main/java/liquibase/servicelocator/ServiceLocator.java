@@ -17,10 +17,18 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.Manifest;
 
 public class ServiceLocator {
 
+    /**
+     * Set this system property to "false" to always scan packages even if all jars contain a {@link ServiceIndex}.
+     */
+    public static final String SERVICE_INDEX_PROPERTY = "liquibase.serviceIndex";
+
     private static ServiceLocator instance;
 
     static {
@@ -34,10 +42,13 @@ public class ServiceLocator {
 
     private ResourceAccessor resourceAccessor;
 
-    private Map<Class, List<Class>> classesBySuperclass;
+    private volatile ConcurrentMap<Class, List<Class>> classesBySuperclass;
     private List<String> packagesToScan;
     private Logger logger = new DefaultLogger(); //cannot look up regular logger because you get a stackoverflow since we are in the servicelocator
     private PackageScanClassResolver classResolver;
+    private List<ServiceIndex> serviceIndexes;
+    private List<String> unindexedPackagesToScan;
+    private Map<String, Integer> indexedPriorities;
 
     protected ServiceLocator() {
         this.classResolver = defaultClassLoader();
@@ -78,11 +89,14 @@ public class ServiceLocator {
 
     public void setResourceAccessor(ResourceAccessor resourceAccessor) {
         this.resourceAccessor = resourceAccessor;
-        this.classesBySuperclass = new HashMap<Class, List<Class>>();
+        this.classesBySuperclass = new ConcurrentHashMap<Class, List<Class>>();
 
         this.classResolver.setClassLoaders(new HashSet<ClassLoader>(Arrays.asList(new ClassLoader[] {resourceAccessor.toClassLoader()})));
 
-        packagesToScan = new ArrayList<String>();
+        packagesToScan = new CopyOnWriteArrayList<String>();
+        unindexedPackagesToScan = new CopyOnWriteArrayList<String>();
+        serviceIndexes = null;
+        indexedPriorities = null;
         String packagesToScanSystemProp = System.getProperty("liquibase.scan.packages");
         if ((packagesToScanSystemProp != null) &&
         	((packagesToScanSystemProp = StringUtils.trimToNull(packagesToScanSystemProp)) != null)) {
@@ -91,6 +105,7 @@ public class ServiceLocator {
         	}
         } else {
 	        Enumeration<URL> manifests = null;
+	        List<String> packageRoots = new ArrayList<String>();
 	        try {
 	            manifests = resourceAccessor.getResources("META-INF/MANIFEST.MF");
 	            while (manifests.hasMoreElements()) {
@@ -102,9 +117,15 @@ public class ServiceLocator {
 	                    for (Object value : attributes.split(",")) {
 	                        addPackageToScan(value.toString());
 	                    }
+	                    String manifestUrl = url.toExternalForm();
+	                    packageRoots.add(manifestUrl.substring(0, manifestUrl.length() - "META-INF/MANIFEST.MF".length()));
 	                }
 	                is.close();
 	            }
+
+	            if (packageRoots.size() > 0 && !"false".equalsIgnoreCase(System.getProperty(SERVICE_INDEX_PROPERTY))) {
+	                serviceIndexes = loadServiceIndexes(packageRoots);
+	            }
 	        } catch (IOException e) {
 	            throw new UnexpectedLiquibaseException(e);
 	        }
@@ -129,13 +150,72 @@ public class ServiceLocator {
         }
     }
 
+    /**
+     * Adds a package to look for services in. Packages added after the {@link ServiceIndex} files were loaded are not covered by them,
+     * so they are scanned in addition to the indexes.
+     */
     public void addPackageToScan(String packageName) {
         packagesToScan.add(packageName);
+        if (serviceIndexes != null) {
+            unindexedPackagesToScan.add(packageName);
+            classesBySuperclass = new ConcurrentHashMap<Class, List<Class>>();
+        }
+    }
+
+    /**
+     * Returns the {@link ServiceIndex} of every jar or directory declaring a Liquibase-Package,
+     * or null if any of them has no index and the packages must be scanned.
+     */
+    protected List<ServiceIndex> loadServiceIndexes(List<String> packageRoots) throws IOException {
+        Map<String, URL> indexUrls = new HashMap<String, URL>();
+        Enumeration<URL> indexes = resourceAccessor.getResources(ServiceIndex.INDEX_FILE);
+        while (indexes.hasMoreElements()) {
+            URL url = indexes.nextElement();
+            String indexUrl = url.toExternalForm();
+            indexUrls.put(indexUrl.substring(0, indexUrl.length() - ServiceIndex.INDEX_FILE.length()), url);
+        }
+
+        List<ServiceIndex> returnList = new ArrayList<ServiceIndex>();
+        Map<String, Integer> priorities = new HashMap<String, Integer>();
+        for (String root : packageRoots) {
+            URL indexUrl = indexUrls.get(root);
+            if (indexUrl == null) {
+                logger.debug("No " + ServiceIndex.INDEX_FILE + " in " + root + ", scanning packages for services");
+                return null;
+            }
+            InputStream is = indexUrl.openStream();
+            try {
+                ServiceIndex index = ServiceIndex.read(is);
+                for (ServiceIndex.Entry entry : index.getEntries()) {
+                    if (entry.getPriority() != null) {
+                        priorities.put(entry.getClassName(), entry.getPriority());
+                    }
+                }
+                returnList.add(index);
+            } finally {
+                is.close();
+            }
+        }
+        logger.debug("Using " + ServiceIndex.INDEX_FILE + " from " + packageRoots + " instead of scanning packages for services");
+        this.indexedPriorities = priorities;
+        return returnList;
+    }
+
+    /**
+     * Returns true if services are looked up from {@link ServiceIndex} files rather than by scanning packages.
+     */
+    public boolean isUsingServiceIndex() {
+        return serviceIndexes != null;
     }
 
     public Class findClass(Class requiredInterface) throws ServiceNotFoundException {
         Class[] classes = findClasses(requiredInterface);
         if (PrioritizedService.class.isAssignableFrom(requiredInterface)) {
+            Class indexedClass = findIndexedPrioritizedClass(classes);
+            if (indexedClass != null) {
+                return indexedClass;
+            }
+
             PrioritizedService returnObject = null;
             for (Class clazz : classes) {
                 PrioritizedService newInstance;
@@ -163,20 +243,43 @@ public class ServiceLocator {
         return classes[0];
     }
 
+    /**
+     * Returns the class with the highest priority recorded in the service indexes, or null if not every class has an indexed priority.
+     */
+    private Class findIndexedPrioritizedClass(Class[] classes) {
+        if (indexedPriorities == null || classes.length == 0) {
+            return null;
+        }
+        Class returnClass = null;
+        int returnPriority = 0;
+        for (Class clazz : classes) {
+            Integer priority = indexedPriorities.get(clazz.getName());
+            if (priority == null) {
+                return null;
+            }
+            if (returnClass == null || priority > returnPriority) {
+                returnClass = clazz;
+                returnPriority = priority;
+            }
+        }
+        return returnClass;
+    }
+
     public <T> Class<? extends T>[] findClasses(Class<T> requiredInterface) throws ServiceNotFoundException {
         logger.debug("ServiceLocator.findClasses for "+requiredInterface.getName());
 
+        ConcurrentMap<Class, List<Class>> classesBySuperclass = this.classesBySuperclass; //replaced, not cleared, when packages are added
+        List<Class> classes = classesBySuperclass.get(requiredInterface);
+        if (classes == null) {
             try {
                 Class.forName(requiredInterface.getName());
 
-                if (!classesBySuperclass.containsKey(requiredInterface)) {
-                    classesBySuperclass.put(requiredInterface, findClassesImpl(requiredInterface));
-                }
+                classesBySuperclass.putIfAbsent(requiredInterface, findClassesImpl(requiredInterface));
             } catch (Exception e) {
                 throw new ServiceNotFoundException(e);
             }
-
-        List<Class> classes = classesBySuperclass.get(requiredInterface);
+            classes = classesBySuperclass.get(requiredInterface);
+        }
         HashSet<Class> uniqueClasses = new HashSet<Class>(classes);
         return uniqueClasses.toArray(new Class[uniqueClasses.size()]);
     }
@@ -192,10 +295,22 @@ public class ServiceLocator {
     private List<Class> findClassesImpl(Class requiredInterface) throws Exception {
         logger.debug("ServiceLocator finding classes matching interface " + requiredInterface.getName());
 
+        if (serviceIndexes != null) {
+            List<Class> classes = findIndexedClasses(requiredInterface);
+            if (!unindexedPackagesToScan.isEmpty()) {
+                classes.addAll(scanClasses(requiredInterface, unindexedPackagesToScan));
+            }
+            return classes;
+        }
+
+        return scanClasses(requiredInterface, packagesToScan);
+    }
+
+    private List<Class> scanClasses(Class requiredInterface, List<String> packages) {
         List<Class> classes = new ArrayList<Class>();
 
         classResolver.addClassLoader(resourceAccessor.toClassLoader());
-        for (Class<?> clazz : classResolver.findImplementations(requiredInterface, packagesToScan.toArray(new String[packagesToScan.size()]))) {
+        for (Class<?> clazz : classResolver.findImplementations(requiredInterface, packages.toArray(new String[packages.size()]))) {
             if (clazz.getAnnotation(LiquibaseService.class ) != null  && clazz.getAnnotation(LiquibaseService.class).skip()) {
                 continue;
             }
@@ -222,6 +337,39 @@ public class ServiceLocator {
         return classes;
     }
 
+    /**
+     * Loads the classes listed in the service indexes as implementations of the given type.
+     * The indexes only contain concrete public classes that are not skipped, so only the constructor lookup of the scanning path is repeated.
+     */
+    private List<Class> findIndexedClasses(Class requiredInterface) {
+        List<Class> classes = new ArrayList<Class>();
+        ClassLoader classLoader = resourceAccessor.toClassLoader();
+        for (ServiceIndex index : serviceIndexes) {
+            for (ServiceIndex.Entry entry : index.findImplementations(requiredInterface.getName())) {
+                try {
+                    Class<?> clazz = Class.forName(entry.getClassName(), false, classLoader);
+                    if (requiredInterface.isAssignableFrom(clazz)) {
+                        clazz.getConstructor(); //resolves the classes the service depends on, like the scanning path does
+                        logger.debug(clazz.getName() + " matches "+requiredInterface.getName());
+                        classes.add(clazz);
+                    }
+                } catch (NoSuchMethodException e) {
+                    logger.info("Can not use "+entry.getClassName()+" as a Liquibase service because it does not have a no-argument constructor" );
+                } catch (ClassNotFoundException e) {
+                    logger.warning("Can not use " + entry.getClassName() + " as a Liquibase service because it is listed in " + ServiceIndex.INDEX_FILE + " but cannot be found");
+                } catch (NoClassDefFoundError e) {
+                    String message = "Can not use " + entry.getClassName() + " as a Liquibase service because " + e.getMessage().replace("/", ".") + " is not in the classpath";
+                    if (e.getMessage().startsWith("org/yaml/snakeyaml")) {
+                        logger.info(message);
+                    } else {
+                        logger.warning(message);
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
     public static void reset() {
         instance = new ServiceLocator();
     }
@@ -0,0 +1,40 @@
+package liquibase.snapshot;
+
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
+
+/**
+ * Chooses between single and whole-schema lookups based on what the snapshot was asked for.
+ * If a catalog or schema is being snapshotted, or more objects were requested than the threshold, metadata is fetched for the whole schema on the first lookup.
+ * Otherwise it behaves like {@link LazyPrefetchPolicy}.
+ * This is the default policy.
+ */
+public class AdaptivePrefetchPolicy extends LazyPrefetchPolicy {
+
+    public AdaptivePrefetchPolicy() {
+        super();
+    }
+
+    public AdaptivePrefetchPolicy(int singleFetchThreshold) {
+        super(singleFetchThreshold);
+    }
+
+    @Override
+    public String getName() {
+        return "adaptive";
+    }
+
+    @Override
+    public boolean shouldBulkFetch(int singleFetchCount, DatabaseObject[] examples) {
+        if (examples.length >= getSingleFetchThreshold()) {
+            return true;
+        }
+        for (DatabaseObject example : examples) {
+            if (example instanceof Schema || example instanceof Catalog) {
+                return true;
+            }
+        }
+        return super.shouldBulkFetch(singleFetchCount, examples);
+    }
+}
@@ -4,6 +4,7 @@ import liquibase.CatalogAndSchema;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.DatabaseObject;
@@ -23,11 +24,13 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable{
     private Map<Class<? extends DatabaseObject>, Set<DatabaseObject>> knownNull = new HashMap<Class<? extends DatabaseObject>, Set<DatabaseObject>>();
 
     private Map<String, ResultSetCache> resultSetCaches = new HashMap<String, ResultSetCache>();
+    private DatabaseObject[] examples;
 
     DatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
         this.database = database;
         allFound = new DatabaseObjectCollection(database);
         this.snapshotControl = snapshotControl;
+        this.examples = examples == null ? new DatabaseObject[0] : examples;
 
         if (examples != null) {
             for (DatabaseObject obj : examples) {
@@ -37,6 +40,10 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable{
             }
         }
 
+        if (!resultSetCaches.isEmpty()) {
+            LogFactory.getLogger().debug(getPrefetchReport());
+        }
+
         this.serializableFields =  new HashSet<String>();
         this.serializableFields.add("snapshotControl");
         this.serializableFields.add("objects");
@@ -90,13 +97,44 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable{
         return database;
     }
 
-    public ResultSetCache getResultSetCache(String key) {
+    public synchronized ResultSetCache getResultSetCache(String key) {
         if (!resultSetCaches.containsKey(key)) {
-            resultSetCaches.put(key, new ResultSetCache());
+            resultSetCaches.put(key, new ResultSetCache(snapshotControl.getPrefetchPolicy(), examples));
         }
         return resultSetCaches.get(key);
     }
 
+    /**
+     * Describes the {@link PrefetchPolicy} used for metadata lookups, how many single and bulk queries were made and how many round-trips bulk queries saved.
+     */
+    public synchronized String getPrefetchReport() {
+        int singleQueries = 0;
+        int bulkQueries = 0;
+        int roundTripsSaved = 0;
+        for (ResultSetCache cache : resultSetCaches.values()) {
+            singleQueries += cache.getSingleQueryCount();
+            bulkQueries += cache.getBulkQueryCount();
+            roundTripsSaved += cache.getRoundTripsSaved();
+        }
+        return "Snapshot metadata prefetch policy '" + snapshotControl.getPrefetchPolicy().getName() + "': "
+                + singleQueries + " single queries, " + bulkQueries + " bulk queries, " + roundTripsSaved + " round-trips saved";
+    }
+
+    /**
+     * Adds all objects found by the given snapshot that are not already in this snapshot.
+     * Used to combine snapshots of independent schemas that were taken separately.
+     */
+    protected void merge(DatabaseSnapshot snapshot) {
+        allFound.addAll(snapshot.allFound);
+    }
+
+    /**
+     * Adds an object that was found without going through {@link #include(DatabaseObject)}, such as one read back from a saved snapshot.
+     */
+    protected void addObject(DatabaseObject object) {
+        allFound.add(object);
+    }
+
     /**
      * Include the object described by the passed example object in this snapshot. Returns the object snapshot or null if the object does not exist in the database.
      * If the same object was returned by an earlier include() call, the same object instance will be returned.
@@ -0,0 +1,20 @@
+package liquibase.snapshot;
+
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Always fetches metadata for the whole schema on the first lookup.
+ * Best when most objects in the schema will be snapshotted anyway.
+ */
+public class EagerPrefetchPolicy implements PrefetchPolicy {
+
+    @Override
+    public String getName() {
+        return "eager";
+    }
+
+    @Override
+    public boolean shouldBulkFetch(int singleFetchCount, DatabaseObject[] examples) {
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package liquibase.snapshot;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.serializer.core.binary.BinarySnapshotReader;
+import liquibase.structure.DatabaseObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A snapshot saved by {@link liquibase.serializer.core.binary.BinarySnapshotSerializer}, which can be used in place of a snapshot of a live database,
+ * for example as the reference snapshot of a diff.
+ * <p>
+ * Objects are read from the file one type at a time, the first time objects of that type are asked for. Objects of other types they reference are read along with them.
+ * The passed database is used to compare objects and does not need a connection; it should be the same type as the database the snapshot was taken from.
+ */
+public class FileDatabaseSnapshot extends DatabaseSnapshot {
+
+    private final BinarySnapshotReader reader;
+
+    public FileDatabaseSnapshot(File file, Database database) throws DatabaseException, InvalidExampleException {
+        this(openReader(file), database);
+    }
+
+    private FileDatabaseSnapshot(BinarySnapshotReader reader, Database database) throws DatabaseException, InvalidExampleException {
+        super(new DatabaseObject[0], database, createSnapshotControl(reader, database));
+        this.reader = reader;
+
+        if (reader.getDatabaseShortName() != null && database != null && !reader.getDatabaseShortName().equals(database.getShortName())) {
+            LogFactory.getLogger().warning("Snapshot " + reader.getFile().getAbsolutePath() + " was taken from a " + reader.getDatabaseShortName() + " database but is compared as " + database.getShortName());
+        }
+    }
+
+    private static BinarySnapshotReader openReader(File file) throws DatabaseException {
+        try {
+            return new BinarySnapshotReader(file);
+        } catch (IOException e) {
+            throw new DatabaseException("Cannot read snapshot " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static SnapshotControl createSnapshotControl(BinarySnapshotReader reader, Database database) {
+        Set<Class<? extends DatabaseObject>> types = reader.getIncludedTypes();
+        return new SnapshotControl(database, types.toArray(new Class[types.size()]));
+    }
+
+    public File getFile() {
+        return reader.getFile();
+    }
+
+    /**
+     * Returns the product name of the database the snapshot was taken from.
+     */
+    public String getSnapshotProductName() {
+        return reader.getDatabaseProductName();
+    }
+
+    /**
+     * Returns the product version of the database the snapshot was taken from.
+     */
+    public String getSnapshotProductVersion() {
+        return reader.getDatabaseProductVersion();
+    }
+
+    /**
+     * Returns true if the objects of the given type have been read from the file.
+     */
+    public boolean isLoaded(Class<? extends DatabaseObject> type) {
+        return reader.isLoaded(type.getName());
+    }
+
+    @Override
+    public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
+        load(example.getClass());
+        return super.get(example);
+    }
+
+    @Override
+    public <DatabaseObjectType extends DatabaseObject> Set<DatabaseObjectType> get(Class<DatabaseObjectType> type) {
+        load(type);
+        return super.get(type);
+    }
+
+    @Override
+    public Object getSerializableFieldValue(String field) {
+        if (field.equals("objects")) {
+            loadAll();
+        }
+        return super.getSerializableFieldValue(field);
+    }
+
+    private synchronized void loadAll() {
+        try {
+            addObjects(reader.loadAll());
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException("Cannot read snapshot " + reader.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    private synchronized void load(Class<? extends DatabaseObject> type) {
+        if (reader.isLoaded(type.getName())) {
+            return;
+        }
+        try {
+            addObjects(reader.load(type.getName()));
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException("Cannot read " + type.getSimpleName() + " objects from snapshot " + reader.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    private void addObjects(List<DatabaseObject> objects) {
+        for (DatabaseObject object : objects) {
+            addObject(object);
+        }
+    }
+}
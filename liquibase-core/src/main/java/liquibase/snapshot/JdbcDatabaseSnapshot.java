@@ -209,7 +209,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                     }
 
                     seenTables.add(catalogName+":"+schemaName+":"+tableName);
-                    return seenTables.size() > 2;
+                    return resultSetCache.shouldBulkFetch(seenTables.size());
                 }
 
 
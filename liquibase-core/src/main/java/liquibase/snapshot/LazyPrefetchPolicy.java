@@ -0,0 +1,36 @@
+package liquibase.snapshot;
+
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Fetches metadata one object at a time and only switches to fetching the whole schema after a number of single lookups.
+ * Best when only a few objects are snapshotted out of a large schema.
+ */
+public class LazyPrefetchPolicy implements PrefetchPolicy {
+
+    public static final int DEFAULT_SINGLE_FETCH_THRESHOLD = 3;
+
+    private int singleFetchThreshold;
+
+    public LazyPrefetchPolicy() {
+        this(DEFAULT_SINGLE_FETCH_THRESHOLD);
+    }
+
+    public LazyPrefetchPolicy(int singleFetchThreshold) {
+        this.singleFetchThreshold = singleFetchThreshold;
+    }
+
+    public int getSingleFetchThreshold() {
+        return singleFetchThreshold;
+    }
+
+    @Override
+    public String getName() {
+        return "lazy";
+    }
+
+    @Override
+    public boolean shouldBulkFetch(int singleFetchCount, DatabaseObject[] examples) {
+        return singleFetchCount >= singleFetchThreshold;
+    }
+}
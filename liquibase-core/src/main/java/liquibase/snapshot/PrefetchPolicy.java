@@ -0,0 +1,24 @@
+package liquibase.snapshot;
+
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Decides when {@link JdbcDatabaseSnapshot.CachingDatabaseMetaData} should stop asking for metadata one object at a time
+ * and instead fetch it for the whole schema in one query.
+ * The policy to use is set with {@link SnapshotControl#setPrefetchPolicy(PrefetchPolicy)}.
+ */
+public interface PrefetchPolicy {
+
+    /**
+     * Short name used when reporting which policy was used.
+     */
+    String getName();
+
+    /**
+     * Return true if the next metadata lookup should fetch the whole schema.
+     *
+     * @param singleFetchCount number of single-object lookups already made for this kind of metadata, including the current one where the caller tracks distinct objects
+     * @param examples the examples the snapshot was created for. May be empty but never null.
+     */
+    boolean shouldBulkFetch(int singleFetchCount, DatabaseObject[] examples);
+}
@@ -5,6 +5,7 @@ import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.executor.jvm.ColumnMapRowMapper;
 import liquibase.executor.jvm.RowMapperResultSetExtractor;
+import liquibase.structure.DatabaseObject;
 import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 
@@ -13,72 +14,157 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
 
+/**
+ * Caches metadata query results for a snapshot. A cache can be shared between threads.
+ * Lookups for the same schema wait for each other so the schema is only fetched once, lookups for different schemas run at the same time.
+ */
 class ResultSetCache {
     private int timesSingleQueried = 0;
-    private boolean didBulkQuery = false;
+    private int timesBulkQueried = 0;
+    private Set<String> servedFromBulk = new HashSet<String>();
 
-    private Map<String, Map<String, List<CachedRow>>> cacheBySchema = new HashMap<String, Map<String, List<CachedRow>>>();
+    private PrefetchPolicy prefetchPolicy;
+    private DatabaseObject[] examples;
+
+    private Map<String, SchemaCache> cacheBySchema = new HashMap<String, SchemaCache>();
 
     private Map<String, Object> info = new HashMap<String, Object>();
 
+    ResultSetCache() {
+        this(new LazyPrefetchPolicy(), new DatabaseObject[0]);
+    }
+
+    ResultSetCache(PrefetchPolicy prefetchPolicy, DatabaseObject[] examples) {
+        this.prefetchPolicy = prefetchPolicy;
+        this.examples = examples == null ? new DatabaseObject[0] : examples;
+    }
+
+    public PrefetchPolicy getPrefetchPolicy() {
+        return prefetchPolicy;
+    }
+
+    /**
+     * Asks the {@link PrefetchPolicy} whether the next lookup should fetch the whole schema.
+     */
+    synchronized boolean shouldBulkFetch(int singleFetchCount) {
+        return prefetchPolicy.shouldBulkFetch(singleFetchCount, examples);
+    }
+
+    /**
+     * Number of queries made for a single object.
+     */
+    public synchronized int getSingleQueryCount() {
+        return timesSingleQueried;
+    }
+
+    /**
+     * Number of queries made for a whole schema.
+     */
+    public synchronized int getBulkQueryCount() {
+        return timesBulkQueried;
+    }
+
+    /**
+     * Number of distinct lookups answered from bulk query results, less the bulk queries themselves.
+     * Each of those lookups would otherwise have needed its own query.
+     */
+    public synchronized int getRoundTripsSaved() {
+        return Math.max(0, servedFromBulk.size() - timesBulkQueried);
+    }
+
+    /**
+     * Returns the cached rows for the key wanted by the extractor, querying the database if needed.
+     * Only the cache for the wanted schema is locked while the query runs.
+     */
     public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
         try {
             String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
 
             String schemaKey = resultSetExtractor.wantedKeyParameters().createSchemaKey(resultSetExtractor.database);
 
-            Map<String, List<CachedRow>> cache = cacheBySchema.get(schemaKey);
-            if (cache == null ) {
-                cache = new HashMap<String, List<CachedRow>>();
-                cacheBySchema.put(schemaKey, cache);
-            }
+            SchemaCache schemaCache = getSchemaCache(schemaKey);
+            synchronized (schemaCache) {
+                Map<String, List<CachedRow>> cache = schemaCache.rows;
 
-            if (cache.containsKey(wantedKey)) {
-                return cache.get(wantedKey);
-            }
+                boolean didBulkQuery = schemaCache.bulkQueried;
+                if (didBulkQuery) {
+                    servedFromBulk(schemaKey + "/" + wantedKey);
+                }
 
-            if (didBulkQuery) {
-                return new ArrayList<CachedRow>();
-            }
+                if (cache.containsKey(wantedKey)) {
+                    return cache.get(wantedKey);
+                }
 
-            List<CachedRow> results;
-            if (resultSetExtractor.shouldBulkSelect(this)) {
-                cache.clear(); //remove any existing single fetches that may be duplicated
-                results = resultSetExtractor.bulkFetch();
-                didBulkQuery = true;
-            } else {
-                timesSingleQueried++;
-                results = resultSetExtractor.fastFetch();
-            }
+                if (didBulkQuery) {
+                    return new ArrayList<CachedRow>();
+                }
+
+                List<CachedRow> results;
+                if (resultSetExtractor.shouldBulkSelect(this)) {
+                    cache.clear(); //remove any existing single fetches that may be duplicated
+                    results = resultSetExtractor.bulkFetch();
+                    schemaCache.bulkQueried = true;
+                    bulkQueried(schemaKey + "/" + wantedKey);
+                } else {
+                    singleQueried();
+                    results = resultSetExtractor.fastFetch();
+                }
 
-            for (CachedRow row : results) {
-                for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
-                    if (!cache.containsKey(rowKey)) {
-                        cache.put(rowKey, new ArrayList<CachedRow>());
+                for (CachedRow row : results) {
+                    for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
+                        if (!cache.containsKey(rowKey)) {
+                            cache.put(rowKey, new ArrayList<CachedRow>());
+                        }
+                        cache.get(rowKey).add(row);
                     }
-                    cache.get(rowKey).add(row);
                 }
-            }
 
-            List<CachedRow> returnList = cache.get(wantedKey);
-            if (returnList == null) {
-                returnList = new ArrayList<CachedRow>();
+                List<CachedRow> returnList = cache.get(wantedKey);
+                if (returnList == null) {
+                    returnList = new ArrayList<CachedRow>();
+                }
+                return returnList;
             }
-            return returnList;
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
 
+    private synchronized SchemaCache getSchemaCache(String schemaKey) {
+        SchemaCache schemaCache = cacheBySchema.get(schemaKey);
+        if (schemaCache == null) {
+            schemaCache = new SchemaCache();
+            cacheBySchema.put(schemaKey, schemaCache);
+        }
+        return schemaCache;
+    }
 
+    private synchronized void singleQueried() {
+        timesSingleQueried++;
+    }
 
+    private synchronized void bulkQueried(String servedKey) {
+        timesBulkQueried++;
+        servedFromBulk.add(servedKey);
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseException(e);
-        }
+    private synchronized void servedFromBulk(String servedKey) {
+        servedFromBulk.add(servedKey);
+    }
+
+    /**
+     * Rows cached for one schema. Lookups for the schema synchronize on it.
+     */
+    private static class SchemaCache {
+        private final Map<String, List<CachedRow>> rows = new HashMap<String, List<CachedRow>>();
+        private boolean bulkQueried = false;
     }
 
-    public <T> T getInfo(String key, Class<T> type) {
+    public synchronized <T> T getInfo(String key, Class<T> type) {
         return (T) info.get(key);
     }
 
-    public void putInfo(String key, Object value) {
+    public synchronized void putInfo(String key, Object value) {
         info.put(key, value);
     }
 
@@ -167,7 +253,7 @@ class ResultSetCache {
         }
 
         boolean shouldBulkSelect(ResultSetCache resultSetCache) {
-            return resultSetCache.timesSingleQueried >= 3;
+            return resultSetCache.shouldBulkFetch(resultSetCache.getSingleQueryCount());
         }
 
         List<CachedRow> executeAndExtract(String sql, Database database) throws DatabaseException, SQLException {
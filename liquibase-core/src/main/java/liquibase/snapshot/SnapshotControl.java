@@ -16,6 +16,8 @@ import java.util.*;
 public class SnapshotControl implements LiquibaseSerializable {
 
     private Set<Class<? extends DatabaseObject>> types;
+    private PrefetchPolicy prefetchPolicy = new AdaptivePrefetchPolicy();
+    private List<Database> parallelDatabases = new ArrayList<Database>();
 
     public SnapshotControl(Database database) {
         setTypes(DatabaseObjectFactory.getInstance().getStandardTypes(), database);
@@ -93,6 +95,54 @@ public class SnapshotControl implements LiquibaseSerializable {
         return types;
     }
 
+    /**
+     * Returns the policy used to decide when metadata is fetched for a whole schema instead of one object at a time. Defaults to {@link AdaptivePrefetchPolicy}.
+     */
+    public PrefetchPolicy getPrefetchPolicy() {
+        return prefetchPolicy;
+    }
+
+    public void setPrefetchPolicy(PrefetchPolicy prefetchPolicy) {
+        if (prefetchPolicy == null) {
+            prefetchPolicy = new AdaptivePrefetchPolicy();
+        }
+        this.prefetchPolicy = prefetchPolicy;
+    }
+
+    /**
+     * Returns the additional databases that can be used to snapshot independent schemas in parallel.
+     * Each must have its own connection to the same database as the one being snapshotted.
+     */
+    public List<Database> getParallelDatabases() {
+        return parallelDatabases;
+    }
+
+    /**
+     * Enables parallel snapshots. When several catalogs or schemas are snapshotted, each is snapshotted on its own thread
+     * using the snapshot database or one of these databases, and the results are merged into one snapshot.
+     * The caller owns the databases and is responsible for closing them.
+     */
+    public void setParallelDatabases(List<Database> parallelDatabases) {
+        if (parallelDatabases == null) {
+            parallelDatabases = new ArrayList<Database>();
+        }
+        this.parallelDatabases = parallelDatabases;
+    }
+
+    public boolean isParallel() {
+        return !parallelDatabases.isEmpty();
+    }
+
+    /**
+     * Returns a copy of this SnapshotControl with the same types and prefetch policy, for use by a single snapshot thread.
+     * The copy does not snapshot in parallel itself.
+     */
+    public SnapshotControl copy(Database database) {
+        SnapshotControl copy = new SnapshotControl(database, types.toArray(new Class[types.size()]));
+        copy.setPrefetchPolicy(prefetchPolicy);
+        return copy;
+    }
+
     public boolean shouldInclude(Class<? extends DatabaseObject> type) {
         return types.contains(type);
     }
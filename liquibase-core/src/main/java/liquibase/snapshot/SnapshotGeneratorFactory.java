@@ -6,8 +6,11 @@ import liquibase.database.OfflineConnection;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
 import liquibase.structure.core.Relation;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
@@ -16,12 +19,26 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
-
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Singleton registry of SnapshotGenerators. Safe to use from several threads:
+ * generator lookups are cached as read-only sets, and registering or unregistering a generator replaces the cache with a new, empty one.
+ */
 public class SnapshotGeneratorFactory {
 
-    private static SnapshotGeneratorFactory instance;
+    private static volatile SnapshotGeneratorFactory instance;
 
-    private List<SnapshotGenerator> generators = new ArrayList<SnapshotGenerator>();
+    private List<SnapshotGenerator> generators = new CopyOnWriteArrayList<SnapshotGenerator>();
+    private volatile ConcurrentMap<String, SortedSet<SnapshotGenerator>> generatorsByKey = new ConcurrentHashMap<String, SortedSet<SnapshotGenerator>>();
 
     private SnapshotGeneratorFactory() {
         Class[] classes;
@@ -43,7 +60,11 @@ public class SnapshotGeneratorFactory {
      */
     public static SnapshotGeneratorFactory getInstance() {
         if (instance == null) {
-            instance = new SnapshotGeneratorFactory();
+            synchronized (SnapshotGeneratorFactory.class) {
+                if (instance == null) {
+                    instance = new SnapshotGeneratorFactory();
+                }
+            }
         }
         return instance;
     }
@@ -54,11 +75,14 @@ public class SnapshotGeneratorFactory {
 
 
     public void register(SnapshotGenerator generator) {
+        //the cache is replaced after the generators are updated, so lookups that find the new cache also find the new generators
         generators.add(generator);
+        generatorsByKey = new ConcurrentHashMap<String, SortedSet<SnapshotGenerator>>();
     }
 
     public void unregister(SnapshotGenerator generator) {
         generators.remove(generator);
+        generatorsByKey = new ConcurrentHashMap<String, SortedSet<SnapshotGenerator>>();
     }
 
     public void unregister(Class generatorClass) {
@@ -73,6 +97,13 @@ public class SnapshotGeneratorFactory {
     }
 
     protected SortedSet<SnapshotGenerator> getGenerators(Class<? extends DatabaseObject> generatorClass, Database database) {
+        String key = generatorClass.getName() + ":" + (database == null ? "NULL" : database.getShortName());
+        ConcurrentMap<String, SortedSet<SnapshotGenerator>> generatorsByKey = this.generatorsByKey; //read before the generators, see register()
+        SortedSet<SnapshotGenerator> cached = generatorsByKey.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         SortedSet<SnapshotGenerator> validGenerators = new TreeSet<SnapshotGenerator>(new SnapshotGeneratorComparator(generatorClass, database));
 
         for (SnapshotGenerator generator : generators) {
@@ -80,6 +111,9 @@ public class SnapshotGeneratorFactory {
                 validGenerators.add(generator);
             }
         }
+
+        validGenerators = Collections.unmodifiableSortedSet(validGenerators);
+        generatorsByKey.putIfAbsent(key, validGenerators);
         return validGenerators;
     }
 
@@ -126,9 +160,91 @@ public class SnapshotGeneratorFactory {
         if (database.getConnection() instanceof OfflineConnection) {
             throw new DatabaseException("Cannot snapshot offline database");
         }
+        if (shouldSnapshotInParallel(examples, snapshotControl)) {
+            return createParallelSnapshot(examples, database, snapshotControl);
+        }
         return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
     }
 
+    /**
+     * Parallel snapshots are used if enabled on the SnapshotControl and there is more than one example, all of them catalogs or schemas.
+     */
+    protected boolean shouldSnapshotInParallel(DatabaseObject[] examples, SnapshotControl snapshotControl) {
+        if (snapshotControl == null || !snapshotControl.isParallel() || examples == null || examples.length < 2) {
+            return false;
+        }
+        for (DatabaseObject example : examples) {
+            if (!(example instanceof Schema) && !(example instanceof Catalog)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Snapshots each example on its own thread, using a pool made of the given database and the SnapshotControl parallel databases,
+     * then merges the results in example order into one snapshot.
+     * The caller's SnapshotControl is only read, so the snapshot threads can copy it while the results are merged.
+     */
+    protected DatabaseSnapshot createParallelSnapshot(DatabaseObject[] examples, Database database, final SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        final BlockingQueue<Database> databasePool = new LinkedBlockingQueue<Database>();
+        databasePool.add(database);
+        databasePool.addAll(snapshotControl.getParallelDatabases());
+        for (Database poolDatabase : databasePool) {
+            ExecutorService.getInstance().getExecutor(poolDatabase); //create executors up front so each thread finds its own
+        }
+
+        int threads = Math.min(databasePool.size(), examples.length);
+        LogFactory.getLogger().info("Snapshotting " + examples.length + " schemas using " + threads + " parallel connections");
+
+        java.util.concurrent.ExecutorService threadPool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<DatabaseSnapshot>> results = new ArrayList<Future<DatabaseSnapshot>>();
+            for (final DatabaseObject example : examples) {
+                results.add(threadPool.submit(new Callable<DatabaseSnapshot>() {
+                    @Override
+                    public DatabaseSnapshot call() throws Exception {
+                        Database poolDatabase = databasePool.take();
+                        try {
+                            return new JdbcDatabaseSnapshot(new DatabaseObject[] {example}, poolDatabase, snapshotControl.copy(poolDatabase));
+                        } finally {
+                            databasePool.put(poolDatabase);
+                        }
+                    }
+                }));
+            }
+
+            SnapshotControl mergedControl = snapshotControl.copy(database);
+            DatabaseSnapshot snapshot = new JdbcDatabaseSnapshot(new DatabaseObject[0], database, mergedControl);
+            for (int i = 0; i < examples.length; i++) {
+                mergedControl.addType(examples[i].getClass(), database);
+                snapshot.merge(getResult(results.get(i)));
+            }
+            return snapshot;
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private DatabaseSnapshot getResult(Future<DatabaseSnapshot> result) throws DatabaseException, InvalidExampleException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for parallel snapshot", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DatabaseException) {
+                throw (DatabaseException) cause;
+            } else if (cause instanceof InvalidExampleException) {
+                throw (InvalidExampleException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new UnexpectedLiquibaseException(cause);
+        }
+    }
+
     public <T extends DatabaseObject> T createSnapshot(T example, Database database) throws DatabaseException, InvalidExampleException {
         return createSnapshot(example, database, new SnapshotControl(database));
     }
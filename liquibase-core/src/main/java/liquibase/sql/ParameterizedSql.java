@@ -0,0 +1,80 @@
+package liquibase.sql;
+
+import liquibase.structure.DatabaseObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sql that can also be executed as a prepared statement with bind parameters.
+ * <p>
+ * {@link #toSql()} still returns the statement with all values inlined as literals, so logging, updateSQL output and {@link liquibase.sql.visitor.SqlVisitor}s
+ * see exactly the same text as for {@link UnparsedSql}. {@link #getParameterizedSql()} returns the same statement with the bound values replaced by ? placeholders,
+ * which is the same for every statement with the same shape, so executors can cache one PreparedStatement per shape.
+ */
+public class ParameterizedSql extends UnparsedSql {
+
+    private final String parameterizedSql;
+    private final List<Object> parameters;
+
+    public ParameterizedSql(String sql, String parameterizedSql, List<Object> parameters, DatabaseObject... affectedDatabaseObjects) {
+        super(sql, affectedDatabaseObjects);
+        this.parameterizedSql = parameterizedSql.trim();
+        this.parameters = Collections.unmodifiableList(new ArrayList<Object>(parameters));
+    }
+
+    /**
+     * Returns a ParameterizedSql if the parameterized SQL contains exactly one ? per parameter, otherwise a plain UnparsedSql.
+     * Any other ? (for example in a where clause or function call that was inlined) would be taken as a placeholder by the driver.
+     */
+    public static UnparsedSql create(String sql, String parameterizedSql, List<Object> parameters, DatabaseObject... affectedDatabaseObjects) {
+        if (parameters.isEmpty() || countPlaceholders(parameterizedSql) != parameters.size()) {
+            return new UnparsedSql(sql, affectedDatabaseObjects);
+        }
+        return new ParameterizedSql(sql, parameterizedSql, parameters, affectedDatabaseObjects);
+    }
+
+    /**
+     * Returns true if the value can be bound as a parameter and still mean the same as the literal the generators would inline for it.
+     * Nulls, booleans, functions, plain java.util.Dates and strings that are already quoted literals are inlined.
+     */
+    public static boolean isBindable(Object value) {
+        if (value instanceof String) {
+            String string = (String) value;
+            return !(string.startsWith("'") && string.endsWith("'")) && !string.equalsIgnoreCase("NULL");
+        }
+        return value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof BigInteger
+                || value instanceof BigDecimal
+                || value instanceof java.sql.Timestamp
+                || value instanceof java.sql.Date
+                || value instanceof java.sql.Time;
+    }
+
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the statement with ? in place of each of the {@link #getParameters()}.
+     */
+    public String getParameterizedSql() {
+        return parameterizedSql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+}
@@ -13,22 +13,28 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
  * Use the register(SqlGenerator) method to add custom SqlGenerators,
  * and the getBestGenerator() method to retrieve the SqlGenerator that should be used for a given SqlStatement.
+ * <p>
+ * The registry is safe to use from several threads. Lookups are cached as read-only sets. Registering or unregistering a generator replaces the cache
+ * with a new, empty one, so a lookup that was computed from the old generators can only be stored in the discarded cache.
  */
 public class SqlGeneratorFactory {
 
-    private static SqlGeneratorFactory instance;
+    private static volatile SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private List<SqlGenerator> generators = new CopyOnWriteArrayList<SqlGenerator>();
 
     //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<String, SortedSet<SqlGenerator>>();
+    private final ConcurrentMap<Class<?>, Type[]> genericInterfacesCache = new ConcurrentHashMap<Class<?>, Type[]>();
+    private final ConcurrentMap<Class<?>, Type> genericSuperClassCache = new ConcurrentHashMap<Class<?>, Type>();
+    private volatile ConcurrentMap<String, SortedSet<SqlGenerator>> generatorsByKey = new ConcurrentHashMap<String, SortedSet<SqlGenerator>>();
 
     private SqlGeneratorFactory() {
         Class[] classes;
@@ -50,7 +56,11 @@ public class SqlGeneratorFactory {
      */
     public static SqlGeneratorFactory getInstance() {
         if (instance == null) {
-            instance = new SqlGeneratorFactory();
+            synchronized (SqlGeneratorFactory.class) {
+                if (instance == null) {
+                    instance = new SqlGeneratorFactory();
+                }
+            }
         }
         return instance;
     }
@@ -61,11 +71,14 @@ public class SqlGeneratorFactory {
 
 
     public void register(SqlGenerator generator) {
+        //the cache is replaced after the generators are updated, so lookups that find the new cache also find the new generators
         generators.add(generator);
+        generatorsByKey = new ConcurrentHashMap<String, SortedSet<SqlGenerator>>();
     }
 
     public void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        generatorsByKey = new ConcurrentHashMap<String, SortedSet<SqlGenerator>>();
     }
 
     public void unregister(Class generatorClass) {
@@ -93,8 +106,10 @@ public class SqlGeneratorFactory {
         }
         String key = statement.getClass().getName()+":"+ databaseName;
 
-        if (generatorsByKey.containsKey(key)) {
-            return generatorsByKey.get(key);
+        ConcurrentMap<String, SortedSet<SqlGenerator>> generatorsByKey = this.generatorsByKey; //read before the generators, see register()
+        SortedSet<SqlGenerator> cached = generatorsByKey.get(key);
+        if (cached != null) {
+            return cached;
         }
 
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
@@ -122,27 +137,29 @@ public class SqlGeneratorFactory {
             }
         }
 
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        SortedSet<SqlGenerator> readOnlyGenerators = Collections.unmodifiableSortedSet(validGenerators);
+        generatorsByKey.putIfAbsent(key, readOnlyGenerators);
+        return readOnlyGenerators;
     }
 
     private Type[] getGenericInterfaces(Class<?> clazz) {
-        if(genericInterfacesCache.containsKey(clazz)) {
-            return genericInterfacesCache.get(clazz);
+        Type[] genericInterfaces = genericInterfacesCache.get(clazz);
+        if (genericInterfaces == null) {
+            genericInterfaces = clazz.getGenericInterfaces();
+            genericInterfacesCache.putIfAbsent(clazz, genericInterfaces);
         }
-
-        Type[] genericInterfaces = clazz.getGenericInterfaces();
-        genericInterfacesCache.put(clazz, genericInterfaces);
         return genericInterfaces;
     }
 
     private Type getGenericSuperclass(Class<?> clazz) {
-        if(genericSuperClassCache.containsKey(clazz)) {
+        if (genericSuperClassCache.containsKey(clazz)) {
             return genericSuperClassCache.get(clazz);
         }
 
         Type genericSuperclass = clazz.getGenericSuperclass();
-        genericSuperClassCache.put(clazz, genericSuperclass);
+        if (genericSuperclass != null) { //ConcurrentHashMap does not allow null values
+            genericSuperClassCache.putIfAbsent(clazz, genericSuperclass);
+        }
         return genericSuperclass;
     }
 
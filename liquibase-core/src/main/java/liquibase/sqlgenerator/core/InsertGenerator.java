@@ -3,15 +3,17 @@ package liquibase.sqlgenerator.core;
 import liquibase.database.Database;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.ValidationErrors;
+import liquibase.sql.ParameterizedSql;
 import liquibase.sql.Sql;
-import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.DatabaseFunction;
 import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Relation;
 import liquibase.structure.core.Table;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
 
@@ -30,52 +32,96 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
 
     @Override
     public Sql[] generateSql(InsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
-        StringBuffer sql = new StringBuffer("INSERT INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()) + " (");
+        StringBuffer sql = new StringBuffer();
+        generateHeader(sql, statement, database);
+        String header = sql.toString();
+
+        StringBuffer parameterizedSql = new StringBuffer(header);
+        List<Object> parameters = new ArrayList<Object>();
+        generateValues(sql, parameterizedSql, parameters, statement, database);
+
+        return new Sql[] {
+                ParameterizedSql.create(sql.toString(), parameterizedSql.toString(), parameters, getAffectedTable(statement))
+        };
+    }
+
+    /**
+     * Appends the "INSERT INTO table (columns) VALUES " part of the statement.
+     */
+    public void generateHeader(StringBuffer sql, InsertStatement statement, Database database) {
+        sql.append("INSERT INTO ").append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())).append(" (");
+        boolean first = true;
         for (String column : statement.getColumnValues().keySet()) {
-            sql.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column)).append(", ");
-        }
-        sql.deleteCharAt(sql.lastIndexOf(" "));
-        int lastComma = sql.lastIndexOf(",");
-        if (lastComma >= 0) {
-            sql.deleteCharAt(lastComma);
+            if (!first) {
+                sql.append(", ");
+            }
+            sql.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column));
+            first = false;
         }
+        sql.append(") VALUES ");
+    }
 
-        sql.append(") VALUES (");
+    /**
+     * Appends the "(values)" part of the statement.
+     */
+    public void generateValues(StringBuffer sql, InsertStatement statement, Database database) {
+        generateValues(sql, null, null, statement, database);
+    }
 
+    /**
+     * Appends the "(values)" part of the statement to sql with all values inlined and, if parameterizedSql is not null,
+     * to parameterizedSql with a ? for each {@link ParameterizedSql#isBindable(Object) bindable} value, which is added to parameters.
+     */
+    public void generateValues(StringBuffer sql, StringBuffer parameterizedSql, List<Object> parameters, InsertStatement statement, Database database) {
+        append("(", sql, parameterizedSql);
+        boolean first = true;
         for (String column : statement.getColumnValues().keySet()) {
+            if (!first) {
+                append(", ", sql, parameterizedSql);
+            }
+            first = false;
+
             Object newValue = statement.getColumnValues().get(column);
-            if (newValue == null || newValue.toString().equalsIgnoreCase("NULL")) {
-                sql.append("NULL");
-            } else if (newValue instanceof String && !looksLikeFunctionCall(((String) newValue), database)) {
-                sql.append(DataTypeFactory.getInstance().fromObject(newValue, database).objectToSql(newValue, database));
-            } else if (newValue instanceof Date) {
-                sql.append(database.getDateLiteral(((Date) newValue)));
-            } else if (newValue instanceof Boolean) {
-                if (((Boolean) newValue)) {
-                    sql.append(DataTypeFactory.getInstance().getTrueBooleanValue(database));
+            String literal = convertToString(newValue, database);
+            sql.append(literal);
+            if (parameterizedSql != null) {
+                if (ParameterizedSql.isBindable(newValue) && !(newValue instanceof String && looksLikeFunctionCall(((String) newValue), database))) {
+                    parameterizedSql.append("?");
+                    parameters.add(newValue);
                 } else {
-                    sql.append(DataTypeFactory.getInstance().getFalseBooleanValue(database));
+                    parameterizedSql.append(literal);
                 }
-            } else if (newValue instanceof DatabaseFunction) {
-                sql.append(database.generateDatabaseFunctionValue((DatabaseFunction) newValue));
-            }
-            else {
-                sql.append(newValue);
             }
-            sql.append(", ");
         }
+        append(")", sql, parameterizedSql);
+    }
 
-        sql.deleteCharAt(sql.lastIndexOf(" "));
-        lastComma = sql.lastIndexOf(",");
-        if (lastComma >= 0) {
-            sql.deleteCharAt(lastComma);
+    private void append(String text, StringBuffer sql, StringBuffer parameterizedSql) {
+        sql.append(text);
+        if (parameterizedSql != null) {
+            parameterizedSql.append(text);
         }
+    }
 
-        sql.append(")");
-
-        return new Sql[] {
-                new UnparsedSql(sql.toString(), getAffectedTable(statement))
-        };
+    private String convertToString(Object newValue, Database database) {
+        if (newValue == null || newValue.toString().equalsIgnoreCase("NULL")) {
+            return "NULL";
+        } else if (newValue instanceof String && !looksLikeFunctionCall(((String) newValue), database)) {
+            return DataTypeFactory.getInstance().fromObject(newValue, database).objectToSql(newValue, database);
+        } else if (newValue instanceof Date) {
+            return database.getDateLiteral(((Date) newValue));
+        } else if (newValue instanceof Boolean) {
+            if (((Boolean) newValue)) {
+                return DataTypeFactory.getInstance().getTrueBooleanValue(database);
+            } else {
+                return DataTypeFactory.getInstance().getFalseBooleanValue(database);
+            }
+        } else if (newValue instanceof DatabaseFunction) {
+            return database.generateDatabaseFunctionValue((DatabaseFunction) newValue);
+        }
+        else {
+            return String.valueOf(newValue);
+        }
     }
 
     protected Relation getAffectedTable(InsertStatement statement) {
@@ -0,0 +1,152 @@
+package liquibase.sqlgenerator.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+/**
+ * Writes an {@link InsertSetStatement} as multi-row "INSERT ... VALUES (...), (...)" statements on databases that support them.
+ * On other databases each insert is generated on its own.
+ */
+public class InsertSetGenerator extends AbstractSqlGenerator<InsertSetStatement> {
+
+    /**
+     * Default maximum number of rows per generated statement.
+     * SQL Server does not accept more than 1000 rows in a VALUES list, and on other databases it keeps statements a manageable size.
+     */
+    public static final int DEFAULT_BATCH_THRESHOLD = 1000;
+
+    private static final String VALUES_SEPARATOR = ") VALUES ";
+
+    @Override
+    public ValidationErrors validate(InsertSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("statements", statement.getStatements());
+        return validationErrors;
+    }
+
+    /**
+     * Each row is generated through the {@link SqlGeneratorFactory} so any registered InsertStatement generators are honored.
+     * Rows are only merged when each one came out as a single "INSERT INTO ... (...) VALUES (...)" statement with the same header,
+     * otherwise the generated statements are returned as they are.
+     */
+    @Override
+    public Sql[] generateSql(InsertSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<Sql[]> rows = new ArrayList<Sql[]>();
+        for (InsertStatement insertStatement : statement.getStatements()) {
+            rows.add(SqlGeneratorFactory.getInstance().generateSql(insertStatement, database));
+        }
+
+        String header = null;
+        if (supportsMultiRowInsert(database)) {
+            header = getCommonHeader(rows);
+        }
+
+        List<Sql> sql = new ArrayList<Sql>();
+        if (header == null) {
+            for (Sql[] row : rows) {
+                sql.addAll(Arrays.asList(row));
+            }
+            return sql.toArray(new Sql[sql.size()]);
+        }
+
+        int batchThreshold = getBatchThreshold(statement, database);
+
+        StringBuffer buffer = null;
+        int rowsInBuffer = 0;
+        for (Sql[] row : rows) {
+            String rowSql = row[0].toSql();
+            if (buffer == null) {
+                buffer = new StringBuffer(rowSql);
+            } else {
+                buffer.append(",\n").append(rowSql.substring(header.length()));
+            }
+            rowsInBuffer++;
+
+            if (rowsInBuffer >= batchThreshold) {
+                sql.add(new UnparsedSql(buffer.toString(), getAffectedTable(statement)));
+                buffer = null;
+                rowsInBuffer = 0;
+            }
+        }
+        if (buffer != null) {
+            sql.add(new UnparsedSql(buffer.toString(), getAffectedTable(statement)));
+        }
+
+        return sql.toArray(new Sql[sql.size()]);
+    }
+
+    /**
+     * Returns the "INSERT INTO ... (...) VALUES " text shared by every row, or null if the rows cannot be merged.
+     */
+    protected String getCommonHeader(List<Sql[]> rows) {
+        String header = null;
+        for (Sql[] row : rows) {
+            if (row.length != 1) {
+                return null;
+            }
+            String rowSql = row[0].toSql();
+            if (header == null) {
+                int valuesIndex = rowSql.indexOf(VALUES_SEPARATOR + "(");
+                if (!rowSql.startsWith("INSERT INTO ") || valuesIndex < 0) {
+                    return null;
+                }
+                header = rowSql.substring(0, valuesIndex + VALUES_SEPARATOR.length());
+            } else if (!rowSql.startsWith(header)) {
+                return null;
+            }
+        }
+        return header;
+    }
+
+    /**
+     * Returns true if the database accepts more than one row in the VALUES clause of an INSERT.
+     */
+    public boolean supportsMultiRowInsert(Database database) {
+        try {
+            if (database instanceof MSSQLDatabase) {
+                int majorVersion = database.getDatabaseMajorVersion();
+                return majorVersion <= 0 || majorVersion >= 10;
+            }
+            if (database instanceof HsqlDatabase) {
+                int majorVersion = database.getDatabaseMajorVersion();
+                return majorVersion <= 0 || majorVersion >= 2;
+            }
+        } catch (DatabaseException e) {
+            return false;
+        }
+        return database instanceof MySQLDatabase
+                || database instanceof PostgresDatabase
+                || database instanceof H2Database;
+    }
+
+    protected int getBatchThreshold(InsertSetStatement statement, Database database) {
+        int batchThreshold = DEFAULT_BATCH_THRESHOLD;
+        if (statement.getBatchThreshold() != null && statement.getBatchThreshold() > 0 && statement.getBatchThreshold() < batchThreshold) {
+            batchThreshold = statement.getBatchThreshold();
+        }
+        return batchThreshold;
+    }
+
+    protected Relation getAffectedTable(InsertSetStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
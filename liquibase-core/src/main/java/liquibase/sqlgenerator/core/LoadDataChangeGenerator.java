@@ -0,0 +1,36 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.LoadDataExecutablePreparedStatement;
+import liquibase.statement.SqlStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL generator for <code>LoadDataExecutablePreparedStatement</code>.<br>
+ * The statement streams rows when executed, this generator is only used when the equivalent SQL text is needed and so reads the whole file.
+ */
+public class LoadDataChangeGenerator extends AbstractSqlGenerator<LoadDataExecutablePreparedStatement> {
+    @Override
+    public ValidationErrors validate(LoadDataExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getChange().getTableName());
+        validationErrors.checkRequiredField("file", statement.getChange().getFile());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(LoadDataExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<Sql> sql = new ArrayList<Sql>();
+        for (SqlStatement rowStatement : statement.getChange().generateRowStatements(database)) {
+            sql.addAll(Arrays.asList(SqlGeneratorFactory.getInstance().generateSql(rowStatement, database)));
+        }
+        return sql.toArray(new Sql[sql.size()]);
+    }
+}
@@ -12,6 +12,7 @@ import liquibase.statement.core.UpdateStatement;
 import liquibase.util.NetUtil;
 
 import java.sql.Timestamp;
+import java.util.Date;
 
 public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDatabaseChangeLogStatement> {
 
@@ -32,6 +33,13 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
         }
     }
 
+    /**
+     * Returns the LOCKEDBY value this process writes when it acquires the lock.
+     */
+    public static String getLockedBy() {
+        return hostname + " (" + hostaddress + ")";
+    }
+
     @Override
     public Sql[] generateSql(LockDatabaseChangeLogStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
     	String liquibaseSchema = database.getLiquibaseSchemaName();
@@ -42,8 +50,25 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
         UpdateStatement updateStatement = new UpdateStatement(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName());
         updateStatement.addNewColumnValue("LOCKED", true);
         updateStatement.addNewColumnValue("LOCKGRANTED", new Timestamp(new java.util.Date().getTime()));
-        updateStatement.addNewColumnValue("LOCKEDBY", hostname + " (" + hostaddress + ")");
-        updateStatement.setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID") + " = 1 AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED") + " = "+ DataTypeFactory.getInstance().fromDescription("boolean").objectToSql(false, database));
+        updateStatement.addNewColumnValue("LOCKEDBY", statement.getLockedBy() == null ? getLockedBy() : statement.getLockedBy());
+        String idColumn = database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID");
+        String lockedColumn = database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED");
+        if (statement.getExpiredLockedBy() == null) {
+            updateStatement.setWhereClause(idColumn + " = 1 AND " + lockedColumn + " = "+ DataTypeFactory.getInstance().fromDescription("boolean").objectToSql(false, database));
+        } else {
+            String whereClause = idColumn + " = 1 AND " + lockedColumn + " = "+ DataTypeFactory.getInstance().fromDescription("boolean").objectToSql(true, database)
+                    + " AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKEDBY") + " = ?"
+                    + " AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKGRANTED");
+            updateStatement.addWhereParameter(statement.getExpiredLockedBy());
+            if (statement.getExpiredLockGranted() == null) {
+                whereClause += " IS NULL";
+            } else {
+                whereClause += " = ?";
+                Date expiredLockGranted = statement.getExpiredLockGranted();
+                updateStatement.addWhereParameter(expiredLockGranted instanceof Timestamp ? expiredLockGranted : new Timestamp(expiredLockGranted.getTime()));
+            }
+            updateStatement.setWhereClause(whereClause);
+        }
 
         return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
 
@@ -0,0 +1,33 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.RenewDatabaseChangeLogLockStatement;
+import liquibase.statement.core.UpdateStatement;
+
+import java.sql.Timestamp;
+
+public class RenewDatabaseChangeLogLockGenerator extends AbstractSqlGenerator<RenewDatabaseChangeLogLockStatement> {
+
+    @Override
+    public ValidationErrors validate(RenewDatabaseChangeLogLockStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(RenewDatabaseChangeLogLockStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String liquibaseSchema = database.getLiquibaseSchemaName();
+        String liquibaseCatalog = database.getLiquibaseCatalogName();
+
+        UpdateStatement updateStatement = new UpdateStatement(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName());
+        updateStatement.addNewColumnValue("LOCKGRANTED", new Timestamp(new java.util.Date().getTime()));
+        updateStatement.setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID") + " = 1 AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED") + " = " + DataTypeFactory.getInstance().fromDescription("boolean").objectToSql(true, database) + " AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKEDBY") + " = ?");
+        updateStatement.addWhereParameter(statement.getLockedBy() == null ? LockDatabaseChangeLogGenerator.getLockedBy() : statement.getLockedBy());
+
+        return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
+    }
+}
@@ -3,8 +3,8 @@ package liquibase.sqlgenerator.core;
 import liquibase.database.Database;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.ValidationErrors;
+import liquibase.sql.ParameterizedSql;
 import liquibase.sql.Sql;
-import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.DatabaseFunction;
 import liquibase.statement.core.UpdateStatement;
@@ -12,10 +12,16 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.Relation;
 import liquibase.structure.core.Table;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class UpdateGenerator extends AbstractSqlGenerator<UpdateStatement> {
 
+    private static final Pattern WHERE_PARAMETER_PATTERN = Pattern.compile("\\?|:value");
+
     @Override
     public ValidationErrors validate(UpdateStatement updateStatement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         ValidationErrors validationErrors = new ValidationErrors();
@@ -27,16 +33,25 @@ public class UpdateGenerator extends AbstractSqlGenerator<UpdateStatement> {
     @Override
     public Sql[] generateSql(UpdateStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         StringBuffer sql = new StringBuffer("UPDATE " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()) + " SET");
+        StringBuffer parameterizedSql = new StringBuffer(sql);
+        List<Object> parameters = new ArrayList<Object>();
+        boolean first = true;
         for (String column : statement.getNewColumnValues().keySet()) {
-            sql.append(" ").append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column)).append(" = ");
-            sql.append(convertToString(statement.getNewColumnValues().get(column), database));
-            sql.append(",");
-        }
+            String columnSql = (first ? " " : ", ") + database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column) + " = ";
+            first = false;
 
-        int lastComma = sql.lastIndexOf(",");
-        if (lastComma >= 0) {
-            sql.deleteCharAt(lastComma);
+            Object newValue = statement.getNewColumnValues().get(column);
+            String literal = convertToString(newValue, database);
+            sql.append(columnSql).append(literal);
+            parameterizedSql.append(columnSql);
+            if (ParameterizedSql.isBindable(newValue) && !(newValue instanceof String && looksLikeFunctionCall(((String) newValue), database))) {
+                parameterizedSql.append("?");
+                parameters.add(newValue);
+            } else {
+                parameterizedSql.append(literal);
+            }
         }
+
         if (statement.getWhereClause() != null) {
             String fixedWhereClause = "WHERE " + statement.getWhereClause().trim();
             for (String columnName : statement.getWhereColumnNames()) {
@@ -46,17 +61,43 @@ public class UpdateGenerator extends AbstractSqlGenerator<UpdateStatement> {
                 fixedWhereClause = fixedWhereClause.replaceFirst(":name",
                         database.escapeObjectName(columnName, Column.class));
             }
+            String parameterizedWhereClause = parameterizeWhereClause(fixedWhereClause, statement.getWhereParameters(), parameters, database);
             for (Object param : statement.getWhereParameters()) {
                 fixedWhereClause = fixedWhereClause.replaceFirst("\\?|:value", DataTypeFactory.getInstance().fromObject(param, database).objectToSql(param, database));
             }
             sql.append(" ").append(fixedWhereClause);
+            parameterizedSql.append(" ").append(parameterizedWhereClause);
         }
 
         return new Sql[]{
-                new UnparsedSql(sql.toString(), getAffectedTable(statement))
+                ParameterizedSql.create(sql.toString(), parameterizedSql.toString(), parameters, getAffectedTable(statement))
         };
     }
 
+    /**
+     * Replaces each ? or :value in the where clause with a ? placeholder, adding the parameter to parameters, or with its literal if it cannot be bound.
+     */
+    private String parameterizeWhereClause(String whereClause, List<Object> whereParameters, List<Object> parameters, Database database) {
+        StringBuilder result = new StringBuilder();
+        Matcher matcher = WHERE_PARAMETER_PATTERN.matcher(whereClause);
+        int position = 0;
+        for (Object param : whereParameters) {
+            if (!matcher.find()) {
+                break;
+            }
+            result.append(whereClause, position, matcher.start());
+            if (ParameterizedSql.isBindable(param)) {
+                result.append("?");
+                parameters.add(param);
+            } else {
+                result.append(DataTypeFactory.getInstance().fromObject(param, database).objectToSql(param, database));
+            }
+            position = matcher.end();
+        }
+        result.append(whereClause.substring(position));
+        return result.toString();
+    }
+
     protected Relation getAffectedTable(UpdateStatement statement) {
         return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
     }
@@ -0,0 +1,266 @@
+package liquibase.statement;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+
+import liquibase.change.core.LoadDataChange;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertStatement;
+import liquibase.util.JdbcUtils;
+import liquibase.util.csv.CSVReader;
+
+/**
+ * Streams the rows of a {@link LoadDataChange} data file into the database using JDBC batches.
+ * <p>
+ * The file is read one line at a time so memory use does not depend on the file size.
+ * If every column has a loadData type, rows are bound as parameters of a single PreparedStatement.
+ * Otherwise, and for rows containing computed values, the normal SQL for each row is generated and sent as part of a Statement batch.
+ * Pending rows are sent every {@link LoadDataChange#getBatchSize()} rows and the transaction is committed every {@link LoadDataChange#getCommitInterval()} rows if set.
+ */
+public class LoadDataExecutablePreparedStatement implements ExecutablePreparedStatement {
+
+    private final Database database;
+    private final LoadDataChange change;
+
+    private PreparedStatement preparedStatement;
+    private String preparedSql;
+    private Statement statement;
+    private boolean pendingPrepared;
+    private int pendingRows;
+    private int batchesSent;
+    private boolean supportsBatchUpdates;
+    private int[] parameterTypes;
+
+    public LoadDataExecutablePreparedStatement(Database database, LoadDataChange change) {
+        this.database = database;
+        this.change = change;
+    }
+
+    public LoadDataChange getChange() {
+        return change;
+    }
+
+    @Override
+    public boolean skipOnUnsupported() {
+        return false;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        int batchSize = change.getBatchSize() == null || change.getBatchSize() < 1 ? 1 : change.getBatchSize();
+        Integer commitInterval = change.getCommitInterval();
+
+        long startTime = new Date().getTime();
+        long rowsLoaded = 0;
+        CSVReader reader = null;
+        try {
+            supportsBatchUpdates = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().getMetaData().supportsBatchUpdates();
+
+            reader = change.openCSVReader();
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file " + change.getFile() + " was empty");
+            }
+            boolean bindValues = change.canBindValues(headers);
+            parameterTypes = change.getParameterTypes(headers);
+
+            String[] line;
+            int lineNumber = 0;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+
+                InsertStatement row = change.createRowStatement(headers, line, lineNumber, database);
+                if (row == null) {
+                    continue;
+                }
+
+                if (bindValues && canBind(row)) {
+                    addPreparedRow(factory, row);
+                } else {
+                    addSqlRow(row);
+                }
+                rowsLoaded++;
+
+                if (pendingRows >= batchSize) {
+                    flush();
+                }
+                if (commitInterval != null && commitInterval > 0 && rowsLoaded % commitInterval == 0) {
+                    flush();
+                    database.commit();
+                }
+            }
+            flush();
+
+            LogFactory.getLogger().info("Loaded " + rowsLoaded + " rows from " + change.getFile() + " into " + change.getTableName() + " in " + batchesSent + " batches (" + (new Date().getTime() - startTime) + "ms)");
+        } catch (IOException e) {
+            throw new DatabaseException(e);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading " + change.getFile() + " into " + change.getTableName() + " after " + rowsLoaded + " rows: " + e.getMessage(), e);
+        } catch (UnexpectedLiquibaseException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) {
+                }
+            }
+            JdbcUtils.closeStatement(preparedStatement);
+            JdbcUtils.closeStatement(statement);
+            preparedStatement = null;
+            preparedSql = null;
+            statement = null;
+            pendingRows = 0;
+            parameterTypes = null;
+        }
+    }
+
+    /**
+     * Returns true if the given row is a plain insert and all its values can be passed as JDBC parameters.
+     */
+    protected boolean canBind(InsertStatement row) {
+        if (!row.getClass().equals(InsertStatement.class)) {
+            return false;
+        }
+        for (Object value : row.getColumnValues().values()) {
+            if (value instanceof DatabaseFunction) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected String generateParameterizedSql(InsertStatement row) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        StringBuilder params = new StringBuilder("VALUES (");
+        sql.append(database.escapeTableName(row.getCatalogName(), row.getSchemaName(), row.getTableName()));
+        sql.append(" (");
+        boolean first = true;
+        for (String column : row.getColumnValues().keySet()) {
+            if (!first) {
+                sql.append(", ");
+                params.append(", ");
+            }
+            sql.append(database.escapeColumnName(row.getCatalogName(), row.getSchemaName(), row.getTableName(), column));
+            params.append("?");
+            first = false;
+        }
+        sql.append(") ");
+        sql.append(params).append(")");
+        return sql.toString();
+    }
+
+    private void addPreparedRow(PreparedStatementFactory factory, InsertStatement row) throws SQLException, DatabaseException {
+        String sql = generateParameterizedSql(row);
+        if (pendingRows > 0 && (!pendingPrepared || !sql.equals(preparedSql))) {
+            flush();
+        }
+        if (!sql.equals(preparedSql)) {
+            JdbcUtils.closeStatement(preparedStatement);
+            preparedStatement = factory.create(sql);
+            preparedSql = sql;
+        }
+
+        int i = 1;
+        for (Object value : row.getColumnValues().values()) {
+            applyParameter(preparedStatement, i, value, getParameterType(i));
+            i++;
+        }
+
+        if (supportsBatchUpdates) {
+            preparedStatement.addBatch();
+            pendingPrepared = true;
+            pendingRows++;
+        } else {
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private void addSqlRow(InsertStatement row) throws SQLException, DatabaseException {
+        if (pendingRows > 0 && pendingPrepared) {
+            flush();
+        }
+        if (statement == null) {
+            statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        }
+
+        for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(row, database)) {
+            if (supportsBatchUpdates) {
+                statement.addBatch(sql.toSql());
+            } else {
+                statement.execute(sql.toSql());
+            }
+        }
+        if (supportsBatchUpdates) {
+            pendingPrepared = false;
+            pendingRows++;
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pendingRows == 0) {
+            return;
+        }
+        if (pendingPrepared) {
+            preparedStatement.executeBatch();
+        } else {
+            statement.executeBatch();
+        }
+        batchesSent++;
+        pendingRows = 0;
+    }
+
+    /**
+     * Returns the java.sql.Types of the declared loadData type of the given parameter, or VARCHAR if it is not known.
+     */
+    private int getParameterType(int i) {
+        if (parameterTypes == null || i > parameterTypes.length) {
+            return Types.VARCHAR;
+        }
+        return parameterTypes[i - 1];
+    }
+
+    private void applyParameter(PreparedStatement stmt, int i, Object value, int sqlType) throws SQLException {
+        if (value == null || (value instanceof String && ((String) value).equalsIgnoreCase("NULL"))) {
+            stmt.setNull(i, sqlType);
+        } else if (value instanceof String) {
+            stmt.setString(i, (String) value);
+        } else if (value instanceof Boolean) {
+            stmt.setBoolean(i, (Boolean) value);
+        } else if (value instanceof Long) {
+            stmt.setLong(i, (Long) value);
+        } else if (value instanceof Integer) {
+            stmt.setInt(i, (Integer) value);
+        } else if (value instanceof BigDecimal) {
+            stmt.setBigDecimal(i, (BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            stmt.setBigDecimal(i, new BigDecimal((BigInteger) value));
+        } else if (value instanceof Number) {
+            stmt.setBigDecimal(i, new BigDecimal(value.toString()));
+        } else if (value instanceof java.sql.Date) {
+            stmt.setDate(i, (java.sql.Date) value);
+        } else if (value instanceof java.sql.Time) {
+            stmt.setTime(i, (java.sql.Time) value);
+        } else if (value instanceof Timestamp) {
+            stmt.setTimestamp(i, (Timestamp) value);
+        } else if (value instanceof Date) {
+            stmt.setTimestamp(i, new Timestamp(((Date) value).getTime()));
+        } else {
+            stmt.setObject(i, value);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package liquibase.statement.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * A set of {@link InsertStatement}s against the same table and with the same columns.
+ * Generators can write them as multi-row "INSERT ... VALUES (...), (...)" statements on databases that support it.
+ */
+public class InsertSetStatement extends AbstractSqlStatement {
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private Integer batchThreshold;
+    private List<InsertStatement> statements = new ArrayList<InsertStatement>();
+
+    public InsertSetStatement(String catalogName, String schemaName, String tableName) {
+        this(catalogName, schemaName, tableName, null);
+    }
+
+    public InsertSetStatement(String catalogName, String schemaName, String tableName, Integer batchThreshold) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.batchThreshold = batchThreshold;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Maximum number of rows to put in a single generated statement. If null, the generator default for the database is used.
+     */
+    public Integer getBatchThreshold() {
+        return batchThreshold;
+    }
+
+    public List<InsertStatement> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Returns true if the given statement is a plain InsertStatement against this table with the same columns, in the same order, as the statements already in this set.
+     */
+    public boolean canAdd(InsertStatement statement) {
+        if (!statement.getClass().equals(InsertStatement.class)) {
+            return false;
+        }
+        if (!equals(catalogName, statement.getCatalogName()) || !equals(schemaName, statement.getSchemaName()) || !equals(tableName, statement.getTableName())) {
+            return false;
+        }
+        if (statements.isEmpty()) {
+            return true;
+        }
+        return new ArrayList<String>(statements.get(0).getColumnValues().keySet()).equals(new ArrayList<String>(statement.getColumnValues().keySet()));
+    }
+
+    public InsertSetStatement addInsertStatement(InsertStatement statement) {
+        statements.add(statement);
+        return this;
+    }
+
+    private boolean equals(String value1, String value2) {
+        return value1 == null ? value2 == null : value1.equals(value2);
+    }
+}
@@ -2,6 +2,42 @@ package liquibase.statement.core;
 
 import liquibase.statement.AbstractSqlStatement;
 
+import java.util.Date;
+
 public class LockDatabaseChangeLogStatement extends AbstractSqlStatement {
-    
+
+    private String lockedBy;
+    private String expiredLockedBy;
+    private Date expiredLockGranted;
+
+    public LockDatabaseChangeLogStatement() {
+    }
+
+    /**
+     * Acquires the lock writing lockedBy as LOCKEDBY. A null lockedBy writes the default host based value.
+     */
+    public LockDatabaseChangeLogStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    /**
+     * Takes over the lock if it is still held by expiredLockedBy with the given LOCKGRANTED, meaning its lease has expired and it has not been renewed since it was read.
+     */
+    public LockDatabaseChangeLogStatement(String lockedBy, String expiredLockedBy, Date expiredLockGranted) {
+        this.lockedBy = lockedBy;
+        this.expiredLockedBy = expiredLockedBy;
+        this.expiredLockGranted = expiredLockGranted;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public String getExpiredLockedBy() {
+        return expiredLockedBy;
+    }
+
+    public Date getExpiredLockGranted() {
+        return expiredLockGranted;
+    }
 }
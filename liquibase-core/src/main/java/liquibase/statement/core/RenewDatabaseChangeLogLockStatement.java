@@ -0,0 +1,25 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Updates LOCKGRANTED of the change log lock if it is still held by this process, renewing its lease.
+ */
+public class RenewDatabaseChangeLogLockStatement extends AbstractSqlStatement {
+
+    private String lockedBy;
+
+    public RenewDatabaseChangeLogLockStatement() {
+    }
+
+    /**
+     * Renews the lock only if its LOCKEDBY is lockedBy. A null lockedBy uses the default host based value.
+     */
+    public RenewDatabaseChangeLogLockStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
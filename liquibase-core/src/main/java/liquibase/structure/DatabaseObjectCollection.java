@@ -7,6 +7,9 @@ import liquibase.serializer.LiquibaseSerializable;
 
 import java.util.*;
 
+/**
+ * Objects found by a snapshot, indexed by type and hash. All methods are synchronized so the collection can be filled from several threads.
+ */
 public class DatabaseObjectCollection implements LiquibaseSerializable {
 
     private Map<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>> cache = new HashMap<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>>();
@@ -27,7 +30,7 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     }
 
     @Override
-    public Set<String> getSerializableFields() {
+    public synchronized Set<String> getSerializableFields() {
         SortedSet<String> types = new TreeSet<String>();
         for (Class type : cache.keySet()) {
             types.add(type.getName());
@@ -37,7 +40,7 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     }
 
     @Override
-    public Object getSerializableFieldValue(String field) {
+    public synchronized Object getSerializableFieldValue(String field) {
         SortedSet<DatabaseObject> objects = new TreeSet<DatabaseObject>(new DatabaseObjectComparator());
         try {
             Map<String, Set<DatabaseObject>> map = cache.get(Class.forName(field));
@@ -58,7 +61,7 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
         return SerializationType.NAMED_FIELD;
     }
 
-    public void add(DatabaseObject databaseObject) {
+    public synchronized void add(DatabaseObject databaseObject) {
         if (databaseObject == null) {
             return;
         }
@@ -83,7 +86,7 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     /**
      * Returns the object described by the passed example if it is already included in this snapshot.
      */
-    public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
+    public synchronized <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
         Map<String, Set<DatabaseObject>> databaseObjectsByHash = cache.get(example.getClass());
 
         if (databaseObjectsByHash == null) {
@@ -125,7 +128,7 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     /**
      * Returns all objects of the given type that are already included in this snapshot.
      */
-    public <DatabaseObjectType extends  DatabaseObject> Set<DatabaseObjectType> get(Class<DatabaseObjectType> type) {
+    public synchronized <DatabaseObjectType extends  DatabaseObject> Set<DatabaseObjectType> get(Class<DatabaseObjectType> type) {
 
         Set<DatabaseObject> returnSet = new HashSet<DatabaseObject>();
 
@@ -140,7 +143,96 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     }
 
 
-    public boolean contains(DatabaseObject wantedObject) {
+    public synchronized boolean contains(DatabaseObject wantedObject) {
         return get(wantedObject) != null;
     }
+
+    /**
+     * Adds all objects in the given collection that are not already in this collection.
+     * References from the added objects to objects that were already in this collection, such as a foreign key to a table in another schema,
+     * are changed to point to the instances in this collection so each object is only represented once.
+     */
+    public void addAll(DatabaseObjectCollection other) {
+        List<DatabaseObject> otherObjects = new ArrayList<DatabaseObject>();
+        Set<DatabaseObject> seen = Collections.newSetFromMap(new IdentityHashMap<DatabaseObject, Boolean>());
+        synchronized (other) {
+            for (Map<String, Set<DatabaseObject>> objectsByHash : other.cache.values()) {
+                for (Set<DatabaseObject> objects : objectsByHash.values()) {
+                    for (DatabaseObject object : objects) {
+                        if (seen.add(object)) {
+                            otherObjects.add(object);
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized (this) {
+            List<DatabaseObject> added = new ArrayList<DatabaseObject>();
+            for (DatabaseObject object : otherObjects) {
+                if (!contains(object)) {
+                    add(object);
+                    added.add(object);
+                }
+            }
+            for (DatabaseObject object : added) {
+                for (String attribute : new HashSet<String>(object.getAttributes())) {
+                    Object value = object.getAttribute(attribute, Object.class);
+                    Object resolvedValue = resolveReference(value);
+                    if (resolvedValue != value) {
+                        object.setAttribute(attribute, resolvedValue);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the instance in this collection equal to the passed object, or a copy of the passed collection or map with its objects replaced.
+     * Returns the passed value itself if nothing needed replacing.
+     */
+    private Object resolveReference(Object value) {
+        if (value instanceof DatabaseObject) {
+            DatabaseObject existing = get((DatabaseObject) value);
+            return existing == null ? value : existing;
+        } else if (value instanceof Collection) {
+            List<Object> newValues = new ArrayList<Object>();
+            boolean changed = false;
+            for (Object element : (Collection) value) {
+                Object resolvedElement = resolveReference(element);
+                changed = changed || resolvedElement != element;
+                newValues.add(resolvedElement);
+            }
+            if (!changed) {
+                return value;
+            }
+            try {
+                Collection newCollection = (Collection) value.getClass().newInstance();
+                newCollection.addAll(newValues);
+                return newCollection;
+            } catch (Exception e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        } else if (value instanceof Map) {
+            Map<Object, Object> newValues = new LinkedHashMap<Object, Object>();
+            boolean changed = false;
+            for (Map.Entry entry : (Set<Map.Entry>) ((Map) value).entrySet()) {
+                Object resolvedKey = resolveReference(entry.getKey());
+                Object resolvedValue = resolveReference(entry.getValue());
+                changed = changed || resolvedKey != entry.getKey() || resolvedValue != entry.getValue();
+                newValues.put(resolvedKey, resolvedValue);
+            }
+            if (!changed) {
+                return value;
+            }
+            try {
+                Map newMap = (Map) value.getClass().newInstance();
+                newMap.putAll(newValues);
+                return newMap;
+            } catch (Exception e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+        return value;
+    }
 }
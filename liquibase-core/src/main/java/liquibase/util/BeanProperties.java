@@ -0,0 +1,122 @@
+package liquibase.util;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cached JavaBean properties of a class, so {@link Introspector} only runs once per class instead of once per property access.
+ * Properties are looked up by their {@link PropertyDescriptor#getDisplayName()} and keep the order the Introspector returns them in.
+ * Boolean wrapper properties with an "is" getter get that getter as read method, since the Introspector only recognizes "is" for primitive booleans.
+ */
+public class BeanProperties {
+
+    private static final ConcurrentMap<Class<?>, BeanProperties> cache = new ConcurrentHashMap<Class<?>, BeanProperties>();
+
+    private final Class<?> type;
+    private final Map<String, Property> properties;
+
+    public static BeanProperties forClass(Class<?> type) {
+        BeanProperties beanProperties = cache.get(type);
+        if (beanProperties == null) {
+            beanProperties = new BeanProperties(type);
+            BeanProperties existing = cache.putIfAbsent(type, beanProperties);
+            if (existing != null) {
+                beanProperties = existing;
+            }
+        }
+        return beanProperties;
+    }
+
+    private BeanProperties(Class<?> type) {
+        this.type = type;
+        Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        try {
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                Method readMethod = descriptor.getReadMethod();
+                if (readMethod == null) {
+                    try {
+                        readMethod = type.getMethod("is" + StringUtils.upperCaseFirst(descriptor.getName()));
+                    } catch (NoSuchMethodException ignore) {
+                        //it was worth a try
+                    }
+                }
+                properties.put(descriptor.getDisplayName(), new Property(descriptor.getDisplayName(), makeAccessible(readMethod), makeAccessible(descriptor.getWriteMethod())));
+            }
+        } catch (IntrospectionException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    private static Method makeAccessible(Method method) {
+        if (method != null) {
+            try {
+                method.setAccessible(true);
+            } catch (SecurityException ignore) {
+                //still works, just with access checks on every call
+            }
+        }
+        return method;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Collection<Property> getProperties() {
+        return properties.values();
+    }
+
+    /**
+     * Returns the property with the given name, or null if there is none.
+     */
+    public Property getProperty(String name) {
+        return properties.get(name);
+    }
+
+    public static class Property {
+        private final String name;
+        private final Method readMethod;
+        private final Method writeMethod;
+
+        private Property(String name, Method readMethod, Method writeMethod) {
+            this.name = name;
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Method getReadMethod() {
+            return readMethod;
+        }
+
+        public Method getWriteMethod() {
+            return writeMethod;
+        }
+
+        public Object getValue(Object object) throws IllegalAccessException, InvocationTargetException {
+            if (readMethod == null) {
+                throw new UnexpectedLiquibaseException("Could not find readMethod for " + name);
+            }
+            return readMethod.invoke(object);
+        }
+
+        public void setValue(Object object, Object value) throws IllegalAccessException, InvocationTargetException {
+            if (writeMethod == null) {
+                throw new UnexpectedLiquibaseException("Could not find writeMethod for " + name);
+            }
+            writeMethod.invoke(object, value);
+        }
+    }
+}
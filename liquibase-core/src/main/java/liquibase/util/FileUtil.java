@@ -2,8 +2,47 @@ package liquibase.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 
 public class FileUtil {
+
+    private static final int SEARCH_BLOCK_SIZE = 8192;
+
+    /**
+     * Returns the byte offset of the last occurrence of the ASCII text in the file, or -1 if the file does not contain it.
+     * The file is read backwards in blocks, so finding text near the end of a large file does not read the whole file.
+     */
+    public static long lastIndexOf(File file, String text) throws IOException {
+        byte[] pattern = text.getBytes("US-ASCII");
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            long end = randomAccessFile.length();
+            byte[] buffer = new byte[SEARCH_BLOCK_SIZE + pattern.length];
+            while (end >= pattern.length) {
+                long start = Math.max(0, end - buffer.length);
+                int length = (int) (end - start);
+                randomAccessFile.seek(start);
+                randomAccessFile.readFully(buffer, 0, length);
+                for (int i = length - pattern.length; i >= 0; i--) {
+                    int matched = 0;
+                    while (matched < pattern.length && buffer[i + matched] == pattern[matched]) {
+                        matched++;
+                    }
+                    if (matched == pattern.length) {
+                        return start + i;
+                    }
+                }
+                if (start == 0) {
+                    break;
+                }
+                end = start + pattern.length - 1;
+            }
+            return -1;
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
     /**
      * Schedule a file to be deleted when JVM exits.
      * If file is directory delete it and all sub-directories.
@@ -7,19 +7,46 @@ import liquibase.statement.SequenceNextValueFunction;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ObjectUtil {
 
-	private static Map<Class<?>,Method[]>methodCache = new HashMap<Class<?>, Method[]>();
-	
+    private static final ConcurrentMap<Class<?>, Map<String, List<Method>>> methodCache = new ConcurrentHashMap<Class<?>, Map<String, List<Method>>>();
+
+    /**
+     * Returns the public methods of the given class with the given name, in {@link Class#getMethods()} order.
+     * The methods are looked up once per class and cached.
+     */
+    private static List<Method> getMethods(Class<?> type, String methodName) {
+        Map<String, List<Method>> methodsByName = methodCache.get(type);
+        if (methodsByName == null) {
+            methodsByName = new HashMap<String, List<Method>>();
+            for (Method method : type.getMethods()) {
+                List<Method> methods = methodsByName.get(method.getName());
+                if (methods == null) {
+                    methods = new ArrayList<Method>(1);
+                    methodsByName.put(method.getName(), methods);
+                }
+                methods.add(method);
+            }
+            Map<String, List<Method>> existing = methodCache.putIfAbsent(type, methodsByName);
+            if (existing != null) {
+                methodsByName = existing;
+            }
+        }
+        List<Method> methods = methodsByName.get(methodName);
+        if (methods == null) {
+            return Collections.emptyList();
+        }
+        return methods;
+    }
+
     public static Object getProperty(Object object, String propertyName) throws IllegalAccessException, InvocationTargetException {
         String methodName = "get" + propertyName.substring(0, 1).toUpperCase(Locale.ENGLISH) + propertyName.substring(1);
-        Method[] methods = object.getClass().getMethods();
-        for (Method method : methods) {
-            if (method.getName().equals(methodName) && method.getParameterTypes().length == 0) {
+        for (Method method : getMethods(object.getClass(), methodName)) {
+            if (method.getParameterTypes().length == 0) {
                 return method.invoke(object);
             }
         }
@@ -28,44 +55,34 @@ public class ObjectUtil {
 
     public static void setProperty(Object object, String propertyName, String propertyValue) throws IllegalAccessException, InvocationTargetException {
         String methodName = "set" + propertyName.substring(0, 1).toUpperCase(Locale.ENGLISH) + propertyName.substring(1);
-        Method[] methods;
-        
-        methods = methodCache.get(object.getClass());
-        
-        if (methods == null) {
-        	methods = object.getClass().getMethods();
-        	methodCache.put(object.getClass(), methods);
-        }
-        
-        for (Method method : methods) {
-            if (method.getName().equals(methodName)) {
+        for (Method method : getMethods(object.getClass(), methodName)) {
+            if (method.getParameterTypes().length == 1) {
                 Class<?> parameterType = method.getParameterTypes()[0];
-                if (method.getParameterTypes().length == 1) {
-                    if (parameterType.equals(Boolean.class) || parameterType.equals(boolean.class)) {
-                        method.invoke(object, Boolean.valueOf(propertyValue));
-                        return;
-                    } else if (parameterType.equals(String.class)) {
-                        method.invoke(object, propertyValue);
-                        return;
-                    } else if (parameterType.equals(Integer.class)) {
-                        method.invoke(object, Integer.valueOf(propertyValue));
-                        return;
-                    } else if (parameterType.equals(Long.class)) {
-                        method.invoke(object, Long.valueOf(propertyValue));
-                        return;
-                    } else if (parameterType.equals(BigInteger.class)) {
-                        method.invoke(object, new BigInteger(propertyValue));
-                        return;
-                    } else if (parameterType.equals(DatabaseFunction.class)) {
-                        method.invoke(object, new DatabaseFunction(propertyValue));
-                        return;
-                    } else if (parameterType.equals(SequenceNextValueFunction.class)) {
-                        method.invoke(object, new SequenceNextValueFunction(propertyValue));
-                        return;
-                    } else if (parameterType.equals(SequenceCurrentValueFunction.class)) {
-                        method.invoke(object, new SequenceCurrentValueFunction(propertyValue));
-                        return;
-                    }                }
+                if (parameterType.equals(Boolean.class) || parameterType.equals(boolean.class)) {
+                    method.invoke(object, Boolean.valueOf(propertyValue));
+                    return;
+                } else if (parameterType.equals(String.class)) {
+                    method.invoke(object, propertyValue);
+                    return;
+                } else if (parameterType.equals(Integer.class)) {
+                    method.invoke(object, Integer.valueOf(propertyValue));
+                    return;
+                } else if (parameterType.equals(Long.class)) {
+                    method.invoke(object, Long.valueOf(propertyValue));
+                    return;
+                } else if (parameterType.equals(BigInteger.class)) {
+                    method.invoke(object, new BigInteger(propertyValue));
+                    return;
+                } else if (parameterType.equals(DatabaseFunction.class)) {
+                    method.invoke(object, new DatabaseFunction(propertyValue));
+                    return;
+                } else if (parameterType.equals(SequenceNextValueFunction.class)) {
+                    method.invoke(object, new SequenceNextValueFunction(propertyValue));
+                    return;
+                } else if (parameterType.equals(SequenceCurrentValueFunction.class)) {
+                    method.invoke(object, new SequenceCurrentValueFunction(propertyValue));
+                    return;
+                }
             }
         }
         throw new RuntimeException("Property '" + propertyName+"' not found on object type "+object.getClass().getName());
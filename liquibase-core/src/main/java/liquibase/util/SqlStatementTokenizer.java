@@ -0,0 +1,495 @@
+package liquibase.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits SQL read from a {@link Reader} into statements in a single pass, one statement at a time, so large SQL files do not have to be held in memory.
+ * <p>
+ * Delimiters and comment markers inside 'quoted' and "quoted" text and Oracle q'[quoted]' text are ignored. Delimiters inside comments are ignored too.
+ * A backslash escapes the next character inside PostgreSQL E'escape strings', and inside all quoted text if backslash escapes are enabled, as MySQL does by default.
+ * A quote that is never closed is treated as an ordinary character, so a stray apostrophe does not turn the rest of the text into one statement.
+ * <p>
+ * If hash comments are enabled, as for MySQL, # starts a comment that runs to the end of the line. Hash comments are never stripped.
+ * Otherwise quotes are not tracked on lines starting with #, since # may be a comment there but starts identifiers such as SQL Server temporary tables elsewhere.
+ * If comments are stripped, /* ... *&#47; comments are removed and -- comments are removed along with the whitespace before them, as {@link StringUtils#stripComments(String)} always did.
+ * <p>
+ * The end delimiter follows the rules of {@link StringUtils#splitSQL(String, String)}:
+ * <ul>
+ *     <li>null splits on a ; at the end of a line and on a line containing only "go"</li>
+ *     <li>"go" (in any case) only splits on a line containing only "go"</li>
+ *     <li>any other delimiter splits wherever it appears. Delimiters containing regular expression characters are applied as regular expressions,
+ *     which requires reading the whole text first</li>
+ * </ul>
+ * Returned statements are trimmed and empty statements are skipped. If statements are not split, the whole (trimmed) text is returned as the only statement.
+ */
+public class SqlStatementTokenizer {
+
+    private static final String REGEXP_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Reader reader;
+    private final boolean stripComments;
+    private final boolean splitStatements;
+    private final boolean backslashEscapes;
+    private final boolean hashComments;
+    private final boolean splitOnSemicolon;
+    private final boolean splitOnGo;
+    private final String literalDelimiter;
+    private final Pattern delimiterPattern;
+
+    private char[] pushback = new char[16];
+    private int pushbackSize;
+    private boolean atLineStart; //the line ending consumed by a delimiter does not start a new line, as with splitSQL regular expressions
+    private boolean lineBlank = true; //nothing but whitespace read on the current line so far
+    private boolean quotesIgnored; //the current line started with # and hash comments are not enabled
+    private boolean finished;
+    private Iterator<String> patternStatements;
+
+    public SqlStatementTokenizer(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this(reader, stripComments, splitStatements, endDelimiter, false);
+    }
+
+    /**
+     * @param backslashEscapes true if a backslash escapes the next character in all quoted text, not just in E'' strings
+     */
+    public SqlStatementTokenizer(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter, boolean backslashEscapes) {
+        this(reader, stripComments, splitStatements, endDelimiter, backslashEscapes, false);
+    }
+
+    /**
+     * @param backslashEscapes true if a backslash escapes the next character in all quoted text, not just in E'' strings
+     * @param hashComments true if # starts a comment that runs to the end of the line
+     */
+    public SqlStatementTokenizer(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter, boolean backslashEscapes, boolean hashComments) {
+        this.reader = reader;
+        this.stripComments = stripComments;
+        this.splitStatements = splitStatements;
+        this.backslashEscapes = backslashEscapes;
+        this.hashComments = hashComments;
+
+        if (endDelimiter == null) {
+            this.splitOnSemicolon = true;
+            this.splitOnGo = true;
+            this.literalDelimiter = null;
+            this.delimiterPattern = null;
+        } else if (endDelimiter.equalsIgnoreCase("go")) {
+            this.splitOnSemicolon = false;
+            this.splitOnGo = true;
+            this.literalDelimiter = null;
+            this.delimiterPattern = null;
+        } else if (isLiteral(endDelimiter)) {
+            this.splitOnSemicolon = false;
+            this.splitOnGo = false;
+            this.literalDelimiter = endDelimiter;
+            this.delimiterPattern = null;
+        } else {
+            this.splitOnSemicolon = false;
+            this.splitOnGo = false;
+            this.literalDelimiter = null;
+            this.delimiterPattern = Pattern.compile(endDelimiter);
+        }
+    }
+
+    public SqlStatementTokenizer(String sql, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this(new StringReader(sql), stripComments, splitStatements, endDelimiter, false);
+    }
+
+    public SqlStatementTokenizer(String sql, boolean stripComments, boolean splitStatements, String endDelimiter, boolean backslashEscapes) {
+        this(new StringReader(sql), stripComments, splitStatements, endDelimiter, backslashEscapes, false);
+    }
+
+    public SqlStatementTokenizer(String sql, boolean stripComments, boolean splitStatements, String endDelimiter, boolean backslashEscapes, boolean hashComments) {
+        this(new StringReader(sql), stripComments, splitStatements, endDelimiter, backslashEscapes, hashComments);
+    }
+
+    private static boolean isLiteral(String endDelimiter) {
+        if (endDelimiter.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < endDelimiter.length(); i++) {
+            if (REGEXP_CHARACTERS.indexOf(endDelimiter.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the next statement, or null if there are no more.
+     */
+    public String nextStatement() throws IOException {
+        if (splitStatements && delimiterPattern != null) {
+            return nextPatternStatement();
+        }
+        if (!splitStatements) {
+            if (finished) {
+                return null;
+            }
+            String all = readStatement();
+            finished = true;
+            return all.trim();
+        }
+
+        while (!finished) {
+            String statement = readStatement().trim();
+            if (statement.length() > 0) {
+                return statement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all remaining statements.
+     */
+    public List<String> getStatements() throws IOException {
+        List<String> statements = new ArrayList<String>();
+        String statement;
+        while ((statement = nextStatement()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Regular expression delimiters cannot be matched while streaming, so the whole text is read and split like before.
+     */
+    private String nextPatternStatement() throws IOException {
+        if (patternStatements == null) {
+            String text = readStatement();
+            finished = true;
+            List<String> statements = new ArrayList<String>();
+            for (String statement : delimiterPattern.split(text)) {
+                statement = statement.trim();
+                if (statement.length() > 0) {
+                    statements.add(statement);
+                }
+            }
+            patternStatements = statements.iterator();
+        }
+        if (patternStatements.hasNext()) {
+            return patternStatements.next();
+        }
+        return null;
+    }
+
+    /**
+     * Reads up to and excluding the next delimiter, or to the end of the text. Sets {@link #finished} at the end of the text.
+     */
+    private String readStatement() throws IOException {
+        boolean split = splitStatements && delimiterPattern == null;
+        StringBuilder statement = new StringBuilder();
+        int codeStart = 0; //delimiters only match in text appended since the last quoted string or kept comment
+        int semicolon = -1; //position of a ; that ends the statement if only whitespace follows it up to the end of the line
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                finished = true;
+                if (semicolon >= 0) {
+                    statement.setLength(semicolon);
+                }
+                return statement.toString();
+            }
+
+            if ((c == '\'' || c == '"') && !quotesIgnored) {
+                int quoteStart = statement.length();
+                boolean closed;
+                if (c == '\'' && isPrefixedBy(statement, 'q')) {
+                    statement.append((char) c);
+                    closed = readAlternativeQuoted(statement);
+                } else {
+                    boolean escapes = backslashEscapes || (c == '\'' && isPrefixedBy(statement, 'e'));
+                    statement.append((char) c);
+                    closed = readQuoted((char) c, statement, escapes);
+                }
+                if (closed) {
+                    codeStart = statement.length();
+                    semicolon = -1;
+                    atLineStart = false;
+                    lineBlank = false;
+                    continue;
+                }
+                //never closed: read what followed the quote again as code and treat the quote as an ordinary character
+                unread(statement.substring(quoteStart + 1));
+                statement.setLength(quoteStart);
+            }
+
+            if (c == '#' && (hashComments || lineBlank)) {
+                if (hashComments) {
+                    statement.append('#');
+                    appendLineComment(statement);
+                    codeStart = statement.length();
+                    semicolon = -1;
+                    atLineStart = false;
+                    lineBlank = false;
+                    continue;
+                }
+                quotesIgnored = true;
+            }
+
+            if (c == '-') {
+                int next = read();
+                if (next == '-') {
+                    if (stripComments) {
+                        trimTrailingWhitespace(statement);
+                        skipLineComment();
+                        codeStart = Math.min(codeStart, statement.length());
+                    } else {
+                        statement.append("--");
+                        appendLineComment(statement);
+                        codeStart = statement.length();
+                        semicolon = -1;
+                        lineBlank = false;
+                    }
+                    atLineStart = false;
+                    continue;
+                }
+                unread(next);
+            } else if (c == '/') {
+                int next = read();
+                if (next == '*') {
+                    StringBuilder comment = new StringBuilder("/*");
+                    boolean closed = readBlockComment(comment);
+                    if (!stripComments || !closed) {
+                        statement.append(comment);
+                        codeStart = statement.length();
+                        semicolon = -1;
+                        atLineStart = false;
+                        lineBlank = false;
+                    }
+                    continue;
+                }
+                unread(next);
+            }
+
+            if (split) {
+                if (splitOnGo && atLineStart && (c == 'g' || c == 'G') && readGoLine()) {
+                    if (semicolon >= 0) {
+                        statement.setLength(semicolon);
+                    }
+                    atLineStart = false;
+                    return statement.toString();
+                }
+
+                if (splitOnSemicolon) {
+                    if (c == ';') {
+                        semicolon = statement.length();
+                    } else if (semicolon >= 0) {
+                        if (c == '\n') {
+                            statement.setLength(semicolon);
+                            atLineStart = false;
+                            return statement.toString();
+                        } else if (!Character.isWhitespace(c)) {
+                            semicolon = -1;
+                        }
+                    }
+                }
+            }
+
+            statement.append((char) c);
+            atLineStart = c == '\n';
+            if (c == '\n') {
+                lineBlank = true;
+                quotesIgnored = false;
+            } else if (!Character.isWhitespace(c)) {
+                lineBlank = false;
+            }
+
+            if (split && literalDelimiter != null) {
+                int delimiterStart = statement.length() - literalDelimiter.length();
+                if (delimiterStart >= codeStart && statement.indexOf(literalDelimiter, delimiterStart) == delimiterStart) {
+                    statement.setLength(delimiterStart);
+                    atLineStart = false;
+                    return statement.toString();
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends quoted text up to and including the closing quote. Returns false if the text ended before the quote was closed.
+     */
+    private boolean readQuoted(char quote, StringBuilder statement, boolean escapes) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            if (c == quote) {
+                return true;
+            }
+            if (escapes && c == '\\') {
+                c = read();
+                if (c == -1) {
+                    return false;
+                }
+                statement.append((char) c);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the rest of an Oracle q'[quoted]' literal, whose closing quote is the closing bracket or the repeated delimiter character followed by '.
+     * Returns false if the text ended before the literal was closed.
+     */
+    private boolean readAlternativeQuoted(StringBuilder statement) throws IOException {
+        int open = read();
+        if (open == -1) {
+            return false;
+        }
+        statement.append((char) open);
+        char close;
+        if (open == '[') {
+            close = ']';
+        } else if (open == '{') {
+            close = '}';
+        } else if (open == '(') {
+            close = ')';
+        } else if (open == '<') {
+            close = '>';
+        } else {
+            close = (char) open;
+        }
+
+        int previous = -1;
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            if (previous == close && c == '\'') {
+                return true;
+            }
+            previous = c;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the statement ends with the given prefix letter (in any case) standing on its own, like the E of a PostgreSQL E'escape string'
+     * or the q of an Oracle q'[quoted]' literal, rather than with a word ending in that letter. An N before the prefix, as in nq'', is allowed.
+     */
+    private boolean isPrefixedBy(StringBuilder statement, char prefix) {
+        int length = statement.length();
+        if (length == 0 || Character.toLowerCase(statement.charAt(length - 1)) != prefix) {
+            return false;
+        }
+        int before = length - 2;
+        if (prefix == 'q' && before >= 0 && Character.toLowerCase(statement.charAt(before)) == 'n') {
+            before--;
+        }
+        return before < 0 || !(Character.isLetterOrDigit(statement.charAt(before)) || statement.charAt(before) == '_');
+    }
+
+    /**
+     * Skips the rest of a -- comment, leaving the line ending to be read.
+     */
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\n' || c == '\r') {
+                unread(c);
+                return;
+            }
+        }
+    }
+
+    private void appendLineComment(StringBuilder statement) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\n' || c == '\r') {
+                unread(c);
+                return;
+            }
+            statement.append((char) c);
+        }
+    }
+
+    /**
+     * Appends the rest of a /* comment. Returns false if the text ended before the comment was closed.
+     */
+    private boolean readBlockComment(StringBuilder comment) throws IOException {
+        int previous = -1;
+        int c;
+        while ((c = read()) != -1) {
+            comment.append((char) c);
+            if (previous == '*' && c == '/') {
+                return true;
+            }
+            previous = c;
+        }
+        return false;
+    }
+
+    /**
+     * Called after reading a 'g' at the start of a line. Returns true, consuming the line, if the line contains only "go" and whitespace.
+     * Otherwise everything after the 'g' is pushed back.
+     */
+    private boolean readGoLine() throws IOException {
+        int o = read();
+        if (o != 'o' && o != 'O') {
+            unread(o);
+            return false;
+        }
+        StringBuilder whitespace = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                finished = true;
+                return true;
+            }
+            if (c == '\n') {
+                return true;
+            }
+            if (!Character.isWhitespace(c)) {
+                unread(c);
+                for (int i = whitespace.length() - 1; i >= 0; i--) {
+                    unread(whitespace.charAt(i));
+                }
+                unread(o);
+                return false;
+            }
+            whitespace.append((char) c);
+        }
+    }
+
+    private void trimTrailingWhitespace(StringBuilder statement) {
+        int length = statement.length();
+        while (length > 0 && Character.isWhitespace(statement.charAt(length - 1))) {
+            length--;
+        }
+        statement.setLength(length);
+    }
+
+    private int read() throws IOException {
+        if (pushbackSize > 0) {
+            return pushback[--pushbackSize];
+        }
+        return reader.read();
+    }
+
+    private void unread(CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            unread(text.charAt(i));
+        }
+    }
+
+    private void unread(int c) {
+        if (c == -1) {
+            return;
+        }
+        if (pushbackSize == pushback.length) {
+            char[] newPushback = new char[pushback.length * 2];
+            System.arraycopy(pushback, 0, newPushback, 0, pushbackSize);
+            pushback = newPushback;
+        }
+        pushback[pushbackSize++] = (char) c;
+    }
+}
@@ -41,6 +41,17 @@ public class StreamUtil {
      */
 	public static String getStreamContents(InputStream ins, String charsetName)
 			throws IOException {
+		return getReaderContents(openReader(ins, charsetName));
+	}
+
+    /**
+     * Opens a BOM aware Reader on the stream, so it can be read incrementally with the same encoding rules as {@link #getStreamContents(InputStream, String)}.
+     *
+     * @param  charsetName The name of a supported {@link java.nio.charset.Charset </code>charset<code>}, or null to detect it from the BOM
+     * @throws IOException If the stream is null.
+     */
+	public static Reader openReader(InputStream ins, String charsetName)
+			throws IOException {
 		UtfBomAwareReader reader;
 
         if (ins  == null) {
@@ -64,7 +75,7 @@ public class StreamUtil {
 						+ encoding + "'");
 			}
 		}
-		return getReaderContents(reader);
+		return reader;
 	}
     
     /**
@@ -150,15 +161,9 @@ public class StreamUtil {
     }
 
     /**
-     * Tries to load the file from the file system.
-     *
-     * @param file The name of the file to search for
-     * @return True if the file was found, false otherwise.
+     * Returns the path {@link #openStream(String, Boolean, ChangeSet, ResourceAccessor)} passes to the ResourceAccessor for the given path.
      */
-    private static InputStream openFromFileSystem(String file, Boolean relativeToChangelogFile, ChangeSet changeSet, ResourceAccessor resourceAccessor) throws IOException {
-        if (resourceAccessor == null) {
-            return null;
-        }
+    public static String resolvePath(String path, Boolean relativeToChangelogFile, ChangeSet changeSet) {
         if (relativeToChangelogFile != null && relativeToChangelogFile) {
             String base;
             if (changeSet.getChangeLog() == null) {
@@ -169,8 +174,22 @@ public class StreamUtil {
             if (!base.contains("/")) {
                 base = ".";
             }
-            file = base.replaceFirst("/[^/]*$", "") + "/" + file;
+            path = base.replaceFirst("/[^/]*$", "") + "/" + path;
+        }
+        return path;
+    }
+
+    /**
+     * Tries to load the file from the file system.
+     *
+     * @param file The name of the file to search for
+     * @return True if the file was found, false otherwise.
+     */
+    private static InputStream openFromFileSystem(String file, Boolean relativeToChangelogFile, ChangeSet changeSet, ResourceAccessor resourceAccessor) throws IOException {
+        if (resourceAccessor == null) {
+            return null;
         }
+        file = resolvePath(file, relativeToChangelogFile, changeSet);
 
         return resourceAccessor.getResourceAsStream(file);
 
@@ -190,19 +209,7 @@ public class StreamUtil {
             return null;
         }
 
-        if (relativeToChangelogFile != null && relativeToChangelogFile) {
-            String base;
-            if (changeSet.getChangeLog() == null) {
-                base = changeSet.getFilePath();
-            } else {
-                base = changeSet.getChangeLog().getPhysicalFilePath().replaceAll("\\\\","/");
-            }
-            if (!base.contains("/")) {
-                base = ".";
-            }
-
-            file = base.replaceFirst("/[^/]*$", "") + "/" + file;
-        }
+        file = resolvePath(file, relativeToChangelogFile, changeSet);
 
         return resourceAccessor.getResourceAsStream(file);
     }
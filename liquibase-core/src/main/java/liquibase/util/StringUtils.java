@@ -1,7 +1,9 @@
 package liquibase.util;
 
 import liquibase.database.Database;
+import liquibase.exception.UnexpectedLiquibaseException;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -49,52 +51,48 @@ public class StringUtils {
      * 
      * @param multiLineSQL A String containing all the SQL statements
      * @param stripComments If true then comments will be stripped, if false then they will be left in the code
+     * @see SqlStatementTokenizer
      */
     public static String[] processMutliLineSQL(String multiLineSQL,boolean stripComments, boolean splitStatements, String endDelimiter) {
-        
-        String stripped = stripComments ? stripComments(multiLineSQL) : multiLineSQL;
-	if (splitStatements) {
-	    return splitSQL(stripped, endDelimiter);
-	} else {
-	    return new String[]{stripped};
-	}
+        if (!stripComments && !splitStatements) {
+            return new String[]{multiLineSQL};
+        }
+        List<String> statements = tokenize(multiLineSQL, stripComments, splitStatements, endDelimiter);
+        if (!splitStatements) {
+            return new String[]{statements.get(0)};
+        }
+        return statements.toArray(new String[statements.size()]);
     }
 
     /**
      * Splits a (possible) multi-line SQL statement along ;'s and "go"'s.
+     * Delimiters inside quoted text and comments are ignored.
+     *
+     * @see SqlStatementTokenizer
      */
     public static String[] splitSQL(String multiLineSQL, String endDelimiter) {
-        if (endDelimiter == null) {
-            endDelimiter = ";\\s*\n|;$|\n[gG][oO]\\s*\n|\n[Gg][oO]\\s*$";
-        } else {
-            if (endDelimiter.equalsIgnoreCase("go")) {
-                endDelimiter = "\n[gG][oO]\\s*\n|\n[Gg][oO]\\s*$";
-            }
-        }
-        String[] initialSplit = multiLineSQL.split(endDelimiter);
-        List<String> strings = new ArrayList<String>();
-        for (String anInitialSplit : initialSplit) {
-            String singleLineSQL = anInitialSplit.trim();
-            if (singleLineSQL.length() > 0) {
-                strings.add(singleLineSQL);
-            }
-        }
-
-        return strings.toArray(new String[strings.size()]);
+        List<String> statements = tokenize(multiLineSQL, false, true, endDelimiter);
+        return statements.toArray(new String[statements.size()]);
     }
 
     /**
      * Searches through a String which contains SQL code and strips out
      * any comments that are between \/**\/ or anything that matches
      * SP--SP<text>\n (to support the ANSI standard commenting of --
-     * at the end of a line).
+     * at the end of a line). Comment markers inside quoted text are left alone.
      * 
      * @return The String without the comments in
      */
     public static String stripComments(String multiLineSQL) {
-        String strippedSingleLines = Pattern.compile("\\s*\\-\\-.*\n").matcher(multiLineSQL).replaceAll("\n");
-        strippedSingleLines = Pattern.compile("\\s*\\-\\-.*$").matcher(strippedSingleLines).replaceAll("\n");
-        return Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL).matcher(strippedSingleLines).replaceAll("").trim();
+        return tokenize(multiLineSQL, true, false, null).get(0);
+    }
+
+    private static List<String> tokenize(String multiLineSQL, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        try {
+            return new SqlStatementTokenizer(multiLineSQL, stripComments, splitStatements, endDelimiter).getStatements();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e); //cannot happen reading a String
+        }
     }
 
     public static String join(String[] array, String delimiter) {
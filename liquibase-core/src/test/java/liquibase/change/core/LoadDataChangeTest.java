@@ -5,8 +5,11 @@ import liquibase.change.StandardChangeTest;
 import liquibase.database.core.MockDatabase;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
 
+import java.sql.Types;
+
 import static org.junit.Assert.*;
 
 import liquibase.test.JUnitResourceAccessor;
@@ -144,6 +147,60 @@ public class LoadDataChangeTest extends StandardChangeTest {
         assertEquals(Boolean.FALSE, ((InsertStatement) sqlStatements[1]).getColumnValue("active"));
     }
 
+    @Test
+    public void generateStatement_batchSizeWithoutJdbcConnection() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setSchemaName("SCHEMA_NAME");
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setBatchSize(100);
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        SqlStatement[] sqlStatements = refactoring.generateStatements(new MockDatabase());
+
+        stdAssertOfLoaded(sqlStatements);
+    }
+
+    @Test
+    public void groupRowStatements() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setTableName("TABLE_NAME");
+
+        SqlStatement[] grouped = refactoring.groupRowStatements(new SqlStatement[] {
+                new InsertStatement(null, null, "TABLE_NAME").addColumnValue("name", "a"),
+                new InsertStatement(null, null, "TABLE_NAME").addColumnValue("name", "b"),
+                new InsertStatement(null, null, "TABLE_NAME").addColumnValue("username", "c"),
+        });
+
+        assertEquals(2, grouped.length);
+        assertTrue(grouped[0] instanceof InsertSetStatement);
+        assertEquals(2, ((InsertSetStatement) grouped[0]).getStatements().size());
+        assertTrue(grouped[1] instanceof InsertStatement);
+    }
+
+    @Test
+    public void canBindValues() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        String[] headers = new String[] {"name", "username", "age"};
+
+        assertFalse(refactoring.canBindValues(headers));
+
+        for (String header : new String[] {"name", "username"}) {
+            LoadDataColumnConfig config = new LoadDataColumnConfig();
+            config.setHeader(header);
+            config.setType("STRING");
+            refactoring.addColumn(config);
+        }
+        LoadDataColumnConfig ageConfig = new LoadDataColumnConfig();
+        ageConfig.setHeader("age");
+        ageConfig.setType("COMPUTED");
+        refactoring.addColumn(ageConfig);
+        assertFalse(refactoring.canBindValues(headers));
+
+        ageConfig.setType("NUMERIC");
+        assertTrue(refactoring.canBindValues(headers));
+    }
+
     @Override
     @Test
     public void getConfirmationMessage() throws Exception {
@@ -173,6 +230,37 @@ public class LoadDataChangeTest extends StandardChangeTest {
         assertEquals(md5sum2, refactoring.generateCheckSum().toString());
     }
 
+    @Test
+    public void generateCheckSum_ignoresBatchTuning() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        String checkSum = refactoring.generateCheckSum().toString();
+
+        refactoring.setBatchSize(100);
+        refactoring.setCommitInterval(1000);
+        assertEquals(checkSum, refactoring.generateCheckSum().toString());
+    }
+
+    @Test
+    public void getParameterTypes() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        String[] types = {"NUMERIC", "BOOLEAN", "SKIP", "DATE", "DATETIME", "STRING"};
+        String[] headers = new String[types.length + 1];
+        for (int i = 0; i < types.length; i++) {
+            headers[i] = "col" + i;
+            LoadDataColumnConfig config = new LoadDataColumnConfig();
+            config.setHeader(headers[i]);
+            config.setType(types[i]);
+            refactoring.addColumn(config);
+        }
+        headers[types.length] = "untyped";
+
+        assertArrayEquals(new int[] {Types.NUMERIC, Types.BOOLEAN, Types.DATE, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR}, refactoring.getParameterTypes(headers));
+    }
+
     @Override
     public void isSupported() throws Exception {
         // todo: test with file opener
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.lang.reflect.Field;
 import java.util.Map;
 
@@ -214,4 +216,33 @@ public class SQLFileChangeTest extends StandardChangeTest {
       String expected = "create prfx_customer (nofx INTEGER NOT NULL, PRIMARY KEY (nofx));";
       assertEquals(expected, change.getSql());
    }
+
+    @Test
+    public void streamedFileExpandsPropertiesSpanningLines() throws Exception {
+        File dir = File.createTempFile("sqlfile", "dir");
+        dir.delete();
+        dir.mkdirs();
+        File file = new File(dir, "multiline.sql");
+        FileWriter writer = new FileWriter(file);
+        writer.write("select '${spanning\nkey}' from t;\nselect ${other} from t;\n");
+        writer.close();
+
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("spanning\nkey", "a");
+        changeLogParameters.set("other", "b");
+        ChangeSet changeSet = new ChangeSet("x", "y", false, false, null, null, null, null);
+        changeSet.setChangeLogParameters(changeLogParameters);
+
+        SQLFileChange change = new SQLFileChange();
+        change.setChangeSet(changeSet);
+        change.setResourceAccessor(new FileSystemResourceAccessor(dir.getAbsolutePath()));
+        change.setPath("multiline.sql");
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+
+        assertEquals(2, statements.length);
+        assertEquals("select 'a' from t", statements[0].toString());
+        assertEquals("select b from t", statements[1].toString());
+        file.delete();
+        dir.delete();
+    }
 }
@@ -65,4 +65,31 @@ public class ChangeLogParametersTest {
 
         assertEquals("originalValue", changeLogParameters.getValue("doubleSet"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getValue_contextsChangedAfterLookup() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters(new H2Database());
+        Contexts contexts = new Contexts("junit");
+        changeLogParameters.setContexts(contexts);
+
+        changeLogParameters.set("param", "otherValue", "other", null);
+        changeLogParameters.set("param", "junitValue", "junit", null);
+        assertEquals("junitValue", changeLogParameters.getValue("PARAM"));
+
+        contexts.clear();
+        contexts.add("other");
+        assertEquals("otherValue", changeLogParameters.getValue("param"));
+
+        changeLogParameters.setContexts(new Contexts("junit"));
+        assertEquals("junitValue", changeLogParameters.getValue("param"));
+    }
+
+    @Test
+    public void getValue_parameterAddedAfterLookup() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        assertFalse(changeLogParameters.hasValue("added"));
+
+        changeLogParameters.set("added", "value");
+        assertEquals("value", changeLogParameters.getValue("added"));
+    }
+}
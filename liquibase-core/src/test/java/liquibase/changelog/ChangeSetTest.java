@@ -1,6 +1,8 @@
 package liquibase.changelog;
 
+import liquibase.change.AddColumnConfig;
 import liquibase.change.CheckSum;
+import liquibase.change.core.AddColumnChange;
 import liquibase.change.core.AddDefaultValueChange;
 import liquibase.change.core.CreateTableChange;
 import liquibase.change.core.InsertDataChange;
@@ -54,6 +56,90 @@ public class ChangeSetTest {
         assertFalse(md5Sum1.equals(md5Sum2));
     }
 
+    @Test
+    public void generateCheckSum_reflectsChangeEditsUntilFrozen() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        change.setDefaultValue("DEF STRING");
+        changeSet.addChange(change);
+
+        CheckSum checkSum = changeSet.generateCheckSum();
+
+        change.setTableName("OTHER_TABLE");
+        assertFalse(checkSum.equals(changeSet.generateCheckSum()));
+    }
+
+    @Test
+    public void generateCheckSum_isReusedOnceFrozen() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        change.setDefaultValue("DEF STRING");
+        changeSet.addChange(change);
+        changeSet.freezeCheckSum();
+
+        CheckSum checkSum = changeSet.generateCheckSum();
+        assertSame(checkSum, changeSet.generateCheckSum());
+
+        changeSet.clearCheckSum();
+        CheckSum recomputed = changeSet.generateCheckSum();
+        assertNotSame(checkSum, recomputed);
+        assertEquals(checkSum, recomputed);
+    }
+
+    @Test
+    public void generateCheckSum_frozenRecomputedWhenChangeAdded() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        changeSet.freezeCheckSum();
+        CheckSum emptyCheckSum = changeSet.generateCheckSum();
+
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        changeSet.addChange(change);
+
+        assertFalse(emptyCheckSum.equals(changeSet.generateCheckSum()));
+    }
+
+    @Test
+    public void generateCheckSum_frozenRecomputedWhenChangeModified() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        change.setDefaultValue("DEF STRING");
+        changeSet.addChange(change);
+        changeSet.freezeCheckSum();
+
+        CheckSum checkSum = changeSet.generateCheckSum();
+        change.setTableName("OTHER_TABLE");
+        CheckSum modifiedCheckSum = changeSet.generateCheckSum();
+        assertFalse(checkSum.equals(modifiedCheckSum));
+        assertSame(modifiedCheckSum, changeSet.generateCheckSum());
+
+        change.setTableName("TABLE_NAME");
+        assertEquals(checkSum, changeSet.generateCheckSum());
+    }
+
+    @Test
+    public void generateCheckSum_frozenRecomputedWhenNestedColumnModified() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        AddColumnChange change = new AddColumnChange();
+        change.setTableName("TABLE_NAME");
+        AddColumnConfig column = new AddColumnConfig();
+        column.setName("COLUMN_NAME");
+        column.setType("int");
+        change.addColumn(column);
+        changeSet.addChange(change);
+        changeSet.freezeCheckSum();
+
+        CheckSum checkSum = changeSet.generateCheckSum();
+        column.setType("bigint");
+        assertFalse(checkSum.equals(changeSet.generateCheckSum()));
+    }
+
     @Test
     public void isCheckSumValid_validCheckSum() {
         ChangeSet changeSet = new ChangeSet("1", "2",false, false, "/test.xml",null, null, null);
@@ -106,4 +106,48 @@ public class ExpressionExpanderTest {
         		handler.expandExpressions("${a} is a variable, ${:a} and ${:b} are literals but this isn't: ${b}"));
     }
 
+    @Test
+    public void expandExpressions_sameExpressionTwice() {
+        changeLogParameters.set("here", 4);
+        assertEquals("4 and 4", handler.expandExpressions("${here} and ${here}"));
+    }
+
+    @Test
+    public void expandExpressions_unterminatedAndEmptyExpressions() {
+        changeLogParameters.set("here", 4);
+        assertEquals("${} 4 ${here", handler.expandExpressions("${} ${here} ${here"));
+    }
+
+    @Test
+    public void expandExpressions_caseInsensitiveKey() {
+        changeLogParameters.set("Here", 4);
+        assertEquals("4", handler.expandExpressions("${HERE}"));
+    }
+
+    @Test
+    public void expandExpressions_nestedParameters() {
+        changeLogParameters.set("schema", "${prefix}_${env}");
+        changeLogParameters.set("prefix", "app");
+        changeLogParameters.set("env", "${stage}");
+        changeLogParameters.set("stage", "test");
+        assertEquals("create table app_test.person", handler.expandExpressions("create table ${schema}.person"));
+    }
+
+    @Test
+    public void expandExpressions_nestedEscapedStaysLiteral() {
+        changeLogParameters.set("a", "${:b} and ${b}");
+        changeLogParameters.set("b", "${:a}");
+        this.handler = new ChangeLogParameters.ExpressionExpander(changeLogParameters, true);
+        assertEquals("${b} and ${a}", handler.expandExpressions("${a}"));
+    }
+
+    @Test
+    public void expandExpressions_cyclicParameters() {
+        changeLogParameters.set("self", "x${self}");
+        changeLogParameters.set("a", "${b}");
+        changeLogParameters.set("b", "${a}");
+        assertEquals("x${self}", handler.expandExpressions("${self}"));
+        assertEquals("${a} ${b}", handler.expandExpressions("${a} ${b}"));
+    }
+
 }
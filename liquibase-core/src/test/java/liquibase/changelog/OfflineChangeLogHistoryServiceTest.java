@@ -0,0 +1,154 @@
+package liquibase.changelog;
+
+import liquibase.Liquibase;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.H2Database;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OfflineChangeLogHistoryServiceTest {
+
+    private File file;
+    private OfflineChangeLogHistoryService service;
+    private List<ChangeSet> changeSets;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("offlinehistory", ".csv");
+        file.delete();
+        service = new OfflineChangeLogHistoryService(new H2Database(), file, false);
+
+        changeSets = new ArrayList<ChangeSet>();
+        for (int i = 0; i < 3; i++) {
+            changeSets.add(new ChangeSet(String.valueOf(i), "test", false, false, "com/example/changelog.xml", null, null, null));
+        }
+        service.setExecType(changeSets, ChangeSet.ExecType.EXECUTED);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void updatesAreAppendedAndCompactedOnReset() throws Exception {
+        assertEquals(4, readLines().size());
+
+        service.setExecType(changeSets.get(1), ChangeSet.ExecType.RERAN);
+        assertEquals("update appended", 5, readLines().size());
+
+        assertExecTypes(service, ChangeSet.ExecType.EXECUTED, ChangeSet.ExecType.RERAN, ChangeSet.ExecType.EXECUTED);
+        assertExecTypes(new OfflineChangeLogHistoryService(new H2Database(), file, false), ChangeSet.ExecType.EXECUTED, ChangeSet.ExecType.RERAN, ChangeSet.ExecType.EXECUTED);
+
+        service.reset();
+        assertEquals(4, readLines().size());
+        assertExecTypes(service, ChangeSet.ExecType.EXECUTED, ChangeSet.ExecType.RERAN, ChangeSet.ExecType.EXECUTED);
+        assertEquals(4, service.getNextSequenceValue());
+    }
+
+    @Test
+    public void removeFromHistory() throws Exception {
+        service.removeFromHistory(changeSets.get(0));
+        assertEquals(5, readLines().size());
+        assertTrue(readLines().get(4).contains(OfflineChangeLogHistoryService.REMOVED_EXEC_TYPE));
+
+        OfflineChangeLogHistoryService other = new OfflineChangeLogHistoryService(new H2Database(), file, false);
+        assertEquals(2, other.getRanChangeSets().size());
+        assertEquals("1", other.getRanChangeSets().get(0).getId());
+
+        service.reset();
+        assertEquals(3, readLines().size());
+        assertEquals(2, service.getRanChangeSets().size());
+    }
+
+    @Test
+    public void compactsAfterManyUpdates() throws Exception {
+        for (int i = 0; i <= OfflineChangeLogHistoryService.COMPACTION_THRESHOLD; i++) {
+            service.setExecType(changeSets.get(i % 3), ChangeSet.ExecType.RERAN);
+        }
+        assertTrue(readLines().size() < OfflineChangeLogHistoryService.COMPACTION_THRESHOLD);
+        assertExecTypes(service, ChangeSet.ExecType.RERAN, ChangeSet.ExecType.RERAN, ChangeSet.ExecType.RERAN);
+    }
+
+    @Test
+    public void seesChangesMadeByOthers() throws Exception {
+        assertEquals(3, service.getRanChangeSets().size());
+        new OfflineChangeLogHistoryService(new H2Database(), file, false).removeFromHistory(changeSets.get(2));
+        assertEquals(2, service.getRanChangeSets().size());
+    }
+
+    @Test
+    public void updateSqlLeavesCompactedFile() throws Exception {
+        file.delete();
+        File changeLogFile = File.createTempFile("offlinechangelog", ".xml");
+        FileWriter writer = new FileWriter(changeLogFile);
+        writer.write("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n" +
+                "        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                "        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd\">\n" +
+                "    <changeSet id=\"1\" author=\"test\">\n" +
+                "        <sql>select 1</sql>\n" +
+                "    </changeSet>\n" +
+                "    <changeSet id=\"2\" author=\"test\" runAlways=\"true\">\n" +
+                "        <sql>select 2</sql>\n" +
+                "    </changeSet>\n" +
+                "</databaseChangeLog>\n");
+        writer.close();
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                H2Database database = new H2Database();
+                database.setConnection(new OfflineConnection("offline:h2?changeLogFile=" + file.getAbsolutePath()));
+                Liquibase liquibase = new Liquibase(changeLogFile.getName(), new FileSystemResourceAccessor(changeLogFile.getParent()), database);
+                liquibase.update((String) null, new StringWriter());
+            }
+
+            List<String> lines = readLines();
+            assertEquals(3, lines.size());
+            for (String line : lines) {
+                assertFalse(line.contains(OfflineChangeLogHistoryService.REMOVED_EXEC_TYPE));
+            }
+            assertTrue(lines.get(2).contains("RERAN"));
+        } finally {
+            changeLogFile.delete();
+            ChangeLogHistoryServiceFactory.reset();
+            LockServiceFactory.reset();
+        }
+    }
+
+    private void assertExecTypes(OfflineChangeLogHistoryService service, ChangeSet.ExecType... execTypes) throws Exception {
+        List<RanChangeSet> ranChangeSets = service.getRanChangeSets();
+        assertEquals(execTypes.length, ranChangeSets.size());
+        for (int i = 0; i < execTypes.length; i++) {
+            assertEquals(String.valueOf(i), ranChangeSets.get(i).getId());
+            assertEquals(execTypes[i], ranChangeSets.get(i).getExecType());
+        }
+    }
+
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
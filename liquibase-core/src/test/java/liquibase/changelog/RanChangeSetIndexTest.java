@@ -0,0 +1,114 @@
+package liquibase.changelog;
+
+import liquibase.change.CheckSum;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link liquibase.changelog.RanChangeSetIndex}
+ */
+public class RanChangeSetIndexTest {
+
+    @Test
+    public void find_matchesLikeIsSameAs() {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        ranChangeSets.add(new RanChangeSet("path\\other.xml", "2", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+        assertSame(ranChangeSets.get(0), index.find(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+        assertSame(ranChangeSets.get(0), index.find(new ChangeSet("1", "TESTAUTHOR", false, false, "PATH/changelog.xml", null, null, null)));
+        assertSame(ranChangeSets.get(1), index.find(new ChangeSet("2", "testAuthor", false, false, "path/other.xml", null, null, null)));
+
+        assertNull(index.find(new ChangeSet("3", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+        assertNull(index.find(new ChangeSet("1", "otherAuthor", false, false, "path/changelog.xml", null, null, null)));
+        assertNull(index.find(new ChangeSet("1", "testAuthor", false, false, "other/changelog.xml", null, null, null)));
+    }
+
+    @Test
+    public void getCandidates_ignoresClasspathPrefix() {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("classpath:path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        ranChangeSets.add(new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+        List<RanChangeSet> candidates = index.getCandidates(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null));
+        assertEquals(2, candidates.size());
+        assertSame("candidates should keep list order", ranChangeSets.get(0), candidates.get(0));
+
+        assertSame(ranChangeSets.get(1), index.find(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+    }
+
+    @Test
+    public void addAndRemove() {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+        assertTrue(index.isIndexOf(ranChangeSets));
+
+        RanChangeSet ranChangeSet = new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null);
+        ranChangeSets.add(ranChangeSet);
+        assertFalse(index.isIndexOf(ranChangeSets));
+
+        index.add(ranChangeSet);
+        assertTrue(index.isIndexOf(ranChangeSets));
+        assertEquals(1, index.size());
+        assertSame(ranChangeSet, index.find(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+
+        index.remove(ranChangeSet);
+        assertEquals(0, index.size());
+        assertNull(index.find(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+    }
+
+    @Test
+    public void find_independentOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+            ranChangeSets.add(new RanChangeSet("INIT/CHANGELOG.XML", "ID-1", "ADMIN", CheckSum.parse("12345"), new Date(), null, null, null, null));
+
+            RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+            assertSame(ranChangeSets.get(0), index.find(new ChangeSet("id-1", "admin", false, false, "init/changelog.xml", null, null, null)));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void ranChangeSetList_keepsIndexesInSync() {
+        RanChangeSet first = new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null);
+        RanChangeSetList ranChangeSets = new RanChangeSetList(Collections.singletonList(first));
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+        RanChangeSet second = new RanChangeSet("path/changelog.xml", "2", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null);
+        ranChangeSets.append(second);
+        assertTrue("index should not need a rebuild", index.isIndexOf(ranChangeSets));
+        assertSame(second, index.find(new ChangeSet("2", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+
+        RanChangeSet reran = new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("67890"), new Date(), null, null, null, null);
+        ranChangeSets.replace(first, reran, true);
+        assertTrue(index.isIndexOf(ranChangeSets));
+        assertSame(reran, index.find(new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+        assertSame(reran, ranChangeSets.get(1));
+
+        ranChangeSets.delete(second);
+        assertTrue(index.isIndexOf(ranChangeSets));
+        assertNull(index.find(new ChangeSet("2", "testAuthor", false, false, "path/changelog.xml", null, null, null)));
+        assertEquals(1, ranChangeSets.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void ranChangeSetList_cannotBeModifiedByCallers() {
+        new RanChangeSetList(new ArrayList<RanChangeSet>()).add(new RanChangeSet("path/changelog.xml", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+    }
+}
@@ -0,0 +1,120 @@
+package liquibase.changelog;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StandardChangeLogHistoryServiceTest {
+
+    private Database database;
+    private Database otherDatabase;
+
+    private StandardChangeLogHistoryService service;
+    private StandardChangeLogHistoryService otherService;
+    private LockService lockService;
+
+    @Before
+    public void setUp() throws Exception {
+        database = openDatabase();
+        otherDatabase = openDatabase();
+
+        service = new StandardChangeLogHistoryService();
+        service.setDatabase(database);
+        service.init();
+
+        otherService = new StandardChangeLogHistoryService();
+        otherService.setDatabase(otherDatabase);
+
+        lockService = LockServiceFactory.getInstance().getLockService(database);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        lockService.releaseLock();
+        LockServiceFactory.reset();
+        ChangeLogHistoryServiceFactory.reset();
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute("DROP SCHEMA PUBLIC CASCADE");
+        statement.close();
+        database.close();
+        otherDatabase.close();
+    }
+
+    @Test
+    public void getRanChangeSets_notCachedWithoutLock() throws Exception {
+        assertEquals(0, service.getRanChangeSets().size());
+
+        otherService.setExecType(changeSet("1"), ChangeSet.ExecType.EXECUTED);
+
+        assertEquals(1, service.getRanChangeSets().size());
+    }
+
+    @Test
+    public void getRanChangeSets_reusedWhileLockHeld() throws Exception {
+        assertTrue(lockService.acquireLock());
+
+        List<RanChangeSet> ranChangeSets = service.getRanChangeSets();
+        assertEquals(0, ranChangeSets.size());
+
+        otherService.setExecType(changeSet("1"), ChangeSet.ExecType.EXECUTED);
+
+        assertSame(ranChangeSets, service.getRanChangeSets());
+        assertEquals(0, service.getRanChangeSets().size());
+
+        service.setExecType(changeSet("2"), ChangeSet.ExecType.EXECUTED);
+        assertEquals(1, service.getRanChangeSets().size());
+        assertEquals("2", service.getRanChangeSets().get(0).getId());
+    }
+
+    @Test
+    public void getRanChangeSets_invalidatedOnLockRelease() throws Exception {
+        assertTrue(lockService.acquireLock());
+        List<RanChangeSet> ranChangeSets = service.getRanChangeSets();
+
+        otherService.setExecType(changeSet("1"), ChangeSet.ExecType.EXECUTED);
+        lockService.releaseLock();
+
+        assertNotSame(ranChangeSets, service.getRanChangeSets());
+        assertEquals(1, service.getRanChangeSets().size());
+    }
+
+    @Test
+    public void getRanChangeSets_cachedListIsReadOnlyAndStaysIndexed() throws Exception {
+        assertTrue(lockService.acquireLock());
+        List<RanChangeSet> ranChangeSets = service.getRanChangeSets();
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+        try {
+            ranChangeSets.add(new RanChangeSet(changeSet("1"), ChangeSet.ExecType.EXECUTED));
+            fail("Cached history should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+
+        service.setExecType(changeSet("2"), ChangeSet.ExecType.EXECUTED);
+        assertTrue(index.isIndexOf(service.getRanChangeSets()));
+        assertNotNull(index.find(changeSet("2")));
+    }
+
+    private ChangeSet changeSet(String id) {
+        return new ChangeSet(id, "test", false, false, "com/example/changelog.xml", null, null, null);
+    }
+
+    private Database openDatabase() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:historycache", "SA", "")));
+        return database;
+    }
+}
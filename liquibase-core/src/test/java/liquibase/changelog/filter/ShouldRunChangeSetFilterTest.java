@@ -80,6 +80,36 @@ public class ShouldRunChangeSetFilterTest  {
         assertFalse(filter.accepts(changeSet));
     }
 
+    @Test
+    public void does_NOT_accept_changeset_matched_by_overridden_normalizePath() throws DatabaseException {
+        given_a_database_with_two_executed_changesets();
+        ChangeSet movedChangeSet = new ChangeSet("1", "testAuthor", false, false, "moved/changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true) {
+            @Override
+            protected String normalizePath(String filePath) {
+                return super.normalizePath(filePath).replace("moved/", "path/");
+            }
+        };
+
+        assertFalse(filter.accepts(movedChangeSet));
+    }
+
+    @Test
+    public void does_NOT_accept_changeset_added_to_ran_list_after_creation() throws DatabaseException {
+        ArrayList<RanChangeSet> ranChanges = new ArrayList<RanChangeSet>();
+        expect(database.getRanChangeSetList()).andReturn(ranChanges);
+        replay(database);
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database);
+        assertTrue(filter.accepts(changeSet));
+
+        ranChanges.add(new RanChangeSet("path/changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+
+        assertFalse(filter.accepts(changeSet));
+    }
+
     private Database given_a_database_with_two_executed_changesets() throws DatabaseException {
         ArrayList<RanChangeSet> ranChanges = new ArrayList<RanChangeSet>();
         ranChanges.add(new RanChangeSet("path/changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
@@ -0,0 +1,129 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.OfflineChangeLogHistoryService;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import liquibase.lockservice.LockServiceFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ChangeLogSyncVisitorTest {
+
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:changelogsync", "SA", "")));
+        ChangeLogHistoryServiceFactory.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute("DROP SCHEMA PUBLIC CASCADE");
+        statement.close();
+        ExecutorService.getInstance().clearExecutor(database);
+        ChangeLogHistoryServiceFactory.reset();
+        LockServiceFactory.reset();
+        database.close();
+    }
+
+    @Test
+    public void visit_writesInBatches() throws Exception {
+        ChangeLogHistoryService historyService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database);
+        historyService.init();
+
+        ChangeLogSyncVisitor visitor = new ChangeLogSyncVisitor(database, 10);
+        List<ChangeSet> changeSets = createChangeSets(25);
+        for (int i = 0; i < changeSets.size(); i++) {
+            visitor.visit(changeSets.get(i), null, database);
+            if (i == 5) {
+                assertEquals("nothing written before the first batch is full", 0, countRows());
+            }
+        }
+        assertEquals(20, countRows());
+
+        visitor.flush();
+        assertEquals(25, countRows());
+
+        historyService.reset();
+        List<RanChangeSet> ranChangeSets = historyService.getRanChangeSets();
+        assertEquals(25, ranChangeSets.size());
+        for (int i = 0; i < ranChangeSets.size(); i++) {
+            assertEquals(String.valueOf(i), ranChangeSets.get(i).getId());
+            assertEquals(ChangeSet.ExecType.EXECUTED, ranChangeSets.get(i).getExecType());
+        }
+    }
+
+    @Test
+    public void visit_defaultConstructorWritesImmediately() throws Exception {
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init();
+
+        DatabaseChangeLog changeLog = new DatabaseChangeLog();
+        for (ChangeSet changeSet : createChangeSets(3)) {
+            changeLog.addChangeSet(changeSet);
+        }
+        new ChangeLogIterator(changeLog).run(new ChangeLogSyncVisitor(database), database);
+
+        assertEquals("written without calling flush", 3, countRows());
+    }
+
+    @Test
+    public void offlineHistory_setExecTypeAppendsAll() throws Exception {
+        File file = File.createTempFile("changelogsync", ".csv");
+        file.delete();
+        try {
+            OfflineChangeLogHistoryService historyService = new OfflineChangeLogHistoryService(database, file, false);
+            historyService.setExecType(createChangeSets(3), ChangeSet.ExecType.EXECUTED);
+            historyService.setExecType(createChangeSets(2), ChangeSet.ExecType.RERAN);
+
+            List<RanChangeSet> ranChangeSets = historyService.getRanChangeSets();
+            assertEquals(3, ranChangeSets.size());
+            assertEquals(ChangeSet.ExecType.RERAN, ranChangeSets.get(0).getExecType());
+            assertEquals(ChangeSet.ExecType.RERAN, ranChangeSets.get(1).getExecType());
+            assertEquals(ChangeSet.ExecType.EXECUTED, ranChangeSets.get(2).getExecType());
+            assertEquals(4, historyService.getNextSequenceValue());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private List<ChangeSet> createChangeSets(int count) {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        for (int i = 0; i < count; i++) {
+            changeSets.add(new ChangeSet(String.valueOf(i), "test", false, false, "com/example/changelog.xml", null, null, null));
+        }
+        return changeSets;
+    }
+
+    private int countRows() throws Exception {
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM DATABASECHANGELOG");
+            resultSet.next();
+            return resultSet.getInt(1);
+        } finally {
+            statement.close();
+        }
+    }
+}
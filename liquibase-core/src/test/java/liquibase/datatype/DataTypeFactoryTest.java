@@ -3,7 +3,12 @@ package liquibase.datatype;
 import liquibase.database.core.H2Database;
 import liquibase.datatype.core.IntType;
 import liquibase.datatype.core.VarcharType;
+import liquibase.util.StringUtils;
 import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
 
@@ -23,6 +28,88 @@ public class DataTypeFactoryTest {
         assertFalse(((IntType) DataTypeFactory.getInstance().fromDescription("int{}")).isAutoIncrement());
     }
 
+    @Test
+    public void parseDescriptionMatchesRegularExpressions() {
+        String[] definitions = new String[] {
+                "int", "INT", "varchar(255)", "varchar (255)", "varchar\t(255)", "decimal(10, 2)", "decimal( 10 ,, 2 )", "int(11) unsigned",
+                "varchar(255) COLLATE Latin1_General_BIN", "varchar COLLATE Latin1_General_BIN", "int identity", "bigint identity", "int(11) identity",
+                "int{autoIncrement:true}", "int {autoIncrement:true}", "int{}", "varchar(10){a:b, c:d}", "bit varying(5)", "BIT VARYING", "character varying(20)",
+                "timestamp with time zone", "INTERVAL DAY TO SECOND", "(10)", "int(", "int)", "int(10", "a(b)c(d)", "(a)b(c)", "{x:y}", "{a}b{c}",
+                "double precision", "int  unsigned", "int ", " int", "", "nvarchar(max)", "java.lang.String", "number(10,0) {autoIncrement:false} identity"
+        };
+        for (String definition : definitions) {
+            DataTypeDescription description = DataTypeDescription.parse(definition);
+            String[] expected = parseWithRegularExpressions(definition);
+            assertEquals(definition, expected[0], description.getTypeName());
+            assertEquals(definition, expected[1], description.getAdditionalInformation());
+            assertEquals(definition, expected[2], String.valueOf(description.isIdentity()));
+            assertEquals(definition, expected[3], description.getParameters().toString());
+            assertEquals(definition, expected[4], description.getProperties().toString());
+        }
+    }
+
+    @Test
+    public void descriptionsAreCached() {
+        DataTypeFactory factory = DataTypeFactory.getInstance();
+        assertSame(factory.getDescription("varchar(255)"), factory.getDescription("varchar(255)"));
+
+        LiquibaseDataType first = factory.fromDescription("varchar(255)");
+        LiquibaseDataType second = factory.fromDescription("varchar(255)");
+        assertNotSame(first, second);
+        first.addParameter("1");
+        assertEquals(1, second.getParameters().length);
+    }
+
+    /**
+     * The parsing done by {@link DataTypeFactory#fromDescription(String)} before descriptions were tokenized by hand.
+     */
+    private String[] parseWithRegularExpressions(String dataTypeDefinition) {
+        String dataTypeName = dataTypeDefinition;
+        if (dataTypeName.matches(".+\\(.*\\).*")) {
+            dataTypeName = dataTypeDefinition.replaceFirst("\\s*\\(.*\\)", "");
+        }
+        if (dataTypeName.matches(".+\\{.*")) {
+            dataTypeName = dataTypeName.replaceFirst("\\s*\\{.*", "");
+        }
+        boolean primaryKey = false;
+        if (dataTypeName.endsWith(" identity")) {
+            dataTypeName = dataTypeName.replaceFirst(" identity$", "");
+            primaryKey = true;
+        }
+
+        String additionalInfo = null;
+        if (!dataTypeName.toLowerCase().startsWith("bit varying")) {
+            String[] splitTypeName = dataTypeName.split("\\s+", 2);
+            dataTypeName = splitTypeName[0];
+            if (splitTypeName.length > 1) {
+                additionalInfo = splitTypeName[1];
+            }
+        }
+
+        List<String> parameters = new ArrayList<String>();
+        if (dataTypeDefinition.matches(".+\\s*\\(.*")) {
+            String paramStrings = dataTypeDefinition.replaceFirst(".*?\\(", "").replaceFirst("\\).*", "");
+            for (String param : paramStrings.split(",")) {
+                param = StringUtils.trimToNull(param);
+                if (param != null) {
+                    parameters.add(param);
+                }
+            }
+        }
+
+        List<String> properties = new ArrayList<String>();
+        if (dataTypeDefinition.matches(".*\\{.*")) {
+            String paramStrings = dataTypeDefinition.replaceFirst(".*?\\{", "").replaceFirst("\\}.*", "");
+            for (String param : paramStrings.split(",")) {
+                param = StringUtils.trimToNull(param);
+                if (param != null) {
+                    properties.add(param);
+                }
+            }
+        }
+        return new String[] {dataTypeName, additionalInfo, String.valueOf(primaryKey), parameters.toString(), properties.toString()};
+    }
+
     private void assertParseCorrect(String liquibaseString, String databaseString, Class<? extends LiquibaseDataType> expectedType) {
         LiquibaseDataType parsed = DataTypeFactory.getInstance().fromDescription(liquibaseString);
         assertEquals(expectedType.getName(), parsed.getClass().getName());
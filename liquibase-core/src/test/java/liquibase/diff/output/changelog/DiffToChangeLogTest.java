@@ -3,14 +3,25 @@ package liquibase.diff.output.changelog;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.diff.DiffResult;
 import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
+import liquibase.changelog.ChangeSet;
+import liquibase.serializer.ChangeLogWriter;
+import liquibase.serializer.core.json.JsonChangeLogSerializer;
 import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Sequence;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class DiffToChangeLogTest {
 
@@ -26,4 +37,38 @@ public class DiffToChangeLogTest {
             }
         }
     }
+
+    @Test
+    public void print_appendFailureNotMaskedByFinish() throws Exception {
+        MySQLDatabase database = new MySQLDatabase();
+        DiffResult diffResult = new DiffResult(new EmptyDatabaseSnapshot(database), new EmptyDatabaseSnapshot(database), new CompareControl());
+        diffResult.addMissingObject(new Sequence().setName("seq_1").setSchema(new Schema(new Catalog(null), "lbschema")));
+
+        File file = File.createTempFile("changelog", ".json");
+        file.deleteOnExit();
+
+        JsonChangeLogSerializer serializer = new JsonChangeLogSerializer() {
+            @Override
+            public ChangeLogWriter createAppendWriter(File changeLogFile) throws IOException {
+                return new ChangeLogWriter() {
+                    @Override
+                    public void writeChangeSet(ChangeSet changeSet) throws IOException {
+                        throw new IOException("write failed");
+                    }
+
+                    @Override
+                    public void finish() throws IOException {
+                        throw new IOException("finish failed");
+                    }
+                };
+            }
+        };
+
+        try {
+            new DiffToChangeLog(diffResult, new DiffOutputControl()).print(file.getAbsolutePath(), serializer);
+            fail("Expected the write to fail");
+        } catch (IOException e) {
+            assertEquals("write failed", e.getMessage());
+        }
+    }
 }
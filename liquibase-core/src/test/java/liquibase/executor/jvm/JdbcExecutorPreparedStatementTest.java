@@ -0,0 +1,145 @@
+package liquibase.executor.jvm;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import liquibase.sql.ParameterizedSql;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.UpdateStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JdbcExecutorPreparedStatementTest {
+
+    private Database database;
+    private JdbcExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:preparedstatements", "SA", "")));
+
+        executor = new JdbcExecutor();
+        executor.setDatabase(database);
+        executor.execute(new RawSqlStatement("CREATE TABLE PERSON (ID INT, NAME VARCHAR(50), ACTIVE BOOLEAN)"));
+        executor.setUsePreparedStatements(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.clearPreparedStatementCache();
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute("DROP SCHEMA PUBLIC CASCADE");
+        statement.close();
+        database.close();
+    }
+
+    @Test
+    public void insertGenerator_inlinesAndParameterizes() {
+        Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(insert(1, "it's"), database);
+        assertEquals(1, sql.length);
+        assertTrue(sql[0] instanceof ParameterizedSql);
+        assertEquals("INSERT INTO PUBLIC.PERSON (ID, NAME, ACTIVE) VALUES (1, 'it''s', TRUE)", sql[0].toSql());
+        assertEquals("INSERT INTO PUBLIC.PERSON (ID, NAME, ACTIVE) VALUES (?, ?, TRUE)", ((ParameterizedSql) sql[0]).getParameterizedSql());
+        assertEquals(Arrays.<Object>asList(1, "it's"), ((ParameterizedSql) sql[0]).getParameters());
+    }
+
+    @Test
+    public void updateGenerator_parameterizesWhereClause() {
+        UpdateStatement update = new UpdateStatement(null, null, "PERSON")
+                .addNewColumnValue("NAME", "new")
+                .setWhereClause("ID=? AND NAME=?")
+                .addWhereParameters(3, "old");
+        ParameterizedSql sql = (ParameterizedSql) SqlGeneratorFactory.getInstance().generateSql(update, database)[0];
+        assertEquals("UPDATE PUBLIC.PERSON SET NAME = 'new' WHERE ID=3 AND NAME='old'", sql.toSql());
+        assertEquals("UPDATE PUBLIC.PERSON SET NAME = ? WHERE ID=? AND NAME=?", sql.getParameterizedSql());
+        assertEquals(Arrays.<Object>asList("new", 3, "old"), sql.getParameters());
+    }
+
+    @Test
+    public void execute_reusesPreparedStatementPerShape() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            executor.execute(insert(i, "name '" + i + "' ?"));
+        }
+        assertEquals(1, executor.getCachedPreparedStatementCount());
+        assertEquals(20, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PERSON")));
+        assertEquals("name '7' ?", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM PERSON WHERE ID=7"), String.class));
+
+        int updated = executor.update(new UpdateStatement(null, null, "PERSON").addNewColumnValue("ACTIVE", false).setWhereClause("ID < ?").addWhereParameters(5));
+        assertEquals(5, updated);
+        assertEquals(2, executor.getCachedPreparedStatementCount());
+    }
+
+    @Test
+    public void executeBatch_batchesPreparedStatements() throws Exception {
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        for (int i = 0; i < 25; i++) {
+            statements.add(insert(i, "name" + i));
+            if (i == 10) {
+                statements.add(new RawSqlStatement("UPDATE PERSON SET NAME='changed' WHERE ID=10"));
+            }
+        }
+        executor.executeBatch(statements, new ArrayList<liquibase.sql.visitor.SqlVisitor>(), 10);
+
+        assertEquals(25, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PERSON")));
+        assertEquals("changed", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM PERSON WHERE ID=10"), String.class));
+        assertEquals(1, executor.getCachedPreparedStatementCount());
+    }
+
+    @Test
+    public void disabled_usesPlainStatements() throws Exception {
+        executor.setUsePreparedStatements(false);
+        executor.execute(insert(1, "a"));
+        assertEquals(0, executor.getCachedPreparedStatementCount());
+        assertEquals(1, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PERSON")));
+    }
+
+    @Test
+    public void closeDatabase_closesCachedPreparedStatements() throws Exception {
+        Database otherDatabase = new HsqlDatabase();
+        otherDatabase.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:preparedstatements", "SA", "")));
+        JdbcExecutor otherExecutor = (JdbcExecutor) ExecutorService.getInstance().getExecutor(otherDatabase);
+        otherExecutor.setUsePreparedStatements(true);
+        otherExecutor.execute(insert(1, "a"));
+        assertEquals(1, otherExecutor.getCachedPreparedStatementCount());
+
+        otherDatabase.close();
+
+        assertEquals(0, otherExecutor.getCachedPreparedStatementCount());
+        assertNotSame(otherExecutor, ExecutorService.getInstance().getExecutor(otherDatabase));
+        ExecutorService.getInstance().clearExecutor(otherDatabase);
+    }
+
+    @Test
+    public void resetExecutorService_closesCachedPreparedStatements() throws Exception {
+        ExecutorService.getInstance().setExecutor(database, executor);
+        executor.execute(insert(1, "a"));
+        assertEquals(1, executor.getCachedPreparedStatementCount());
+
+        ExecutorService.getInstance().reset();
+
+        assertEquals(0, executor.getCachedPreparedStatementCount());
+    }
+
+    private InsertStatement insert(int id, String name) {
+        return new InsertStatement(null, null, "PERSON")
+                .addColumnValue("ID", id)
+                .addColumnValue("NAME", name)
+                .addColumnValue("ACTIVE", true);
+    }
+}
@@ -0,0 +1,178 @@
+package liquibase.integration.spring;
+
+import liquibase.exception.LiquibaseException;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class MultiTenantSpringLiquibaseTest {
+
+    @Test
+    public void parallel_runsDataSourcesConcurrently() throws Exception {
+        List<DataSource> dataSources = dataSources(3);
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        TestMultiTenantSpringLiquibase liquibase = new TestMultiTenantSpringLiquibase() {
+            @Override
+            protected void runLiquibase(DataSource dataSource) throws LiquibaseException {
+                super.runLiquibase(dataSource);
+                allStarted.countDown();
+                try {
+                    if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                        throw new LiquibaseException("Data sources were not run concurrently");
+                    }
+                } catch (InterruptedException e) {
+                    throw new LiquibaseException(e);
+                }
+            }
+        };
+        liquibase.setParallelism(3);
+
+        liquibase.runOnAllDataSources(dataSources);
+
+        assertEquals(new HashSet<DataSource>(dataSources), liquibase.getRun());
+        assertEquals(3, liquibase.getTenantResults().size());
+        for (MultiTenantSpringLiquibase.TenantResult result : liquibase.getTenantResults()) {
+            assertTrue(result.isSuccessful());
+        }
+    }
+
+    @Test
+    public void sequential_rethrowsRuntimeExceptionUnwrapped() throws Exception {
+        List<DataSource> dataSources = dataSources(3);
+        IllegalStateException failure = new IllegalStateException("boom");
+        TestMultiTenantSpringLiquibase liquibase = new TestMultiTenantSpringLiquibase();
+        liquibase.fail(dataSources.get(0), failure);
+
+        try {
+            liquibase.runOnAllDataSources(dataSources);
+            fail("Should have thrown");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(Collections.singleton(dataSources.get(0)), liquibase.getRun());
+        assertEquals(2, countSkipped(liquibase));
+    }
+
+    @Test
+    public void parallel_failFastSkipsRemainingDataSources() throws Exception {
+        final List<DataSource> dataSources = dataSources(4);
+        final LiquibaseException failure = new LiquibaseException("boom");
+        final CountDownLatch secondStarted = new CountDownLatch(1);
+        TestMultiTenantSpringLiquibase liquibase = new TestMultiTenantSpringLiquibase() {
+            @Override
+            protected void runLiquibase(DataSource dataSource) throws LiquibaseException {
+                super.runLiquibase(dataSource);
+                try {
+                    if (dataSource == dataSources.get(0)) {
+                        secondStarted.await(5, TimeUnit.SECONDS);
+                        throw failure;
+                    }
+                    secondStarted.countDown();
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    throw new LiquibaseException(e);
+                }
+            }
+        };
+        liquibase.setParallelism(2);
+
+        try {
+            liquibase.runOnAllDataSources(dataSources);
+            fail("Should have thrown");
+        } catch (LiquibaseException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(new HashSet<DataSource>(dataSources.subList(0, 2)), liquibase.getRun());
+        assertEquals(4, liquibase.getTenantResults().size());
+        assertEquals(2, countSkipped(liquibase));
+    }
+
+    @Test
+    public void parallel_withoutFailFastAggregatesErrors() throws Exception {
+        List<DataSource> dataSources = dataSources(4);
+        TestMultiTenantSpringLiquibase liquibase = new TestMultiTenantSpringLiquibase();
+        liquibase.fail(dataSources.get(1), new LiquibaseException("first failure"));
+        liquibase.fail(dataSources.get(3), new LiquibaseException("second failure"));
+        liquibase.setParallelism(2);
+        liquibase.setFailFast(false);
+
+        try {
+            liquibase.runOnAllDataSources(dataSources);
+            fail("Should have thrown");
+        } catch (LiquibaseException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Liquibase failed for 2 of 4 data sources:"));
+            assertTrue(e.getMessage(), e.getMessage().contains("first failure"));
+            assertTrue(e.getMessage(), e.getMessage().contains("second failure"));
+        }
+
+        assertEquals(new HashSet<DataSource>(dataSources), liquibase.getRun());
+        int failed = 0;
+        for (MultiTenantSpringLiquibase.TenantResult result : liquibase.getTenantResults()) {
+            if (result.getException() != null) {
+                failed++;
+            }
+        }
+        assertEquals(2, failed);
+        assertEquals(0, countSkipped(liquibase));
+    }
+
+    private int countSkipped(MultiTenantSpringLiquibase liquibase) {
+        int skipped = 0;
+        for (MultiTenantSpringLiquibase.TenantResult result : liquibase.getTenantResults()) {
+            if (result.isSkipped()) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    private List<DataSource> dataSources(int count) {
+        List<DataSource> dataSources = new ArrayList<DataSource>();
+        for (int i = 0; i < count; i++) {
+            dataSources.add(mock(DataSource.class));
+        }
+        return dataSources;
+    }
+
+    /**
+     * Records the data sources it is run on instead of running Liquibase, and throws the failures registered with {@link #fail}.
+     */
+    private static class TestMultiTenantSpringLiquibase extends MultiTenantSpringLiquibase {
+        private final Set<DataSource> run = Collections.synchronizedSet(new HashSet<DataSource>());
+        private final Map<DataSource, Exception> failures = new ConcurrentHashMap<DataSource, Exception>();
+
+        public void fail(DataSource dataSource, Exception failure) {
+            failures.put(dataSource, failure);
+        }
+
+        public Set<DataSource> getRun() {
+            return run;
+        }
+
+        @Override
+        protected void runLiquibase(DataSource dataSource) throws LiquibaseException {
+            run.add(dataSource);
+            Exception failure = failures.get(dataSource);
+            if (failure instanceof LiquibaseException) {
+                throw (LiquibaseException) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
+}
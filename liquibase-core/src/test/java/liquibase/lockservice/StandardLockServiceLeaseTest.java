@@ -0,0 +1,191 @@
+package liquibase.lockservice;
+
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LockException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.LockDatabaseChangeLogStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StandardLockServiceLeaseTest {
+
+    private Database holderDatabase;
+    private Database waiterDatabase;
+    private Database heartbeatDatabase;
+
+    private StandardLockService holder;
+    private StandardLockService waiter;
+
+    @Before
+    public void setUp() throws Exception {
+        holderDatabase = openDatabase();
+        waiterDatabase = openDatabase();
+        heartbeatDatabase = openDatabase();
+
+        holder = new StandardLockService();
+        holder.setDatabase(holderDatabase);
+        waiter = new StandardLockService();
+        waiter.setDatabase(waiterDatabase);
+        waiter.setChangeLogLockRecheckTime(50);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        holder.reset();
+        waiter.reset();
+        Statement statement = ((JdbcConnection) holderDatabase.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute("DROP SCHEMA PUBLIC CASCADE");
+        statement.close();
+        holderDatabase.close();
+        waiterDatabase.close();
+        heartbeatDatabase.close();
+    }
+
+    @Test
+    public void waitForLock_noLeaseNeverTakesOver() throws Exception {
+        assertTrue(holder.acquireLock());
+
+        waiter.setChangeLogLockWaitTime(300);
+        try {
+            waiter.waitForLock();
+            fail("Should not get the lock");
+        } catch (LockException e) {
+            assertTrue(e.getMessage().startsWith("Could not acquire change log lock"));
+        }
+        assertEquals(1, waiter.getLockWaitCount());
+        assertTrue(waiter.getLockAttemptCount() > 1);
+        assertTrue(waiter.getLastLockWaitTime() >= 300);
+        assertEquals(0, waiter.getExpiredLeaseTakeoverCount());
+    }
+
+    @Test
+    public void waitForLock_takesOverExpiredLease() throws Exception {
+        assertTrue(holder.acquireLock());
+
+        waiter.setChangeLogLockLeaseTime(200);
+        waiter.setChangeLogLockWaitTime(5000);
+        waiter.waitForLock();
+
+        assertTrue(waiter.hasChangeLogLock());
+        assertEquals(1, waiter.getExpiredLeaseTakeoverCount());
+        assertTrue(waiter.getLastLockWaitTime() >= 200);
+        assertEquals(1, waiter.listLocks().length);
+    }
+
+    @Test
+    public void waitForLock_heartbeatKeepsLease() throws Exception {
+        holder.setChangeLogLockLeaseTime(600);
+        holder.setHeartbeatDatabase(heartbeatDatabase);
+        assertTrue(holder.acquireLock());
+        long granted = holder.listLocks()[0].getLockGranted().getTime();
+
+        waiter.setChangeLogLockLeaseTime(600);
+        waiter.setChangeLogLockWaitTime(1500);
+        try {
+            waiter.waitForLock();
+            fail("Should not take over a renewed lease");
+        } catch (LockException e) {
+            //expected
+        }
+        assertEquals(0, waiter.getExpiredLeaseTakeoverCount());
+        assertTrue(holder.listLocks()[0].getLockGranted().getTime() > granted);
+
+        holder.releaseLock();
+        waiter.waitForLock();
+        assertTrue(waiter.hasChangeLogLock());
+    }
+
+    @Test
+    public void takeOver_onlyMatchesObservedLockGranted() throws Exception {
+        holder.setChangeLogLockLeaseTime(600);
+        assertTrue(holder.acquireLock());
+        DatabaseChangeLogLock lock = holder.listLocks()[0];
+
+        Executor executor = ExecutorService.getInstance().getExecutor(waiterDatabase);
+        Date renewedBefore = new Date(lock.getLockGranted().getTime() - 1000);
+        assertEquals(0, executor.update(new LockDatabaseChangeLogStatement(waiter.getLockedBy(), lock.getLockedBy(), renewedBefore)));
+        waiterDatabase.rollback();
+        assertEquals(holder.getLockedBy(), holder.listLocks()[0].getLockedBy());
+
+        assertEquals(1, executor.update(new LockDatabaseChangeLogStatement(waiter.getLockedBy(), lock.getLockedBy(), lock.getLockGranted())));
+        waiterDatabase.commit();
+        assertEquals(waiter.getLockedBy(), holder.listLocks()[0].getLockedBy());
+    }
+
+    @Test
+    public void getLockedBy_uniquePerServiceWithLease() throws Exception {
+        assertEquals(holder.getLockedBy(), waiter.getLockedBy());
+
+        holder.setChangeLogLockLeaseTime(600);
+        waiter.setChangeLogLockLeaseTime(600);
+        assertFalse(holder.getLockedBy().equals(waiter.getLockedBy()));
+    }
+
+    @Test
+    public void lostLease_stopsRun() throws Exception {
+        StandardLockService lockService = (StandardLockService) LockServiceFactory.getInstance().getLockService(holderDatabase);
+        lockService.setChangeLogLockLeaseTime(150);
+        lockService.setHeartbeatDatabase(heartbeatDatabase);
+        try {
+            assertTrue(lockService.acquireLock());
+
+            Statement statement = ((JdbcConnection) waiterDatabase.getConnection()).getUnderlyingConnection().createStatement();
+            statement.execute("UPDATE DATABASECHANGELOGLOCK SET LOCKEDBY = 'other'");
+            statement.close();
+            waiterDatabase.commit();
+
+            long giveUp = System.currentTimeMillis() + 5000;
+            while (!lockService.isLeaseLost() && System.currentTimeMillis() < giveUp) {
+                Thread.sleep(20);
+            }
+            assertTrue(lockService.isLeaseLost());
+
+            DatabaseChangeLog changeLog = new DatabaseChangeLog();
+            changeLog.addChangeSet(new ChangeSet("1", "test", false, false, "lease.xml", null, null, null));
+            final List<ChangeSet> visited = new ArrayList<ChangeSet>();
+            try {
+                new ChangeLogIterator(changeLog).run(new ChangeSetVisitor() {
+                    @Override
+                    public Direction getDirection() {
+                        return Direction.FORWARD;
+                    }
+
+                    @Override
+                    public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) {
+                        visited.add(changeSet);
+                    }
+                }, holderDatabase);
+                fail("Should stop after losing the lease");
+            } catch (LockException e) {
+                assertTrue(e.getMessage().contains("taken over"));
+            }
+            assertEquals(0, visited.size());
+        } finally {
+            lockService.reset();
+            LockServiceFactory.reset();
+        }
+    }
+
+    private Database openDatabase() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:lockservice", "SA", "")));
+        return database;
+    }
+}
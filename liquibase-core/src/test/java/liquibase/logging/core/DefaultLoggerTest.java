@@ -0,0 +1,45 @@
+package liquibase.logging.core;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.util.StreamUtil;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import static org.junit.Assert.*;
+
+public class DefaultLoggerTest {
+
+    @Test
+    public void changeLogAndChangeSetArePerThread() throws Exception {
+        File logFile = File.createTempFile("liquibase", ".log");
+        logFile.deleteOnExit();
+
+        final DefaultLogger logger = new DefaultLogger();
+        logger.setLogLevel("info", logFile.getAbsolutePath());
+
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/tenant1.xml");
+        logger.setChangeLog(changeLog);
+        logger.setChangeSet(new ChangeSet("1", "nvoxland", false, false, "path/tenant1.xml", null, null, changeLog));
+
+        Thread other = new Thread() {
+            @Override
+            public void run() {
+                logger.info("from other thread");
+            }
+        };
+        other.start();
+        other.join();
+
+        logger.info("from main thread");
+        logger.setChangeSet(null);
+        logger.setChangeLog(null);
+
+        String[] lines = StreamUtil.getStreamContents(new FileInputStream(logFile), "UTF-8").split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(":liquibase: from other thread"));
+        assertTrue(lines[1], lines[1].endsWith(":liquibase: path/tenant1.xml: 1::nvoxland: from main thread"));
+    }
+}
@@ -0,0 +1,71 @@
+package liquibase.parser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ChangeLogCacheTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("changeLogCache", "");
+        directory.delete();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void putAndGet() {
+        ChangeLogCache cache = new ChangeLogCache(directory);
+        byte[] content = "<databaseChangeLog/>".getBytes();
+
+        assertNull(cache.get("xml-sax", content));
+        cache.put("xml-sax", content, new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get("xml-sax", content));
+        assertNull("format is part of the key", cache.get("yaml", content));
+        assertNull("edited content misses", cache.get("xml-sax", "<databaseChangeLog></databaseChangeLog>".getBytes()));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void disabled() {
+        ChangeLogCache cache = new ChangeLogCache(null);
+        assertFalse(cache.isEnabled());
+
+        cache.put("xml-sax", new byte[]{1}, new byte[]{1});
+        assertNull(cache.get("xml-sax", new byte[]{1}));
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void corruptEntryIsIgnored() throws IOException {
+        ChangeLogCache cache = new ChangeLogCache(directory);
+        byte[] content = "<databaseChangeLog/>".getBytes();
+        cache.put("xml-sax", content, new byte[]{1, 2, 3});
+
+        FileOutputStream out = new FileOutputStream(cache.getCacheFile("xml-sax", content));
+        out.write(new byte[]{0, 1});
+        out.close();
+
+        assertNull(cache.get("xml-sax", content));
+    }
+}
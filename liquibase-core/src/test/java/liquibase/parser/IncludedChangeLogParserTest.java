@@ -0,0 +1,115 @@
+package liquibase.parser;
+
+import liquibase.change.core.CreateTableChange;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.H2Database;
+import liquibase.resource.FileSystemResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IncludedChangeLogParserTest {
+
+    private static final String HEADER = "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n" +
+            "  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+            "  xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd\">\n";
+
+    private File directory;
+
+    @Before
+    public void createChangeLogs() throws IOException {
+        directory = File.createTempFile("includedChangeLogs", "");
+        directory.delete();
+        directory.mkdirs();
+
+        StringBuilder master = new StringBuilder(HEADER);
+        for (int i = 0; i < 6; i++) {
+            master.append("<include file=\"leaf").append(i).append(".xml\" relativeToChangelogFile=\"true\"/>\n");
+            write("leaf" + i + ".xml", changeSet("leaf" + i, "${prefix}_" + i));
+            if (i == 2) {
+                master.append("<include file=\"params.xml\" relativeToChangelogFile=\"true\"/>\n");
+                write("params.xml", "<property name=\"prefix\" value=\"defined\"/>\n" + changeSet("params", "params_table"));
+            }
+        }
+        master.append(changeSet("master", "${prefix}_master"));
+        write("master.xml", master.toString());
+    }
+
+    @After
+    public void deleteChangeLogs() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        IncludedChangeLogParser.reset();
+    }
+
+    @Test
+    public void parallelParsingMatchesSequentialParsing() throws Exception {
+        IncludedChangeLogParser.setInstance(new IncludedChangeLogParser(1));
+        List<String> sequential = parse();
+
+        IncludedChangeLogParser.setInstance(new IncludedChangeLogParser(4));
+        List<String> parallel = parse();
+
+        assertEquals(8, sequential.size());
+        assertEquals("leaf0:${prefix}_0", sequential.get(0));
+        assertEquals("params:params_table", sequential.get(3));
+        assertEquals("leaf3:defined_3", sequential.get(4));
+        assertEquals("master:defined_master", sequential.get(7));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void canParseConcurrently() throws Exception {
+        IncludedChangeLogParser parser = new IncludedChangeLogParser(4);
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+        assertTrue(parser.canParseConcurrently("leaf0.xml", resourceAccessor));
+        assertFalse(parser.canParseConcurrently("params.xml", resourceAccessor));
+        assertFalse(parser.canParseConcurrently("master.xml", resourceAccessor));
+        assertFalse(parser.canParseConcurrently("missing.xml", resourceAccessor));
+    }
+
+    private List<String> parse() throws Exception {
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser("master.xml", resourceAccessor)
+                .parse("master.xml", new ChangeLogParameters(new H2Database()), resourceAccessor);
+
+        List<String> result = new ArrayList<String>();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            result.add(changeSet.getId() + ":" + ((CreateTableChange) changeSet.getChanges().get(0)).getTableName());
+        }
+        return result;
+    }
+
+    private String changeSet(String id, String tableName) {
+        return "<changeSet id=\"" + id + "\" author=\"test\">\n" +
+                "  <createTable tableName=\"" + tableName + "\"><column name=\"id\" type=\"int\"/></createTable>\n" +
+                "</changeSet>\n";
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        if (!content.startsWith("<databaseChangeLog")) {
+            content = HEADER + content;
+        }
+        FileOutputStream out = new FileOutputStream(new File(directory, fileName));
+        try {
+            out.write((content + "</databaseChangeLog>\n").getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class LiquibaseEntityResolverTest {
 
         assertNotNull(liquibaseSchemaResolver.resolveEntity(null, null, null, "http://www.liquibase.org/xml/ns/migrator/dbchangelog-1.0.xsd"));
         assertNotNull(liquibaseSchemaResolver.resolveEntity(null, null, null, "http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd"));
+        assertNotNull(liquibaseSchemaResolver.resolveEntity(null, null, null, "http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.2.xsd"));
         assertNull(liquibaseSchemaResolver.resolveEntity(null,null,null, "http://www.liquibase.org/xml/ns/migrator/invalid.xsd"));
     }
 }
\ No newline at end of file
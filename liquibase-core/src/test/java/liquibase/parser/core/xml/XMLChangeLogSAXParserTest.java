@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.List;
 
 import liquibase.change.AddColumnConfig;
@@ -13,6 +14,7 @@ import liquibase.change.Change;
 import liquibase.change.ChangeFactory;
 import liquibase.change.core.AddColumnChange;
 import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.LoadDataChange;
 import liquibase.change.core.RawSQLChange;
 import liquibase.change.custom.CustomChangeWrapper;
 import liquibase.change.custom.ExampleCustomSqlChange;
@@ -22,6 +24,7 @@ import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.database.core.MockDatabase;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ChangeLogCache;
 import liquibase.precondition.core.OrPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.test.JUnitResourceAccessor;
@@ -167,6 +170,28 @@ public class XMLChangeLogSAXParserTest {
 
     }
 
+    @Test
+    public void nestedChangeLog_cached() throws Exception {
+        final String nestedFileName = "liquibase/parser/core/xml/nestedChangeLog.xml";
+        File directory = File.createTempFile("changeLogCache", "");
+        directory.delete();
+        ChangeLogCache cache = new ChangeLogCache(directory);
+        ChangeLogCache.setInstance(cache);
+        try {
+            nestedFileAssertions(new XMLChangeLogSAXParser().parse(nestedFileName, new ChangeLogParameters(), new JUnitResourceAccessor()), nestedFileName);
+            assertEquals(0, cache.getHitCount());
+
+            nestedFileAssertions(new XMLChangeLogSAXParser().parse(nestedFileName, new ChangeLogParameters(), new JUnitResourceAccessor()), nestedFileName);
+            assertEquals("nested and included files should both be read from the cache", cache.getMissCount(), cache.getHitCount());
+        } finally {
+            ChangeLogCache.reset();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
     @Test
     public void nestedRelativeChangeLog() throws Exception {
     	final String nestedFileName = "liquibase/parser/core/xml/nestedRelativeChangeLog.xml";
@@ -437,4 +462,20 @@ public class XMLChangeLogSAXParserTest {
 
 		assertEquals(Integer.valueOf(1), columnConfig.getPosition());
 	}
+
+    @Test
+    public void loadDataBatchAttributes() throws Exception {
+        assertEquals("3.2", XMLChangeLogSAXParser.getSchemaVersion());
+
+        DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/loadDataBatch32ChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
+
+        LoadDataChange change = (LoadDataChange) changeLog.getChangeSets().get(0).getChanges().get(0);
+        assertEquals(Integer.valueOf(100), change.getBatchSize());
+        assertEquals(Integer.valueOf(1000), change.getCommitInterval());
+    }
+
+    @Test(expected = ChangeLogParseException.class)
+    public void loadDataBatchAttributes_notInSchema31() throws Exception {
+        new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/loadDataBatch31ChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
+    }
 }
@@ -1,17 +1,23 @@
 package liquibase.parser.core.yaml;
 
+import liquibase.change.core.CreateTableChange;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ChangeLogCache;
 import liquibase.resource.ResourceAccessor;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Enumeration;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class YamlChangeLogParserTest {
 
     private String changeLogText = "databaseChangeLog:\n" +
@@ -53,4 +59,52 @@ public class YamlChangeLogParserTest {
 
 
     }
+
+    @Test
+    public void parse_cached() throws Exception {
+        final String text = changeLogText.replace("nvoxland", "${author.name}");
+        ResourceAccessor resourceAccessor = new ResourceAccessor() {
+            @Override
+            public InputStream getResourceAsStream(String file) throws IOException {
+                return new ByteArrayInputStream(text.getBytes());
+            }
+
+            @Override
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                return null;
+            }
+
+            @Override
+            public ClassLoader toClassLoader() {
+                return null;
+            }
+        };
+
+        File directory = File.createTempFile("changeLogCache", "");
+        directory.delete();
+        ChangeLogCache cache = new ChangeLogCache(directory);
+        ChangeLogCache.setInstance(cache);
+        try {
+            ChangeLogParameters parameters = new ChangeLogParameters();
+            parameters.set("author.name", "first_author");
+            DatabaseChangeLog changeLog = new YamlChangeLogParser().parse("test.yaml", parameters, resourceAccessor);
+            assertEquals("first_author", changeLog.getChangeSets().get(0).getAuthor());
+            assertEquals(0, cache.getHitCount());
+
+            parameters = new ChangeLogParameters();
+            parameters.set("author.name", "second_author");
+            changeLog = new YamlChangeLogParser().parse("test.yaml", parameters, resourceAccessor);
+            assertEquals(1, cache.getHitCount());
+            assertEquals("parameters are expanded after reading from the cache", "second_author", changeLog.getChangeSets().get(0).getAuthor());
+            assertEquals("testTable", ((CreateTableChange) changeLog.getChangeSets().get(0).getChanges().get(0)).getTableName());
+            assertTrue(changeLog.getChangeSets().get(0).isRunOnChange());
+            assertEquals(2, ((CreateTableChange) changeLog.getChangeSets().get(0).getChanges().get(0)).getColumns().size());
+        } finally {
+            ChangeLogCache.reset();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
 }
@@ -0,0 +1,185 @@
+package liquibase.precondition;
+
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.DropTableChange;
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.PreconditionFailedException;
+import liquibase.precondition.core.ColumnExistsPrecondition;
+import liquibase.precondition.core.IndexExistsPrecondition;
+import liquibase.precondition.core.TableExistsPrecondition;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class PreconditionEvaluationContextTest {
+
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:preconditioncontext", "SA", "")));
+        execute("CREATE TABLE PERSON (ID INT, NAME VARCHAR(50))");
+        execute("CREATE TABLE ADDRESS (ID INT, STREET VARCHAR(50))");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PreconditionEvaluationContext.end(database);
+        execute("DROP SCHEMA PUBLIC CASCADE");
+        database.close();
+    }
+
+    @Test
+    public void sharesSnapshotsBetweenChecks() throws Exception {
+        assertTrue(PreconditionEvaluationContext.begin(database));
+        assertFalse("already started", PreconditionEvaluationContext.begin(database));
+        PreconditionEvaluationContext context = PreconditionEvaluationContext.getCurrent(database);
+
+        assertTrue(tableExists("PERSON"));
+        assertTrue(tableExists("address"));
+        assertFalse(tableExists("MISSING"));
+        assertEquals(1, context.getSnapshotCount());
+
+        assertTrue(columnExists("PERSON", "NAME"));
+        assertFalse(columnExists("ADDRESS", "NAME"));
+        assertEquals(2, context.getSnapshotCount());
+    }
+
+    @Test
+    public void executedChangesInvalidateAffectedObjects() throws Exception {
+        PreconditionEvaluationContext.begin(database);
+        PreconditionEvaluationContext context = PreconditionEvaluationContext.getCurrent(database);
+        assertFalse(tableExists("CREATED"));
+
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("CREATED");
+        createTable.addColumn(new ColumnConfig().setName("ID").setType("int"));
+        database.execute(createTable.generateStatements(database), new ArrayList<SqlVisitor>());
+        PreconditionEvaluationContext.changeExecuted(createTable, database);
+
+        assertTrue(tableExists("CREATED"));
+        assertTrue(columnExists("CREATED", "ID"));
+        assertTrue(tableExists("PERSON"));
+        assertEquals(1, context.getSnapshotCount());
+
+        execute("CREATE TABLE FROM_SQL (ID INT)");
+        PreconditionEvaluationContext.changeExecuted(new RawSQLChange("CREATE TABLE FROM_SQL (ID INT)"), database);
+        assertTrue(tableExists("FROM_SQL"));
+        assertTrue(columnExists("PERSON", "NAME"));
+        assertEquals("unknown changes switch to direct checks instead of snapshotting again", 1, context.getSnapshotCount());
+    }
+
+    @Test
+    public void invalidatesWithoutGeneratingStatements() throws Exception {
+        PreconditionEvaluationContext.begin(database);
+        assertFalse(tableExists("CREATED"));
+
+        execute("CREATE TABLE CREATED (ID INT)");
+        CreateTableChange createTable = new CreateTableChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) {
+                throw new AssertionError("statements should not be generated again");
+            }
+        };
+        createTable.setTableName("CREATED");
+        PreconditionEvaluationContext.changeExecuted(createTable, database);
+
+        assertTrue(tableExists("CREATED"));
+    }
+
+    @Test
+    public void dataChangesDoNotInvalidate() throws Exception {
+        PreconditionEvaluationContext.begin(database);
+        PreconditionEvaluationContext context = PreconditionEvaluationContext.getCurrent(database);
+        assertTrue(tableExists("PERSON"));
+
+        LoadDataChange loadData = new LoadDataChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) {
+                throw new AssertionError("data should not be read again");
+            }
+        };
+        loadData.setTableName("PERSON");
+        PreconditionEvaluationContext.changeExecuted(loadData, database);
+
+        execute("DROP TABLE PERSON");
+        assertTrue("answered from the snapshot", tableExists("PERSON"));
+        assertEquals(1, context.getSnapshotCount());
+    }
+
+    @Test
+    public void droppedTableInvalidatesIndexesCheckedWithoutTable() throws Exception {
+        execute("CREATE INDEX IDX_STREET ON ADDRESS (STREET)");
+        PreconditionEvaluationContext.begin(database);
+        assertTrue(indexExists("IDX_STREET"));
+
+        execute("DROP TABLE ADDRESS");
+        DropTableChange dropTable = new DropTableChange();
+        dropTable.setTableName("ADDRESS");
+        PreconditionEvaluationContext.changeExecuted(dropTable, database);
+
+        assertFalse(indexExists("IDX_STREET"));
+    }
+
+    @Test
+    public void withoutContextChecksDirectly() throws Exception {
+        assertNull(PreconditionEvaluationContext.getCurrent(database));
+        assertTrue(tableExists("PERSON"));
+        assertFalse(tableExists("MISSING"));
+    }
+
+    private boolean tableExists(String tableName) throws Exception {
+        TableExistsPrecondition precondition = new TableExistsPrecondition();
+        precondition.setTableName(tableName);
+        try {
+            precondition.check(database, null, null);
+            return true;
+        } catch (PreconditionFailedException e) {
+            return false;
+        }
+    }
+
+    private boolean indexExists(String indexName) throws Exception {
+        IndexExistsPrecondition precondition = new IndexExistsPrecondition();
+        precondition.setIndexName(indexName);
+        try {
+            precondition.check(database, null, null);
+            return true;
+        } catch (PreconditionFailedException e) {
+            return false;
+        }
+    }
+
+    private boolean columnExists(String tableName, String columnName) throws Exception {
+        ColumnExistsPrecondition precondition = new ColumnExistsPrecondition();
+        precondition.setTableName(tableName);
+        precondition.setColumnName(columnName);
+        try {
+            precondition.check(database, null, null);
+            return true;
+        } catch (PreconditionFailedException e) {
+            return false;
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute(sql);
+        statement.close();
+    }
+}
@@ -0,0 +1,147 @@
+package liquibase.resource;
+
+import liquibase.change.CheckSum;
+import liquibase.test.MockResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ResourceChecksumCacheTest {
+
+    private File dataFile;
+    private File cacheFile;
+
+    @Before
+    public void createFiles() throws IOException {
+        dataFile = File.createTempFile("data", ".csv");
+        write(dataFile, "id,name\n1,a\n");
+        makeOld(dataFile);
+        cacheFile = File.createTempFile("checksums", ".properties");
+        cacheFile.delete();
+    }
+
+    @After
+    public void deleteFiles() {
+        dataFile.delete();
+        cacheFile.delete();
+    }
+
+    @Test
+    public void getCheckSum_cachedUntilFileChanges() throws IOException {
+        ResourceChecksumCache cache = new ResourceChecksumCache(null);
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor();
+        CountingGenerator generator = new CountingGenerator("7:abc");
+
+        assertEquals("7:abc", cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator).toString());
+        assertEquals("7:abc", cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator).toString());
+        assertEquals(1, generator.count);
+
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "otherVariant", generator);
+        assertEquals("variant is part of the key", 2, generator.count);
+
+        write(dataFile, "id,name\n1,a\n2,b\n");
+        makeOld(dataFile);
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator);
+        assertEquals(3, generator.count);
+        assertEquals("superseded checksum is removed", 2, cache.size());
+    }
+
+    @Test
+    public void getCheckSum_recentlyModifiedFileNotCached() throws IOException {
+        ResourceChecksumCache cache = new ResourceChecksumCache(null);
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor();
+        CountingGenerator generator = new CountingGenerator("7:abc");
+
+        write(dataFile, "id,name\n1,b\n");
+        assertNull(ResourceChecksumCache.getFingerprint(dataFile));
+
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator);
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator);
+        assertEquals(2, generator.count);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void getCheckSum_persisted() throws IOException {
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor();
+        CountingGenerator generator = new CountingGenerator("7:abc");
+
+        ResourceChecksumCache firstRun = new ResourceChecksumCache(cacheFile);
+        firstRun.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator);
+        firstRun.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "otherVariant", generator);
+        assertFalse("only written on flush", cacheFile.exists());
+        firstRun.flush();
+        assertTrue(cacheFile.exists());
+
+        long written = cacheFile.lastModified();
+        cacheFile.setLastModified(written - 10000);
+        firstRun.flush();
+        assertEquals("unchanged cache is not written again", written - 10000, cacheFile.lastModified());
+
+        ResourceChecksumCache cache = new ResourceChecksumCache(cacheFile);
+        assertEquals(2, cache.size());
+        assertEquals("7:abc", cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator).toString());
+        assertEquals(2, generator.count);
+    }
+
+    @Test
+    public void getCheckSum_oldVersionIsRecomputed() throws IOException {
+        ResourceChecksumCache cache = new ResourceChecksumCache(null);
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor();
+
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", new CountingGenerator("1:abc"));
+
+        CountingGenerator generator = new CountingGenerator("7:abc");
+        cache.getCheckSum(resourceAccessor, dataFile.getAbsolutePath(), "loadData", generator);
+        assertEquals(1, generator.count);
+    }
+
+    @Test
+    public void getCheckSum_notFingerprinted() throws IOException {
+        ResourceChecksumCache cache = new ResourceChecksumCache(null);
+        CountingGenerator generator = new CountingGenerator("7:abc");
+
+        cache.getCheckSum(new MockResourceAccessor(), "data.csv", "loadData", generator);
+        cache.getCheckSum(new MockResourceAccessor(), "data.csv", "loadData", generator);
+        assertEquals(2, generator.count);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void compositeResourceAccessor_fingerprint() throws IOException {
+        CompositeResourceAccessor resourceAccessor = new CompositeResourceAccessor(new FileSystemResourceAccessor(dataFile.getParent()));
+        assertNotNull(resourceAccessor.getResourceFingerprint(dataFile.getName()));
+        assertNull(resourceAccessor.getResourceFingerprint("missing-" + dataFile.getName()));
+    }
+
+    private void makeOld(File file) {
+        file.setLastModified(System.currentTimeMillis() - 60000);
+    }
+
+    private void write(File file, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+
+    private static class CountingGenerator implements ResourceChecksumCache.CheckSumGenerator {
+        private final String checkSum;
+        private int count;
+
+        private CountingGenerator(String checkSum) {
+            this.checkSum = checkSum;
+        }
+
+        @Override
+        public CheckSum generate() throws IOException {
+            count++;
+            return CheckSum.parse(checkSum);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package liquibase.serializer.core.binary;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.serializer.SnapshotSerializerFactory;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.FileDatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class BinarySnapshotSerializerTest {
+
+    private Database database;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:hsqldb:mem:binarysnapshot", "SA", "")));
+        execute("CREATE TABLE PERSON (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50) DEFAULT 'unknown', CREATED TIMESTAMP)");
+        execute("CREATE TABLE ADDRESS (ID INT NOT NULL PRIMARY KEY, PERSON_ID INT, STREET VARCHAR(50), CONSTRAINT FK_ADDRESS_PERSON FOREIGN KEY (PERSON_ID) REFERENCES PERSON(ID))");
+        execute("CREATE INDEX IDX_ADDRESS_STREET ON ADDRESS(STREET)");
+        execute("CREATE SEQUENCE SEQ_PERSON START WITH 10");
+
+        file = File.createTempFile("liquibase", ".snapshot");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP SCHEMA PUBLIC CASCADE");
+        database.close();
+        file.delete();
+    }
+
+    @Test
+    public void registeredForSnapshotExtension() {
+        assertTrue(SnapshotSerializerFactory.getInstance().getSerializer("nightly.snapshot") instanceof BinarySnapshotSerializer);
+    }
+
+    @Test
+    public void savedSnapshotHasNoDifferencesToDatabase() throws Exception {
+        save(snapshot());
+
+        FileDatabaseSnapshot saved = new FileDatabaseSnapshot(file, new HsqlDatabase());
+        DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(saved, snapshot(), new CompareControl(saved.getSnapshotControl().getTypesToInclude()));
+        assertTrue(diffResult.getMissingObjects().toString() + diffResult.getUnexpectedObjects() + diffResult.getChangedObjects(), diffResult.areEqual());
+
+        Table person = null;
+        for (Table table : saved.get(Table.class)) {
+            if (table.getName().equals("PERSON")) {
+                person = table;
+            }
+        }
+        assertNotNull(person);
+        assertSame(person, saved.get(person));
+        Column name = person.getColumn("NAME");
+        assertSame(person, name.getRelation());
+        assertEquals("unknown", name.getDefaultValue());
+        assertNotNull(person.getPrimaryKey());
+        assertEquals(1, saved.get(ForeignKey.class).size());
+        assertSame(person, saved.get(ForeignKey.class).iterator().next().getPrimaryKeyTable());
+    }
+
+    @Test
+    public void savedSnapshotFindsChangesInDatabase() throws Exception {
+        save(snapshot());
+        execute("ALTER TABLE PERSON ADD COLUMN EMAIL VARCHAR(100)");
+        execute("DROP SEQUENCE SEQ_PERSON");
+
+        FileDatabaseSnapshot saved = new FileDatabaseSnapshot(file, new HsqlDatabase());
+        DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(saved, snapshot(), new CompareControl(saved.getSnapshotControl().getTypesToInclude()));
+
+        assertEquals(1, diffResult.getMissingObjects(Sequence.class).size());
+        assertEquals(1, diffResult.getUnexpectedObjects(Column.class).size());
+        assertEquals("EMAIL", diffResult.getUnexpectedObjects(Column.class).iterator().next().getName());
+    }
+
+    @Test
+    public void loadsObjectTypesOnFirstUse() throws Exception {
+        save(snapshot());
+
+        FileDatabaseSnapshot saved = new FileDatabaseSnapshot(file, new HsqlDatabase());
+        assertFalse(saved.isLoaded(Table.class));
+
+        assertEquals(2, saved.get(Table.class).size());
+        assertTrue(saved.isLoaded(Table.class));
+        assertTrue("referenced by tables", saved.isLoaded(Column.class));
+        assertFalse(saved.isLoaded(Sequence.class));
+
+        assertEquals(1, saved.get(Sequence.class).size());
+        assertTrue(saved.isLoaded(Sequence.class));
+    }
+
+    private DatabaseSnapshot snapshot() throws Exception {
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database));
+    }
+
+    private void save(DatabaseSnapshot snapshot) throws Exception {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            new BinarySnapshotSerializer().write(snapshot, out);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        try {
+            statement.execute(sql);
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -3,14 +3,26 @@ package liquibase.serializer.core.json;
 import liquibase.change.AddColumnConfig;
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.CreateTableChange;
+import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
 import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SequenceNextValueFunction;
+import liquibase.util.StreamUtil;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class JsonChangeLogSerializerTest {
 
@@ -72,4 +84,72 @@ public class JsonChangeLogSerializerTest {
                 "  }\n" +
                 "}\n", new JsonChangeLogSerializer().serialize(changeSet, true));
     }
+
+    @Test
+    public void write_thenAppend_parsesAllChangeSets() throws Exception {
+        File file = File.createTempFile("changelog", ".json");
+        file.deleteOnExit();
+
+        FileOutputStream out = new FileOutputStream(file);
+        new JsonChangeLogSerializer().write(Arrays.asList(createChangeSet("1"), createChangeSet("2")), out);
+        out.close();
+        new JsonChangeLogSerializer().append(createChangeSet("3"), file);
+
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+                .parse(file.getName(), new ChangeLogParameters(), new FileSystemResourceAccessor(file.getParent()));
+        assertEquals(3, changeLog.getChangeSets().size());
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("3", changeLog.getChangeSets().get(2).getId());
+        assertEquals("createTable", changeLog.getChangeSets().get(2).getChanges().get(0).getSerializedObjectName());
+    }
+
+    @Test
+    public void append_keepsContentAfterChangeLogArray() throws Exception {
+        File file = File.createTempFile("changelog", ".json");
+        file.deleteOnExit();
+
+        String json = "{ \"databaseChangeLog\": [\n" +
+                "  {\"changeSet\": {\"id\": \"1\", \"author\": \"nvoxland\", \"comment\": \"closing ] in a string\", \"changes\": [\n" +
+                "    {\"sql\": {\"sql\": \"select '[x]' from t\"}}]}}\n" +
+                "],\n" +
+                "\"tags\": [\"a\"]\n" +
+                "}\n";
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(json.getBytes("UTF-8"));
+        out.close();
+
+        JsonChangeLogSerializer serializer = new JsonChangeLogSerializer();
+        assertEquals(json.indexOf("\n],") + 1, serializer.findChangeLogArrayEnd(file));
+        serializer.append(createChangeSet("2"), file);
+
+        String content = StreamUtil.getStreamContents(new FileInputStream(file), "UTF-8");
+        assertTrue(content.contains("closing ] in a string"));
+        assertTrue(content.endsWith("\n],\n\"tags\": [\"a\"]\n}\n"));
+
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+                .parse(file.getName(), new ChangeLogParameters(), new FileSystemResourceAccessor(file.getParent()));
+        assertEquals(2, changeLog.getChangeSets().size());
+        assertEquals("2", changeLog.getChangeSets().get(1).getId());
+    }
+
+    @Test(expected = IOException.class)
+    public void append_failsWithoutChangeLogArray() throws Exception {
+        File file = File.createTempFile("changelog", ".json");
+        file.deleteOnExit();
+
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("{ \"other\": [\"databaseChangeLog\"] }\n".getBytes("UTF-8"));
+        out.close();
+
+        new JsonChangeLogSerializer().append(createChangeSet("1"), file);
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        ChangeSet changeSet = new ChangeSet(id, "nvoxland", false, false, null, null, null, null);
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("table_" + id);
+        change.addColumn(new ColumnConfig().setName("id").setType("int"));
+        changeSet.addChange(change);
+        return changeSet;
+    }
 }
@@ -4,7 +4,12 @@ import liquibase.change.AddColumnConfig;
 import liquibase.change.ColumnConfig;
 import liquibase.change.ConstraintsConfig;
 import liquibase.change.core.*;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
 import liquibase.statement.SequenceNextValueFunction;
 import org.junit.Test;
 import org.w3c.dom.Element;
@@ -13,7 +18,10 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.math.BigInteger;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -832,4 +840,31 @@ public class XMLChangeLogSerializerTest {
                 "        schemaName=\"b\"\n" +
                 "        tableName=\"c\"/>", out);
     }
+
+    @Test
+    public void write_thenAppend_parsesAllChangeSets() throws Exception {
+        File file = File.createTempFile("changelog", ".xml");
+        file.deleteOnExit();
+
+        FileOutputStream out = new FileOutputStream(file);
+        new XMLChangeLogSerializer().write(Arrays.asList(createChangeSet("1"), createChangeSet("2")), out);
+        out.close();
+        new XMLChangeLogSerializer().append(createChangeSet("3"), file);
+
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+                .parse(file.getName(), new ChangeLogParameters(), new FileSystemResourceAccessor(file.getParent()));
+        assertEquals(3, changeLog.getChangeSets().size());
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("3", changeLog.getChangeSets().get(2).getId());
+        assertEquals("createTable", changeLog.getChangeSets().get(2).getChanges().get(0).getSerializedObjectName());
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        ChangeSet changeSet = new ChangeSet(id, "nvoxland", false, false, null, null, null, null);
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("table_" + id);
+        change.addColumn(new ColumnConfig().setName("id").setType("int"));
+        changeSet.addChange(change);
+        return changeSet;
+    }
 }
@@ -2,10 +2,22 @@ package liquibase.serializer.core.yaml;
 
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.CreateTableChange;
+import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
 public class YamlChangeLogSerializerTest {
 
     @Test
@@ -38,4 +50,85 @@ public class YamlChangeLogSerializerTest {
 //
 //        System.out.println(out);
 //    }
+
+    @Test
+    public void write_thenAppend_parsesAllChangeSets() throws Exception {
+        File file = File.createTempFile("changelog", ".yaml");
+        file.deleteOnExit();
+
+        FileOutputStream out = new FileOutputStream(file);
+        new YamlChangeLogSerializer().write(Arrays.asList(createChangeSet("1"), createChangeSet("2")), out);
+        out.close();
+        new YamlChangeLogSerializer().append(createChangeSet("3"), file);
+
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+                .parse(file.getName(), new ChangeLogParameters(), new FileSystemResourceAccessor(file.getParent()));
+        assertEquals(3, changeLog.getChangeSets().size());
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("3", changeLog.getChangeSets().get(2).getId());
+        assertEquals("createTable", changeLog.getChangeSets().get(2).getChanges().get(0).getSerializedObjectName());
+    }
+
+    @Test
+    public void append_matchesIndentationOfHandWrittenChangeLog() throws Exception {
+        File file = File.createTempFile("changelog", ".yaml");
+        file.deleteOnExit();
+
+        FileWriter writer = new FileWriter(file);
+        writer.write("# hand written\n" +
+                "databaseChangeLog:\n" +
+                "  - changeSet:\n" +
+                "      id: 1\n" +
+                "      author: nvoxland\n" +
+                "      changes:\n" +
+                "        - createTable:\n" +
+                "            tableName: table_1\n" +
+                "            columns:\n" +
+                "              - column:\n" +
+                "                  name: id\n" +
+                "                  type: int");
+        writer.close();
+
+        new YamlChangeLogSerializer().append(createChangeSet("2"), file);
+        new YamlChangeLogSerializer().append(createChangeSet("3"), file);
+
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+                .parse(file.getName(), new ChangeLogParameters(), new FileSystemResourceAccessor(file.getParent()));
+        assertEquals(3, changeLog.getChangeSets().size());
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("2", changeLog.getChangeSets().get(1).getId());
+        assertEquals("3", changeLog.getChangeSets().get(2).getId());
+        assertEquals("table_3", ((CreateTableChange) changeLog.getChangeSets().get(2).getChanges().get(0)).getTableName());
+    }
+
+    @Test
+    public void append_refusesChangeLogNotEndingWithChangeSetList() throws Exception {
+        File file = File.createTempFile("changelog", ".yaml");
+        file.deleteOnExit();
+
+        FileWriter writer = new FileWriter(file);
+        writer.write("databaseChangeLog:\n" +
+                "  - changeSet:\n" +
+                "      id: 1\n" +
+                "      author: nvoxland\n" +
+                "other: value\n");
+        writer.close();
+        long length = file.length();
+
+        try {
+            new YamlChangeLogSerializer().append(createChangeSet("2"), file);
+            fail("Should not append");
+        } catch (IOException e) {
+            assertEquals(length, file.length());
+        }
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        ChangeSet changeSet = new ChangeSet(id, "nvoxland", false, false, null, null, null, null);
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("table_" + id);
+        change.addColumn(new ColumnConfig().setName("id").setType("int"));
+        changeSet.addChange(change);
+        return changeSet;
+    }
 }
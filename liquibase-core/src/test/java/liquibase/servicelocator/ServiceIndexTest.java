@@ -0,0 +1,156 @@
+package liquibase.servicelocator;
+
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.parser.core.yaml.YamlChangeLogParser;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.sqlgenerator.SqlGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ServiceIndexTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("serviceIndex", "");
+        directory.delete();
+        new File(directory, "META-INF/liquibase").mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        new File(directory, ServiceIndex.INDEX_FILE).delete();
+        new File(directory, "META-INF/MANIFEST.MF").delete();
+        new File(directory, "META-INF/liquibase").delete();
+        new File(directory, "META-INF").delete();
+        directory.delete();
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        ServiceIndex index = new ServiceIndex();
+        index.addEntry(new ServiceIndex.Entry("a.Service", 5, new HashSet<String>(Arrays.asList("a.Interface", "a.Base"))));
+        index.addEntry(new ServiceIndex.Entry("a.Other", null, new HashSet<String>(Arrays.asList("a.Base"))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        ServiceIndex read = ServiceIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, read.getEntries().size());
+        assertEquals(Integer.valueOf(5), read.getEntries().get(0).getPriority());
+        assertNull(read.getEntries().get(1).getPriority());
+        assertEquals(1, read.findImplementations("a.Interface").size());
+        assertEquals(2, read.findImplementations("a.Base").size());
+        assertEquals(1, read.findImplementations("a.Other").size());
+    }
+
+    @Test
+    public void generate() {
+        File classesDirectory = new File(XMLChangeLogSAXParser.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        ServiceIndex index = new ServiceIndexGenerator().generate(classesDirectory, getClass().getClassLoader(), Arrays.asList("liquibase.parser"));
+
+        Map<String, ServiceIndex.Entry> parsers = new HashMap<String, ServiceIndex.Entry>();
+        for (ServiceIndex.Entry entry : index.findImplementations(ChangeLogParser.class.getName())) {
+            parsers.put(entry.getClassName(), entry);
+        }
+        assertTrue(parsers.containsKey(XMLChangeLogSAXParser.class.getName()));
+        assertTrue(parsers.containsKey(YamlChangeLogParser.class.getName()));
+        assertEquals(Integer.valueOf(ChangeLogParser.PRIORITY_DEFAULT), parsers.get(XMLChangeLogSAXParser.class.getName()).getPriority());
+
+        for (ServiceIndex.Entry entry : index.getEntries()) {
+            assertFalse("interfaces are not services", entry.getClassName().equals(ChangeLogParser.class.getName()));
+        }
+    }
+
+    @Test
+    public void serviceLocator_usesIndex() throws Exception {
+        write("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nLiquibase-Package: liquibase.parser\n");
+        write(ServiceIndex.INDEX_FILE,
+                XMLChangeLogSAXParser.class.getName() + "|1|" + ChangeLogParser.class.getName() + "\n" +
+                YamlChangeLogParser.class.getName() + "|5|" + ChangeLogParser.class.getName() + "\n" +
+                "liquibase.parser.DoesNotExist|10|" + ChangeLogParser.class.getName() + "\n");
+
+        ServiceLocator serviceLocator = new ServiceLocator(new ClassLoaderResourceAccessor(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                if (packageName.startsWith("META-INF/")) {
+                    File file = new File(directory, packageName);
+                    if (!file.exists()) {
+                        return new Vector<URL>().elements();
+                    }
+                    return new Vector<URL>(Arrays.asList(file.toURI().toURL())).elements();
+                }
+                return super.getResources(packageName);
+            }
+        });
+
+        assertTrue(serviceLocator.isUsingServiceIndex());
+
+        Class[] classes = serviceLocator.findClasses(ChangeLogParser.class);
+        assertEquals(2, classes.length);
+        assertEquals("priority should come from the index", YamlChangeLogParser.class, serviceLocator.findClass(ChangeLogParser.class));
+    }
+
+    @Test
+    public void serviceLocator_scansPackagesAddedAfterIndex() throws Exception {
+        write("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nLiquibase-Package: liquibase.parser\n");
+        write(ServiceIndex.INDEX_FILE, XMLChangeLogSAXParser.class.getName() + "|1|" + ChangeLogParser.class.getName() + "\n");
+
+        ServiceLocator serviceLocator = new ServiceLocator(new ClassLoaderResourceAccessor(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                if (packageName.startsWith("META-INF/")) {
+                    File file = new File(directory, packageName);
+                    if (!file.exists()) {
+                        return new Vector<URL>().elements();
+                    }
+                    return new Vector<URL>(Arrays.asList(file.toURI().toURL())).elements();
+                }
+                return super.getResources(packageName);
+            }
+        });
+        assertTrue(serviceLocator.isUsingServiceIndex());
+        assertEquals(0, serviceLocator.findClasses(SqlGenerator.class).length);
+
+        serviceLocator.addPackageToScan("liquibase.sqlgenerator");
+        assertTrue(serviceLocator.findClasses(SqlGenerator.class).length > 0);
+        assertEquals("indexed services are still found", 1, serviceLocator.findClasses(ChangeLogParser.class).length);
+    }
+
+    @Test
+    public void serviceLocator_scansWithoutIndex() throws Exception {
+        write("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nLiquibase-Package: liquibase.parser\n");
+
+        ServiceLocator serviceLocator = new ServiceLocator(new ClassLoaderResourceAccessor(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                if (packageName.startsWith("META-INF/")) {
+                    File file = new File(directory, packageName);
+                    if (!file.exists()) {
+                        return new Vector<URL>().elements();
+                    }
+                    return new Vector<URL>(Arrays.asList(file.toURI().toURL())).elements();
+                }
+                return super.getResources(packageName);
+            }
+        });
+
+        assertFalse(serviceLocator.isUsingServiceIndex());
+        assertTrue(serviceLocator.findClasses(ChangeLogParser.class).length > 2);
+    }
+
+    private void write(String path, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(new File(directory, path));
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+}
@@ -0,0 +1,141 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ParallelSnapshotTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:parallelsnapshot";
+
+    private Database database;
+    private Database parallelDatabase;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        database = openDatabase();
+        parallelDatabase = openDatabase();
+
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE SCHEMA SCHEMA_A AUTHORIZATION DBA");
+        statement.execute("CREATE SCHEMA SCHEMA_B AUTHORIZATION DBA");
+        statement.execute("CREATE TABLE SCHEMA_A.TABLE_A1 (ID INT PRIMARY KEY, NAME VARCHAR(50))");
+        statement.execute("CREATE TABLE SCHEMA_A.TABLE_A2 (ID INT PRIMARY KEY)");
+        statement.execute("CREATE TABLE SCHEMA_B.TABLE_B1 (ID INT PRIMARY KEY, A1_ID INT)");
+        statement.execute("ALTER TABLE SCHEMA_B.TABLE_B1 ADD CONSTRAINT FK_B1_A1 FOREIGN KEY (A1_ID) REFERENCES SCHEMA_A.TABLE_A1 (ID)");
+        statement.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Statement statement = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+        statement.execute("DROP SCHEMA SCHEMA_A CASCADE");
+        statement.execute("DROP SCHEMA SCHEMA_B CASCADE");
+        statement.close();
+        database.close();
+        parallelDatabase.close();
+    }
+
+    @Test
+    public void createSnapshot_parallelMatchesSequential() throws Exception {
+        CatalogAndSchema[] schemas = new CatalogAndSchema[] {
+                new CatalogAndSchema("PUBLIC", "SCHEMA_A"),
+                new CatalogAndSchema("PUBLIC", "SCHEMA_B")
+        };
+
+        DatabaseSnapshot sequential = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, new SnapshotControl(database));
+
+        SnapshotControl parallelControl = new SnapshotControl(database);
+        parallelControl.setParallelDatabases(Arrays.asList(parallelDatabase));
+        DatabaseSnapshot parallel = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, parallelControl);
+
+        assertEquals(new HashSet<String>(Arrays.asList("TABLE_A1", "TABLE_A2", "TABLE_B1")), tableNames(sequential));
+        assertEquals(tableNames(sequential), tableNames(parallel));
+        assertEquals(sequential.get(Column.class).size(), parallel.get(Column.class).size());
+    }
+
+    @Test
+    public void createSnapshot_parallelResolvesCrossSchemaReferences() throws Exception {
+        CatalogAndSchema[] schemas = new CatalogAndSchema[] {
+                new CatalogAndSchema("PUBLIC", "SCHEMA_A"),
+                new CatalogAndSchema("PUBLIC", "SCHEMA_B")
+        };
+
+        SnapshotControl parallelControl = new SnapshotControl(database);
+        parallelControl.setParallelDatabases(Arrays.asList(parallelDatabase));
+        DatabaseSnapshot parallel = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, parallelControl);
+
+        ForeignKey foreignKey = null;
+        for (ForeignKey found : parallel.get(ForeignKey.class)) {
+            if (found.getName().equals("FK_B1_A1")) {
+                foreignKey = found;
+            }
+        }
+        assertNotNull(foreignKey);
+        assertSame(parallel.get(foreignKey.getPrimaryKeyTable()), foreignKey.getPrimaryKeyTable());
+        assertSame(parallel.get(foreignKey.getForeignKeyTable()), foreignKey.getForeignKeyTable());
+
+        for (Class<? extends DatabaseObject> type : new Class[] {Table.class, Column.class, ForeignKey.class, PrimaryKey.class}) {
+            for (DatabaseObject object : parallel.get(type)) {
+                for (String attribute : object.getAttributes()) {
+                    Object value = object.getAttribute(attribute, Object.class);
+                    if (value instanceof DatabaseObject && parallel.get((DatabaseObject) value) != null) {
+                        assertSame(object + "." + attribute, parallel.get((DatabaseObject) value), value);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void createSnapshot_parallelLeavesSnapshotControlUnchanged() throws Exception {
+        CatalogAndSchema[] schemas = new CatalogAndSchema[] {
+                new CatalogAndSchema("PUBLIC", "SCHEMA_A"),
+                new CatalogAndSchema("PUBLIC", "SCHEMA_B")
+        };
+
+        SnapshotControl parallelControl = new SnapshotControl(database, Table.class);
+        parallelControl.setParallelDatabases(Arrays.asList(parallelDatabase));
+        Set<Class<? extends DatabaseObject>> types = new HashSet<Class<? extends DatabaseObject>>(parallelControl.getTypesToInclude());
+
+        DatabaseSnapshot parallel = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, parallelControl);
+
+        assertEquals(types, parallelControl.getTypesToInclude());
+        assertTrue(parallel.getSnapshotControl().shouldInclude(Schema.class));
+    }
+
+    private Set<String> tableNames(DatabaseSnapshot snapshot) {
+        Set<String> names = new HashSet<String>();
+        for (Table table : snapshot.get(Table.class)) {
+            names.add(table.getName());
+        }
+        return names;
+    }
+
+    private Database openDatabase() throws Exception {
+        HsqlDatabase database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(DriverManager.getConnection(URL, "SA", "")));
+        return database;
+    }
+}
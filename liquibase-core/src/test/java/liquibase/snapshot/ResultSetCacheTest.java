@@ -1,17 +1,180 @@
 package liquibase.snapshot;
 
+import liquibase.database.core.MockDatabase;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class ResultSetCacheTest {
 
+    @Test
+    public void lazyPolicy_bulkFetchesAfterThreshold() throws Exception {
+        ResultSetCache cache = new ResultSetCache(new LazyPrefetchPolicy(), new DatabaseObject[] {new Table()});
+        CountingExtractor[] extractors = lookupTables(cache, 10);
+
+        assertEquals(3, cache.getSingleQueryCount());
+        assertEquals(1, cache.getBulkQueryCount());
+        assertEquals(6, cache.getRoundTripsSaved());
+        assertEquals(1, extractors[3].bulkFetches);
+        assertEquals(1, cache.get(new CountingExtractor("table5")).size());
+    }
+
+    @Test
+    public void eagerPolicy_bulkFetchesFirst() throws Exception {
+        ResultSetCache cache = new ResultSetCache(new EagerPrefetchPolicy(), new DatabaseObject[] {new Table()});
+        lookupTables(cache, 10);
+
+        assertEquals(0, cache.getSingleQueryCount());
+        assertEquals(1, cache.getBulkQueryCount());
+        assertEquals(9, cache.getRoundTripsSaved());
+    }
+
+    @Test
+    public void adaptivePolicy() throws Exception {
+        ResultSetCache cache = new ResultSetCache(new AdaptivePrefetchPolicy(), new DatabaseObject[] {new Schema("cat", "schem")});
+        lookupTables(cache, 10);
+        assertEquals(0, cache.getSingleQueryCount());
+        assertEquals(1, cache.getBulkQueryCount());
+
+        cache = new ResultSetCache(new AdaptivePrefetchPolicy(), new DatabaseObject[] {new Table()});
+        lookupTables(cache, 2);
+        assertEquals(2, cache.getSingleQueryCount());
+        assertEquals(0, cache.getBulkQueryCount());
+    }
+
+    @Test
+    public void bulkFetchIsPerSchema() throws Exception {
+        ResultSetCache cache = new ResultSetCache(new EagerPrefetchPolicy(), new DatabaseObject[0]);
+        cache.get(new CountingExtractor("table1"));
+        assertEquals(1, cache.get(new CountingExtractor("other", "table1")).size());
+
+        assertEquals(2, cache.getBulkQueryCount());
+    }
+
+    @Test
+    public void differentSchemasFetchConcurrently() throws Exception {
+        final ResultSetCache cache = new ResultSetCache(new EagerPrefetchPolicy(), new DatabaseObject[0]);
+        CountDownLatch bothFetching = new CountDownLatch(2);
+        final BlockingExtractor first = new BlockingExtractor("schema_a", bothFetching);
+        BlockingExtractor second = new BlockingExtractor("schema_b", bothFetching);
+
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    cache.get(first);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        assertEquals(1, cache.get(second).size());
+        thread.join();
+
+        assertTrue(first.sawOtherFetch);
+        assertTrue(second.sawOtherFetch);
+        assertEquals(2, cache.getBulkQueryCount());
+    }
+
+    private CountingExtractor[] lookupTables(ResultSetCache cache, int count) throws Exception {
+        CountingExtractor[] extractors = new CountingExtractor[count];
+        for (int i = 0; i < count; i++) {
+            extractors[i] = new CountingExtractor("table" + i);
+            assertEquals(1, cache.get(extractors[i]).size());
+        }
+        return extractors;
+    }
+
+    /**
+     * Waits in its bulk fetch until another extractor is also fetching.
+     */
+    private static class BlockingExtractor extends CountingExtractor {
+        private final CountDownLatch bothFetching;
+        private volatile boolean sawOtherFetch = false;
+
+        private BlockingExtractor(String schemaName, CountDownLatch bothFetching) {
+            super(schemaName, "table1");
+            this.bothFetching = bothFetching;
+        }
+
+        @Override
+        public List<CachedRow> bulkFetchQuery() {
+            bothFetching.countDown();
+            try {
+                sawOtherFetch = bothFetching.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.bulkFetchQuery();
+        }
+    }
+
+    private static class CountingExtractor extends ResultSetCache.SingleResultSetExtractor {
+        private final String schemaName;
+        private final String tableName;
+        private int bulkFetches = 0;
+
+        private CountingExtractor(String tableName) {
+            this("schem", tableName);
+        }
+
+        private CountingExtractor(String schemaName, String tableName) {
+            super(new MockDatabase());
+            this.schemaName = schemaName;
+            this.tableName = tableName;
+        }
+
+        @Override
+        public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+            return new ResultSetCache.RowData("cat", (String) row.get("TABLE_SCHEM"), new MockDatabase(), (String) row.get("TABLE_NAME"));
+        }
+
+        @Override
+        public ResultSetCache.RowData wantedKeyParameters() {
+            return new ResultSetCache.RowData("cat", schemaName, new MockDatabase(), tableName);
+        }
+
+        @Override
+        public List<CachedRow> fastFetchQuery() {
+            return Collections.singletonList(createRow(tableName));
+        }
+
+        @Override
+        public List<CachedRow> bulkFetchQuery() {
+            bulkFetches++;
+            List<CachedRow> rows = new ArrayList<CachedRow>();
+            for (int i = 0; i < 10; i++) {
+                rows.add(createRow("table" + i));
+            }
+            return rows;
+        }
+
+        private CachedRow createRow(String name) {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put("TABLE_SCHEM", schemaName);
+            row.put("TABLE_NAME", name);
+            return new CachedRow(row);
+        }
+    }
+
 //    @Test
 //    public void permutations() {
 //        assertEquals(4, new ResultSetCache().permutations(new String[]{"a", "b"}).length);
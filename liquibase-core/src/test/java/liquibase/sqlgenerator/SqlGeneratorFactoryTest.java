@@ -15,7 +15,10 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.SortedSet;
 
 public class SqlGeneratorFactoryTest {
@@ -125,6 +128,44 @@ public class SqlGeneratorFactoryTest {
         assertEquals(1, allGenerators.size());        
     }
 
+    @Test
+    public void getGenerators_concurrentLookups() throws Exception {
+        final SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        final List<SortedSet<SqlGenerator>> results = Collections.synchronizedList(new ArrayList<SortedSet<SqlGenerator>>());
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    results.add(factory.getGenerators(new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null), new H2Database()));
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8, results.size());
+        for (SortedSet<SqlGenerator> result : results) {
+            assertEquals(1, result.size());
+        }
+    }
+
+    @Test
+    public void register_clearsCachedLookups() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        AddAutoIncrementStatement statement = new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null);
+        assertEquals(1, factory.getGenerators(statement, new H2Database()).size());
+
+        addGenerator(AddAutoIncrementStatement.class, H2Database.class, 10);
+
+        assertEquals(2, factory.getGenerators(statement, new H2Database()).size());
+    }
+
     private SqlGenerator addGenerator(final Class<? extends SqlStatement> sqlStatementClass, final Class<? extends Database> sqlDatabaseClass, final int level) {
     	
         SqlGenerator generator = new SqlGenerator() {
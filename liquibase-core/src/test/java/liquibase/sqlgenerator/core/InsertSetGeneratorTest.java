@@ -0,0 +1,126 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InsertSetGeneratorTest {
+
+    @Test
+    public void generateSql_multiRow() {
+        InsertSetStatement statement = createStatement(3, null);
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new PostgresDatabase(), null);
+
+        assertEquals(1, sql.length);
+        assertEquals("INSERT INTO mytable (id, name) VALUES (1, 'name1'),\n(2, 'name2'),\n(3, 'name3')", sql[0].toSql());
+    }
+
+    @Test
+    public void generateSql_batchThreshold() {
+        InsertSetStatement statement = createStatement(5, 2);
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new PostgresDatabase(), null);
+
+        assertEquals(3, sql.length);
+        assertEquals("INSERT INTO mytable (id, name) VALUES (1, 'name1'),\n(2, 'name2')", sql[0].toSql());
+        assertEquals("INSERT INTO mytable (id, name) VALUES (5, 'name5')", sql[2].toSql());
+    }
+
+    @Test
+    public void generateSql_mssqlRowLimit() {
+        InsertSetStatement statement = createStatement(2500, null);
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new MSSQLDatabase(), null);
+
+        assertEquals(3, sql.length);
+    }
+
+    @Test
+    public void generateSql_notSupported() {
+        InsertSetStatement statement = createStatement(3, null);
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new OracleDatabase(), null);
+
+        assertEquals(3, sql.length);
+        assertEquals("INSERT INTO mytable (id, name) VALUES (1, 'name1')", sql[0].toSql());
+    }
+
+    @Test
+    public void generateSql_usesRegisteredInsertGenerators() {
+        SqlGeneratorFactory.getInstance().register(new UpsertGenerator("INSERT INTO mytable (id, name) VALUES "));
+        try {
+            Sql[] sql = new InsertSetGenerator().generateSql(createStatement(2, null), new PostgresDatabase(), null);
+
+            assertEquals(1, sql.length);
+            assertEquals("INSERT INTO mytable (id, name) VALUES (1, 'name1') ON CONFLICT DO NOTHING,\n(2, 'name2') ON CONFLICT DO NOTHING", sql[0].toSql());
+        } finally {
+            SqlGeneratorFactory.getInstance().unregister(UpsertGenerator.class);
+        }
+    }
+
+    @Test
+    public void generateSql_notMergedWhenRegisteredGeneratorChangesHeader() {
+        SqlGeneratorFactory.getInstance().register(new UpsertGenerator("INSERT IGNORE INTO mytable (id, name) VALUES "));
+        try {
+            Sql[] sql = new InsertSetGenerator().generateSql(createStatement(2, null), new PostgresDatabase(), null);
+
+            assertEquals(2, sql.length);
+            assertEquals("INSERT IGNORE INTO mytable (id, name) VALUES (1, 'name1') ON CONFLICT DO NOTHING", sql[0].toSql());
+        } finally {
+            SqlGeneratorFactory.getInstance().unregister(UpsertGenerator.class);
+        }
+    }
+
+    @Test
+    public void canAdd() {
+        InsertSetStatement statement = createStatement(1, null);
+
+        assertTrue(statement.canAdd(new InsertStatement(null, null, "mytable").addColumnValue("id", 2).addColumnValue("name", "x")));
+        assertFalse(statement.canAdd(new InsertStatement(null, null, "mytable").addColumnValue("name", "x").addColumnValue("id", 2)));
+        assertFalse(statement.canAdd(new InsertStatement(null, null, "othertable").addColumnValue("id", 2).addColumnValue("name", "x")));
+    }
+
+    private InsertSetStatement createStatement(int rows, Integer batchThreshold) {
+        InsertSetStatement statement = new InsertSetStatement(null, null, "mytable", batchThreshold);
+        for (int i = 1; i <= rows; i++) {
+            statement.addInsertStatement(new InsertStatement(null, null, "mytable").addColumnValue("id", i).addColumnValue("name", "name" + i));
+        }
+        return statement;
+    }
+
+    /**
+     * Replaces the header of the standard insert and adds a trailing clause, the way an extension generator might.
+     */
+    private static class UpsertGenerator extends InsertGenerator {
+        private final String header;
+
+        private UpsertGenerator(String header) {
+            this.header = header;
+        }
+
+        @Override
+        public int getPriority() {
+            return PRIORITY_DATABASE;
+        }
+
+        @Override
+        public Sql[] generateSql(InsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+            StringBuffer sql = new StringBuffer(header);
+            generateValues(sql, statement, database);
+            return new Sql[] {
+                    new UnparsedSql(sql.toString() + " ON CONFLICT DO NOTHING")
+            };
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package liquibase.statement;
+
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class LoadDataExecutablePreparedStatementTest {
+
+    private Connection connection;
+    private HsqlDatabase database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbc.JDBCDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:loaddatatest", "SA", "");
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE USERS (NAME VARCHAR(50), USERNAME VARCHAR(50))");
+        statement.close();
+
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.execute("DROP TABLE USERS");
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void execute_generatedSql() throws Exception {
+        LoadDataChange change = createChange();
+
+        new LoadDataExecutablePreparedStatement(database, change).execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()));
+
+        assertLoaded();
+    }
+
+    @Test
+    public void execute_boundValues() throws Exception {
+        LoadDataChange change = createChange();
+        for (String header : new String[] {"name", "username"}) {
+            LoadDataColumnConfig config = new LoadDataColumnConfig();
+            config.setHeader(header);
+            config.setType("STRING");
+            change.addColumn(config);
+        }
+        assertTrue(change.canBindValues(new String[] {"name", "username"}));
+
+        new LoadDataExecutablePreparedStatement(database, change).execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()));
+
+        assertLoaded();
+    }
+
+    @Test
+    public void execute_boundNull() throws Exception {
+        LoadDataChange change = createChange();
+        change.setFile("liquibase/change/core/sample.nulls.csv");
+        for (String header : new String[] {"name", "username"}) {
+            LoadDataColumnConfig config = new LoadDataColumnConfig();
+            config.setHeader(header);
+            config.setType("STRING");
+            change.addColumn(config);
+        }
+
+        new LoadDataExecutablePreparedStatement(database, change).execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()));
+
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT NAME, USERNAME FROM USERS");
+        assertTrue(resultSet.next());
+        assertNull(resultSet.getString(1));
+        assertEquals("bjohnson", resultSet.getString(2));
+        resultSet.close();
+        statement.close();
+    }
+
+    private LoadDataChange createChange() {
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("USERS");
+        change.setFile("liquibase/change/core/sample.data1.csv");
+        change.setBatchSize(1);
+        change.setCommitInterval(1);
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        return change;
+    }
+
+    private void assertLoaded() throws Exception {
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT NAME, USERNAME FROM USERS ORDER BY USERNAME");
+        assertTrue(resultSet.next());
+        assertEquals("Bob Johnson", resultSet.getString(1));
+        assertEquals("bjohnson", resultSet.getString(2));
+        assertTrue(resultSet.next());
+        assertEquals("John Doe", resultSet.getString(1));
+        assertEquals("jdoe", resultSet.getString(2));
+        assertFalse(resultSet.next());
+        resultSet.close();
+        statement.close();
+    }
+}
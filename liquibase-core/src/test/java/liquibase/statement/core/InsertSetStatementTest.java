@@ -0,0 +1,12 @@
+package liquibase.statement.core;
+
+import liquibase.statement.SqlStatement;
+
+public class InsertSetStatementTest extends AbstractSqStatementTest {
+
+    @Override
+    protected SqlStatement createStatementUnderTest() {
+        return new InsertSetStatement(null, null, null);
+    }
+
+}
@@ -0,0 +1,58 @@
+package liquibase.util;
+
+import liquibase.change.core.CreateTableChange;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BeanPropertiesTest {
+
+    @Test
+    public void forClass_isCached() {
+        assertSame(BeanProperties.forClass(CreateTableChange.class), BeanProperties.forClass(CreateTableChange.class));
+    }
+
+    @Test
+    public void getProperty_readsAndWrites() throws Exception {
+        CreateTableChange change = new CreateTableChange();
+        BeanProperties.Property property = BeanProperties.forClass(CreateTableChange.class).getProperty("tableName");
+        assertNotNull(property);
+
+        property.setValue(change, "person");
+        assertEquals("person", change.getTableName());
+        assertEquals("person", property.getValue(change));
+    }
+
+    @Test
+    public void getProperty_booleanWrapperUsesIsGetter() throws Exception {
+        BooleanBean bean = new BooleanBean();
+        bean.setActive(Boolean.TRUE);
+        BeanProperties.Property property = BeanProperties.forClass(BooleanBean.class).getProperty("active");
+        assertNotNull(property.getReadMethod());
+        assertEquals(Boolean.TRUE, property.getValue(bean));
+    }
+
+    @Test
+    public void getProperty_unknown() {
+        assertNull(BeanProperties.forClass(CreateTableChange.class).getProperty("noSuchProperty"));
+    }
+
+    @Test
+    public void objectUtil_setAndGetProperty() throws Exception {
+        CreateTableChange change = new CreateTableChange();
+        ObjectUtil.setProperty(change, "tableName", "address");
+        assertEquals("address", ObjectUtil.getProperty(change, "tableName"));
+    }
+
+    public static class BooleanBean {
+        private Boolean active;
+
+        public Boolean isActive() {
+            return active;
+        }
+
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package liquibase.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SqlStatementTokenizerTest {
+
+    private List<String> split(String sql, boolean stripComments, String endDelimiter) throws IOException {
+        return new SqlStatementTokenizer(new StringReader(sql), stripComments, true, endDelimiter).getStatements();
+    }
+
+    @Test
+    public void semicolonAtEndOfLine() throws IOException {
+        assertEquals(Arrays.asList("select 1", "select 2", "select 3"), split("select 1;\nselect 2;   \n\nselect 3;", false, null));
+    }
+
+    @Test
+    public void semicolonInsideQuotes() throws IOException {
+        assertEquals(Arrays.asList("insert into t values ('a;\nb')", "insert into t values (\"c;\n\")"),
+                split("insert into t values ('a;\nb');\ninsert into t values (\"c;\n\");", false, null));
+    }
+
+    @Test
+    public void escapedQuotes() throws IOException {
+        assertEquals(Arrays.asList("insert into t values ('it''s;\n')", "select 2"), split("insert into t values ('it''s;\n');\nselect 2", false, null));
+    }
+
+    @Test
+    public void backslashEscapedQuotes() throws IOException {
+        assertEquals(Arrays.asList("insert into t values ('it\\'s;\n', \"a\\\"b;\")", "select 2"),
+                new SqlStatementTokenizer("insert into t values ('it\\'s;\n', \"a\\\"b;\");\nselect 2", false, true, null, true).getStatements());
+    }
+
+    @Test
+    public void backslashIsLiteralWithoutBackslashEscapes() throws IOException {
+        assertEquals(Arrays.asList("insert into t values ('C:\\')", "select 2"), split("insert into t values ('C:\\');\nselect 2", false, null));
+    }
+
+    @Test
+    public void postgresEscapeStrings() throws IOException {
+        assertEquals(Arrays.asList("insert into t values (E'it\\'s;', e'\\\\')", "select 'C:\\'"),
+                split("insert into t values (E'it\\'s;', e'\\\\');\nselect 'C:\\';", false, null));
+    }
+
+    @Test
+    public void wordEndingInEIsNotEscapeStringPrefix() throws IOException {
+        assertEquals(Arrays.asList("select name'C:\\'", "select 2"), split("select name'C:\\';\nselect 2", false, null));
+    }
+
+    @Test
+    public void oracleAlternativeQuoting() throws IOException {
+        assertEquals(Arrays.asList("insert into t values (q'[it's; here]', Q'{a';\n}', nq'!x'!')", "select 2"),
+                split("insert into t values (q'[it's; here]', Q'{a';\n}', nq'!x'!');\nselect 2;", false, null));
+    }
+
+    @Test
+    public void hashComments() throws IOException {
+        assertEquals(Arrays.asList("# don't split here;\nselect 1", "select 2 # it's the last one"),
+                new SqlStatementTokenizer("# don't split here;\nselect 1;\nselect 2 # it's the last one", false, true, null, true, true).getStatements());
+    }
+
+    @Test
+    public void quotesIgnoredOnLinesStartingWithHash() throws IOException {
+        assertEquals(Arrays.asList("# don't", "select 1", "select '#tmp'"), split("# don't;\nselect 1;\nselect '#tmp';", false, null));
+        assertEquals(Arrays.asList("select * into #tmp from t where a = ';\n'"), split("select * into #tmp from t where a = ';\n';", false, null));
+    }
+
+    @Test
+    public void unclosedQuoteIsOrdinaryCharacter() throws IOException {
+        assertEquals(Arrays.asList("/* it's */ select 1", "-- don't\nselect 2", "select 3 -- can't", "select 4 where x = 'y"),
+                split("/* it's */ select 1;\n-- don't\nselect 2;\nselect 3 -- can't\n;\nselect 4 where x = 'y;", false, null));
+        assertEquals(Arrays.asList("select 1", "select 'a", "select 2"), split("select 1;\nselect 'a;\nselect 2;", false, null));
+    }
+
+    @Test
+    public void commentMarkersInsideQuotesAreKept() throws IOException {
+        assertEquals(Arrays.asList("insert into t values ('--not a comment', '/* nor this */')"),
+                split("insert into t values ('--not a comment', '/* nor this */'); -- a comment", true, null));
+    }
+
+    @Test
+    public void delimitersInsideKeptComments() throws IOException {
+        assertEquals(Arrays.asList("/* a;\nb */ select 1", "-- c;\nselect 2"), split("/* a;\nb */ select 1;\n-- c;\nselect 2;", false, null));
+    }
+
+    @Test
+    public void stripCommentsAfterSemicolon() throws IOException {
+        assertEquals(Arrays.asList("select 1", "select 2"), split("select 1; -- first\nselect 2; /* second */\n", true, null));
+    }
+
+    @Test
+    public void go() throws IOException {
+        assertEquals(Arrays.asList("select 1", "select 'go\ngo'", "select 3"), split("select 1\ngo\nselect 'go\ngo'\nGO  \nselect 3\ngo", false, "go"));
+        assertEquals(Arrays.asList("select gone\ngoat"), split("select gone\ngoat", false, "go"));
+    }
+
+    @Test
+    public void literalDelimiter() throws IOException {
+        assertEquals(Arrays.asList("begin x := 'a/b'; end;", "select 2"), split("begin x := 'a/b'; end;\n/\nselect 2\n/", false, "/"));
+    }
+
+    @Test
+    public void regexDelimiter() throws IOException {
+        assertEquals(Arrays.asList("select 1", "select 2"), split("select 1\n/\nselect 2", false, "\n/\\s*\n|\n/\\s*$"));
+    }
+
+    @Test
+    public void unterminatedCommentIsKept() throws IOException {
+        assertEquals(Arrays.asList("select 1 /* open"), split("select 1 /* open", true, null));
+    }
+
+    @Test
+    public void noSplit() throws IOException {
+        SqlStatementTokenizer tokenizer = new SqlStatementTokenizer(new StringReader(" select 1;\nselect 2; -- c\n"), true, false, null);
+        assertEquals("select 1;\nselect 2;", tokenizer.nextStatement());
+        assertNull(tokenizer.nextStatement());
+    }
+
+    @Test
+    public void largeInputIsReadIncrementally() throws IOException {
+        final int statementCount = 10000;
+        final String statement = "insert into t values ('a;b');\n";
+        StringReaderCountingReads reader = new StringReaderCountingReads(StringUtils.repeat(statement, 10), statementCount / 10);
+
+        SqlStatementTokenizer tokenizer = new SqlStatementTokenizer(reader, false, true, null);
+        assertEquals("insert into t values ('a;b')", tokenizer.nextStatement());
+        assertTrue("Read " + reader.charsRead + " chars for the first statement", reader.charsRead < 10 * statement.length());
+
+        int count = 1;
+        while (tokenizer.nextStatement() != null) {
+            count++;
+        }
+        assertEquals(statementCount, count);
+    }
+
+    /**
+     * Returns the same text a number of times, one char per read.
+     */
+    private static class StringReaderCountingReads extends java.io.Reader {
+        private final String text;
+        private int remaining;
+        private int position;
+        private int charsRead;
+
+        private StringReaderCountingReads(String text, int times) {
+            this.text = text;
+            this.remaining = times;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            charsRead++;
+            if (position == text.length()) {
+                position = 0;
+                remaining--;
+            }
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}